@@ -16,6 +16,9 @@ public class ApiConfig {
     @Value("${usda.api.key}")
     private String usdaApiKey;
 
+    @Value("${usda.api.base-url:https://api.nal.usda.gov/fdc/v1/}")
+    private String usdaBaseUrl;
+
     /**
      * Creates and configures a RestTemplate bean.
      * RestTemplate is used to make HTTP requests in the application.
@@ -50,4 +53,14 @@ public class ApiConfig {
     public String getUsdaApiKey() {
         return usdaApiKey;
     }
+
+    /**
+     * Retrieves the base URL of the USDA FoodData Central API, ending with a slash.
+     * Can be overridden with {@code usda.api.base-url}, e.g. to point at a local stub server.
+     *
+     * @return The USDA API base URL.
+     */
+    public String getUsdaBaseUrl() {
+        return usdaBaseUrl;
+    }
 }
@@ -0,0 +1,34 @@
+package balancebite.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Enables {@code @Async} and {@code @Retryable} and defines the executor for the USDA bulk import.
+ *
+ * Without this class both annotations are silently ignored: async methods run on the calling thread
+ * and failed calls are never retried.
+ */
+@Configuration
+@EnableAsync
+@EnableRetry
+public class AsyncConfig {
+
+    /**
+     * Executor that fetches and saves USDA import chunks. Its size caps the number of concurrent
+     * requests; the request rate itself is limited separately by the import service.
+     */
+    @Bean(name = "usdaImportExecutor")
+    public ThreadPoolTaskExecutor usdaImportExecutor(UsdaImportProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getParallelism());
+        executor.setMaxPoolSize(properties.getParallelism());
+        executor.setThreadNamePrefix("usda-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,20 @@
+package balancebite.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's {@code @Cacheable} / {@code @CacheEvict}; the Caffeine cache manager itself is
+ * configured under {@code spring.cache} in application.yml.
+ *
+ * Entities are cached separately in the Hibernate second-level cache, whose regions are configured
+ * in application.conf. Hit and miss counts of both are published as Micrometer metrics
+ * ({@code cache.gets} and {@code hibernate.second.level.cache.requests}).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** ID, name and gram weight of every food item, used for ingredient pickers. */
+    public static final String FOOD_ITEM_NAMES = "foodItemNames";
+}
@@ -2,6 +2,8 @@ package balancebite.config;
 
 import balancebite.repository.FoodItemRepository;
 import balancebite.repository.MealRepository;
+import balancebite.service.diet.PublicDietPlanCardProjector;
+import balancebite.service.meal.MealPriceService;
 import balancebite.service.user.UserDietPlanService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,10 +15,49 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
+
 @Configuration
 public class DbFixConfig {
     private static final Logger log = LoggerFactory.getLogger(DbFixConfig.class);
 
+    /**
+     * Tables whose entity IDs come from a pooled {@code <table>_seq} sequence (allocation size 50).
+     */
+    static final List<String> SEQUENCE_TABLES = List.of(
+            "food_items", "promoted_food_items", "meals", "meal_ingredients", "meal_images", "saved_meal",
+            "shared_meal_access", "consumed_meal", "diet_plan", "diet_day", "saved_diet_plan",
+            "shared_diet_plan_access", "diet_plan_schedule", "recommended_daily_intake", "nutrients",
+            "users", "pending_clients", "user_weight_history", "sticky_items", "token_blacklist");
+
+    /** Name the migrated {@code food_item_nutrients} table is kept under until a later release drops it. */
+    static final String LEGACY_NUTRIENTS_TABLE = "food_item_nutrients_legacy";
+
+    @Bean
+    @Order(-1)
+    public CommandLineRunner migrateIdColumnsToSequences(JdbcTemplate jdbc) {
+        return args -> {
+            int migrated = 0;
+            for (String table : SEQUENCE_TABLES) {
+                String sequence = table + "_seq";
+                try {
+                    jdbc.execute("CREATE SEQUENCE IF NOT EXISTS public." + sequence + " INCREMENT BY 50");
+                    jdbc.execute("ALTER TABLE public." + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+                    // Alleen vooruit zetten: een herstart mag een lopende reeks nooit terugzetten. Altijd is_called = true,
+                    // ook als MAX(id) gelijk is aan een nog niet uitgegeven last_value (anders komt die id nog een keer)
+                    jdbc.query("SELECT setval('public." + sequence + "', GREATEST((SELECT MAX(id) FROM public." + table + "), s.last_value), true) "
+                            + "FROM public." + sequence + " s", rs -> {});
+                    // JDBC-inserts zonder id (bulkimport, dagkopieën) trekken zelf een waarde uit dezelfde reeks
+                    jdbc.execute("ALTER TABLE public." + table + " ALTER COLUMN id SET DEFAULT nextval('public." + sequence + "')");
+                    migrated++;
+                } catch (Exception e) {
+                    log.warn("migrateIdColumnsToSequences failed for {}: {}", table, e.getMessage());
+                }
+            }
+            log.info("id sequences ensured for {} of {} tables", migrated, SEQUENCE_TABLES.size());
+        };
+    }
+
     @Bean
     public CommandLineRunner fixFoodCategoryCheck(JdbcTemplate jdbc) {
         return args -> {
@@ -180,6 +221,132 @@ public class DbFixConfig {
         };
     }
 
+    @Bean
+    public CommandLineRunner createMealCopyLookupIndexes(JdbcTemplate jdbc) {
+        return args -> {
+            try {
+                // Lookup of a user's copies of template meals: (adjusted_by_user_id, original_meal_id)
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_meals_adjusted_by_original_meal ON public.meals (adjusted_by_user_id, original_meal_id)");
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_meals_original_meal_id ON public.meals (original_meal_id)");
+                log.info("meals copy lookup indexes ensured");
+            } catch (Exception e) {
+                log.warn("createMealCopyLookupIndexes failed: {}", e.getMessage());
+            }
+        };
+    }
+
+    @Bean
+    public CommandLineRunner createMealIngredientFoodItemIndex(JdbcTemplate jdbc) {
+        return args -> {
+            try {
+                // Omgekeerde index voedingsmiddel -> maaltijden, voor gerichte prijsherberekening
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_meal_ingredients_food_item_id ON public.meal_ingredients (food_item_id)");
+                log.info("meal_ingredients food_item_id index ensured");
+            } catch (Exception e) {
+                log.warn("createMealIngredientFoodItemIndex failed: {}", e.getMessage());
+            }
+        };
+    }
+
+    @Bean
+    public CommandLineRunner createMealPriceIndexes(JdbcTemplate jdbc) {
+        return args -> {
+            try {
+                // Filteren en sorteren op prijs (oplopend NULLS LAST, de standaard van een btree-index)
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_meals_price_per_serving ON public.meals (price_per_serving)");
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_meals_price ON public.meals (price)");
+                log.info("meals price indexes ensured");
+            } catch (Exception e) {
+                log.warn("createMealPriceIndexes failed: {}", e.getMessage());
+            }
+        };
+    }
+
+    @Bean
+    @Order(0)
+    public CommandLineRunner backfillDietPlanVersionAndDayIndex(JdbcTemplate jdbc) {
+        return args -> {
+            try {
+                // Moet vóór de runners draaien die diëten opslaan: @Version verwacht een niet-null versie
+                jdbc.execute("ALTER TABLE public.diet_plan ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0");
+                int plans = jdbc.update("UPDATE public.diet_plan SET version = 0 WHERE version IS NULL");
+
+                // Bestaande dagen nummeren in hun huidige volgorde (op id)
+                jdbc.execute("ALTER TABLE public.diet_day ADD COLUMN IF NOT EXISTS day_index INTEGER");
+                int days = jdbc.update("""
+                        UPDATE public.diet_day d SET day_index = n.pos
+                        FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY diet_plan_id ORDER BY id) - 1 AS pos
+                              FROM public.diet_day
+                              WHERE diet_plan_id IN (SELECT diet_plan_id FROM public.diet_day WHERE day_index IS NULL)) n
+                        WHERE d.id = n.id
+                        """);
+                log.info("diet_plan.version and diet_day.day_index backfilled ({} plans, {} days)", plans, days);
+            } catch (Exception e) {
+                log.warn("backfillDietPlanVersionAndDayIndex failed: {}", e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Moves food item nutrients from the row-per-nutrient {@code food_item_nutrients} table to the compact
+     * {@code food_items.nutrient_values} jsonb column (see {@link balancebite.service.fooditem.NutrientDictionary}).
+     * Runs before the nutrient flags are refreshed, which read the new column.
+     *
+     * The old table is renamed to {@value #LEGACY_NUTRIENTS_TABLE} instead of dropped, so a rolled-back deploy can
+     * rename it back; drop it in a later release. If a previous rollback already left a legacy table, the new one
+     * gets a timestamp suffix.
+     */
+    @Bean
+    @Order(0)
+    public CommandLineRunner migrateFoodItemNutrientsToJsonb(JdbcTemplate jdbc, PlatformTransactionManager txManager) {
+        return args -> {
+            jdbc.execute("""
+                    CREATE TABLE IF NOT EXISTS public.nutrient_definitions (
+                        slot SERIAL PRIMARY KEY,
+                        nutrient_name VARCHAR(255),
+                        unit_name VARCHAR(255),
+                        nutrient_id BIGINT
+                    )""");
+            jdbc.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_nutrient_definitions_key ON public.nutrient_definitions "
+                    + "((COALESCE(nutrient_name, '')), (COALESCE(unit_name, '')), (COALESCE(nutrient_id, -1)))");
+            jdbc.execute("ALTER TABLE public.food_items ADD COLUMN IF NOT EXISTS nutrient_values JSONB");
+
+            Boolean legacy = jdbc.queryForObject(
+                    "SELECT to_regclass('public.food_item_nutrients') IS NOT NULL", Boolean.class);
+            if (!Boolean.TRUE.equals(legacy)) {
+                return;
+            }
+            // Alles in één transactie: de oude tabel wordt alleen hernoemd als de kopie volledig is
+            new TransactionTemplate(txManager).executeWithoutResult(status -> {
+                jdbc.update("""
+                        INSERT INTO public.nutrient_definitions (nutrient_name, unit_name, nutrient_id)
+                        SELECT DISTINCT nutrient_name, unit_name, nutrient_id FROM public.food_item_nutrients
+                        ON CONFLICT ((COALESCE(nutrient_name, '')), (COALESCE(unit_name, '')), (COALESCE(nutrient_id, -1))) DO NOTHING
+                        """);
+                int migrated = jdbc.update("""
+                        UPDATE public.food_items f SET nutrient_values = v.pairs
+                        FROM (
+                            SELECT n.food_item_id, jsonb_agg(jsonb_build_array(d.slot, n.value)) AS pairs
+                            FROM public.food_item_nutrients n
+                            JOIN public.nutrient_definitions d
+                              ON COALESCE(d.nutrient_name, '') = COALESCE(n.nutrient_name, '')
+                             AND COALESCE(d.unit_name, '') = COALESCE(n.unit_name, '')
+                             AND COALESCE(d.nutrient_id, -1) = COALESCE(n.nutrient_id, -1)
+                            GROUP BY n.food_item_id
+                        ) v
+                        WHERE f.id = v.food_item_id AND f.nutrient_values IS NULL
+                        """);
+                Boolean legacyTaken = jdbc.queryForObject(
+                        "SELECT to_regclass('public." + LEGACY_NUTRIENTS_TABLE + "') IS NOT NULL", Boolean.class);
+                String legacyName = Boolean.TRUE.equals(legacyTaken)
+                        ? LEGACY_NUTRIENTS_TABLE + "_" + System.currentTimeMillis()
+                        : LEGACY_NUTRIENTS_TABLE;
+                jdbc.execute("ALTER TABLE public.food_item_nutrients RENAME TO " + legacyName);
+                log.info("Migrated nutrients of {} food items to nutrient_values; old table kept as {}", migrated, legacyName);
+            });
+        };
+    }
+
     @Bean
     @Order(1)
     public CommandLineRunner refreshFoodItemNutrientFlags(FoodItemRepository foodItemRepository,
@@ -223,6 +390,70 @@ public class DbFixConfig {
         return args -> userDietPlanService.recalculateAllDietPlanFlags();
     }
 
+    @Bean
+    @Order(4)
+    public CommandLineRunner rebuildPublicDietPlanCards(PublicDietPlanCardProjector publicDietPlanCardProjector) {
+        return args -> {
+            try {
+                // Na de flag-herberekening: de kaarten nemen de flags over
+                publicDietPlanCardProjector.rebuildAll();
+            } catch (Exception e) {
+                log.warn("rebuildPublicDietPlanCards failed: {}", e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Creates the unique FDC ID index used as upsert target by the bulk imports.
+     * Duplicate FDC IDs are merged into the oldest food item first: its meal ingredients are repointed,
+     * a promotion is kept when the oldest item has none, and the other copies are deleted.
+     * If the index still cannot be created, startup fails instead of running the imports without it.
+     */
+    @Bean
+    @Order(5)
+    public CommandLineRunner createFoodItemFdcIdUniqueIndex(JdbcTemplate jdbc, MealPriceService mealPriceService,
+                                                            PlatformTransactionManager txManager) {
+        return args -> new TransactionTemplate(txManager).executeWithoutResult(status -> {
+            // fdc_id 0 = handmatig aangemaakt item, mag vaker voorkomen
+            jdbc.execute("""
+                    CREATE TEMPORARY TABLE fdc_id_duplicates ON COMMIT DROP AS
+                    SELECT id, MIN(id) OVER (PARTITION BY fdc_id) AS keep_id
+                    FROM public.food_items
+                    WHERE fdc_id > 0
+                    """);
+            jdbc.execute("DELETE FROM fdc_id_duplicates WHERE id = keep_id");
+            List<Long> keptIds = jdbc.queryForList("SELECT DISTINCT keep_id FROM fdc_id_duplicates", Long.class);
+            if (!keptIds.isEmpty()) {
+                jdbc.update("""
+                        UPDATE public.meal_ingredients mi SET food_item_id = d.keep_id
+                        FROM fdc_id_duplicates d WHERE mi.food_item_id = d.id
+                        """);
+                // promoted_food_items.food_item_id is uniek: per bewaard item blijft één promotie over
+                jdbc.update("""
+                        DELETE FROM public.promoted_food_items p
+                        USING fdc_id_duplicates d
+                        WHERE p.food_item_id = d.id
+                          AND (EXISTS (SELECT 1 FROM public.promoted_food_items k WHERE k.food_item_id = d.keep_id)
+                               OR EXISTS (SELECT 1 FROM public.promoted_food_items o JOIN fdc_id_duplicates od ON od.id = o.food_item_id
+                                          WHERE od.keep_id = d.keep_id AND o.id < p.id))
+                        """);
+                jdbc.update("""
+                        UPDATE public.promoted_food_items p SET food_item_id = d.keep_id
+                        FROM fdc_id_duplicates d WHERE p.food_item_id = d.id
+                        """);
+                int deleted = jdbc.update("DELETE FROM public.food_items f USING fdc_id_duplicates d WHERE f.id = d.id");
+                int meals = mealPriceService.recomputeForFoodItems(keptIds);
+                log.info("Merged {} duplicate food items into {} (recomputed {} meal prices)", deleted, keptIds.size(), meals);
+            }
+            try {
+                jdbc.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_food_items_fdc_id ON public.food_items (fdc_id) WHERE fdc_id > 0");
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not create unique index on food_items.fdc_id", e);
+            }
+            log.info("food_items fdc_id unique index ensured");
+        });
+    }
+
     @Bean
     public CommandLineRunner deleteMealsById(JdbcTemplate jdbc) {
         return args -> {
@@ -0,0 +1,48 @@
+package balancebite.config;
+
+import balancebite.dto.fooditem.FdcBulkImportResultDTO;
+import balancebite.service.interfaces.fooditem.IFdcBulkImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Imports a FoodData Central bulk file at startup when {@code fdc.import.file} is set, e.g.
+ * {@code --fdc.import.file=/data/FoodData_Central_sr_legacy_food_json_2018-04.zip}.
+ *
+ * Runs after the {@link DbFixConfig} runners, so the fdc_id unique index exists.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "fdc.import.file")
+public class FdcBulkImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FdcBulkImportRunner.class);
+
+    private final IFdcBulkImportService fdcBulkImportService;
+    private final String file;
+
+    public FdcBulkImportRunner(IFdcBulkImportService fdcBulkImportService,
+                               @Value("${fdc.import.file}") String file) {
+        this.fdcBulkImportService = fdcBulkImportService;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            FdcBulkImportResultDTO result = fdcBulkImportService.importFile(Path.of(file));
+            log.info("FoodData Central bulk import of {} done: {}", file, result);
+        } catch (Exception e) {
+            log.error("FoodData Central bulk import of {} failed: {}", file, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package balancebite.config;
+
+import balancebite.model.NutrientInfo;
+import balancebite.service.fooditem.NutrientDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+/**
+ * Stores a food item's nutrients in the compact {@code [slot, value]} jsonb format of {@link NutrientDictionary}.
+ * Instantiated by Hibernate through the Spring bean container, so the dictionary is injected.
+ */
+@Converter
+public class NutrientListConverter implements AttributeConverter<List<NutrientInfo>, String> {
+
+    private final NutrientDictionary nutrientDictionary;
+
+    public NutrientListConverter(NutrientDictionary nutrientDictionary) {
+        this.nutrientDictionary = nutrientDictionary;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(List<NutrientInfo> nutrients) {
+        return nutrientDictionary.encode(nutrients);
+    }
+
+    @Override
+    public List<NutrientInfo> convertToEntityAttribute(String dbData) {
+        return nutrientDictionary.decode(dbData);
+    }
+}
@@ -0,0 +1,58 @@
+package balancebite.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the on-disk USDA response cache, bound from properties with the prefix "usda.cache".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "usda.cache")
+public class UsdaCacheProperties {
+
+    /** Whether USDA responses are cached at all. */
+    private boolean enabled = true;
+
+    /** Directory that holds the cache entries; created on first write. */
+    private String directory = "usda-cache";
+
+    /** Age after which an entry is revalidated with the USDA API. */
+    private Duration ttl = Duration.ofDays(30);
+
+    /** Serve only from the cache and never call the USDA API, e.g. for development without network. */
+    private boolean offline = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+}
@@ -0,0 +1,101 @@
+package balancebite.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the USDA bulk import pipeline, bound from properties with the prefix "usda.import".
+ * The defaults stay within the standard FoodData Central limit of 1000 requests per hour per API key.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "usda.import")
+public class UsdaImportProperties {
+
+    /** FDC IDs per request; the FoodData Central API accepts at most 20. */
+    private int chunkSize = 20;
+
+    /** Number of chunks fetched and saved at the same time. */
+    private int parallelism = 4;
+
+    /** Sustained request rate towards the USDA API. */
+    private double requestsPerSecond = 0.25;
+
+    /** Requests that may be sent at once before the sustained rate applies. */
+    private int burst = 5;
+
+    /** Attempts per chunk, including the first one. */
+    private int maxAttempts = 4;
+
+    /** Delay before the first retry; doubled on every following retry. */
+    private long initialBackoffMs = 2000;
+
+    /** Upper bound for the delay between retries. */
+    private long maxBackoffMs = 60000;
+
+    /** Number of finished jobs kept for status requests. */
+    private int retainedJobs = 20;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getInitialBackoffMs() {
+        return initialBackoffMs;
+    }
+
+    public void setInitialBackoffMs(long initialBackoffMs) {
+        this.initialBackoffMs = initialBackoffMs;
+    }
+
+    public long getMaxBackoffMs() {
+        return maxBackoffMs;
+    }
+
+    public void setMaxBackoffMs(long maxBackoffMs) {
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public int getRetainedJobs() {
+        return retainedJobs;
+    }
+
+    public void setRetainedJobs(int retainedJobs) {
+        this.retainedJobs = retainedJobs;
+    }
+}
@@ -1,5 +1,6 @@
 package balancebite.controller.diet;
 
+import balancebite.dto.diet.DietPlanCardDTO;
 import balancebite.dto.diet.DietPlanDTO;
 import balancebite.dto.diet.DietPlanNameDTO;
 import balancebite.errorHandling.DietPlanNotFoundException;
@@ -104,6 +105,62 @@ public class PublicDietPlanController {
         return ResponseEntity.ok(plans);
     }
 
+    /**
+     * Same filters and sorting as {@link #getAllPublicDiets}, but returns compact plan cards
+     * (plan columns, diets and day count) without loading days or meals. Intended for overview pages.
+     */
+    @GetMapping("/cards")
+    public ResponseEntity<Page<DietPlanCardDTO>> getAllPublicDietCards(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) List<String> requiredDiets,
+            @RequestParam(required = false) List<String> excludedDiets,
+            @RequestParam(required = false) List<String> diets,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            @RequestParam(required = false) Double minProtein,
+            @RequestParam(required = false) Double maxProtein,
+            @RequestParam(required = false) Double minCarbs,
+            @RequestParam(required = false) Double maxCarbs,
+            @RequestParam(required = false) Double minFat,
+            @RequestParam(required = false) Double maxFat,
+            @RequestParam(required = false) Double minCalories,
+            @RequestParam(required = false) Double maxCalories,
+            @RequestParam(required = false) Long createdByUserId,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "true") boolean includeUserCopies,
+            @RequestParam(required = false) Goal goal,
+            @RequestParam(required = false) Boolean flagHighFiber,
+            @RequestParam(required = false) Boolean flagLowSugar,
+            @RequestParam(required = false) Boolean flagLowUnhealthyFats
+    ) {
+        Page<DietPlanCardDTO> cards = publicDietPlanService.getAllPublicDietPlanCards(
+                requiredDiets,
+                excludedDiets,
+                diets,
+                sortBy,
+                sortOrder,
+                PageRequest.of(page, size),
+                minProtein, maxProtein,
+                minCarbs, maxCarbs,
+                minFat, maxFat,
+                minCalories, maxCalories,
+                createdByUserId,
+                name,
+                includeUserCopies,
+                goal,
+                flagHighFiber,
+                flagLowSugar,
+                flagLowUnhealthyFats
+        );
+
+        if (cards.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok(cards);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getPublicDietById(@PathVariable Long id) {
         try {
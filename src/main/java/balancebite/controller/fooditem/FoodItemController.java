@@ -4,11 +4,20 @@ import balancebite.dto.UsdaFoodResponseDTO;
 import balancebite.dto.fooditem.FoodItemDTO;
 import balancebite.dto.fooditem.FoodItemInputDTO;
 import balancebite.dto.fooditem.FoodItemNameDTO;
+import balancebite.dto.fooditem.FoodItemPageDTO;
+import balancebite.dto.fooditem.FoodSubstituteDTO;
+import balancebite.dto.fooditem.PriceListImportResultDTO;
+import balancebite.dto.fooditem.UsdaImportJobDTO;
 import balancebite.errorHandling.EntityAlreadyExistsException;
 import balancebite.errorHandling.EntityNotFoundException;
+import balancebite.errorHandling.ForbiddenActionException;
 import balancebite.model.foodItem.FoodCategory;
 import balancebite.model.foodItem.FoodSource;
 import balancebite.service.fooditem.FoodItemService;
+import balancebite.service.interfaces.fooditem.IPriceListImportService;
+import balancebite.service.interfaces.fooditem.IUsdaImportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,10 +26,14 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for managing FoodItem-related operations.
@@ -31,14 +44,24 @@ public class FoodItemController {
 
     private static final Logger log = LoggerFactory.getLogger(FoodItemController.class);
     private final FoodItemService foodItemService;
+    private final IUsdaImportService usdaImportService;
+    private final IPriceListImportService priceListImportService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructor for dependency injection.
      *
      * @param foodItemService Service for managing FoodItem operations.
+     * @param usdaImportService Service for background USDA imports.
+     * @param priceListImportService Service for supermarket price-list imports.
+     * @param objectMapper Application ObjectMapper, used to stream the full food item list.
      */
-    public FoodItemController(FoodItemService foodItemService) {
+    public FoodItemController(FoodItemService foodItemService, IUsdaImportService usdaImportService,
+                              IPriceListImportService priceListImportService, ObjectMapper objectMapper) {
         this.foodItemService = foodItemService;
+        this.usdaImportService = usdaImportService;
+        this.priceListImportService = priceListImportService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -153,24 +176,72 @@ public class FoodItemController {
 
     /**
      * Endpoint to fetch and save multiple FoodItems by a list of FDC IDs.
-     * Calls the FoodItemService to retrieve and save the food items asynchronously.
+     * Kept for existing clients; starts the same background import as {@code POST /fooditems/import-jobs}.
      *
      * @param fdcIds The list of FDC IDs of the food items to fetch.
-     * @return A CompletableFuture containing a ResponseEntity with the list of saved items.
+     * @return A ResponseEntity with status ACCEPTED (202) and the initial job status, including the job ID.
      */
     @PostMapping("/bulk-fetch-items")
-    public CompletableFuture<ResponseEntity<Map<String, Object>>> fetchAllFoodItems(@RequestBody List<String> fdcIds) {
-        log.info("Fetching multiple food items with FDC IDs: {}", fdcIds);
-        return foodItemService.fetchAndSaveAllFoodItems(fdcIds)
-                .thenApply(result -> {
-                    log.info("Bulk fetch and save completed for food items.");
-                    return ResponseEntity.status(HttpStatus.CREATED).body(result);
-                })
-                .exceptionally(e -> {
-                    log.error("Error during bulk fetch and save: {}", e.getMessage(), e);
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                            .body(Map.of("error", "An unexpected error occurred during bulk fetch."));
-                });
+    public ResponseEntity<?> fetchAllFoodItems(@RequestBody List<String> fdcIds) {
+        log.info("Starting bulk import for {} FDC IDs", fdcIds.size());
+        return startImportJob(fdcIds);
+    }
+
+    /**
+     * Starts a background import of FoodItems by a list of FDC IDs.
+     * Returns immediately; progress can be followed via {@code GET /fooditems/import-jobs/{jobId}}.
+     *
+     * @param fdcIds The list of FDC IDs of the food items to import.
+     * @return A ResponseEntity with status ACCEPTED (202) and the initial job status.
+     */
+    @PostMapping("/import-jobs")
+    public ResponseEntity<?> startImportJob(@RequestBody List<String> fdcIds) {
+        try {
+            UsdaImportJobDTO job = usdaImportService.startImport(fdcIds);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (Exception e) {
+            log.error("Error while starting USDA import job: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Could not start import."));
+        }
+    }
+
+    /**
+     * Endpoint to retrieve the status of a USDA import job.
+     *
+     * @param jobId The ID of the import job.
+     * @return A ResponseEntity with the job status or a NOT_FOUND (404) status if the job is unknown.
+     */
+    @GetMapping("/import-jobs/{jobId}")
+    public ResponseEntity<?> getImportJob(@PathVariable String jobId) {
+        return usdaImportService.getJob(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Import job not found with ID: " + jobId)));
+    }
+
+    /**
+     * Endpoint to import a supermarket price list (CSV or JSON) for the existing food items of one food source.
+     * Rows are matched on FDC ID or name; meal prices are recomputed once afterwards.
+     *
+     * @param source The food source the price list belongs to.
+     * @param file   The price list; JSON for a .json file name or JSON content type, CSV otherwise.
+     * @return A summary of the import, BAD_REQUEST (400) for an unreadable file or FORBIDDEN (403) for another supermarket's source.
+     */
+    @PostMapping(value = "/price-lists", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importPriceList(@RequestParam FoodSource source, @RequestPart("file") MultipartFile file) {
+        IPriceListImportService.Format format = IPriceListImportService.Format.detect(file.getOriginalFilename(), file.getContentType());
+        try (InputStream in = file.getInputStream()) {
+            PriceListImportResultDTO result = priceListImportService.importPriceList(source, format, in);
+            return ResponseEntity.ok(result);
+        } catch (ForbiddenActionException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException | IOException e) {
+            log.warn("Rejected price list for {}: {}", source, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid price list: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Unexpected error during price-list import for {}", source, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "An unexpected error occurred."));
+        }
     }
 
     /**
@@ -195,19 +266,83 @@ public class FoodItemController {
     }
 
     /**
-     * Endpoint to retrieve all FoodItems from the database.
+     * Endpoint to find FoodItems with a similar nutrient profile, to substitute for the given one.
+     *
+     * @param id                The ID of the food item to replace.
+     * @param limit             Number of substitutes (optional, default 10).
+     * @param sameCategory      Only substitutes of the same food category (optional).
+     * @param lowerSaturatedFat Only substitutes with less saturated fat (optional).
+     * @param maxPricePer100g   Only substitutes with a base price per 100 g of at most this (optional).
+     * @return The substitutes nearest first, NOT_FOUND (404) for an unknown item, or SERVICE_UNAVAILABLE (503)
+     *         while the item is not indexed yet.
+     */
+    @GetMapping("/{id}/substitutes")
+    public ResponseEntity<?> getSubstitutes(@PathVariable Long id,
+                                            @RequestParam(defaultValue = "10") int limit,
+                                            @RequestParam(defaultValue = "false") boolean sameCategory,
+                                            @RequestParam(defaultValue = "false") boolean lowerSaturatedFat,
+                                            @RequestParam(required = false) BigDecimal maxPricePer100g) {
+        try {
+            List<FoodSubstituteDTO> substitutes = foodItemService.getSubstitutes(
+                    id, limit, sameCategory, lowerSaturatedFat, maxPricePer100g);
+            return ResponseEntity.ok(substitutes);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Unexpected error while finding substitutes for food item ID: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "An unexpected error occurred."));
+        }
+    }
+
+    /**
+     * Endpoint to retrieve FoodItems from the database.
+     *
+     * With {@code after} and/or {@code size} one page is returned, ordered by ID; pass the returned
+     * {@code nextCursor} as {@code after} to get the next page. Without them all FoodItems are streamed
+     * as one JSON array, written page by page so memory use does not grow with the catalog.
      *
-     * @return A ResponseEntity with a list of all FoodItemDTOs or NO_CONTENT (204) status if none found.
+     * @param after Cursor of the previous page (optional).
+     * @param size  Page size (optional, default 100).
+     * @return A page, a streamed list of all FoodItemDTOs, or NO_CONTENT (204) status if none found.
      */
     @GetMapping
-    public ResponseEntity<?> getAllFoodItems() {
-        log.info("Retrieving all food items from the database.");
-        List<FoodItemDTO> foodItems = foodItemService.getAllFoodItems();
-        if (foodItems.isEmpty()) {
+    public ResponseEntity<?> getAllFoodItems(@RequestParam(required = false) Long after,
+                                             @RequestParam(required = false) Integer size) {
+        if (after != null || size != null) {
+            try {
+                FoodItemPageDTO page = foodItemService.getFoodItemPage(after, size != null ? size : 100);
+                return ResponseEntity.ok(page);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        }
+
+        log.info("Streaming all food items from the database.");
+        if (!foodItemService.hasFoodItems()) {
             log.info("No food items found.");
             return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         }
-        return ResponseEntity.ok(foodItems);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                foodItemService.forEachFoodItemPage(page -> {
+                    try {
+                        for (FoodItemDTO item : page) {
+                            generator.writeObject(item);
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
@@ -5,12 +5,14 @@ import balancebite.dto.meal.MealDTO;
 import balancebite.dto.meal.MealInputDTO;
 import balancebite.dto.NutrientInfoDTO;
 import balancebite.dto.meal.MealNameDTO;
+import balancebite.dto.meal.MealNameSuggestionDTO;
 import balancebite.errorHandling.DuplicateMealException;
 import balancebite.errorHandling.InvalidFoodItemException;
 import balancebite.model.meal.references.Cuisine;
 import balancebite.model.meal.references.Diet;
 import balancebite.model.meal.references.MealType;
 import balancebite.model.user.userenums.Goal;
+import balancebite.service.meal.MealNameIndex;
 import balancebite.service.meal.MealService;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
@@ -52,15 +54,15 @@ public class MealController {
     /**
      * Retrieves paginated and sorted template meals with optional filtering.
      *
-     * Users can filter meals by cuisine, diet, meal type, food items, and macro-nutrients.
-     * Meals can be sorted by name, total calories, protein, fat, or carbs.
+     * Users can filter meals by cuisine, diet, meal type, food items, macro-nutrients and price per serving.
+     * Meals can be sorted by name, total calories, protein, fat, carbs, or price.
      * Results are paginated.
      *
      * @param cuisines     (Optional) Filter for meal cuisines.
      * @param diets        (Optional) Filter for meal diets.
      * @param mealTypes    (Optional) Filter for meal types.
      * @param foodItems    (Optional) Filter by food items (comma-separated).
-     * @param sortBy       (Optional) Sort field: calories, protein, fat, carbs, name, etc.
+     * @param sortBy       (Optional) Sort field: calories, protein, fat, carbs, price, pricePerServing, name, etc.
      * @param sortOrder    (Optional) Sort direction: "asc" or "desc".
      * @param creatorId    (Optional) Filter by creator user ID.
      * @param minCalories  (Optional) Minimum total calories.
@@ -71,6 +73,8 @@ public class MealController {
      * @param maxCarbs     (Optional) Maximum total carbs.
      * @param minFat       (Optional) Minimum total fat.
      * @param maxFat       (Optional) Maximum total fat.
+     * @param minPrice     (Optional) Minimum price per serving.
+     * @param maxPrice     (Optional) Maximum price per serving.
      * @param pageable     Pageable object for pagination and sorting.
      * @return A paginated list of MealDTOs matching the filters.
      */
@@ -91,6 +95,8 @@ public class MealController {
             @RequestParam(required = false) Double maxCarbs,
             @RequestParam(required = false) Double minFat,
             @RequestParam(required = false) Double maxFat,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) String foodSource,
             @RequestParam(required = false, defaultValue = "true") boolean includeUserCopies,
             @RequestParam(required = false) String name,
@@ -115,6 +121,7 @@ public class MealController {
                     minProtein, maxProtein,
                     minCarbs, maxCarbs,
                     minFat, maxFat,
+                    minPrice, maxPrice,
                     foodSource, currentUsername, includeUserCopies, name, goal,
                     flagHighFiber, flagLowSugar, flagLowUnhealthyFats
             );
@@ -235,4 +242,24 @@ public class MealController {
         }
         return ResponseEntity.ok(mealNames);
     }
+
+    /**
+     * Endpoint for meal name autocomplete.
+     * Returns at most {@code limit} template meal names, ranked by prefix match,
+     * word-boundary match and popularity.
+     *
+     * @param query The (partial) meal name typed by the user.
+     * @param limit (Optional) Maximum number of suggestions, default 10, capped at 50.
+     * @return A ResponseEntity containing the ranked suggestions, or 204 if nothing matches.
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<?> getMealNameSuggestions(@RequestParam("query") String query,
+                                                    @RequestParam(defaultValue = "" + MealNameIndex.DEFAULT_LIMIT) int limit) {
+        List<MealNameSuggestionDTO> suggestions = mealService.getMealNameSuggestions(query, limit);
+
+        if (suggestions.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        }
+        return ResponseEntity.ok(suggestions);
+    }
 }
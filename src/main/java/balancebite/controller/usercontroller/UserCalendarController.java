@@ -0,0 +1,120 @@
+package balancebite.controller.usercontroller;
+
+import balancebite.dto.diet.CalendarDayDTO;
+import balancebite.dto.diet.DietPlanScheduleDTO;
+import balancebite.dto.diet.DietPlanScheduleInputDTO;
+import balancebite.errorHandling.DietPlanNotFoundException;
+import balancebite.errorHandling.EntityNotFoundException;
+import balancebite.errorHandling.UserNotFoundException;
+import balancebite.security.JwtService;
+import balancebite.service.interfaces.user.IUserCalendarService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/users/calendar")
+public class UserCalendarController {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCalendarController.class);
+
+    private final IUserCalendarService userCalendarService;
+    private final JwtService jwtService;
+
+    public UserCalendarController(IUserCalendarService userCalendarService, JwtService jwtService) {
+        this.userCalendarService = userCalendarService;
+        this.jwtService = jwtService;
+    }
+
+    /**
+     * Returns the scheduled diet days per date; defaults to the coming week starting today.
+     */
+    @GetMapping
+    public ResponseEntity<?> getCalendar(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long userId = jwtService.extractUserId(authHeader.substring(7));
+            LocalDate start = from != null ? from : LocalDate.now();
+            LocalDate end = to != null ? to : start.plusDays(6);
+            List<CalendarDayDTO> days = userCalendarService.getCalendar(userId, start, end);
+            return ResponseEntity.ok(days);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid calendar range: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching calendar", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to fetch calendar."));
+        }
+    }
+
+    @GetMapping("/today")
+    public ResponseEntity<?> getToday(@RequestHeader("Authorization") String authHeader) {
+        try {
+            Long userId = jwtService.extractUserId(authHeader.substring(7));
+            LocalDate today = LocalDate.now();
+            return ResponseEntity.ok(userCalendarService.getCalendar(userId, today, today).get(0));
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching today's calendar", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to fetch calendar."));
+        }
+    }
+
+    @PostMapping("/schedules")
+    public ResponseEntity<?> schedule(@RequestBody @Valid DietPlanScheduleInputDTO input,
+                                      @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long userId = jwtService.extractUserId(authHeader.substring(7));
+            DietPlanScheduleDTO created = userCalendarService.schedule(userId, input);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (UserNotFoundException | DietPlanNotFoundException e) {
+            log.warn("Not found while scheduling diet plan: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (AccessDeniedException e) {
+            log.warn("Access denied while scheduling diet plan: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid schedule input: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Unexpected error while scheduling diet plan", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Scheduling failed."));
+        }
+    }
+
+    @GetMapping("/schedules")
+    public ResponseEntity<?> getSchedules(@RequestHeader("Authorization") String authHeader) {
+        try {
+            Long userId = jwtService.extractUserId(authHeader.substring(7));
+            return ResponseEntity.ok(userCalendarService.getSchedules(userId));
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching schedules", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to fetch schedules."));
+        }
+    }
+
+    @DeleteMapping("/schedules/{scheduleId}")
+    public ResponseEntity<?> removeSchedule(@PathVariable Long scheduleId,
+                                            @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long userId = jwtService.extractUserId(authHeader.substring(7));
+            userCalendarService.removeSchedule(userId, scheduleId);
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException e) {
+            log.warn("Schedule not found: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Unexpected error while removing schedule", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to remove schedule."));
+        }
+    }
+}
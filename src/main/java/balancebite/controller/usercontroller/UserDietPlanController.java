@@ -1,13 +1,21 @@
 package balancebite.controller.usercontroller;
 
+import balancebite.dto.diet.DietPlanCardDTO;
 import balancebite.dto.diet.DietPlanDTO;
+import balancebite.dto.diet.DietPlanGenerationInputDTO;
+import balancebite.dto.diet.DietPlanGenerationResultDTO;
 import balancebite.dto.diet.DietPlanInputDTO;
+import balancebite.dto.diet.DietPlanPatchInputDTO;
+import balancebite.errorHandling.DailyIntakeNotFoundException;
 import balancebite.errorHandling.DietPlanNotFoundException;
+import balancebite.errorHandling.DietPlanVersionConflictException;
 import balancebite.errorHandling.DuplicateDietPlanException;
+import balancebite.errorHandling.MissingUserInformationException;
 import balancebite.errorHandling.UserNotFoundException;
 import balancebite.model.meal.references.Diet;
 import balancebite.model.user.userenums.Goal;
 import balancebite.security.JwtService;
+import balancebite.service.interfaces.diet.IDietPlanGeneratorService;
 import balancebite.service.interfaces.user.IUserDietPlanService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -16,10 +24,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -30,10 +42,14 @@ public class UserDietPlanController {
     private static final Logger log = LoggerFactory.getLogger(UserDietPlanController.class);
 
     private final IUserDietPlanService userDietPlanService;
+    private final IDietPlanGeneratorService dietPlanGeneratorService;
     private final JwtService jwtService;
 
-    public UserDietPlanController(IUserDietPlanService userDietPlanService, JwtService jwtService) {
+    public UserDietPlanController(IUserDietPlanService userDietPlanService,
+                                  IDietPlanGeneratorService dietPlanGeneratorService,
+                                  JwtService jwtService) {
         this.userDietPlanService = userDietPlanService;
+        this.dietPlanGeneratorService = dietPlanGeneratorService;
         this.jwtService = jwtService;
     }
 
@@ -56,6 +72,28 @@ public class UserDietPlanController {
         }
     }
 
+    /**
+     * Generates and saves a diet plan that matches the user's recommended daily macros,
+     * optionally within a weekly budget.
+     */
+    @PostMapping("/diet-plans/generate")
+    public ResponseEntity<?> generateDietPlan(@RequestBody @Valid DietPlanGenerationInputDTO input,
+                                              @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long userId = jwtService.extractUserId(authHeader.substring(7));
+            DietPlanGenerationResultDTO created = dietPlanGeneratorService.generateDietPlan(userId, input);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (UserNotFoundException | DailyIntakeNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (MissingUserInformationException | IllegalArgumentException e) {
+            log.warn("Diet plan generation not possible: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Unexpected error during diet plan generation", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Generation failed."));
+        }
+    }
+
     @PatchMapping("add-diet-plan/{dietPlanId}")
     public ResponseEntity<?> addDietPlanToUser(@PathVariable Long dietPlanId,
                                                @RequestHeader("Authorization") String authHeader) {
@@ -171,6 +209,33 @@ public class UserDietPlanController {
         }
     }
 
+    /**
+     * Applies an ordered list of day edits (add/remove/move meal, move day, set label) to a diet plan.
+     * The patch must carry the plan version it is based on; a stale version results in 409 Conflict.
+     */
+    @PatchMapping("/diet-plans/{dietPlanId}/days")
+    public ResponseEntity<?> patchDietDays(@PathVariable Long dietPlanId,
+                                           @Valid @RequestBody DietPlanPatchInputDTO patch,
+                                           @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long userId = jwtService.extractUserId(authHeader.substring(7));
+            DietPlanDTO updated = userDietPlanService.patchDietDays(userId, dietPlanId, patch);
+            return ResponseEntity.ok(updated);
+        } catch (DietPlanVersionConflictException | ObjectOptimisticLockingFailureException e) {
+            log.warn("Diet plan patch conflict for ID {}: {}", dietPlanId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Diet plan was modified by another request. Reload and try again."));
+        } catch (DietPlanNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to patch diet plan days", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to update diet plan"));
+        }
+    }
+
     @GetMapping("/diet-plans/{dietPlanId}")
     public ResponseEntity<?> getDietPlanById(@PathVariable Long dietPlanId,
                                              @RequestHeader("Authorization") String authHeader) {
@@ -207,6 +272,33 @@ public class UserDietPlanController {
         }
     }
 
+    /**
+     * Combined shopping list for several diet plans, optionally limited to diet days
+     * scheduled between {@code from} and {@code to} (inclusive). Leftovers are carried over
+     * between days and packs are bought ahead when an active promotion makes that cheaper.
+     */
+    @GetMapping("/diet-plans/shopping-cart")
+    public ResponseEntity<?> getCombinedShoppingCart(@RequestParam List<Long> dietPlanIds,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                     @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long userId = jwtService.extractUserId(authHeader.substring(7));
+            List<Map<String, Object>> shoppingList = userDietPlanService.getShoppingListForDietPlans(dietPlanIds, from, to, userId);
+            return ResponseEntity.ok(shoppingList);
+        } catch (DietPlanNotFoundException e) {
+            log.warn("Diet plan not found: {}", e.getMessage());
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (AccessDeniedException | SecurityException e) {
+            return ResponseEntity.status(403).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to fetch combined shopping cart", e);
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to retrieve shopping cart"));
+        }
+    }
+
     @GetMapping("/diet-plans")
     public ResponseEntity<Page<DietPlanDTO>> getFilteredDietPlans(
             @RequestHeader("Authorization") String authHeader,
@@ -279,6 +371,58 @@ public class UserDietPlanController {
         }
     }
 
+    /**
+     * Card variant of {@link #getFilteredDietPlans}: same filters, compact plan cards without days or meals.
+     */
+    @GetMapping("/diet-plans/cards")
+    public ResponseEntity<Page<DietPlanCardDTO>> getFilteredDietPlanCards(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "all") String mode,
+            @RequestParam(required = false) List<String> requiredDiets,
+            @RequestParam(required = false) List<String> excludedDiets,
+            @RequestParam(required = false) Diet dietFilter,
+            @RequestParam(required = false) Goal goal,
+            @RequestParam(required = false) Double minCalories,
+            @RequestParam(required = false) Double maxCalories,
+            @RequestParam(required = false) Double minProtein,
+            @RequestParam(required = false) Double maxProtein,
+            @RequestParam(required = false) Double minCarbs,
+            @RequestParam(required = false) Double maxCarbs,
+            @RequestParam(required = false) Double minFat,
+            @RequestParam(required = false) Double maxFat,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortOrder
+    ) {
+        try {
+            Long userId = jwtService.extractUserId(authHeader.substring(7));
+
+            Page<DietPlanCardDTO> cards = userDietPlanService.getFilteredDietPlanCards(
+                    requiredDiets,
+                    excludedDiets,
+                    userId, mode, dietFilter, goal,
+                    minCalories, maxCalories,
+                    minProtein, maxProtein,
+                    minCarbs, maxCarbs,
+                    minFat, maxFat,
+                    sortBy,
+                    sortOrder,
+                    PageRequest.of(page, size)
+            );
+
+            if (cards.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+
+            return ResponseEntity.ok(cards);
+
+        } catch (Exception e) {
+            log.error("Error retrieving diet plan cards", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Page.empty());
+        }
+    }
+
     @DeleteMapping("/diet-plans/{dietPlanId}/days/{dayIndex}")
     public ResponseEntity<?> removeDietDay(@PathVariable Long dietPlanId,
                                            @PathVariable int dayIndex,
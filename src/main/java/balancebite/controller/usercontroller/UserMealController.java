@@ -264,6 +264,8 @@ public class UserMealController {
             @RequestParam(required = false) Double maxCarbs,
             @RequestParam(required = false) Double minFat,
             @RequestParam(required = false) Double maxFat,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) String foodSource,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) Goal goal,
@@ -298,6 +300,8 @@ public class UserMealController {
                 maxCarbs,
                 minFat,
                 maxFat,
+                minPrice,
+                maxPrice,
                 foodSource,
                 name,
                 goal,
@@ -330,6 +334,8 @@ public class UserMealController {
             @RequestParam(required = false) Double maxCarbs,
             @RequestParam(required = false) Double minFat,
             @RequestParam(required = false) Double maxFat,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
             Pageable pageable
     ) {
         try {
@@ -342,7 +348,8 @@ public class UserMealController {
             // Fetch meals with filtering, sorting, and pagination
             Page<MealDTO> mealDTOs = userMealService.getMealsCreatedByUser(
                     userId, cuisines, diets, mealTypes, foodItems, sortBy, sortOrder, pageable,
-                    foodSource, minCalories, maxCalories, minProtein, maxProtein, minCarbs, maxCarbs, minFat, maxFat
+                    foodSource, minCalories, maxCalories, minProtein, maxProtein, minCarbs, maxCarbs, minFat, maxFat,
+                    minPrice, maxPrice
             );
 
             if (mealDTOs.isEmpty()) {
@@ -3,6 +3,7 @@ package balancebite.database.maintenance;
 import balancebite.model.diet.DietPlan;
 import balancebite.repository.DietPlanRepository;
 import balancebite.repository.SavedDietPlanRepository;
+import balancebite.service.diet.PublicDietPlanCardProjector;
 import jakarta.transaction.Transactional;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -15,11 +16,14 @@ public class DietPlanStatsScheduler {
 
     private final DietPlanRepository dietPlanRepository;
     private final SavedDietPlanRepository savedDietPlanRepository;
+    private final PublicDietPlanCardProjector publicDietPlanCardProjector;
 
     public DietPlanStatsScheduler(DietPlanRepository dietPlanRepository,
-                                  SavedDietPlanRepository savedDietPlanRepository) {
+                                  SavedDietPlanRepository savedDietPlanRepository,
+                                  PublicDietPlanCardProjector publicDietPlanCardProjector) {
         this.dietPlanRepository = dietPlanRepository;
         this.savedDietPlanRepository = savedDietPlanRepository;
+        this.publicDietPlanCardProjector = publicDietPlanCardProjector;
     }
 
     @Scheduled(cron = "0 0 3 * * *")
@@ -34,11 +38,16 @@ public class DietPlanStatsScheduler {
             long weekly = savedDietPlanRepository.countByDietPlanAndTimestampAfter(plan, oneWeekAgo);
             long monthly = savedDietPlanRepository.countByDietPlanAndTimestampAfter(plan, oneMonthAgo);
 
-            plan.setSaveCount(total);
-            plan.setWeeklySaveCount(weekly);
-            plan.setMonthlySaveCount(monthly);
+            // Bulk update: telt niet als wijziging van het plan, dus geen versieconflict met de eigenaar
+            dietPlanRepository.updateSaveCounts(plan.getId(), total, weekly, monthly);
         }
+    }
 
-        dietPlanRepository.saveAll(plans);
+    /**
+     * Full rebuild of the public plan cards, for changes the entity listener does not see (e.g. renamed users).
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void rebuildPublicDietPlanCards() {
+        publicDietPlanCardProjector.rebuildAll();
     }
 }
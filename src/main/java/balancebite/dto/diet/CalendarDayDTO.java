@@ -0,0 +1,12 @@
+package balancebite.dto.diet;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Everything scheduled on one date; entries is empty when nothing is scheduled.
+ */
+public record CalendarDayDTO(
+        LocalDate date,
+        List<CalendarEntryDTO> entries
+) {}
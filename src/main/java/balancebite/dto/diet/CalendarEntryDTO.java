@@ -0,0 +1,19 @@
+package balancebite.dto.diet;
+
+import java.util.List;
+
+/**
+ * One scheduled diet day on a calendar date, with its meals and day totals.
+ */
+public record CalendarEntryDTO(
+        Long scheduleId,
+        Long dietPlanId,
+        String dietPlanName,
+        Long dietDayId,
+        String dayLabel,
+        Double totalCalories,
+        Double totalProtein,
+        Double totalCarbs,
+        Double totalFat,
+        List<CalendarMealDTO> meals
+) {}
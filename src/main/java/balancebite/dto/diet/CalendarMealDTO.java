@@ -0,0 +1,13 @@
+package balancebite.dto.diet;
+
+/**
+ * Compact meal entry of a calendar day.
+ */
+public record CalendarMealDTO(
+        Long mealId,
+        String name,
+        Double totalCalories,
+        Double totalProtein,
+        Double totalCarbs,
+        Double totalFat
+) {}
@@ -0,0 +1,85 @@
+package balancebite.dto.diet;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * A single edit of a diet plan, applied in order as part of a {@link DietPlanPatchInputDTO}.
+ * Day indices are 0-based and refer to the state of the plan after the preceding operations.
+ *
+ * <ul>
+ *     <li>{@code ADD_MEAL}: adds {@code mealId} to {@code dayIndex}; no-op if the day already has it</li>
+ *     <li>{@code REMOVE_MEAL}: removes {@code mealId} from {@code dayIndex}</li>
+ *     <li>{@code MOVE_MEAL}: moves {@code mealId} from {@code dayIndex} to {@code toDayIndex}; rejected if the target
+ *     day already has it</li>
+ *     <li>{@code MOVE_DAY}: moves the day at {@code dayIndex} to position {@code toDayIndex}</li>
+ *     <li>{@code SET_LABEL}: sets the label of {@code dayIndex} to {@code dayLabel}</li>
+ * </ul>
+ */
+public class DietDayPatchOperationDTO {
+
+    public enum Op { ADD_MEAL, REMOVE_MEAL, MOVE_MEAL, MOVE_DAY, SET_LABEL }
+
+    @NotNull(message = "Operation type must be provided.")
+    private Op op;
+
+    @NotNull(message = "Day index must be provided.")
+    private Integer dayIndex;
+
+    private Integer toDayIndex;
+
+    private Long mealId;
+
+    @Size(max = 50, message = "Day label must not exceed 50 characters.")
+    private String dayLabel;
+
+    public DietDayPatchOperationDTO() {}
+
+    public DietDayPatchOperationDTO(Op op, Integer dayIndex, Integer toDayIndex, Long mealId, String dayLabel) {
+        this.op = op;
+        this.dayIndex = dayIndex;
+        this.toDayIndex = toDayIndex;
+        this.mealId = mealId;
+        this.dayLabel = dayLabel;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    public void setOp(Op op) {
+        this.op = op;
+    }
+
+    public Integer getDayIndex() {
+        return dayIndex;
+    }
+
+    public void setDayIndex(Integer dayIndex) {
+        this.dayIndex = dayIndex;
+    }
+
+    public Integer getToDayIndex() {
+        return toDayIndex;
+    }
+
+    public void setToDayIndex(Integer toDayIndex) {
+        this.toDayIndex = toDayIndex;
+    }
+
+    public Long getMealId() {
+        return mealId;
+    }
+
+    public void setMealId(Long mealId) {
+        this.mealId = mealId;
+    }
+
+    public String getDayLabel() {
+        return dayLabel;
+    }
+
+    public void setDayLabel(String dayLabel) {
+        this.dayLabel = dayLabel;
+    }
+}
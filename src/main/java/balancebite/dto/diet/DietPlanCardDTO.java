@@ -0,0 +1,34 @@
+package balancebite.dto.diet;
+
+import balancebite.model.meal.references.Diet;
+import balancebite.model.user.userenums.Goal;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Compact view of a diet plan for listings: plan columns, diets and day count only,
+ * without days, meals or ingredients.
+ */
+public record DietPlanCardDTO(Long id,
+                              String name,
+                              Long originalDietId,
+                              boolean isTemplate,
+                              boolean isPrivate,
+                              boolean isRestricted,
+                              LocalDateTime createdAt,
+                              Long createdByUserId,
+                              String createdByUserName,
+                              int dayCount,
+                              Set<Diet> diets,
+                              Goal goal,
+                              Double avgCalories,
+                              Double avgProtein,
+                              Double avgCarbs,
+                              Double avgFat,
+                              long saveCount,
+                              long weeklySaveCount,
+                              long monthlySaveCount,
+                              Boolean flagHighFiber,
+                              Boolean flagLowSugar,
+                              Boolean flagLowUnhealthyFats) {}
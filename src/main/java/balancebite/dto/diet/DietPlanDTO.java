@@ -49,6 +49,7 @@ public class DietPlanDTO {
     private final Boolean flagHighFiber;
     private final Boolean flagLowSugar;
     private final Boolean flagLowUnhealthyFats;
+    private final Long version;
 
     public DietPlanDTO(Long id,
                        String name,
@@ -87,7 +88,8 @@ public class DietPlanDTO {
                        long monthlySaveCount,
                        Boolean flagHighFiber,
                        Boolean flagLowSugar,
-                       Boolean flagLowUnhealthyFats) {
+                       Boolean flagLowUnhealthyFats,
+                       Long version) {
         this.id = id;
         this.name = name;
         this.originalDietId = originalDietId;
@@ -126,6 +128,7 @@ public class DietPlanDTO {
         this.flagHighFiber = flagHighFiber;
         this.flagLowSugar = flagLowSugar;
         this.flagLowUnhealthyFats = flagLowUnhealthyFats;
+        this.version = version;
     }
 
     public Long getId() {
@@ -271,4 +274,5 @@ public class DietPlanDTO {
     public Boolean getFlagHighFiber() { return flagHighFiber; }
     public Boolean getFlagLowSugar() { return flagLowSugar; }
     public Boolean getFlagLowUnhealthyFats() { return flagLowUnhealthyFats; }
+    public Long getVersion() { return version; }
 }
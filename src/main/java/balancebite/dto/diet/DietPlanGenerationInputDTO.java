@@ -0,0 +1,112 @@
+package balancebite.dto.diet;
+
+import balancebite.model.meal.references.Cuisine;
+import balancebite.model.meal.references.Diet;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Settings for generating a diet plan that matches the user's recommended daily intake.
+ */
+public class DietPlanGenerationInputDTO {
+
+    @Size(max = 100, message = "Diet plan name must not exceed 100 characters.")
+    private String name;
+
+    @Min(value = 1, message = "A plan must have at least 1 day.")
+    @Max(value = 14, message = "A plan can have at most 14 days.")
+    private int days = 7;
+
+    @Min(value = 2, message = "Each day must have at least 2 meals.")
+    @Max(value = 6, message = "Each day can have at most 6 meals.")
+    private int mealsPerDay = 4;
+
+    @Min(value = 1, message = "A meal must be allowed at least once.")
+    @Max(value = 7, message = "A meal can be used at most 7 times.")
+    private int maxUsesPerMeal = 2;
+
+    /** Every meal must have all of these diets. */
+    private Set<Diet> diets;
+
+    /** If set, every meal must have at least one of these cuisines. */
+    private Set<Cuisine> cuisines;
+
+    /** Optional budget per 7 days for the ingredients of the plan; only meals with known prices are used. */
+    @DecimalMin(value = "0.01", message = "Weekly budget must be positive.")
+    private BigDecimal weeklyBudget;
+
+    @Min(value = 50, message = "Time limit must be at least 50 ms.")
+    @Max(value = 5000, message = "Time limit can be at most 5000 ms.")
+    private int timeLimitMs = 1000;
+
+    public DietPlanGenerationInputDTO() {}
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public void setDays(int days) {
+        this.days = days;
+    }
+
+    public int getMealsPerDay() {
+        return mealsPerDay;
+    }
+
+    public void setMealsPerDay(int mealsPerDay) {
+        this.mealsPerDay = mealsPerDay;
+    }
+
+    public int getMaxUsesPerMeal() {
+        return maxUsesPerMeal;
+    }
+
+    public void setMaxUsesPerMeal(int maxUsesPerMeal) {
+        this.maxUsesPerMeal = maxUsesPerMeal;
+    }
+
+    public Set<Diet> getDiets() {
+        return diets;
+    }
+
+    public void setDiets(Set<Diet> diets) {
+        this.diets = diets;
+    }
+
+    public Set<Cuisine> getCuisines() {
+        return cuisines;
+    }
+
+    public void setCuisines(Set<Cuisine> cuisines) {
+        this.cuisines = cuisines;
+    }
+
+    public BigDecimal getWeeklyBudget() {
+        return weeklyBudget;
+    }
+
+    public void setWeeklyBudget(BigDecimal weeklyBudget) {
+        this.weeklyBudget = weeklyBudget;
+    }
+
+    public int getTimeLimitMs() {
+        return timeLimitMs;
+    }
+
+    public void setTimeLimitMs(int timeLimitMs) {
+        this.timeLimitMs = timeLimitMs;
+    }
+}
@@ -0,0 +1,20 @@
+package balancebite.dto.diet;
+
+import java.math.BigDecimal;
+
+/**
+ * A generated diet plan together with how it was found.
+ *
+ * @param dietPlan       The saved plan.
+ * @param estimatedCost  Ingredient cost of the plan at current prices and promotions; null if not all prices are known.
+ * @param budget         Budget the plan was optimized for; null without a budget.
+ * @param candidateMeals Number of meals the solver could choose from.
+ * @param solverMillis   Solver runtime in milliseconds.
+ * @param timeLimited    Whether the time limit was reached, after which the remaining days were filled greedily.
+ */
+public record DietPlanGenerationResultDTO(DietPlanDTO dietPlan,
+                                          BigDecimal estimatedCost,
+                                          BigDecimal budget,
+                                          int candidateMeals,
+                                          long solverMillis,
+                                          boolean timeLimited) {}
@@ -0,0 +1,46 @@
+package balancebite.dto.diet;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * An ordered list of day edits for a diet plan, based on the plan version the client last saw.
+ * All operations are applied in one transaction; if one fails, none are applied.
+ */
+public class DietPlanPatchInputDTO {
+
+    @NotNull(message = "The version of the diet plan must be provided.")
+    private Long version;
+
+    @Valid
+    @NotEmpty(message = "At least one operation must be provided.")
+    @Size(max = 200, message = "A patch may contain at most 200 operations.")
+    private List<DietDayPatchOperationDTO> operations;
+
+    public DietPlanPatchInputDTO() {}
+
+    public DietPlanPatchInputDTO(Long version, List<DietDayPatchOperationDTO> operations) {
+        this.version = version;
+        this.operations = operations;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public List<DietDayPatchOperationDTO> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<DietDayPatchOperationDTO> operations) {
+        this.operations = operations;
+    }
+}
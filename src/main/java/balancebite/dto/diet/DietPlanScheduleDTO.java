@@ -0,0 +1,13 @@
+package balancebite.dto.diet;
+
+import java.time.LocalDate;
+
+public record DietPlanScheduleDTO(
+        Long id,
+        Long dietPlanId,
+        String dietPlanName,
+        Integer dayIndex,
+        LocalDate startDate,
+        LocalDate endDate,
+        Integer repeatEveryDays
+) {}
@@ -0,0 +1,71 @@
+package balancebite.dto.diet;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * Schedules a diet plan, or one day of it, on the user's calendar.
+ */
+public class DietPlanScheduleInputDTO {
+
+    @NotNull(message = "Diet plan ID is required.")
+    private Long dietPlanId;
+
+    /** Day of the plan to schedule (0-based); leave empty to schedule the whole plan. */
+    @Min(value = 0, message = "Day index must be 0 or higher.")
+    private Integer dayIndex;
+
+    @NotNull(message = "Start date is required.")
+    private LocalDate startDate;
+
+    /** Repeat every this many days; must be at least the number of scheduled days. */
+    @Min(value = 1, message = "Repeat interval must be at least 1 day.")
+    private Integer repeatEveryDays;
+
+    /** Last date of the repetitions (inclusive); required when repeating. */
+    private LocalDate repeatUntil;
+
+    public DietPlanScheduleInputDTO() {}
+
+    public Long getDietPlanId() {
+        return dietPlanId;
+    }
+
+    public void setDietPlanId(Long dietPlanId) {
+        this.dietPlanId = dietPlanId;
+    }
+
+    public Integer getDayIndex() {
+        return dayIndex;
+    }
+
+    public void setDayIndex(Integer dayIndex) {
+        this.dayIndex = dayIndex;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public Integer getRepeatEveryDays() {
+        return repeatEveryDays;
+    }
+
+    public void setRepeatEveryDays(Integer repeatEveryDays) {
+        this.repeatEveryDays = repeatEveryDays;
+    }
+
+    public LocalDate getRepeatUntil() {
+        return repeatUntil;
+    }
+
+    public void setRepeatUntil(LocalDate repeatUntil) {
+        this.repeatUntil = repeatUntil;
+    }
+}
@@ -0,0 +1,18 @@
+package balancebite.dto.diet;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregated demand for one food item on one calendar date, across one or more diet plans.
+ * The date is null for diet days that are not scheduled on a date.
+ */
+public record ShoppingDemandRowDTO(
+        Long foodItemId,
+        String name,
+        String source,
+        BigDecimal basePrice,
+        BigDecimal packGrams,
+        LocalDate date,
+        Double requiredGrams
+) {}
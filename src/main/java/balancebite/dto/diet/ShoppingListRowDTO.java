@@ -0,0 +1,24 @@
+package balancebite.dto.diet;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated shopping list row for one food item: the summed required quantity
+ * plus the pack size, base price and (optional) active promotion of that item.
+ */
+public record ShoppingListRowDTO(
+        Long foodItemId,
+        String name,
+        String source,
+        BigDecimal basePrice,
+        BigDecimal packGrams,
+        Double requiredGrams,
+        Long promotionId,
+        BigDecimal promoPrice,
+        Integer salePercentage,
+        String saleDescription
+) {
+    public boolean promoted() {
+        return promotionId != null;
+    }
+}
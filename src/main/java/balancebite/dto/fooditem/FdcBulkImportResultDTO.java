@@ -0,0 +1,20 @@
+package balancebite.dto.fooditem;
+
+/**
+ * Summary of a FoodData Central bulk file import.
+ *
+ * @param read              Food records read from the file.
+ * @param inserted          Food items that did not exist yet.
+ * @param updated           Existing food items (matched on FDC ID) that were overwritten.
+ * @param invalid           Records without an FDC ID, description or nutrients, or that could not be converted.
+ * @param mealsRecalculated Meals whose nutrient totals were recalculated because an ingredient was updated.
+ * @param elapsedMs         Total runtime.
+ */
+public record FdcBulkImportResultDTO(
+        long read,
+        long inserted,
+        long updated,
+        long invalid,
+        long mealsRecalculated,
+        long elapsedMs
+) {}
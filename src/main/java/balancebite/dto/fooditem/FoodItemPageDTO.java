@@ -0,0 +1,14 @@
+package balancebite.dto.fooditem;
+
+import java.util.List;
+
+/**
+ * One page of food items, ordered by ID.
+ *
+ * @param items      The food items of this page.
+ * @param nextCursor Value for the {@code after} parameter of the next page; null on the last page.
+ */
+public record FoodItemPageDTO(
+        List<FoodItemDTO> items,
+        Long nextCursor
+) {}
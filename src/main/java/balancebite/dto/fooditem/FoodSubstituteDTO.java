@@ -0,0 +1,12 @@
+package balancebite.dto.fooditem;
+
+/**
+ * A food item with a similar nutrient profile to the one it may replace.
+ *
+ * @param foodItem The substitute.
+ * @param distance Distance between the scaled per-100 g nutrient profiles; 0 means identical.
+ */
+public record FoodSubstituteDTO(
+        FoodItemDTO foodItem,
+        double distance
+) {}
@@ -0,0 +1,30 @@
+package balancebite.dto.fooditem;
+
+import balancebite.model.foodItem.FoodSource;
+
+import java.util.List;
+
+/**
+ * Summary of a supermarket price-list import.
+ *
+ * @param foodSource      The food source whose items were priced.
+ * @param read            Rows read from the file.
+ * @param matched         Rows matched to a food item, on FDC ID or normalized name.
+ * @param updated         Food items whose price or grams actually changed.
+ * @param unmatched       Rows without a (unique) food item of this food source.
+ * @param invalid         Rows without a usable price or grams.
+ * @param mealsRecomputed Meals whose price was recomputed afterwards.
+ * @param problems        The first unmatched or invalid rows, as "row N: reason".
+ * @param elapsedMs       Total runtime.
+ */
+public record PriceListImportResultDTO(
+        FoodSource foodSource,
+        long read,
+        long matched,
+        long updated,
+        long unmatched,
+        long invalid,
+        long mealsRecomputed,
+        List<String> problems,
+        long elapsedMs
+) {}
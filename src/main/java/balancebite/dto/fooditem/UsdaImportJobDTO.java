@@ -0,0 +1,34 @@
+package balancebite.dto.fooditem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Progress and result of a USDA bulk import job.
+ *
+ * @param savedItems   Saved items as maps with "fdcId" and "name".
+ * @param skippedItems FDC IDs that already existed in the database.
+ * @param invalidItems FDC IDs that are malformed, unknown to the USDA API or could not be fetched or saved.
+ * @param error        Reason the job failed as a whole; null otherwise.
+ */
+public record UsdaImportJobDTO(
+        String jobId,
+        Status status,
+        int requested,
+        int chunksTotal,
+        int chunksDone,
+        List<Map<String, String>> savedItems,
+        List<String> skippedItems,
+        List<String> invalidItems,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error
+) {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,7 @@
+package balancebite.dto.meal;
+
+/**
+ * Macro totals and servings of a meal, as loaded for the in-memory meal nutrient catalog.
+ */
+public record MealMacroRowDTO(Long id, double totalCalories, double totalProtein,
+                              double totalCarbs, double totalFat, Integer servings) {}
@@ -0,0 +1,6 @@
+package balancebite.dto.meal;
+
+/**
+ * DTO for a single meal name autocomplete suggestion, including its popularity.
+ */
+public record MealNameSuggestionDTO(Long id, String name, Long saveCount) {}
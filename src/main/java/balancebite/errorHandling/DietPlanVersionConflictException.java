@@ -0,0 +1,14 @@
+package balancebite.errorHandling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a diet plan edit is based on an outdated version of the plan.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DietPlanVersionConflictException extends RuntimeException {
+    public DietPlanVersionConflictException(String message) {
+        super(message);
+    }
+}
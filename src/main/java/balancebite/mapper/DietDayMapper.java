@@ -7,7 +7,10 @@ import balancebite.model.diet.DietDay;
 import balancebite.model.meal.Meal;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 
 @Component
 public class DietDayMapper {
@@ -19,10 +22,17 @@ public class DietDayMapper {
     }
 
     public DietDayDTO toDTO(DietDay dietDay) {
+        return toDTO(dietDay, mealMapper::toDTO);
+    }
+
+    /**
+     * Maps a day with a caller-supplied meal mapping, e.g. one that maps each distinct meal only once.
+     */
+    public DietDayDTO toDTO(DietDay dietDay, Function<Meal, MealDTO> mealToDTO) {
         if (dietDay == null) return null;
 
         List<MealDTO> mealDTOs = dietDay.getMeals().stream()
-                .map(mealMapper::toDTO)
+                .map(mealToDTO)
                 .toList();
 
         return new DietDayDTO(
@@ -53,6 +63,7 @@ public class DietDayMapper {
                 ? input.getDayLabel()
                 : "Day " + (index + 1);
         entity.setDayLabel(label);
+        entity.setDayIndex(index);
         entity.setDate(input.getDate());
         entity.setMeals(meals);
         entity.setDietDayDescription(input.getDietDayDescription());
@@ -71,12 +82,35 @@ public class DietDayMapper {
                 ? input.getDayLabel()
                 : "Day " + (index + 1);
         dietDay.setDayLabel(label);
+        dietDay.setDayIndex(index);
         dietDay.setDate(input.getDate());
-        dietDay.setMeals(meals);
+        if (dietDay.getMeals() == null) {
+            dietDay.setMeals(new ArrayList<>(meals));
+        } else if (!sameMeals(dietDay.getMeals(), meals)) {
+            // In place, zodat Hibernate de bestaande collectie bijwerkt in plaats van haar te vervangen
+            dietDay.getMeals().clear();
+            dietDay.getMeals().addAll(meals);
+        }
         dietDay.setDietDayDescription(input.getDietDayDescription());
         dietDay.setDiets(input.getDiets());
 
         // 🔁 Herbereken nutrienten
         dietDay.updateNutrients();
     }
+
+    /**
+     * True when both lists hold the same meals, by ID, in the same order.
+     * Lists are not compared with equals, because a Hibernate PersistentBag compares by identity.
+     */
+    public static boolean sameMeals(List<Meal> current, List<Meal> meals) {
+        if (current.size() != meals.size()) return false;
+        for (int i = 0; i < meals.size(); i++) {
+            Meal a = current.get(i);
+            Meal b = meals.get(i);
+            if (a != b && (a == null || b == null || a.getId() == null || !Objects.equals(a.getId(), b.getId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
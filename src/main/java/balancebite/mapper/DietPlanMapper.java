@@ -3,15 +3,25 @@ package balancebite.mapper;
 import balancebite.dto.diet.DietDayDTO;
 import balancebite.dto.diet.DietPlanDTO;
 import balancebite.dto.diet.DietPlanInputDTO;
+import balancebite.dto.meal.MealDTO;
 import balancebite.dto.user.PublicUserDTO;
+import balancebite.model.diet.DietDay;
 import balancebite.model.diet.DietPlan;
+import balancebite.model.foodItem.PromotedFoodItem;
+import balancebite.model.meal.Meal;
 import balancebite.model.user.User;
+import balancebite.service.fooditem.PromotedFoodItemService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Component
 public class DietPlanMapper {
@@ -20,10 +30,15 @@ public class DietPlanMapper {
 
     private final DietDayMapper dietDayMapper;
     private final UserMapper userMapper;
+    private final MealMapper mealMapper;
+    private final PromotedFoodItemService promotedFoodItemService;
 
-    public DietPlanMapper(DietDayMapper dietDayMapper, UserMapper userMapper) {
+    public DietPlanMapper(DietDayMapper dietDayMapper, UserMapper userMapper, MealMapper mealMapper,
+                          PromotedFoodItemService promotedFoodItemService) {
         this.dietDayMapper = dietDayMapper;
         this.userMapper = userMapper;
+        this.mealMapper = mealMapper;
+        this.promotedFoodItemService = promotedFoodItemService;
     }
 
     public DietPlanDTO toDTO(DietPlan dietPlan) {
@@ -32,9 +47,39 @@ public class DietPlanMapper {
             return null;
         }
 
-        List<DietDayDTO> dietDayDTOs = dietPlan.getDietDays().stream()
+        return toDTO(dietPlan, dietPlan.getDietDays().stream()
                 .map(dietDayMapper::toDTO)
-                .toList();
+                .toList());
+    }
+
+    /**
+     * Maps a fully loaded plan (see {@code DietPlanRepository#findDetailById}). Active promotions of all
+     * ingredients are looked up in one query, and a meal that appears on several days is mapped once.
+     */
+    public DietPlanDTO toDetailDTO(DietPlan dietPlan) {
+        if (dietPlan == null) {
+            log.warn("Received null DietPlan entity, returning null for DietPlanDTO.");
+            return null;
+        }
+
+        Set<Long> foodItemIds = new HashSet<>();
+        for (DietDay day : dietPlan.getDietDays()) {
+            for (Meal meal : day.getMeals()) {
+                meal.getMealIngredients().forEach(ingredient -> foodItemIds.add(ingredient.getFoodItem().getId()));
+            }
+        }
+        Map<Long, PromotedFoodItem> activePromotions = promotedFoodItemService.getActivePromotions(foodItemIds);
+
+        Map<Long, MealDTO> mealDTOs = new HashMap<>();
+        Function<Meal, MealDTO> mealToDTO = meal ->
+                mealDTOs.computeIfAbsent(meal.getId(), id -> mealMapper.toDTO(meal, activePromotions));
+
+        return toDTO(dietPlan, dietPlan.getDietDays().stream()
+                .map(day -> dietDayMapper.toDTO(day, mealToDTO))
+                .toList());
+    }
+
+    private DietPlanDTO toDTO(DietPlan dietPlan, List<DietDayDTO> dietDayDTOs) {
 
         PublicUserDTO createdByDTO = dietPlan.getCreatedBy() != null
                 ? userMapper.toPublicUserDTO(dietPlan.getCreatedBy())
@@ -87,7 +132,8 @@ public class DietPlanMapper {
                 monthlySaveCount,
                 dietPlan.getFlagHighFiber(),
                 dietPlan.getFlagLowSugar(),
-                dietPlan.getFlagLowUnhealthyFats()
+                dietPlan.getFlagLowUnhealthyFats(),
+                dietPlan.getVersion()
         );
     }
 
@@ -16,6 +16,7 @@ import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -116,8 +117,25 @@ public class FoodItemMapper {
             return null;
         }
 
-        // Active promotion
-        Optional<PromotedFoodItem> promotion = promotedFoodItemService.getActivePromotion(foodItem.getId());
+        return toDTO(foodItem, promotedFoodItemService.getActivePromotion(foodItem.getId()));
+    }
+
+    /**
+     * Converts food items to DTOs, looking up the active promotions of all of them in one query.
+     */
+    public List<FoodItemDTO> toDTOs(List<FoodItem> foodItems) {
+        Map<Long, PromotedFoodItem> promotions = promotedFoodItemService.getActivePromotions(
+                foodItems.stream().map(FoodItem::getId).toList());
+        return foodItems.stream()
+                .map(item -> toDTO(item, Optional.ofNullable(promotions.get(item.getId()))))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Converts a FoodItem entity to a FoodItemDTO using an already resolved active promotion,
+     * so callers mapping many food items can look up all promotions in one query.
+     */
+    public FoodItemDTO toDTO(FoodItem foodItem, Optional<PromotedFoodItem> promotion) {
         boolean promoted = promotion.isPresent();
         LocalDateTime startDate = promotion.map(PromotedFoodItem::getStartDate).orElse(null);
         LocalDateTime endDate   = promotion.map(PromotedFoodItem::getEndDate).orElse(null);
@@ -1,9 +1,11 @@
 package balancebite.mapper;
 
+import balancebite.dto.fooditem.FoodItemDTO;
 import balancebite.dto.mealingredient.MealIngredientDTO;
 import balancebite.dto.mealingredient.MealIngredientInputDTO;
 import balancebite.errorHandling.InvalidFoodItemException;
 import balancebite.model.foodItem.FoodItem;
+import balancebite.model.foodItem.PromotedFoodItem;
 import balancebite.model.meal.Meal;
 import balancebite.model.MealIngredient;
 import balancebite.repository.FoodItemRepository;
@@ -13,6 +15,8 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Mapper class for converting between MealIngredient entities and DTOs.
@@ -76,7 +80,22 @@ public class MealIngredientMapper {
         log.debug("Converting MealIngredient entity to MealIngredientDTO for meal ID {}.", mealIngredient.getMeal().getId());
 
         // Map FoodItem -> DTO once (promo-aware pricePer100g lives here)
-        var foodItemDto = foodItemMapper.toDTO(mealIngredient.getFoodItem());
+        return toDTO(mealIngredient, foodItemMapper.toDTO(mealIngredient.getFoodItem()));
+    }
+
+    /**
+     * Converts a MealIngredient entity to a MealIngredientDTO with promotions resolved up front.
+     *
+     * @param mealIngredient   the MealIngredient entity to be converted.
+     * @param activePromotions active promotions by food item ID; food items without an entry have no promotion.
+     * @return the created MealIngredientDTO.
+     */
+    public MealIngredientDTO toDTO(MealIngredient mealIngredient, Map<Long, PromotedFoodItem> activePromotions) {
+        FoodItem foodItem = mealIngredient.getFoodItem();
+        return toDTO(mealIngredient, foodItemMapper.toDTO(foodItem, Optional.ofNullable(activePromotions.get(foodItem.getId()))));
+    }
+
+    private MealIngredientDTO toDTO(MealIngredient mealIngredient, FoodItemDTO foodItemDto) {
 
         // Calculate itemCost from pricePer100g and quantity
         BigDecimal itemCost = null; // null means “unknown”
@@ -9,6 +9,7 @@ import balancebite.dto.user.UserDTO;
 import balancebite.errorHandling.InvalidFoodItemException;
 import balancebite.model.MealIngredient;
 import balancebite.model.foodItem.FoodItem;
+import balancebite.model.foodItem.PromotedFoodItem;
 import balancebite.model.meal.Meal;
 import balancebite.model.user.User;
 import balancebite.repository.FoodItemRepository;
@@ -22,6 +23,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -63,15 +65,28 @@ public class MealMapper {
             return null;
         }
 
+        // Map ingredients once
+        return toDTO(meal, meal.getMealIngredients().stream()
+                .map(mealIngredientMapper::toDTO)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Maps a meal with promotions resolved up front, for callers that map many meals at once.
+     *
+     * @param activePromotions active promotions by food item ID; food items without an entry have no promotion.
+     */
+    public MealDTO toDTO(Meal meal, Map<Long, PromotedFoodItem> activePromotions) {
+        return toDTO(meal, meal.getMealIngredients().stream()
+                .map(ingredient -> mealIngredientMapper.toDTO(ingredient, activePromotions))
+                .collect(Collectors.toList()));
+    }
+
+    private MealDTO toDTO(Meal meal, List<MealIngredientDTO> items) {
         long saveCount        = Optional.ofNullable(meal.getSaveCount()).orElse(0L);
         long weeklySaveCount  = Optional.ofNullable(meal.getWeeklySaveCount()).orElse(0L);
         long monthlySaveCount = Optional.ofNullable(meal.getMonthlySaveCount()).orElse(0L);
 
-        // Map ingredients once
-        var items = meal.getMealIngredients().stream()
-                .map(mealIngredientMapper::toDTO)
-                .collect(Collectors.toList());
-
         // Sum known item costs -> mealPrice (nullable if none known)
         var knownCosts = items.stream()
                 .map(MealIngredientDTO::getItemCost)
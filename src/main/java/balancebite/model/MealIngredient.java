@@ -2,6 +2,7 @@ package balancebite.model;
 
 import balancebite.model.foodItem.FoodItem;
 import balancebite.model.meal.Meal;
+import balancebite.service.meal.MealPriceListener;
 import jakarta.persistence.*;
 
 /**
@@ -9,10 +10,12 @@ import jakarta.persistence.*;
  */
 @Entity
 @Table(name = "meal_ingredients")
+@EntityListeners(MealPriceListener.class)
 public class MealIngredient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meal_ingredients_seq")
+    @SequenceGenerator(name = "meal_ingredients_seq", sequenceName = "meal_ingredients_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
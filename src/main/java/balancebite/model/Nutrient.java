@@ -15,7 +15,8 @@ public class Nutrient {
      * The unique identifier for the nutrient.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "nutrients_seq")
+    @SequenceGenerator(name = "nutrients_seq", sequenceName = "nutrients_seq", allocationSize = 50)
     private Long id;
 
     /**
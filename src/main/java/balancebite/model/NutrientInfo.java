@@ -1,12 +1,12 @@
 package balancebite.model;
 
-import jakarta.persistence.Embeddable;
+import java.util.Objects;
 
 /**
- * Embeddable class representing nutrient information.
- * This class is used as part of the FoodItem entity to store nutrient details.
+ * Value class representing nutrient information.
+ * This class is used as part of the FoodItem entity to store nutrient details; see
+ * {@link balancebite.config.NutrientListConverter} for how it is stored.
  */
-@Embeddable
 public class NutrientInfo {
 
     /**
@@ -30,7 +30,7 @@ public class NutrientInfo {
     private Long nutrientId;
 
     /**
-     * No-argument constructor required by JPA.
+     * No-argument constructor.
      */
     public NutrientInfo() {}
 
@@ -122,4 +122,22 @@ public class NutrientInfo {
     public void setNutrientId(Long nutrientId) {
         this.nutrientId = nutrientId;
     }
+
+    /**
+     * Value equality, used by Hibernate to detect changes to a food item's nutrient list.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof NutrientInfo that)) return false;
+        return Objects.equals(nutrientName, that.nutrientName)
+                && Objects.equals(value, that.value)
+                && Objects.equals(unitName, that.unitName)
+                && Objects.equals(nutrientId, that.nutrientId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nutrientName, value, unitName, nutrientId);
+    }
 }
@@ -20,7 +20,8 @@ public class RecommendedDailyIntake {
      * The unique identifier for the recommended daily intake entity.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recommended_daily_intake_seq")
+    @SequenceGenerator(name = "recommended_daily_intake_seq", sequenceName = "recommended_daily_intake_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -13,11 +13,15 @@ import java.util.Set;
 public class DietDay {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "diet_day_seq")
+    @SequenceGenerator(name = "diet_day_seq", sequenceName = "diet_day_seq", allocationSize = 50)
     private Long id;
 
     private String dayLabel; // e.g. "Day 1", "Day 2", ...
 
+    @Column(name = "day_index")
+    private Integer dayIndex; // positie binnen het dieet, 0-based
+
     private LocalDate date; // e.g. 2025-05-01
 
     @Column(length = 1000)
@@ -51,6 +55,10 @@ public class DietDay {
     private Double totalFiber;
     private Double totalSodium;
 
+    /** Flag counters of the meals of this day; null for days stored before the counters existed. */
+    @Embedded
+    private MealFlagCounts mealFlagCounts;
+
 
     // Constructors
     public DietDay() {}
@@ -72,6 +80,7 @@ public class DietDay {
             this.totalUnsaturatedFat = 0.0;
             this.totalFiber = 0.0;
             this.totalSodium = 0.0;
+            this.mealFlagCounts = new MealFlagCounts();
             return;
         }
 
@@ -84,6 +93,14 @@ public class DietDay {
         this.totalUnsaturatedFat = meals.stream().mapToDouble(m -> perServing(m.getTotalUnsaturatedFat(), m.getServings())).sum();
         this.totalFiber = meals.stream().mapToDouble(m -> perServing(m.getTotalFiber() != null ? m.getTotalFiber() : 0.0, m.getServings())).sum();
         this.totalSodium = meals.stream().mapToDouble(m -> perServing(m.getTotalSodium() != null ? m.getTotalSodium() : 0.0, m.getServings())).sum();
+        updateFlagCounts();
+    }
+
+    /**
+     * Recounts the nutritional flags of the meals of this day without touching the nutrient totals.
+     */
+    public void updateFlagCounts() {
+        this.mealFlagCounts = MealFlagCounts.of(meals);
     }
 
     private double perServing(double total, Integer servings) {
@@ -103,6 +120,14 @@ public class DietDay {
         this.dayLabel = dayLabel;
     }
 
+    public Integer getDayIndex() {
+        return dayIndex;
+    }
+
+    public void setDayIndex(Integer dayIndex) {
+        this.dayIndex = dayIndex;
+    }
+
     public LocalDate getDate() {
         return date;
     }
@@ -214,4 +239,12 @@ public class DietDay {
     public void setTotalSodium(Double totalSodium) {
         this.totalSodium = totalSodium;
     }
+
+    public MealFlagCounts getMealFlagCounts() {
+        return mealFlagCounts;
+    }
+
+    public void setMealFlagCounts(MealFlagCounts mealFlagCounts) {
+        this.mealFlagCounts = mealFlagCounts;
+    }
 }
@@ -2,6 +2,7 @@ package balancebite.model.diet;
 
 import balancebite.model.user.User;
 import balancebite.model.user.userenums.Goal;
+import balancebite.service.diet.PublicDietPlanCardListener;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -10,10 +11,12 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 @Entity
+@EntityListeners(PublicDietPlanCardListener.class)
 public class DietPlan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "diet_plan_seq")
+    @SequenceGenerator(name = "diet_plan_seq", sequenceName = "diet_plan_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -45,6 +48,7 @@ public class DietPlan {
     private User adjustedBy;
 
     @OneToMany(mappedBy = "diet", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OrderBy("dayIndex ASC, id ASC")
     private List<DietDay> dietDays = new ArrayList<>();
 
     @Enumerated(EnumType.STRING)
@@ -77,6 +81,15 @@ public class DietPlan {
     private Double avgSugars;
     private Double avgFiber;
     private Double avgSodium;
+
+    /** Flag counters over all meals of all days; null until the plan aggregates are first computed. */
+    @Embedded
+    private MealFlagCounts mealFlagCounts;
+
+    /** Optimistic lock version; bumped on every change to the plan or its days, but not by the save counters. */
+    @Version
+    @Column(name = "version")
+    private Long version;
     @Column(name = "flag_high_fiber")
     private Boolean flagHighFiber;
 
@@ -86,13 +99,15 @@ public class DietPlan {
     @Column(name = "flag_low_unhealthy_fats")
     private Boolean flagLowUnhealthyFats;
 
-    @Column(name = "save_count")
+    // Tellers zijn statistiek, geen inhoud: alleen DietPlanRepository#updateSaveCounts schrijft ze, zodat een
+    // bewerking van de eigenaar nooit een verouderde stand terugschrijft en de versie niet verhoogt
+    @Column(name = "save_count", updatable = false)
     private Long saveCount = 0L;
 
-    @Column(name = "weekly_save_count")
+    @Column(name = "weekly_save_count", updatable = false)
     private Long weeklySaveCount = 0L;
 
-    @Column(name = "monthly_save_count")
+    @Column(name = "monthly_save_count", updatable = false)
     private Long monthlySaveCount = 0L;
 
     // Constructors
@@ -164,6 +179,10 @@ public class DietPlan {
         return updatedAt;
     }
 
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public User getCreatedBy() {
         return createdBy;
     }
@@ -389,4 +408,29 @@ public class DietPlan {
     public void setMonthlySaveCount(Long monthlySaveCount) {
         this.monthlySaveCount = monthlySaveCount;
     }
+
+    public MealFlagCounts getMealFlagCounts() {
+        return mealFlagCounts;
+    }
+
+    public void setMealFlagCounts(MealFlagCounts mealFlagCounts) {
+        this.mealFlagCounts = mealFlagCounts;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Renumbers the {@code dayIndex} of the days to match their position in the list.
+     * Days that are already in place are left untouched.
+     */
+    public void renumberDays() {
+        for (int i = 0; i < dietDays.size(); i++) {
+            DietDay day = dietDays.get(i);
+            if (day.getDayIndex() == null || day.getDayIndex() != i) {
+                day.setDayIndex(i);
+            }
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package balancebite.model.diet;
+
+import balancebite.model.user.User;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Places a diet plan, or a single day of it, on a user's calendar.
+ *
+ * A whole plan covers consecutive dates from {@code startDate}, one plan day per date. A single day
+ * ({@code dayIndex} set) covers only {@code startDate}. With {@code repeatEveryDays}, the same placement
+ * repeats every that many days until {@code endDate}. Schedules may overlap; every schedule covering a
+ * date contributes to that date.
+ *
+ * The plan's length is always taken from its current days, so days added after scheduling show up too:
+ * a whole plan without repetition ends after its last current day (the stored {@code endDate} is the end
+ * at scheduling time), and a repeated whole plan repeats every {@code repeatEveryDays} days or every
+ * plan length, whichever is longer.
+ */
+@Entity
+@Table(name = "diet_plan_schedule", indexes = {
+        @Index(name = "idx_diet_plan_schedule_user_dates", columnList = "user_id, start_date, end_date"),
+        @Index(name = "idx_diet_plan_schedule_plan", columnList = "diet_plan_id")
+})
+public class DietPlanSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "diet_plan_schedule_seq")
+    @SequenceGenerator(name = "diet_plan_schedule_seq", sequenceName = "diet_plan_schedule_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "diet_plan_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private DietPlan dietPlan;
+
+    /** Day of the plan to schedule; null schedules the whole plan. */
+    private Integer dayIndex;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    /** Last date covered by this schedule (inclusive); see the class comment for whole plans without repetition. */
+    @Column(nullable = false)
+    private LocalDate endDate;
+
+    /** Days between the starts of two repetitions; null means no repetition. */
+    private Integer repeatEveryDays;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    public DietPlanSchedule() {}
+
+    public DietPlanSchedule(User user, DietPlan dietPlan, Integer dayIndex, LocalDate startDate,
+                            LocalDate endDate, Integer repeatEveryDays) {
+        this.user = user;
+        this.dietPlan = dietPlan;
+        this.dayIndex = dayIndex;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.repeatEveryDays = repeatEveryDays;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public DietPlan getDietPlan() {
+        return dietPlan;
+    }
+
+    public Integer getDayIndex() {
+        return dayIndex;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Integer getRepeatEveryDays() {
+        return repeatEveryDays;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /** True for a whole plan without repetition, whose end follows the current number of plan days. */
+    public boolean followsPlanLength() {
+        return dayIndex == null && repeatEveryDays == null;
+    }
+}
@@ -0,0 +1,100 @@
+package balancebite.model.diet;
+
+import balancebite.model.meal.Meal;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Embeddable counters over the meal occurrences of a diet day or diet plan.
+ * For each nutritional flag it keeps how many meals have the flag set to true and how many
+ * have no value, so the aggregated flag of a plan can be derived in O(1) and a single day
+ * can be subtracted from and added to the plan totals without visiting the other days.
+ */
+@Embeddable
+public class MealFlagCounts {
+
+    @Column(name = "meal_count")
+    private Integer mealCount = 0;
+
+    @Column(name = "high_fiber_true_count")
+    private Integer highFiberTrue = 0;
+
+    @Column(name = "high_fiber_null_count")
+    private Integer highFiberNull = 0;
+
+    @Column(name = "low_sugar_true_count")
+    private Integer lowSugarTrue = 0;
+
+    @Column(name = "low_sugar_null_count")
+    private Integer lowSugarNull = 0;
+
+    @Column(name = "low_unhealthy_fats_true_count")
+    private Integer lowUnhealthyFatsTrue = 0;
+
+    @Column(name = "low_unhealthy_fats_null_count")
+    private Integer lowUnhealthyFatsNull = 0;
+
+    public MealFlagCounts() {}
+
+    /**
+     * Builds the counters for a list of meal occurrences (duplicates count once per occurrence).
+     */
+    public static MealFlagCounts of(Iterable<Meal> meals) {
+        MealFlagCounts counts = new MealFlagCounts();
+        if (meals == null) return counts;
+        for (Meal meal : meals) {
+            if (meal == null) continue;
+            counts.mealCount++;
+            if (meal.getFlagHighFiber() == null) counts.highFiberNull++;
+            else if (meal.getFlagHighFiber()) counts.highFiberTrue++;
+            if (meal.getFlagLowSugar() == null) counts.lowSugarNull++;
+            else if (meal.getFlagLowSugar()) counts.lowSugarTrue++;
+            if (meal.getFlagLowUnhealthyFats() == null) counts.lowUnhealthyFatsNull++;
+            else if (meal.getFlagLowUnhealthyFats()) counts.lowUnhealthyFatsTrue++;
+        }
+        return counts;
+    }
+
+    /**
+     * Adds ({@code sign = 1}) or subtracts ({@code sign = -1}) another set of counters.
+     */
+    public void add(MealFlagCounts other, int sign) {
+        if (other == null) return;
+        mealCount = nz(mealCount) + sign * nz(other.mealCount);
+        highFiberTrue = nz(highFiberTrue) + sign * nz(other.highFiberTrue);
+        highFiberNull = nz(highFiberNull) + sign * nz(other.highFiberNull);
+        lowSugarTrue = nz(lowSugarTrue) + sign * nz(other.lowSugarTrue);
+        lowSugarNull = nz(lowSugarNull) + sign * nz(other.lowSugarNull);
+        lowUnhealthyFatsTrue = nz(lowUnhealthyFatsTrue) + sign * nz(other.lowUnhealthyFatsTrue);
+        lowUnhealthyFatsNull = nz(lowUnhealthyFatsNull) + sign * nz(other.lowUnhealthyFatsNull);
+    }
+
+    /**
+     * True once every counter has a value. Rows written before the counters existed load
+     * with null counters and need a full recomputation first.
+     */
+    public boolean isInitialized() {
+        return mealCount != null && highFiberTrue != null && highFiberNull != null
+                && lowSugarTrue != null && lowSugarNull != null
+                && lowUnhealthyFatsTrue != null && lowUnhealthyFatsNull != null;
+    }
+
+    public Boolean aggregateHighFiber() { return aggregate(highFiberTrue, highFiberNull); }
+
+    public Boolean aggregateLowSugar() { return aggregate(lowSugarTrue, lowSugarNull); }
+
+    public Boolean aggregateLowUnhealthyFats() { return aggregate(lowUnhealthyFatsTrue, lowUnhealthyFatsNull); }
+
+    /** Same rules as before: null if there are no meals or any meal has no value, true if all are true, else false. */
+    private Boolean aggregate(Integer trueCount, Integer nullCount) {
+        if (nz(mealCount) <= 0) return null;
+        if (nz(nullCount) > 0) return null;
+        return nz(trueCount) == nz(mealCount);
+    }
+
+    private static int nz(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    public Integer getMealCount() { return mealCount; }
+}
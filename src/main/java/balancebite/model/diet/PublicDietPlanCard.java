@@ -0,0 +1,274 @@
+package balancebite.model.diet;
+
+import balancebite.model.meal.references.Diet;
+import balancebite.model.user.userenums.Goal;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Denormalized read model of a public diet plan (template, not private, not restricted) for browsing.
+ *
+ * One row per public plan, kept up to date by {@code PublicDietPlanCardProjector}. Diets are stored as a
+ * bitmask of {@link Diet} ordinals so diet filters are plain column predicates, and the creator name and
+ * day count are copied in so listings never join users or days.
+ */
+@Entity
+@Table(name = "public_diet_plan_card", indexes = {
+        @Index(name = "idx_public_card_created_at", columnList = "created_at"),
+        @Index(name = "idx_public_card_name", columnList = "name"),
+        @Index(name = "idx_public_card_save_count", columnList = "save_count"),
+        @Index(name = "idx_public_card_weekly_save_count", columnList = "weekly_save_count"),
+        @Index(name = "idx_public_card_monthly_save_count", columnList = "monthly_save_count"),
+        @Index(name = "idx_public_card_avg_calories", columnList = "avg_calories"),
+        @Index(name = "idx_public_card_avg_protein", columnList = "avg_protein"),
+        @Index(name = "idx_public_card_avg_carbs", columnList = "avg_carbs"),
+        @Index(name = "idx_public_card_avg_fat", columnList = "avg_fat"),
+        @Index(name = "idx_public_card_creator_created_at", columnList = "created_by_user_id, created_at"),
+        @Index(name = "idx_public_card_goal_created_at", columnList = "goal, created_at")
+})
+public class PublicDietPlanCard {
+
+    @Id
+    @Column(name = "diet_plan_id")
+    private Long dietPlanId;
+
+    private String name;
+    private Long originalDietId;
+    private Long createdByUserId;
+    private String createdByUserName;
+
+    @Enumerated(EnumType.STRING)
+    private Goal goal;
+
+    /** Bitmask of {@link Diet} ordinals. */
+    private int dietMask;
+
+    private int dayCount;
+
+    private Double avgCalories;
+    private Double avgProtein;
+    private Double avgCarbs;
+    private Double avgFat;
+    private Double totalCalories;
+    private Double totalProtein;
+    private Double totalCarbs;
+    private Double totalFat;
+
+    private long saveCount;
+    private long weeklySaveCount;
+    private long monthlySaveCount;
+
+    private Boolean flagHighFiber;
+    private Boolean flagLowSugar;
+    private Boolean flagLowUnhealthyFats;
+
+    private LocalDateTime createdAt;
+
+    /** When this row was last rebuilt from the plan. */
+    private LocalDateTime refreshedAt;
+
+    public PublicDietPlanCard() {}
+
+    public PublicDietPlanCard(Long dietPlanId) {
+        this.dietPlanId = dietPlanId;
+    }
+
+    public Set<Diet> getDiets() {
+        Set<Diet> diets = EnumSet.noneOf(Diet.class);
+        for (Diet diet : Diet.values()) {
+            if ((dietMask & (1 << diet.ordinal())) != 0) diets.add(diet);
+        }
+        return diets;
+    }
+
+    public Long getDietPlanId() {
+        return dietPlanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getOriginalDietId() {
+        return originalDietId;
+    }
+
+    public void setOriginalDietId(Long originalDietId) {
+        this.originalDietId = originalDietId;
+    }
+
+    public Long getCreatedByUserId() {
+        return createdByUserId;
+    }
+
+    public void setCreatedByUserId(Long createdByUserId) {
+        this.createdByUserId = createdByUserId;
+    }
+
+    public String getCreatedByUserName() {
+        return createdByUserName;
+    }
+
+    public void setCreatedByUserName(String createdByUserName) {
+        this.createdByUserName = createdByUserName;
+    }
+
+    public Goal getGoal() {
+        return goal;
+    }
+
+    public void setGoal(Goal goal) {
+        this.goal = goal;
+    }
+
+    public int getDietMask() {
+        return dietMask;
+    }
+
+    public void setDietMask(int dietMask) {
+        this.dietMask = dietMask;
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    public void setDayCount(int dayCount) {
+        this.dayCount = dayCount;
+    }
+
+    public Double getAvgCalories() {
+        return avgCalories;
+    }
+
+    public void setAvgCalories(Double avgCalories) {
+        this.avgCalories = avgCalories;
+    }
+
+    public Double getAvgProtein() {
+        return avgProtein;
+    }
+
+    public void setAvgProtein(Double avgProtein) {
+        this.avgProtein = avgProtein;
+    }
+
+    public Double getAvgCarbs() {
+        return avgCarbs;
+    }
+
+    public void setAvgCarbs(Double avgCarbs) {
+        this.avgCarbs = avgCarbs;
+    }
+
+    public Double getAvgFat() {
+        return avgFat;
+    }
+
+    public void setAvgFat(Double avgFat) {
+        this.avgFat = avgFat;
+    }
+
+    public Double getTotalCalories() {
+        return totalCalories;
+    }
+
+    public void setTotalCalories(Double totalCalories) {
+        this.totalCalories = totalCalories;
+    }
+
+    public Double getTotalProtein() {
+        return totalProtein;
+    }
+
+    public void setTotalProtein(Double totalProtein) {
+        this.totalProtein = totalProtein;
+    }
+
+    public Double getTotalCarbs() {
+        return totalCarbs;
+    }
+
+    public void setTotalCarbs(Double totalCarbs) {
+        this.totalCarbs = totalCarbs;
+    }
+
+    public Double getTotalFat() {
+        return totalFat;
+    }
+
+    public void setTotalFat(Double totalFat) {
+        this.totalFat = totalFat;
+    }
+
+    public long getSaveCount() {
+        return saveCount;
+    }
+
+    public void setSaveCount(long saveCount) {
+        this.saveCount = saveCount;
+    }
+
+    public long getWeeklySaveCount() {
+        return weeklySaveCount;
+    }
+
+    public void setWeeklySaveCount(long weeklySaveCount) {
+        this.weeklySaveCount = weeklySaveCount;
+    }
+
+    public long getMonthlySaveCount() {
+        return monthlySaveCount;
+    }
+
+    public void setMonthlySaveCount(long monthlySaveCount) {
+        this.monthlySaveCount = monthlySaveCount;
+    }
+
+    public Boolean getFlagHighFiber() {
+        return flagHighFiber;
+    }
+
+    public void setFlagHighFiber(Boolean flagHighFiber) {
+        this.flagHighFiber = flagHighFiber;
+    }
+
+    public Boolean getFlagLowSugar() {
+        return flagLowSugar;
+    }
+
+    public void setFlagLowSugar(Boolean flagLowSugar) {
+        this.flagLowSugar = flagLowSugar;
+    }
+
+    public Boolean getFlagLowUnhealthyFats() {
+        return flagLowUnhealthyFats;
+    }
+
+    public void setFlagLowUnhealthyFats(Boolean flagLowUnhealthyFats) {
+        this.flagLowUnhealthyFats = flagLowUnhealthyFats;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public void setRefreshedAt(LocalDateTime refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class SavedDietPlan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saved_diet_plan_seq")
+    @SequenceGenerator(name = "saved_diet_plan_seq", sequenceName = "saved_diet_plan_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -8,7 +8,8 @@ import jakarta.persistence.*;
 public class SharedDietPlanAccess {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shared_diet_plan_access_seq")
+    @SequenceGenerator(name = "shared_diet_plan_access_seq", sequenceName = "shared_diet_plan_access_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,8 +1,14 @@
 package balancebite.model.foodItem;
 
 import balancebite.model.MealIngredient;
+import balancebite.config.NutrientListConverter;
 import balancebite.model.NutrientInfo;
+import balancebite.service.fooditem.FoodSubstitutionListener;
+import balancebite.service.meal.MealPriceListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnTransformer;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -14,13 +20,16 @@ import java.util.List;
  */
 @Entity
 @Table(name = "food_items")
+@EntityListeners({MealPriceListener.class, FoodSubstitutionListener.class})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "food-items")
 public class FoodItem {
 
     /**
      * Unique identifier for the food item.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "food_items_seq")
+    @SequenceGenerator(name = "food_items_seq", sequenceName = "food_items_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -36,10 +45,12 @@ public class FoodItem {
 
     /**
      * List of nutrients associated with the food item.
-     * This list is stored in the "food_item_nutrients" table with a foreign key reference to this FoodItem.
+     * Stored in the "nutrient_values" jsonb column as [slot, value] pairs; names and units live in the
+     * "nutrient_definitions" dictionary (see {@link NutrientListConverter}). Loaded with the row itself.
      */
-    @ElementCollection(fetch = FetchType.LAZY)
-    @CollectionTable(name = "food_item_nutrients", joinColumns = @JoinColumn(name = "food_item_id"))
+    @Convert(converter = NutrientListConverter.class)
+    @Column(name = "nutrient_values", columnDefinition = "jsonb")
+    @ColumnTransformer(write = "?::jsonb")
     private List<NutrientInfo> nutrients = new ArrayList<>();
 
     /**
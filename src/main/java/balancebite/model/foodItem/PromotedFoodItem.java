@@ -12,7 +12,8 @@ import java.math.BigDecimal;
 public class PromotedFoodItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "promoted_food_items_seq")
+    @SequenceGenerator(name = "promoted_food_items_seq", sequenceName = "promoted_food_items_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -10,8 +10,14 @@ import balancebite.model.meal.references.MealType;
 import balancebite.model.user.User;
 import balancebite.model.user.userenums.ActivityLevel;
 import balancebite.model.user.userenums.Goal;
+import balancebite.service.meal.MealNameIndexListener;
+import balancebite.service.meal.MealNutrientCatalogListener;
+import balancebite.service.meal.MealPriceListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -26,6 +32,7 @@ import java.util.stream.Collectors;
  */
 @Entity
 @Table(name = "meals")
+@EntityListeners({MealNameIndexListener.class, MealNutrientCatalogListener.class, MealPriceListener.class})
 public class Meal {
 
     private static final String CREATED_BY_USER_ID_COLUMN = "created_by_user_id";
@@ -35,7 +42,8 @@ public class Meal {
      * Unique identifier for the meal.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meals_seq")
+    @SequenceGenerator(name = "meals_seq", sequenceName = "meals_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -113,6 +121,7 @@ public class Meal {
     @CollectionTable(name = "meal_meal_types", joinColumns = @JoinColumn(name = "meal_id"))
     @Enumerated(EnumType.STRING)
     @Column(name = "meal_type")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "meal-types")
     private Set<MealType> mealTypes = new HashSet<>();
 
     /**
@@ -123,6 +132,7 @@ public class Meal {
     @CollectionTable(name = "meal_cuisines", joinColumns = @JoinColumn(name = "meal_id"))
     @Enumerated(EnumType.STRING)
     @Column(name = "cuisine")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "meal-cuisines")
     private Set<Cuisine> cuisines = new HashSet<>();
 
     /**
@@ -133,6 +143,7 @@ public class Meal {
     @CollectionTable(name = "meal_diets", joinColumns = @JoinColumn(name = "meal_id"))
     @Enumerated(EnumType.STRING)
     @Column(name = "diet")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "meal-diets")
     private Set<Diet> diets = new HashSet<>();
 
 
@@ -183,6 +194,25 @@ public class Meal {
     @Column(name = "preparation_time")
     private Duration preparationTime;
 
+    /**
+     * Ingredient cost of the meal, using active promotions (sum of the known item costs; null if none is known).
+     * Maintained in SQL by {@link balancebite.service.meal.MealPriceService}, never written through the entity.
+     */
+    @Column(name = "price", precision = 10, scale = 2, insertable = false, updatable = false)
+    private BigDecimal price;
+
+    /**
+     * True when at least one ingredient has no known price; maintained together with {@link #price}.
+     */
+    @Column(name = "has_unknown_prices", insertable = false, updatable = false)
+    private Boolean hasUnknownPrices;
+
+    /**
+     * {@link #price} divided by the number of servings (at least 1); maintained together with {@link #price}.
+     */
+    @Column(name = "price_per_serving", precision = 10, scale = 2, insertable = false, updatable = false)
+    private BigDecimal pricePerServing;
+
     @ManyToMany(mappedBy = "savedMeals")
     private Set<User> users = new HashSet<>();
 
@@ -199,6 +229,18 @@ public class Meal {
         return saveCount;
     }
 
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Boolean getHasUnknownPrices() {
+        return hasUnknownPrices;
+    }
+
+    public BigDecimal getPricePerServing() {
+        return pricePerServing;
+    }
+
     /**
      * External video URL for this meal (we only store the link).
      */
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class SavedMeal {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saved_meal_seq")
+    @SequenceGenerator(name = "saved_meal_seq", sequenceName = "saved_meal_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -8,7 +8,8 @@ import jakarta.persistence.*;
 public class SharedMealAccess {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shared_meal_access_seq")
+    @SequenceGenerator(name = "shared_meal_access_seq", sequenceName = "shared_meal_access_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -13,7 +13,8 @@ import java.time.LocalTime;
 public class ConsumedMeal {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "consumed_meal_seq")
+    @SequenceGenerator(name = "consumed_meal_seq", sequenceName = "consumed_meal_seq", allocationSize = 50)
     private Long id;
 
     @JsonIgnore
@@ -19,7 +19,8 @@ public class MealImage {
      * Unique identifier for the meal image.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meal_images_seq")
+    @SequenceGenerator(name = "meal_images_seq", sequenceName = "meal_images_seq", allocationSize = 50)
     private Long id;
 
     /**
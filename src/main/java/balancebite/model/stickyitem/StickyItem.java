@@ -19,7 +19,8 @@ public class StickyItem {
      * Unique identifier for the sticky item.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sticky_items_seq")
+    @SequenceGenerator(name = "sticky_items_seq", sequenceName = "sticky_items_seq", allocationSize = 50)
     private Long id;
 
     /**
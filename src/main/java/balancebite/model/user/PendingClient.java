@@ -7,7 +7,8 @@ import jakarta.persistence.*;
 public class PendingClient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pending_clients_seq")
+    @SequenceGenerator(name = "pending_clients_seq", sequenceName = "pending_clients_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
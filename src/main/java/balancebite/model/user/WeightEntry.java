@@ -8,7 +8,8 @@ import java.time.LocalDate;
 public class WeightEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_weight_history_seq")
+    @SequenceGenerator(name = "user_weight_history_seq", sequenceName = "user_weight_history_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
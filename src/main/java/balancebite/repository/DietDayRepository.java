@@ -1,17 +1,30 @@
 package balancebite.repository;
 
+import balancebite.dto.diet.ShoppingDemandRowDTO;
+import balancebite.dto.diet.ShoppingListRowDTO;
 import balancebite.model.diet.DietDay;
 import balancebite.model.meal.Meal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface DietDayRepository extends JpaRepository<DietDay, Long> {
     List<DietDay> findByDate(LocalDate date);
     List<DietDay> findByDietId(Long dietId);
+    long countByDietId(Long dietId);
+
+    /** Number of days of each of the given plans; plans without days are left out. Row: plan id, count. */
+    @Query("SELECT dd.diet.id, COUNT(dd) FROM DietDay dd WHERE dd.diet.id IN :dietIds GROUP BY dd.diet.id")
+    List<Object[]> countByDietIds(@Param("dietIds") Collection<Long> dietIds);
 
     @Query("SELECT dd FROM DietDay dd JOIN FETCH dd.diet WHERE :meal MEMBER OF dd.meals")
     List<DietDay> findByMealsContainingWithDietFetched(@Param("meal") Meal meal);
@@ -46,4 +59,163 @@ public interface DietDayRepository extends JpaRepository<DietDay, Long> {
     boolean existsMealInOtherUsersDiets(@Param("userId") Long userId,
                                         @Param("meal") Meal meal);
 
+    /**
+     * Aggregates the shopping list of a diet plan in a single grouped query.
+     * Sums ingredient quantities per food item over every meal occurrence in every day
+     * and joins the promotion of that food item if it is active at {@code now}.
+     *
+     * @param dietPlanId The ID of the diet plan.
+     * @param now        The moment used to decide whether a promotion is active.
+     * @return One row per food item in the plan.
+     */
+    @Query("""
+        SELECT new balancebite.dto.diet.ShoppingListRowDTO(
+            fi.id, fi.name, fi.source, fi.price, fi.grams, SUM(mi.quantity),
+            p.id, p.promoPrice, p.salePercentage, p.saleDescription)
+        FROM DietDay dd
+        JOIN dd.meals m
+        JOIN m.mealIngredients mi
+        JOIN mi.foodItem fi
+        LEFT JOIN PromotedFoodItem p ON p.foodItem = fi
+             AND (p.startDate IS NULL OR p.startDate <= :now)
+             AND (p.endDate IS NULL OR p.endDate >= :now)
+        WHERE dd.diet.id = :dietPlanId
+        GROUP BY fi.id, fi.name, fi.source, fi.price, fi.grams,
+                 p.id, p.promoPrice, p.salePercentage, p.saleDescription
+    """)
+    List<ShoppingListRowDTO> aggregateShoppingList(@Param("dietPlanId") Long dietPlanId,
+                                                   @Param("now") LocalDateTime now);
+
+    /**
+     * Aggregates required quantities per food item and per date over several diet plans,
+     * restricted to diet days scheduled within the given (inclusive) date range.
+     *
+     * @param dietPlanIds The IDs of the diet plans.
+     * @param from        First date of the range.
+     * @param to          Last date of the range.
+     * @return One row per food item per date.
+     */
+    @Query("""
+        SELECT new balancebite.dto.diet.ShoppingDemandRowDTO(
+            fi.id, fi.name, fi.source, fi.price, fi.grams, dd.date, SUM(mi.quantity))
+        FROM DietDay dd
+        JOIN dd.meals m
+        JOIN m.mealIngredients mi
+        JOIN mi.foodItem fi
+        WHERE dd.diet.id IN :dietPlanIds
+          AND dd.date BETWEEN :from AND :to
+        GROUP BY fi.id, fi.name, fi.source, fi.price, fi.grams, dd.date
+    """)
+    List<ShoppingDemandRowDTO> aggregateShoppingDemand(@Param("dietPlanIds") Collection<Long> dietPlanIds,
+                                                       @Param("from") LocalDate from,
+                                                       @Param("to") LocalDate to);
+
+    /**
+     * Aggregates required quantities per food item and per date over every day of several diet plans.
+     * Days without a date are returned with a null date.
+     *
+     * @param dietPlanIds The IDs of the diet plans.
+     * @return One row per food item per date.
+     */
+    @Query("""
+        SELECT new balancebite.dto.diet.ShoppingDemandRowDTO(
+            fi.id, fi.name, fi.source, fi.price, fi.grams, dd.date, SUM(mi.quantity))
+        FROM DietDay dd
+        JOIN dd.meals m
+        JOIN m.mealIngredients mi
+        JOIN mi.foodItem fi
+        WHERE dd.diet.id IN :dietPlanIds
+        GROUP BY fi.id, fi.name, fi.source, fi.price, fi.grams, dd.date
+    """)
+    List<ShoppingDemandRowDTO> aggregateShoppingDemand(@Param("dietPlanIds") Collection<Long> dietPlanIds);
+
+    @Query("SELECT DISTINCT dd FROM DietDay dd LEFT JOIN FETCH dd.meals WHERE dd.diet.id = :dietPlanId")
+    List<DietDay> fetchDaysWithMealsByDietPlanId(@Param("dietPlanId") Long dietPlanId);
+
+    @Query(value = """
+        SELECT DISTINCT ddm.meal_id
+        FROM diet_day_meals ddm
+        JOIN diet_day dd ON dd.id = ddm.diet_day_id
+        WHERE dd.diet_plan_id = :dietPlanId
+    """, nativeQuery = true)
+    List<Long> findDistinctMealIdsByDietPlanId(@Param("dietPlanId") Long dietPlanId);
+
+    /**
+     * Counts the days of a diet plan that have fewer than {@code min} distinct meals.
+     */
+    @Query(value = """
+        SELECT COUNT(*)
+        FROM diet_day dd
+        WHERE dd.diet_plan_id = :dietPlanId
+          AND (SELECT COUNT(DISTINCT ddm.meal_id) FROM diet_day_meals ddm WHERE ddm.diet_day_id = dd.id) < :min
+    """, nativeQuery = true)
+    long countDaysWithFewerMealsThan(@Param("dietPlanId") Long dietPlanId, @Param("min") int min);
+
+    /**
+     * Copies all days of one diet plan into another in a single statement, keeping their order.
+     * The native write declares the table it touches, so Hibernate only evicts cache regions of that table
+     * instead of the whole second-level cache; the same holds for the other native writes below.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "diet_day"))
+    @Query(value = """
+        INSERT INTO diet_day (day_label, day_index, date, diet_day_description, diet_plan_id,
+                              total_protein, total_carbs, total_fat, total_calories,
+                              total_saturated_fat, total_unsaturated_fat, total_sugars,
+                              total_fiber, total_sodium)
+        SELECT day_label, day_index, date, diet_day_description, :targetPlanId,
+               total_protein, total_carbs, total_fat, total_calories,
+               total_saturated_fat, total_unsaturated_fat, total_sugars,
+               total_fiber, total_sodium
+        FROM diet_day
+        WHERE diet_plan_id = :sourcePlanId
+        ORDER BY id
+    """, nativeQuery = true)
+    int copyDays(@Param("sourcePlanId") Long sourcePlanId, @Param("targetPlanId") Long targetPlanId);
+
+    /**
+     * Copies the diet tags of every day of one plan to the matching day (same position) of another plan.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "diet_day_diets"))
+    @Query(value = """
+        WITH src AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS pos FROM diet_day WHERE diet_plan_id = :sourcePlanId),
+             dst AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS pos FROM diet_day WHERE diet_plan_id = :targetPlanId)
+        INSERT INTO diet_day_diets (diet_day_id, diet)
+        SELECT dst.id, ddd.diet
+        FROM diet_day_diets ddd
+        JOIN src ON src.id = ddd.diet_day_id
+        JOIN dst ON dst.pos = src.pos
+    """, nativeQuery = true)
+    int copyDayDiets(@Param("sourcePlanId") Long sourcePlanId, @Param("targetPlanId") Long targetPlanId);
+
+    /**
+     * Copies the meal links of every day of one plan to the matching day (same position) of another plan,
+     * replacing each meal by the user's own version of it: the meal itself if it is in the user's
+     * meal list, otherwise the user's copy of it. Duplicate meals within a day are dropped.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "diet_day_meals"))
+    @Query(value = """
+        WITH src AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS pos FROM diet_day WHERE diet_plan_id = :sourcePlanId),
+             dst AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS pos FROM diet_day WHERE diet_plan_id = :targetPlanId),
+             resolved AS (
+                 SELECT dst.id AS day_id,
+                        COALESCE(
+                            (SELECT um.meal_id FROM user_meals um
+                             WHERE um.user_id = :userId AND um.meal_id = ddm.meal_id),
+                            (SELECT MIN(c.id) FROM user_meals um JOIN meals c ON c.id = um.meal_id
+                             WHERE um.user_id = :userId AND c.original_meal_id = ddm.meal_id),
+                            ddm.meal_id) AS meal_id
+                 FROM diet_day_meals ddm
+                 JOIN src ON src.id = ddm.diet_day_id
+                 JOIN dst ON dst.pos = src.pos
+             )
+        INSERT INTO diet_day_meals (diet_day_id, meal_id)
+        SELECT DISTINCT day_id, meal_id FROM resolved
+    """, nativeQuery = true)
+    int copyDayMealsForUser(@Param("sourcePlanId") Long sourcePlanId,
+                            @Param("targetPlanId") Long targetPlanId,
+                            @Param("userId") Long userId);
+
 }
@@ -0,0 +1,28 @@
+package balancebite.repository;
+
+import balancebite.dto.diet.DietPlanCardDTO;
+import balancebite.model.diet.DietPlan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Card projection queries for diet plan listings. Implemented with the Criteria API so the
+ * existing {@link Specification} filters can be reused while selecting only card columns.
+ */
+public interface DietPlanCardRepository {
+
+    /**
+     * Returns one page of plan cards matching the specification: one query for the cards,
+     * one for their diets and (when needed) one count query.
+     */
+    Page<DietPlanCardDTO> findCards(Specification<DietPlan> spec, Pageable pageable);
+
+    /**
+     * Returns the cards of the given plans, in no particular order.
+     */
+    List<DietPlanCardDTO> findCardsByIds(Collection<Long> ids);
+}
@@ -0,0 +1,150 @@
+package balancebite.repository;
+
+import balancebite.dto.diet.DietPlanCardDTO;
+import balancebite.model.diet.DietPlan;
+import balancebite.model.meal.references.Diet;
+import balancebite.model.user.User;
+import balancebite.model.user.userenums.Goal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+public class DietPlanCardRepositoryImpl implements DietPlanCardRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<DietPlanCardDTO> findCards(Specification<DietPlan> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<DietPlan> root = query.from(DietPlan.class);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        selectCardColumns(query, root, cb);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<DietPlanCardDTO> cards = toCards(typedQuery.getResultList());
+
+        return PageableExecutionUtils.getPage(cards, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<DietPlanCardDTO> findCardsByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<DietPlan> root = query.from(DietPlan.class);
+        query.where(root.get("id").in(ids));
+        selectCardColumns(query, root, cb);
+
+        return toCards(entityManager.createQuery(query).getResultList());
+    }
+
+    private void selectCardColumns(CriteriaQuery<Tuple> query, Root<DietPlan> root, CriteriaBuilder cb) {
+        Join<DietPlan, User> creator = root.join("createdBy", JoinType.LEFT);
+        query.multiselect(
+                root.get("id").alias("id"),
+                root.get("name").alias("name"),
+                root.get("originalDietId").alias("originalDietId"),
+                root.get("isTemplate").alias("isTemplate"),
+                root.get("isPrivate").alias("isPrivate"),
+                root.get("isRestricted").alias("isRestricted"),
+                root.get("createdAt").alias("createdAt"),
+                creator.get("id").alias("createdByUserId"),
+                creator.get("userName").alias("createdByUserName"),
+                cb.size(root.<Collection<?>>get("dietDays")).alias("dayCount"),
+                root.get("goal").alias("goal"),
+                root.get("avgCalories").alias("avgCalories"),
+                root.get("avgProtein").alias("avgProtein"),
+                root.get("avgCarbs").alias("avgCarbs"),
+                root.get("avgFat").alias("avgFat"),
+                root.get("saveCount").alias("saveCount"),
+                root.get("weeklySaveCount").alias("weeklySaveCount"),
+                root.get("monthlySaveCount").alias("monthlySaveCount"),
+                root.get("flagHighFiber").alias("flagHighFiber"),
+                root.get("flagLowSugar").alias("flagLowSugar"),
+                root.get("flagLowUnhealthyFats").alias("flagLowUnhealthyFats")
+        );
+    }
+
+    private List<DietPlanCardDTO> toCards(List<Tuple> rows) {
+        if (rows.isEmpty()) return List.of();
+
+        List<Long> ids = rows.stream().map(row -> row.get("id", Long.class)).toList();
+        Map<Long, Set<Diet>> dietsByPlan = new HashMap<>();
+        entityManager.createQuery("SELECT d.id, dt FROM DietPlan d JOIN d.diets dt WHERE d.id IN :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(pair -> dietsByPlan
+                        .computeIfAbsent((Long) pair[0], id -> EnumSet.noneOf(Diet.class))
+                        .add((Diet) pair[1]));
+
+        List<DietPlanCardDTO> cards = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Long id = row.get("id", Long.class);
+            cards.add(new DietPlanCardDTO(
+                    id,
+                    row.get("name", String.class),
+                    row.get("originalDietId", Long.class),
+                    Boolean.TRUE.equals(row.get("isTemplate", Boolean.class)),
+                    Boolean.TRUE.equals(row.get("isPrivate", Boolean.class)),
+                    Boolean.TRUE.equals(row.get("isRestricted", Boolean.class)),
+                    row.get("createdAt", LocalDateTime.class),
+                    row.get("createdByUserId", Long.class),
+                    row.get("createdByUserName", String.class),
+                    row.get("dayCount", Integer.class),
+                    dietsByPlan.getOrDefault(id, Set.of()),
+                    row.get("goal", Goal.class),
+                    row.get("avgCalories", Double.class),
+                    row.get("avgProtein", Double.class),
+                    row.get("avgCarbs", Double.class),
+                    row.get("avgFat", Double.class),
+                    orZero(row.get("saveCount", Long.class)),
+                    orZero(row.get("weeklySaveCount", Long.class)),
+                    orZero(row.get("monthlySaveCount", Long.class)),
+                    row.get("flagHighFiber", Boolean.class),
+                    row.get("flagLowSugar", Boolean.class),
+                    row.get("flagLowUnhealthyFats", Boolean.class)
+            ));
+        }
+        return cards;
+    }
+
+    private long count(Specification<DietPlan> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<DietPlan> root = query.from(DietPlan.class);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        // Een count geeft één rij; distinct hoort alleen in de count zelf
+        query.distinct(false);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
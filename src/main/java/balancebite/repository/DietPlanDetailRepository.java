@@ -0,0 +1,18 @@
+package balancebite.repository;
+
+import balancebite.model.diet.DietPlan;
+
+import java.util.Optional;
+
+/**
+ * Loads a complete diet plan graph for detail views.
+ */
+public interface DietPlanDetailRepository {
+
+    /**
+     * Loads the plan with its days, meals, ingredients, food items (with nutrients), images and tag sets
+     * in a fixed number of queries, independent of the number of days and meals.
+     * A meal that appears on several days is loaded once and shared between those days.
+     */
+    Optional<DietPlan> findDetailById(Long id);
+}
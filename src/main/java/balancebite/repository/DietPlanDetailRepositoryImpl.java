@@ -0,0 +1,100 @@
+package balancebite.repository;
+
+import balancebite.model.diet.DietPlan;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+import java.util.Optional;
+
+public class DietPlanDetailRepositoryImpl implements DietPlanDetailRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * The order of the queries matters: every entity is first loaded by a query that also fetches
+     * its EAGER collections, so later queries only find managed instances and never fall back to
+     * loading those collections one owner at a time. Bags (days, day meals, ingredients, images)
+     * are each fetched in a query of their own to avoid duplicated elements.
+     */
+    @Override
+    public Optional<DietPlan> findDetailById(Long id) {
+        List<DietPlan> plans = entityManager.createQuery("""
+                SELECT d FROM DietPlan d
+                LEFT JOIN FETCH d.diets
+                LEFT JOIN FETCH d.createdBy
+                LEFT JOIN FETCH d.adjustedBy
+                WHERE d.id = :id
+                """, DietPlan.class)
+                .setParameter("id", id)
+                .getResultList();
+        if (plans.isEmpty()) return Optional.empty();
+
+        entityManager.createQuery("""
+                SELECT dd FROM DietDay dd
+                LEFT JOIN FETCH dd.diets
+                WHERE dd.diet.id = :id
+                """)
+                .setParameter("id", id)
+                .getResultList();
+
+        List<Long> mealIds = entityManager.createQuery("""
+                SELECT DISTINCT m.id FROM DietDay dd
+                JOIN dd.meals m
+                WHERE dd.diet.id = :id
+                """, Long.class)
+                .setParameter("id", id)
+                .getResultList();
+
+        if (!mealIds.isEmpty()) {
+            entityManager.createQuery("""
+                    SELECT m FROM Meal m
+                    LEFT JOIN FETCH m.mealTypes
+                    LEFT JOIN FETCH m.cuisines
+                    LEFT JOIN FETCH m.diets
+                    LEFT JOIN FETCH m.createdBy
+                    LEFT JOIN FETCH m.adjustedBy
+                    WHERE m.id IN :mealIds
+                    """)
+                    .setParameter("mealIds", mealIds)
+                    .getResultList();
+
+            entityManager.createQuery("""
+                    SELECT m FROM Meal m
+                    LEFT JOIN FETCH m.mealIngredients mi
+                    LEFT JOIN FETCH mi.foodItem
+                    WHERE m.id IN :mealIds
+                    """)
+                    .setParameter("mealIds", mealIds)
+                    .getResultList();
+
+            entityManager.createQuery("""
+                    SELECT m FROM Meal m
+                    LEFT JOIN FETCH m.images
+                    WHERE m.id IN :mealIds
+                    """)
+                    .setParameter("mealIds", mealIds)
+                    .getResultList();
+        }
+
+        // Dagen en hun maaltijden: alle maaltijden zijn nu al geladen en worden gedeeld
+        entityManager.createQuery("""
+                SELECT dd FROM DietDay dd
+                LEFT JOIN FETCH dd.meals
+                WHERE dd.diet.id = :id
+                """)
+                .setParameter("id", id)
+                .getResultList();
+
+        return entityManager.createQuery("""
+                SELECT d FROM DietPlan d
+                LEFT JOIN FETCH d.dietDays
+                WHERE d.id = :id
+                """, DietPlan.class)
+                .setParameter("id", id)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+}
@@ -2,15 +2,21 @@ package balancebite.repository;
 import balancebite.dto.diet.DietPlanNameDTO;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import balancebite.model.diet.DietPlan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface DietPlanRepository extends JpaRepository<DietPlan, Long>, JpaSpecificationExecutor<DietPlan> {
+public interface DietPlanRepository extends JpaRepository<DietPlan, Long>, JpaSpecificationExecutor<DietPlan>, DietPlanCardRepository, DietPlanDetailRepository {
 
     Page<DietPlan> findByAdjustedBy_Id(Long userId, Pageable pageable);
 
@@ -36,5 +42,84 @@ public interface DietPlanRepository extends JpaRepository<DietPlan, Long>, JpaSp
             @Param("originalDietIds") List<Long> originalDietIds
     );
 
+    @Query("""
+        SELECT d.originalDietId, d.id
+        FROM DietPlan d
+        WHERE (d.createdBy.id = :userId OR d.adjustedBy.id = :userId)
+          AND d.originalDietId IN :originalDietIds
+    """)
+    List<Object[]> findUserCopyIdsForTemplates(
+            @Param("userId") Long userId,
+            @Param("originalDietIds") List<Long> originalDietIds
+    );
+
     boolean existsByOriginalDietId(Long originalDietId);
+
+    /**
+     * Sets the diet tags of a plan to the union of the diets of all meals in its days.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "dietplan_diets"))
+    @Query(value = """
+        INSERT INTO dietplan_diets (dietplan_id, diet)
+        SELECT DISTINCT :dietPlanId, md.diet
+        FROM diet_day dd
+        JOIN diet_day_meals ddm ON ddm.diet_day_id = dd.id
+        JOIN meal_diets md ON md.meal_id = ddm.meal_id
+        WHERE dd.diet_plan_id = :dietPlanId
+    """, nativeQuery = true)
+    int insertDietsFromMeals(@Param("dietPlanId") Long dietPlanId);
+
+    /**
+     * Sets the save counters with a bulk update, which neither checks nor bumps the optimistic lock version:
+     * saving or counting a plan must not conflict with its owner editing it. The counters are mapped
+     * {@code updatable = false}, so this is the only way they are written after insert.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "diet_plan"))
+    @Query(value = "UPDATE diet_plan SET save_count = :total, weekly_save_count = :weekly, monthly_save_count = :monthly WHERE id = :id",
+            nativeQuery = true)
+    int updateSaveCounts(@Param("id") Long id, @Param("total") long total,
+                         @Param("weekly") long weekly, @Param("monthly") long monthly);
+
+    /**
+     * Sets the total save counter only; see {@link #updateSaveCounts}.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "diet_plan"))
+    @Query(value = "UPDATE diet_plan SET save_count = :total WHERE id = :id", nativeQuery = true)
+    int updateSaveCount(@Param("id") Long id, @Param("total") long total);
+
+    @Query("SELECT DISTINCT d FROM DietPlan d LEFT JOIN FETCH d.dietDays WHERE d.id = :id")
+    Optional<DietPlan> findWithDaysById(@Param("id") Long id);
+
+    /**
+     * Source columns of the public diet plan cards for the given plans; plans that are not public are skipped.
+     * Row: id, name, originalDietId, creator id, creator name, goal, day count,
+     * avg kcal/protein/carbs/fat, total kcal/protein/carbs/fat, save counts (total, weekly, monthly),
+     * flags (high fiber, low sugar, low unhealthy fats), createdAt.
+     */
+    @Query("""
+        SELECT d.id, d.name, d.originalDietId, u.id, u.userName, d.goal, SIZE(d.dietDays),
+               d.avgCalories, d.avgProtein, d.avgCarbs, d.avgFat,
+               d.totalCalories, d.totalProtein, d.totalCarbs, d.totalFat,
+               d.saveCount, d.weeklySaveCount, d.monthlySaveCount,
+               d.flagHighFiber, d.flagLowSugar, d.flagLowUnhealthyFats, d.createdAt
+        FROM DietPlan d
+        LEFT JOIN d.createdBy u
+        WHERE d.id IN :ids
+          AND d.isTemplate = true AND d.isPrivate = false AND d.isRestricted = false
+    """)
+    List<Object[]> findPublicCardSourceRows(@Param("ids") Collection<Long> ids);
+
+    /** (dietPlanId, Diet) pairs of the given plans. */
+    @Query("SELECT d.id, dt FROM DietPlan d JOIN d.diets dt WHERE d.id IN :ids")
+    List<Object[]> findDietsByPlanIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT d.id FROM DietPlan d
+        WHERE d.isTemplate = true AND d.isPrivate = false AND d.isRestricted = false
+        ORDER BY d.id
+    """)
+    List<Long> findAllPublicTemplateIds();
 }
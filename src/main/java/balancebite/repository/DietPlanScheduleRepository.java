@@ -0,0 +1,67 @@
+package balancebite.repository;
+
+import balancebite.model.diet.DietPlanSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DietPlanScheduleRepository extends JpaRepository<DietPlanSchedule, Long> {
+
+    @Query("""
+        SELECT s FROM DietPlanSchedule s
+        JOIN FETCH s.dietPlan
+        WHERE s.user.id = :userId
+        ORDER BY s.startDate, s.id
+    """)
+    List<DietPlanSchedule> findByUserIdWithPlan(@Param("userId") Long userId);
+
+    Optional<DietPlanSchedule> findByIdAndUser_Id(Long id, Long userId);
+
+    /**
+     * Resolves a user's calendar for a date range in one query: expands every schedule overlapping the
+     * range into its dates, picks the plan day that falls on each date and joins that day's meals.
+     * Uses the (user_id, start_date, end_date) index.
+     *
+     * The span of a whole plan is its current number of days, not the count at scheduling time: a plan
+     * without repetition ends after its last current day, and a repeated plan repeats every
+     * {@code GREATEST(repeat_every_days, span)} days, so days added later are never cut off.
+     *
+     * Row: date, schedule id, plan id, plan name, day id, day label, day kcal/protein/carbs/fat,
+     * meal id, meal name, meal kcal/protein/carbs/fat (meal columns are null for a day without meals).
+     */
+    @Query(value = """
+        SELECT CAST(g.d AS date) AS day, s.id, p.id, p.name, dd.id, dd.day_label,
+               dd.total_calories, dd.total_protein, dd.total_carbs, dd.total_fat,
+               m.id, m.name, m.total_calories, m.total_protein, m.total_carbs, m.total_fat
+        FROM diet_plan_schedule s
+        CROSS JOIN LATERAL (
+            SELECT CAST(CASE WHEN s.day_index IS NULL THEN COUNT(*) ELSE 1 END AS integer) AS span
+            FROM diet_day c
+            WHERE c.diet_plan_id = s.diet_plan_id
+        ) n
+        CROSS JOIN LATERAL generate_series(CAST(GREATEST(s.start_date, :fromDate) AS timestamp),
+                                           CAST(LEAST(CASE WHEN s.repeat_every_days IS NULL
+                                                           THEN s.start_date + n.span - 1
+                                                           ELSE s.end_date END, :toDate) AS timestamp),
+                                           INTERVAL '1 day') AS g(d)
+        JOIN diet_plan p ON p.id = s.diet_plan_id
+        JOIN diet_day dd ON dd.diet_plan_id = s.diet_plan_id
+             AND (s.day_index IS NULL OR dd.day_index = s.day_index)
+             AND CASE WHEN s.repeat_every_days IS NULL THEN CAST(g.d AS date) - s.start_date
+                      ELSE MOD(CAST(g.d AS date) - s.start_date, GREATEST(s.repeat_every_days, n.span)) END
+                 = CASE WHEN s.day_index IS NULL THEN dd.day_index ELSE 0 END
+        LEFT JOIN diet_day_meals ddm ON ddm.diet_day_id = dd.id
+        LEFT JOIN meals m ON m.id = ddm.meal_id
+        WHERE s.user_id = :userId
+          AND s.start_date <= :toDate
+          AND (s.end_date >= :fromDate OR (s.day_index IS NULL AND s.repeat_every_days IS NULL))
+        ORDER BY day, s.id, dd.id, m.id
+    """, nativeQuery = true)
+    List<Object[]> findCalendarRows(@Param("userId") Long userId,
+                                    @Param("fromDate") LocalDate fromDate,
+                                    @Param("toDate") LocalDate toDate);
+}
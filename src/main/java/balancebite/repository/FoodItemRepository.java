@@ -4,9 +4,15 @@ import balancebite.dto.fooditem.FoodItemNameDTO;
 import balancebite.model.foodItem.FoodCategory;
 import balancebite.model.foodItem.FoodItem;
 import balancebite.model.foodItem.FoodSource;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -39,6 +45,15 @@ public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
      */
     boolean existsByFdcId(int fdcId);
 
+    /**
+     * Returns which of the given FDC IDs already exist, in a single {@code fdc_id = ANY(?)} query.
+     *
+     * @param fdcIds The FDC IDs to check.
+     * @return The FDC IDs that exist in the database.
+     */
+    @Query(value = "SELECT fdc_id FROM food_items WHERE fdc_id = ANY(:fdcIds)", nativeQuery = true)
+    List<Integer> findExistingFdcIds(@Param("fdcIds") Integer[] fdcIds);
+
     /**
      * Retrieves all food items with only ID, name and gramWeight.
      *
@@ -47,14 +62,37 @@ public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
     @Query("SELECT DISTINCT new balancebite.dto.fooditem.FoodItemNameDTO(f.id, f.name, f.gramWeight) FROM FoodItem f")
     List<FoodItemNameDTO> findAllFoodItemNames();
 
+    /**
+     * Keyset pagination: the IDs following the given ID, in ascending order.
+     */
+    @Query("SELECT f.id FROM FoodItem f WHERE f.id > :after ORDER BY f.id")
+    List<Long> findIdsAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Loads food items by ID, ordered by ID. Nutrients are part of the row and need no extra query.
+     */
+    @Query("SELECT f FROM FoodItem f WHERE f.id IN :ids ORDER BY f.id")
+    List<FoodItem> findByIdInOrderById(@Param("ids") Collection<Long> ids);
+
     /**
      * Finds all food items that have the given food source.
      *
      * @param foodSource The food source to filter by.
      * @return A list of FoodItems from the specified food source.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<FoodItem> findByFoodSource(FoodSource foodSource);
 
+    /**
+     * ID, name and FDC ID of every food item of a food source, without loading the entities.
+     *
+     * @param foodSource The food source to filter by.
+     * @return One {@code [id, name, fdcId]} row per food item.
+     */
+    @Query("SELECT f.id, f.name, f.fdcId FROM FoodItem f WHERE f.foodSource = :foodSource")
+    List<Object[]> findMatchKeysByFoodSource(@Param("foodSource") FoodSource foodSource);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<FoodItem> findByFoodCategory(FoodCategory category);
 
     List<FoodItem> findByNameContainingIgnoreCase(String q);
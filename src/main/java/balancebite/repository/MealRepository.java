@@ -3,21 +3,28 @@ package balancebite.repository;
 import balancebite.dto.NutrientInfoDTO;
 import balancebite.dto.fooditem.FoodItemNameDTO;
 import balancebite.dto.meal.MealDTO;
+import balancebite.dto.meal.MealMacroRowDTO;
 import balancebite.dto.meal.MealNameDTO;
+import balancebite.dto.meal.MealNameSuggestionDTO;
 import balancebite.model.meal.Meal;
 import balancebite.model.meal.references.Cuisine;
 import balancebite.model.meal.references.Diet;
 import balancebite.model.meal.references.MealType;
 import balancebite.model.user.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -159,14 +166,117 @@ public interface MealRepository extends JpaRepository<Meal, Long>, JpaSpecificat
     @Query("SELECT DISTINCT new balancebite.dto.meal.MealNameDTO(m.id, m.name) FROM Meal m WHERE m.isTemplate = true")
     List<MealNameDTO> findAllMealNames();
 
+    /**
+     * Retrieves the ID, name and save count of every public template meal.
+     * Used to seed the in-memory meal name autocomplete index.
+     *
+     * @return A list of MealNameSuggestionDTOs for all public template meals.
+     */
+    @Query("""
+        SELECT new balancebite.dto.meal.MealNameSuggestionDTO(m.id, m.name, m.saveCount)
+        FROM Meal m
+        WHERE m.isTemplate = true AND m.isPrivate = false AND m.isRestricted = false
+    """)
+    List<MealNameSuggestionDTO> findAllPublicTemplateMealNameSuggestions();
+
+    /**
+     * Retrieves the macro totals and servings of every public template meal.
+     * Used to build the in-memory meal nutrient catalog for plan generation.
+     */
+    @Query("""
+        SELECT new balancebite.dto.meal.MealMacroRowDTO(m.id, m.totalCalories, m.totalProtein, m.totalCarbs, m.totalFat, m.servings)
+        FROM Meal m
+        WHERE m.isTemplate = true AND m.isPrivate = false AND m.isRestricted = false
+        ORDER BY m.id
+    """)
+    List<MealMacroRowDTO> findAllPublicTemplateMealMacros();
+
+    /** (meal ID, diet) pairs of all public template meals. */
+    @Query("SELECT m.id, d FROM Meal m JOIN m.diets d WHERE m.isTemplate = true AND m.isPrivate = false AND m.isRestricted = false")
+    List<Object[]> findAllPublicTemplateMealDiets();
+
+    /**
+     * (meal ID, price per serving, has unknown prices) of all public template meals, from the persisted price columns.
+     */
+    @Query("SELECT m.id, m.pricePerServing, m.hasUnknownPrices FROM Meal m WHERE m.isTemplate = true AND m.isPrivate = false AND m.isRestricted = false")
+    List<Object[]> findAllPublicTemplateMealPrices();
+
+    /**
+     * Reverse index lookup: IDs of all meals that use one of the given food items.
+     */
+    @Query(value = "SELECT DISTINCT meal_id FROM meal_ingredients WHERE food_item_id = ANY(:foodItemIds)", nativeQuery = true)
+    List<Long> findMealIdsByFoodItemIds(@Param("foodItemIds") Long[] foodItemIds);
+
+    @Query("SELECT m.id FROM Meal m")
+    List<Long> findAllIds();
+
+    /**
+     * Recomputes the persisted price of the given meals at the given moment, with the same rules as the meal DTO:
+     * an ingredient costs its promo-aware price per 100 g (2 decimals) times its quantity; ingredients without
+     * a price, grams or quantity are unknown. The meal price is the rounded sum of the known costs; the price
+     * per serving divides it by the number of servings (at least 1).
+     *
+     * @return The number of updated meals.
+     */
     @Modifying
     @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "meals"))
+    @Query(value = """
+        UPDATE meals m
+        SET price = c.price,
+            price_per_serving = ROUND(c.price / GREATEST(COALESCE(m.servings, 1), 1), 2),
+            has_unknown_prices = COALESCE(c.has_unknown, false)
+        FROM unnest(CAST(:mealIds AS bigint[])) AS ids(id)
+        LEFT JOIN (
+            SELECT t.meal_id, ROUND(SUM(t.item_cost), 2) AS price, BOOL_OR(t.item_cost IS NULL) AS has_unknown
+            FROM (
+                SELECT mi.meal_id,
+                       CASE WHEN fi.grams > 0 AND mi.quantity > 0 THEN
+                           ROUND(ROUND(COALESCE(ROUND(p.promo_price, 2),
+                                                ROUND(fi.price * (100 - p.sale_percentage) / 100.0, 2),
+                                                fi.price) * 100 / fi.grams, 2)
+                                 * CAST(mi.quantity AS numeric) / 100, 2)
+                       END AS item_cost
+                FROM meal_ingredients mi
+                JOIN food_items fi ON fi.id = mi.food_item_id
+                LEFT JOIN promoted_food_items p ON p.food_item_id = fi.id
+                     AND p.start_date <= :now AND p.end_date >= :now
+                WHERE mi.meal_id = ANY(CAST(:mealIds AS bigint[]))
+            ) t
+            GROUP BY t.meal_id
+        ) c ON c.meal_id = ids.id
+        WHERE m.id = ids.id
+    """, nativeQuery = true)
+    int recomputePrices(@Param("mealIds") Long[] mealIds, @Param("now") LocalDateTime now);
+
+    /** (meal ID, cuisine) pairs of all public template meals. */
+    @Query("SELECT m.id, c FROM Meal m JOIN m.cuisines c WHERE m.isTemplate = true AND m.isPrivate = false AND m.isRestricted = false")
+    List<Object[]> findAllPublicTemplateMealCuisines();
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "saved_meal"))
     @Query(value = "DELETE FROM saved_meal WHERE meal_id = :mealId", nativeQuery = true)
     void deleteFromSavedMeal(long mealId);
 
     @Query("SELECT m FROM Meal m WHERE m.adjustedBy.id = :userId AND m.originalMealId IN :originalMealIds")
     List<Meal> findByAdjustedBy_IdAndOriginalMealIdIn(@Param("userId") Long userId, @Param("originalMealIds") List<Long> originalMealIds);
 
+    /**
+     * Finds the meals in a user's meal list that are either one of the given meals
+     * or a copy of one of them.
+     *
+     * @param userId  The ID of the user.
+     * @param mealIds The IDs of the (template) meals.
+     * @return The matching meals from the user's meal list.
+     */
+    @Query("""
+        SELECT m FROM User u JOIN u.meals m
+        WHERE u.id = :userId
+          AND (m.id IN :mealIds OR m.originalMealId IN :mealIds)
+    """)
+    List<Meal> findUserMealsMatching(@Param("userId") Long userId, @Param("mealIds") Collection<Long> mealIds);
+
     @Query("""
     SELECT m
     FROM Meal m
@@ -191,6 +301,9 @@ public interface MealRepository extends JpaRepository<Meal, Long>, JpaSpecificat
     @Query("SELECT DISTINCT m FROM Meal m JOIN m.mealIngredients mi WHERE mi.foodItem.id = :foodItemId")
     List<Meal> findByFoodItemId(@Param("foodItemId") Long foodItemId);
 
+    @Query("SELECT DISTINCT m FROM Meal m JOIN m.mealIngredients mi WHERE mi.foodItem.id IN :foodItemIds")
+    List<Meal> findByFoodItemIdIn(@Param("foodItemIds") Collection<Long> foodItemIds);
+
     @Query("SELECT DISTINCT m FROM Meal m LEFT JOIN FETCH m.mealIngredients mi LEFT JOIN FETCH mi.foodItem")
     List<Meal> findAllWithIngredients();
 
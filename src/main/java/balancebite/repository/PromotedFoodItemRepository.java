@@ -2,8 +2,12 @@ package balancebite.repository;
 
 import balancebite.model.foodItem.PromotedFoodItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +15,22 @@ public interface PromotedFoodItemRepository extends JpaRepository<PromotedFoodIt
 
     Optional<PromotedFoodItem> findByFoodItemId(Long foodItemId);
     void deleteByFoodItem_Id(Long foodItemId);
-    List<PromotedFoodItem> findByEndDateBefore(LocalDateTime time);
+    /** Deletes all promotions that ended before the given moment in one statement. */
+    @Modifying
+    @Query("DELETE FROM PromotedFoodItem p WHERE p.endDate < :time")
+    int deleteAllEndedBefore(@Param("time") LocalDateTime time);
 
+    /** (food item ID, start, end) of every promotion that has not ended at {@code now}. */
+    @Query("SELECT p.foodItem.id, p.startDate, p.endDate FROM PromotedFoodItem p WHERE p.endDate >= :now")
+    List<Object[]> findWindowsNotEndedAt(@Param("now") LocalDateTime now);
+
+    @Query("""
+        SELECT p FROM PromotedFoodItem p
+        WHERE p.foodItem.id IN :foodItemIds
+          AND p.startDate <= :until
+          AND p.endDate >= :from
+    """)
+    List<PromotedFoodItem> findOverlapping(@Param("foodItemIds") Collection<Long> foodItemIds,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("until") LocalDateTime until);
 }
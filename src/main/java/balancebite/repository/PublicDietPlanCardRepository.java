@@ -0,0 +1,23 @@
+package balancebite.repository;
+
+import balancebite.model.diet.PublicDietPlanCard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface PublicDietPlanCardRepository extends JpaRepository<PublicDietPlanCard, Long>, JpaSpecificationExecutor<PublicDietPlanCard> {
+
+    /**
+     * Removes cards whose plan no longer exists or is no longer public.
+     */
+    @Modifying
+    @Query("""
+        DELETE FROM PublicDietPlanCard c
+        WHERE c.dietPlanId NOT IN (
+            SELECT d.id FROM DietPlan d
+            WHERE d.isTemplate = true AND d.isPrivate = false AND d.isRestricted = false
+        )
+    """)
+    int deleteStaleCards();
+}
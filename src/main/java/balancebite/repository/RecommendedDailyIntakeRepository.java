@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -36,4 +37,13 @@ public interface RecommendedDailyIntakeRepository extends JpaRepository<Recommen
      */
     @Query("SELECT COUNT(r) > 0 FROM RecommendedDailyIntake r WHERE r.user.id = :userId AND r.createdAt = :createdAt AND r.id != r.user.baseRecommendedDailyIntake.id")
     boolean existsByUser_IdAndCreatedAt(@Param("userId") Long userId, @Param("createdAt") LocalDate createdAt);
+
+    /**
+     * Returns the IDs of all users that have a RecommendedDailyIntake on a specific date, excluding BaseRDI.
+     *
+     * @param createdAt The date to check.
+     * @return The IDs of the users with an intake on that date.
+     */
+    @Query("SELECT DISTINCT r.user.id FROM RecommendedDailyIntake r WHERE r.createdAt = :createdAt AND r.id != r.user.baseRecommendedDailyIntake.id")
+    List<Long> findUserIdsWithIntakeOn(@Param("createdAt") LocalDate createdAt);
 }
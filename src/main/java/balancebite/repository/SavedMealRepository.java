@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +19,14 @@ public interface SavedMealRepository extends JpaRepository<SavedMeal, Long> {
 
     long countByMealAndTimestampAfter(Meal meal, LocalDateTime since);
 
+    /**
+     * Counts saves for several meals at once.
+     *
+     * @return Rows of [mealId (Long), count (Long)], only for meals that have saves.
+     */
+    @Query("SELECT s.meal.id, COUNT(s) FROM SavedMeal s WHERE s.meal.id IN :mealIds GROUP BY s.meal.id")
+    List<Object[]> countByMealIds(@Param("mealIds") Collection<Long> mealIds);
+
     List<SavedMeal> findAllByTimestampAfter(LocalDateTime since);
 
     Optional<SavedMeal> findTopByMealOrderByTimestampDesc(Meal meal); // ← toegevoegd
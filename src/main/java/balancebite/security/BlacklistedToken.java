@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 public class BlacklistedToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_blacklist_seq")
+    @SequenceGenerator(name = "token_blacklist_seq", sequenceName = "token_blacklist_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
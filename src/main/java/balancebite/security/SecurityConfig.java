@@ -115,6 +115,7 @@ public class SecurityConfig {
                                 .requestMatchers(HttpMethod.PATCH, "/users/**").authenticated()
                                 .requestMatchers(HttpMethod.PUT, "/users/**").authenticated()
                                 .requestMatchers("/admins/**").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.GET, "/actuator/metrics/**").hasRole("ADMIN")
 
                                 .requestMatchers(HttpMethod.POST, "/daily-intake/user").authenticated()
                                 .requestMatchers(HttpMethod.POST, "/user/profile").authenticated()
@@ -122,6 +123,7 @@ public class SecurityConfig {
                                 // meal entity endpoints
                                 .requestMatchers(HttpMethod.GET, "/meals**").permitAll()
                                 .requestMatchers(HttpMethod.GET, "/meals/names").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/meals/suggestions").permitAll()
                                 .requestMatchers(HttpMethod.GET, "/meals-admin/all").hasAnyRole("ADMIN", "CHEF")
                                 .requestMatchers(HttpMethod.GET, "/meals-admin/meal/{id}").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.GET, "/meals/{id}").permitAll()
@@ -139,6 +141,7 @@ public class SecurityConfig {
 
                                 // FoodItem entity endpoints
                                 .requestMatchers(HttpMethod.POST,  "/fooditems").hasAnyRole("ADMIN","SUPERMARKET")
+                                .requestMatchers(HttpMethod.POST,  "/fooditems/price-lists").hasAnyRole("ADMIN","SUPERMARKET")
                                 .requestMatchers(HttpMethod.PATCH, "/fooditems/**").hasAnyRole("ADMIN","SUPERMARKET")
                                 .requestMatchers(HttpMethod.PATCH, "/api/food-items/*/price").hasAnyRole("ADMIN","SUPERMARKET")
 
@@ -146,6 +149,8 @@ public class SecurityConfig {
                         // ---- AUTHENTICATED EERST (specifieker dan wildcard) ----
                                 .requestMatchers(HttpMethod.GET,  "/fooditems/fetch/**").hasAnyRole("ADMIN")
                                 .requestMatchers(HttpMethod.POST, "/fooditems/bulk-fetch-items").hasAnyRole("ADMIN")
+                                .requestMatchers(HttpMethod.POST, "/fooditems/import-jobs").hasAnyRole("ADMIN")
+                                .requestMatchers(HttpMethod.GET,  "/fooditems/import-jobs/**").hasAnyRole("ADMIN")
 
                         // ---- PUBLIEK (permitAll) ----
                                 .requestMatchers(HttpMethod.GET, "/fooditems/promoted-by-source").permitAll()
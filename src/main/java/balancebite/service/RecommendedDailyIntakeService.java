@@ -13,11 +13,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class responsible for managing Recommended Daily Intake logic.
@@ -216,12 +220,18 @@ public class RecommendedDailyIntakeService implements IRecommendedDailyIntakeSer
      * The new RDI is calculated using the user's details and saved to the database.
      */
     @Scheduled(cron = "0 1 0 * * ?") // Executes daily at 00:00
+    @Transactional
     public void createDailyIntakesForUsers() {
         log.info("Start creating daily intakes for users.");
 
         // Retrieve all users from the database
         List<User> users = userRepository.findAll();
 
+        // Check in one query which users already have a Recommended Daily Intake for today
+        LocalDate today = LocalDate.now();
+        Set<Long> haveTodayIntake = new HashSet<>(recommendedDailyIntakeRepository.findUserIdsWithIntakeOn(today));
+
+        List<RecommendedDailyIntake> newIntakes = new ArrayList<>();
         for (User user : users) {
             // Skip users who have not provided all required details
             if (user.getWeight() == null || user.getHeight() == null || user.getGoal() == null || user.getActivityLevel() == null) {
@@ -229,22 +239,20 @@ public class RecommendedDailyIntakeService implements IRecommendedDailyIntakeSer
                 continue;
             }
 
-            // Check if a Recommended Daily Intake already exists for today
-            LocalDate today = LocalDate.now();
-            boolean hasTodayIntake = recommendedDailyIntakeRepository.existsByUser_IdAndCreatedAt(user.getId(), today);
-
-            if (!hasTodayIntake) {
+            if (!haveTodayIntake.contains(user.getId())) {
                 // Create a new Recommended Daily Intake for the user
                 log.info("Creating new RecommendedDailyIntake for user ID {} on date {}", user.getId(), today);
                 RecommendedDailyIntake newIntake = DailyIntakeCalculatorUtil.calculateDailyIntake(user); // Calculate RDI
                 newIntake.setCreatedAt(today);
                 newIntake.setUser(user);
-                recommendedDailyIntakeRepository.save(newIntake);
+                newIntakes.add(newIntake);
             } else {
-                log.info("User ID {} already has an intake for today: {}", user.getId());
+                log.info("User ID {} already has an intake for today.", user.getId());
             }
         }
 
-        log.info("Completed creating daily intakes for users.");
+        // Saved together so the intakes and their nutrients are inserted as JDBC batches
+        recommendedDailyIntakeRepository.saveAll(newIntakes);
+        log.info("Completed creating daily intakes for users ({} created).", newIntakes.size());
     }
 }
@@ -6,10 +6,15 @@ import balancebite.errorHandling.EntityNotFoundException;
 import balancebite.errorHandling.UsdaApiException;
 import balancebite.service.interfaces.IUsdaApiService;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
@@ -19,32 +24,32 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Service class for interacting with the USDA FoodData Central API.
  * Provides methods to fetch food data by FDC ID and handle HTTP responses.
+ * Responses are cached on disk by {@link UsdaResponseCache}.
  */
 @Service
 public class UsdaApiService implements IUsdaApiService {
 
     private static final Logger logger = LoggerFactory.getLogger(UsdaApiService.class);
-    private static final String BASE_API_URL = "https://api.nal.usda.gov/fdc/v1/";
     private static final String FOOD_PATH = "food/";
     private static final String FOODS_PATH = "foods";
 
     private final ApiConfig apiConfig;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final UsdaResponseCache responseCache;
 
     @Autowired
-    public UsdaApiService(ApiConfig apiConfig, RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public UsdaApiService(ApiConfig apiConfig, RestTemplate restTemplate, ObjectMapper objectMapper,
+                          UsdaResponseCache responseCache) {
         this.apiConfig = apiConfig;
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
         this.objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         logger.info("UsdaApiService initialized with API key and configurations.");
     }
@@ -56,7 +61,7 @@ public class UsdaApiService implements IUsdaApiService {
      * @return The complete URL including the API key.
      */
     private String buildUrl(String path) {
-        return String.format(BASE_API_URL + "%s?api_key=%s", path, apiConfig.getUsdaApiKey());
+        return String.format(apiConfig.getUsdaBaseUrl() + "%s?api_key=%s", path, apiConfig.getUsdaApiKey());
     }
 
     /**
@@ -74,19 +79,73 @@ public class UsdaApiService implements IUsdaApiService {
 
     /**
      * Fetches food data from the USDA API for a single food item identified by its FDC ID.
+     * Served from the {@link UsdaResponseCache} when a fresh entry exists.
      *
      * @param fdcId The FoodData Central ID of the food item to fetch.
      * @return The UsdaFoodResponseDTO containing the food data.
      * @throws UsdaApiException if the HTTP request fails or the response is invalid.
      */
     @Override
-    @Retryable(value = {RestClientException.class}, maxAttempts = 3, backoff = @Backoff(delay = 20000))
+    @Retryable(value = {UsdaApiException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000, multiplier = 2))
     public UsdaFoodResponseDTO getFoodData(String fdcId) {
         logger.info("Fetching food data for FDC ID: {}", fdcId);
+        String body = responseCache.get(fdcId, this::fetchFoodJson);
+        try {
+            return parseResponse(body, UsdaFoodResponseDTO.class);
+        } catch (IOException e) {
+            logger.error("Failed to parse JSON response for FDC ID: {}", fdcId, e);
+            throw new UsdaApiException("Error parsing USDA API response for FDC ID: " + fdcId, e);
+        }
+    }
+
+    /**
+     * Fetches food data from the USDA API for multiple food items identified by their FDC IDs.
+     * Cached items are served from the {@link UsdaResponseCache}; only the misses are requested.
+     * Not retried here: the bulk import retries per chunk so every attempt passes its rate limiter.
+     *
+     * @param fdcIds The list of FoodData Central IDs of the food items to fetch.
+     * @return A list of UsdaFoodResponseDTO objects containing the food data.
+     * @throws UsdaApiException if the HTTP request fails or the response is invalid.
+     */
+    @Override
+    public List<UsdaFoodResponseDTO> getMultipleFoodData(List<String> fdcIds) {
+        return parseAll(responseCache.getAll(fdcIds, this::fetchFoodsJson).values());
+    }
+
+    @Override
+    public List<UsdaFoodResponseDTO> getCachedFoodData(List<String> fdcIds) {
+        return parseAll(responseCache.getCached(fdcIds).values());
+    }
+
+    private List<UsdaFoodResponseDTO> parseAll(Collection<String> bodies) {
+        List<UsdaFoodResponseDTO> responses = new ArrayList<>(bodies.size());
+        for (String body : bodies) {
+            try {
+                responses.add(parseResponse(body, UsdaFoodResponseDTO.class));
+            } catch (IOException e) {
+                logger.error("Failed to parse cached or fetched USDA food JSON", e);
+                throw new UsdaApiException("Error parsing USDA API response for multiple FDC IDs", e);
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Requests one food from the USDA API, revalidating with the given ETag if there is one.
+     */
+    private UsdaResponseCache.Upstream fetchFoodJson(String fdcId, String etag) {
         try {
             String url = buildUrl(FOOD_PATH + fdcId);
-            ResponseEntity<String> responseEntity = restTemplate.getForEntity(url, String.class);
+            HttpHeaders headers = new HttpHeaders();
+            if (etag != null) {
+                headers.setIfNoneMatch(etag);
+            }
+            ResponseEntity<String> responseEntity = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
 
+            if (responseEntity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                logger.info("USDA food data for FDC ID {} not modified", fdcId);
+                return new UsdaResponseCache.Upstream(null, etag);
+            }
             if (!responseEntity.getStatusCode().is2xxSuccessful()) {
                 logger.error("Received non-success status code {} for FDC ID {}", responseEntity.getStatusCode(), fdcId);
                 throw new UsdaApiException("Error occurred: " + responseEntity.getStatusCode());
@@ -96,7 +155,7 @@ public class UsdaApiService implements IUsdaApiService {
                 logger.error("Response body is null for FDC ID: {}", fdcId);
                 throw new UsdaApiException("Response body is null for FDC ID: " + fdcId);
             }
-            return parseResponse(responseEntity.getBody(), UsdaFoodResponseDTO.class);
+            return new UsdaResponseCache.Upstream(responseEntity.getBody(), responseEntity.getHeaders().getETag());
 
         } catch (HttpClientErrorException.NotFound e) {
             logger.error("USDA API returned 404 Not Found for FDC ID: {}", fdcId);
@@ -104,25 +163,13 @@ public class UsdaApiService implements IUsdaApiService {
         } catch (RestClientException e) {
             logger.error("HTTP request failed for FDC ID: {}", fdcId, e);
             throw new UsdaApiException("Failed to fetch food data from USDA API for FDC ID: " + fdcId, e);
-        } catch (IOException e) {
-            logger.error("Failed to parse JSON response for FDC ID: {}", fdcId, e);
-            throw new UsdaApiException("Error parsing USDA API response for FDC ID: " + fdcId, e);
-        } catch (Exception e) {
-            logger.error("Unexpected error occurred while processing response for FDC ID: {}", fdcId, e);
-            throw new UsdaApiException("An unexpected error occurred while processing USDA API response", e);
         }
     }
 
     /**
-     * Fetches food data from the USDA API for multiple food items identified by their FDC IDs.
-     *
-     * @param fdcIds The list of FoodData Central IDs of the food items to fetch.
-     * @return A list of UsdaFoodResponseDTO objects containing the food data.
-     * @throws UsdaApiException if the HTTP request fails or the response is invalid.
+     * Requests multiple foods from the USDA API and splits the response into the raw JSON per food.
      */
-    @Override
-    @Retryable(value = {RestClientException.class}, maxAttempts = 3, backoff = @Backoff(delay = 20000))
-    public List<UsdaFoodResponseDTO> getMultipleFoodData(List<String> fdcIds) {
+    private Map<String, String> fetchFoodsJson(List<String> fdcIds) {
         logger.info("Fetching food data for multiple FDC IDs: {}", fdcIds);
         try {
             String url = buildUrl(FOODS_PATH);
@@ -139,7 +186,12 @@ public class UsdaApiService implements IUsdaApiService {
                 logger.error("Response body is null for multiple FDC IDs: {}", fdcIds);
                 throw new UsdaApiException("Response body is null for multiple FDC IDs: " + fdcIds);
             }
-            return Arrays.asList(parseResponse(responseEntity.getBody(), UsdaFoodResponseDTO[].class));
+
+            Map<String, String> foods = new LinkedHashMap<>();
+            for (JsonNode food : objectMapper.readTree(responseEntity.getBody())) {
+                foods.put(food.path("fdcId").asText(), food.toString());
+            }
+            return foods;
 
         } catch (RestClientException e) {
             logger.error("HTTP request failed for multiple FDC IDs: {}", fdcIds, e);
@@ -147,9 +199,6 @@ public class UsdaApiService implements IUsdaApiService {
         } catch (IOException e) {
             logger.error("Failed to parse JSON response for multiple FDC IDs: {}", fdcIds, e);
             throw new UsdaApiException("Error parsing USDA API response for multiple FDC IDs", e);
-        } catch (Exception e) {
-            logger.error("Unexpected error occurred while processing response for multiple FDC IDs: {}", fdcIds, e);
-            throw new UsdaApiException("An unexpected error occurred while processing USDA API response", e);
         }
     }
 }
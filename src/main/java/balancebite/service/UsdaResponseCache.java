@@ -0,0 +1,291 @@
+package balancebite.service;
+
+import balancebite.config.UsdaCacheProperties;
+import balancebite.errorHandling.EntityNotFoundException;
+import balancebite.errorHandling.UsdaApiException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk cache of raw USDA food responses, shared by single and bulk fetches.
+ *
+ * Each food is stored as a gzip-compressed entry under {@code <directory>/<FORMAT>/<shard>/<fdcId>.json.gz},
+ * together with the time it was fetched, the ETag the API returned and a SHA-256 of the body that is checked
+ * on every read (a corrupt entry counts as a miss). Entries older than the TTL are revalidated; when the
+ * API is unreachable, a stale entry is served instead of failing. Concurrent misses for the same FDC ID,
+ * from single or bulk fetches, share one upstream call.
+ *
+ * The bulk endpoint returns one ETag for the whole batch, which cannot validate a single food. A bulk fetch
+ * therefore keeps the previous ETag of an entry only when the body is unchanged; other bulk-written entries
+ * have no ETag, and their next single revalidation downloads the full body.
+ */
+@Component
+public class UsdaResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UsdaResponseCache.class);
+
+    /** Cache layout and USDA response format; change it to start with an empty cache. */
+    static final String FORMAT = "fdc-v1-full";
+
+    private final UsdaCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Path root;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Result of an upstream single fetch.
+     *
+     * @param body Response body; null when the API answered 304 Not Modified.
+     * @param etag ETag of the response, if any.
+     */
+    public record Upstream(String body, String etag) {}
+
+    @FunctionalInterface
+    public interface SingleFetcher {
+        Upstream fetch(String fdcId, String etag);
+    }
+
+    @FunctionalInterface
+    public interface BulkFetcher {
+        /** Returns the raw JSON of every requested food the API knows, keyed by FDC ID. */
+        Map<String, String> fetch(List<String> fdcIds);
+    }
+
+    record Entry(long fetchedAt, String etag, String sha256, String body) {}
+
+    public UsdaResponseCache(UsdaCacheProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.root = Path.of(properties.getDirectory()).resolve(FORMAT);
+    }
+
+    /**
+     * Returns the raw JSON of one food, from the cache or through the fetcher.
+     *
+     * @throws UsdaApiException when offline and the food is not cached, or when the fetch fails without a stale copy.
+     */
+    public String get(String fdcId, SingleFetcher fetcher) {
+        if (!properties.isEnabled()) {
+            return fetcher.fetch(fdcId, null).body();
+        }
+        Entry cached = read(fdcId);
+        if (cached != null && (properties.isOffline() || isFresh(cached))) {
+            return cached.body();
+        }
+        if (properties.isOffline()) {
+            throw new UsdaApiException("FDC ID " + fdcId + " is not in the USDA cache and offline mode is on.");
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(fdcId, mine);
+        if (running != null) {
+            return join(running);
+        }
+        try {
+            Upstream upstream = fetcher.fetch(fdcId, cached != null ? cached.etag() : null);
+            String body = upstream.body() != null ? upstream.body() : cached != null ? cached.body() : null;
+            if (body == null) {
+                throw new UsdaApiException("Empty USDA response for FDC ID: " + fdcId);
+            }
+            write(fdcId, body, upstream.body() != null ? upstream.etag() : cached.etag());
+            mine.complete(body);
+            return body;
+        } catch (RuntimeException e) {
+            if (cached != null && !(e instanceof EntityNotFoundException)) {
+                log.warn("USDA fetch for FDC ID {} failed, serving stale cache entry: {}", fdcId, e.getMessage());
+                mine.complete(cached.body());
+                return cached.body();
+            }
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(fdcId, mine);
+        }
+    }
+
+    /**
+     * Returns the raw JSON of the requested foods, keyed by FDC ID in request order. Misses are fetched
+     * with one bulk call; foods the API does not know are absent from the result.
+     */
+    public Map<String, String> getAll(List<String> fdcIds, BulkFetcher fetcher) {
+        if (!properties.isEnabled()) {
+            return fetcher.fetch(fdcIds);
+        }
+        Map<String, String> bodies = new HashMap<>();
+        Map<String, Entry> stale = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String fdcId : new LinkedHashSet<>(fdcIds)) {
+            Entry cached = read(fdcId);
+            if (cached != null && (properties.isOffline() || isFresh(cached))) {
+                bodies.put(fdcId, cached.body());
+            } else {
+                if (cached != null) stale.put(fdcId, cached);
+                misses.add(fdcId);
+            }
+        }
+
+        if (!misses.isEmpty() && !properties.isOffline()) {
+            Map<String, CompletableFuture<String>> owned = new LinkedHashMap<>();
+            Map<String, CompletableFuture<String>> waiting = new LinkedHashMap<>();
+            for (String fdcId : misses) {
+                CompletableFuture<String> mine = new CompletableFuture<>();
+                CompletableFuture<String> running = inFlight.putIfAbsent(fdcId, mine);
+                if (running == null) {
+                    owned.put(fdcId, mine);
+                } else {
+                    waiting.put(fdcId, running);
+                }
+            }
+
+            try {
+                if (!owned.isEmpty()) {
+                    fetchOwned(owned, stale, fetcher, bodies);
+                }
+            } finally {
+                owned.forEach(inFlight::remove);
+            }
+
+            waiting.forEach((fdcId, running) -> {
+                try {
+                    String body = join(running);
+                    if (body != null) bodies.put(fdcId, body);
+                } catch (RuntimeException e) {
+                    if (!stale.containsKey(fdcId)) throw e;
+                    bodies.put(fdcId, stale.get(fdcId).body());
+                }
+            });
+        }
+
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String fdcId : fdcIds) {
+            String body = bodies.get(fdcId);
+            if (body != null) result.put(fdcId, body);
+        }
+        return result;
+    }
+
+    /**
+     * Returns only the foods that can be served from the cache right now, without any upstream call.
+     */
+    public Map<String, String> getCached(List<String> fdcIds) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (!properties.isEnabled()) {
+            return result;
+        }
+        for (String fdcId : fdcIds) {
+            Entry cached = read(fdcId);
+            if (cached != null && (properties.isOffline() || isFresh(cached))) {
+                result.put(fdcId, cached.body());
+            }
+        }
+        return result;
+    }
+
+    private void fetchOwned(Map<String, CompletableFuture<String>> owned, Map<String, Entry> stale,
+                            BulkFetcher fetcher, Map<String, String> bodies) {
+        Map<String, String> fetched;
+        try {
+            fetched = fetcher.fetch(new ArrayList<>(owned.keySet()));
+        } catch (RuntimeException e) {
+            boolean allStale = stale.keySet().containsAll(owned.keySet());
+            owned.forEach((fdcId, future) -> {
+                Entry cached = stale.get(fdcId);
+                if (cached != null) {
+                    future.complete(cached.body());
+                    bodies.put(fdcId, cached.body());
+                } else {
+                    future.completeExceptionally(e);
+                }
+            });
+            if (!allStale) throw e;
+            log.warn("USDA bulk fetch failed, serving {} stale cache entries: {}", owned.size(), e.getMessage());
+            return;
+        }
+
+        owned.forEach((fdcId, future) -> {
+            String body = fetched.get(fdcId);
+            if (body != null) {
+                Entry previous = stale.get(fdcId);
+                write(fdcId, body, previous != null && previous.body().equals(body) ? previous.etag() : null);
+                bodies.put(fdcId, body);
+            }
+            future.complete(body);
+        });
+    }
+
+    private boolean isFresh(Entry entry) {
+        return Instant.ofEpochMilli(entry.fetchedAt()).plus(properties.getTtl()).isAfter(Instant.now());
+    }
+
+    private Path pathFor(String fdcId) {
+        String shard = fdcId.length() > 2 ? fdcId.substring(fdcId.length() - 2) : fdcId;
+        return root.resolve(shard).resolve(fdcId + ".json.gz");
+    }
+
+    private Entry read(String fdcId) {
+        Path path = pathFor(fdcId);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+            Entry entry = objectMapper.readValue(in, Entry.class);
+            if (entry.body() == null || !sha256(entry.body()).equals(entry.sha256())) {
+                log.warn("Ignoring corrupt USDA cache entry {}", path);
+                return null;
+            }
+            return entry;
+        } catch (IOException e) {
+            log.warn("Could not read USDA cache entry {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String fdcId, String body, String etag) {
+        Path path = pathFor(fdcId);
+        try {
+            Files.createDirectories(path.getParent());
+            // Eerst naar een tijdelijk bestand: lezers zien nooit een half geschreven entry
+            Path tmp = Files.createTempFile(path.getParent(), fdcId, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                objectMapper.writeValue(out, new Entry(System.currentTimeMillis(), etag, sha256(body), body));
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write USDA cache entry {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new UsdaApiException("USDA fetch failed", e.getCause());
+        }
+    }
+
+    private static String sha256(String body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package balancebite.service.diet;
+
+import balancebite.dto.diet.DietDayInputDTO;
+import balancebite.dto.diet.DietPlanDTO;
+import balancebite.dto.diet.DietPlanGenerationInputDTO;
+import balancebite.dto.diet.DietPlanGenerationResultDTO;
+import balancebite.dto.diet.DietPlanInputDTO;
+import balancebite.errorHandling.MissingUserInformationException;
+import balancebite.model.Nutrient;
+import balancebite.service.interfaces.IRecommendedDailyIntakeService;
+import balancebite.service.interfaces.diet.IDietPlanGeneratorService;
+import balancebite.service.interfaces.user.IUserDietPlanService;
+import balancebite.service.meal.MealNutrientCatalog;
+import balancebite.utils.DietPlanBeamSearch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Generates diet plans from the user's recommended daily intake.
+ *
+ * Meal selection runs fully in memory on the {@link MealNutrientCatalog} with a bounded
+ * {@link DietPlanBeamSearch}; only the resulting plan is written through {@link IUserDietPlanService}.
+ * With a weekly budget, the precomputed promotion-aware cost per serving of each meal is part of the
+ * objective and only meals whose ingredients all have a price are considered.
+ */
+@Service
+public class DietPlanGeneratorService implements IDietPlanGeneratorService {
+
+    private static final Logger log = LoggerFactory.getLogger(DietPlanGeneratorService.class);
+
+    static final int BEAM_WIDTH = 12;
+
+    private static final String[] TARGET_NUTRIENTS = {"Energy kcal", "Protein", "Carbohydrates", "Total lipid (fat)"};
+
+    private final MealNutrientCatalog mealNutrientCatalog;
+    private final IRecommendedDailyIntakeService recommendedDailyIntakeService;
+    private final IUserDietPlanService userDietPlanService;
+
+    public DietPlanGeneratorService(MealNutrientCatalog mealNutrientCatalog,
+                                    IRecommendedDailyIntakeService recommendedDailyIntakeService,
+                                    IUserDietPlanService userDietPlanService) {
+        this.mealNutrientCatalog = mealNutrientCatalog;
+        this.recommendedDailyIntakeService = recommendedDailyIntakeService;
+        this.userDietPlanService = userDietPlanService;
+    }
+
+    @Override
+    @Transactional
+    public DietPlanGenerationResultDTO generateDietPlan(Long userId, DietPlanGenerationInputDTO input) {
+        double[] target = dailyTarget(userId);
+
+        MealNutrientCatalog.Snapshot catalog = mealNutrientCatalog.snapshot();
+        BigDecimal budget = input.getWeeklyBudget() == null ? null
+                : input.getWeeklyBudget().multiply(BigDecimal.valueOf(input.getDays()))
+                        .divide(BigDecimal.valueOf(7), 2, RoundingMode.HALF_UP);
+        int[] candidates = candidates(catalog, input, budget != null);
+
+        DietPlanBeamSearch.Result result = DietPlanBeamSearch.search(catalog.macros(), catalog.costs(), candidates, target,
+                new DietPlanBeamSearch.Params(input.getDays(), input.getMealsPerDay(), input.getMaxUsesPerMeal(), BEAM_WIDTH,
+                        budget != null ? budget.doubleValue() : 0, input.getTimeLimitMs() * 1_000_000L));
+        long solverMillis = result.elapsedNanos() / 1_000_000;
+        log.info("Generated {}-day plan for user ID {} from {} candidate meals in {} ms (time limited: {})",
+                input.getDays(), userId, candidates.length, solverMillis, result.timeLimited());
+
+        List<DietDayInputDTO> days = new ArrayList<>();
+        for (int[] day : result.mealIndices()) {
+            List<Long> mealIds = new ArrayList<>(day.length);
+            for (int index : day) {
+                mealIds.add(catalog.mealIds()[index]);
+            }
+            days.add(new DietDayInputDTO(null, null, mealIds, null, null));
+        }
+
+        DietPlanInputDTO plan = new DietPlanInputDTO();
+        plan.setName(input.getName() != null && !input.getName().isBlank() ? input.getName() : "Generated plan");
+        plan.setDietDescription(String.format(Locale.ROOT,
+                "Generated for a daily target of %.0f kcal, %.0f g protein, %.0f g carbs and %.0f g fat.",
+                target[0], target[1], target[2], target[3]));
+        plan.setDietDays(days);
+        DietPlanDTO created = userDietPlanService.createDietPlan(plan, userId);
+
+        return new DietPlanGenerationResultDTO(created, estimatedCost(catalog, result), budget,
+                candidates.length, solverMillis, result.timeLimited());
+    }
+
+    private BigDecimal estimatedCost(MealNutrientCatalog.Snapshot catalog, DietPlanBeamSearch.Result result) {
+        double total = 0.0;
+        for (int[] day : result.mealIndices()) {
+            for (int index : day) {
+                total += catalog.costs()[index];
+            }
+        }
+        return Double.isNaN(total) ? null : BigDecimal.valueOf(total).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private double[] dailyTarget(Long userId) {
+        Map<String, Double> values = new HashMap<>();
+        for (Nutrient nutrient : recommendedDailyIntakeService.getBaseDailyIntakeForUser(userId).getNutrients()) {
+            values.put(nutrient.getName(), nutrient.getValue());
+        }
+
+        double[] target = new double[MealNutrientCatalog.DIMENSIONS];
+        for (int k = 0; k < TARGET_NUTRIENTS.length; k++) {
+            Double value = values.get(TARGET_NUTRIENTS[k]);
+            if (value == null || value <= 0) {
+                throw new MissingUserInformationException("Recommended daily intake has no value for " + TARGET_NUTRIENTS[k]
+                        + ". Complete your profile to generate a diet plan.");
+            }
+            target[k] = value;
+        }
+        return target;
+    }
+
+    private int[] candidates(MealNutrientCatalog.Snapshot catalog, DietPlanGenerationInputDTO input, boolean needsPrice) {
+        int requiredDiets = MealNutrientCatalog.mask(input.getDiets());
+        int anyCuisine = MealNutrientCatalog.mask(input.getCuisines());
+
+        int[] matches = new int[catalog.size()];
+        int count = 0;
+        for (int i = 0; i < catalog.size(); i++) {
+            // Maaltijden zonder calorieën leveren niets op voor het doel
+            if (catalog.macro(i, MealNutrientCatalog.KCAL) > 0 && catalog.matches(i, requiredDiets, anyCuisine)
+                    && (!needsPrice || !Double.isNaN(catalog.costs()[i]))) {
+                matches[count++] = i;
+            }
+        }
+        if (count < input.getMealsPerDay()) {
+            throw new IllegalArgumentException(needsPrice
+                    ? "Not enough meals with known prices match the selected diets and cuisines."
+                    : "Not enough meals match the selected diets and cuisines.");
+        }
+        return Arrays.copyOf(matches, count);
+    }
+}
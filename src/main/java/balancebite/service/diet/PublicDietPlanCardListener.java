@@ -0,0 +1,76 @@
+package balancebite.service.diet;
+
+import balancebite.model.diet.DietPlan;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JPA entity listener that refreshes the public card of every diet plan changed in a transaction,
+ * once per transaction and only after it commits.
+ */
+@Component
+public class PublicDietPlanCardListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicDietPlanCardListener.class);
+
+    private final ObjectProvider<PublicDietPlanCardProjector> projector;
+
+    public PublicDietPlanCardListener(ObjectProvider<PublicDietPlanCardProjector> projector) {
+        this.projector = projector;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(DietPlan dietPlan) {
+        if (dietPlan.getId() == null) return;
+        refreshAfterCommit(dietPlan.getId());
+    }
+
+    /**
+     * Refreshes the card of a plan after the current transaction commits, also for changes made with
+     * bulk updates that no entity callback sees; immediately without a transaction.
+     */
+    public void refreshAfterCommit(Long dietPlanId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            projector.getObject().refresh(List.of(dietPlanId));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> ids = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // De plannen zelf zijn al opgeslagen; een mislukte refresh herstelt bij de volgende rebuild
+                    try {
+                        projector.getObject().refresh(ids);
+                    } catch (RuntimeException e) {
+                        log.warn("Refreshing public diet plan cards {} failed: {}", ids, e.getMessage());
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PublicDietPlanCardListener.this);
+                }
+            });
+            pending = ids;
+        }
+        pending.add(dietPlanId);
+    }
+}
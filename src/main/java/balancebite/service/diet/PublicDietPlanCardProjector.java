@@ -0,0 +1,126 @@
+package balancebite.service.diet;
+
+import balancebite.model.diet.PublicDietPlanCard;
+import balancebite.model.meal.references.Diet;
+import balancebite.model.user.userenums.Goal;
+import balancebite.repository.DietPlanRepository;
+import balancebite.repository.PublicDietPlanCardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link PublicDietPlanCard} read model in sync with the diet plans.
+ *
+ * {@link PublicDietPlanCardListener} calls {@link #refresh(Collection)} after every committed transaction
+ * that changed plans; {@link #rebuildAll()} rebuilds the whole table (startup, and to pick up changes that
+ * bypass the entity listener, such as renamed users).
+ */
+@Component
+public class PublicDietPlanCardProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicDietPlanCardProjector.class);
+
+    static final int BATCH_SIZE = 500;
+
+    private final DietPlanRepository dietPlanRepository;
+    private final PublicDietPlanCardRepository cardRepository;
+
+    public PublicDietPlanCardProjector(DietPlanRepository dietPlanRepository, PublicDietPlanCardRepository cardRepository) {
+        this.dietPlanRepository = dietPlanRepository;
+        this.cardRepository = cardRepository;
+    }
+
+    /**
+     * Rebuilds the cards of the given plans: public plans are inserted or updated, all others removed.
+     * Runs in its own transaction, since it is called after the changing transaction has committed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refresh(Collection<Long> dietPlanIds) {
+        if (dietPlanIds.isEmpty()) return;
+        List<Long> ids = List.copyOf(new HashSet<>(dietPlanIds));
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            refreshBatch(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+        }
+    }
+
+    /**
+     * Rebuilds all cards from the plans and removes cards of plans that are gone or no longer public.
+     *
+     * @return the number of public plans.
+     */
+    @Transactional
+    public int rebuildAll() {
+        long start = System.nanoTime();
+        List<Long> ids = dietPlanRepository.findAllPublicTemplateIds();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            refreshBatch(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+        }
+        int removed = cardRepository.deleteStaleCards();
+        log.info("Public diet plan cards rebuilt: {} plans, {} stale cards removed in {} ms",
+                ids.size(), removed, (System.nanoTime() - start) / 1_000_000);
+        return ids.size();
+    }
+
+    private void refreshBatch(List<Long> ids) {
+        Map<Long, Integer> dietMasks = new HashMap<>();
+        for (Object[] pair : dietPlanRepository.findDietsByPlanIds(ids)) {
+            dietMasks.merge((Long) pair[0], 1 << ((Diet) pair[1]).ordinal(), (a, b) -> a | b);
+        }
+        Map<Long, PublicDietPlanCard> existing = cardRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(PublicDietPlanCard::getDietPlanId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> publicIds = new HashSet<>();
+        List<PublicDietPlanCard> created = new ArrayList<>();
+        for (Object[] row : dietPlanRepository.findPublicCardSourceRows(ids)) {
+            Long id = (Long) row[0];
+            publicIds.add(id);
+            PublicDietPlanCard card = existing.get(id);
+            if (card == null) {
+                card = new PublicDietPlanCard(id);
+                created.add(card);
+            }
+            card.setName((String) row[1]);
+            card.setOriginalDietId((Long) row[2]);
+            card.setCreatedByUserId((Long) row[3]);
+            card.setCreatedByUserName((String) row[4]);
+            card.setGoal((Goal) row[5]);
+            card.setDayCount(((Number) row[6]).intValue());
+            card.setDietMask(dietMasks.getOrDefault(id, 0));
+            card.setAvgCalories((Double) row[7]);
+            card.setAvgProtein((Double) row[8]);
+            card.setAvgCarbs((Double) row[9]);
+            card.setAvgFat((Double) row[10]);
+            card.setTotalCalories((Double) row[11]);
+            card.setTotalProtein((Double) row[12]);
+            card.setTotalCarbs((Double) row[13]);
+            card.setTotalFat((Double) row[14]);
+            card.setSaveCount(orZero((Long) row[15]));
+            card.setWeeklySaveCount(orZero((Long) row[16]));
+            card.setMonthlySaveCount(orZero((Long) row[17]));
+            card.setFlagHighFiber((Boolean) row[18]);
+            card.setFlagLowSugar((Boolean) row[19]);
+            card.setFlagLowUnhealthyFats((Boolean) row[20]);
+            card.setCreatedAt((LocalDateTime) row[21]);
+            card.setRefreshedAt(now);
+        }
+        cardRepository.saveAll(created);
+
+        List<Long> removed = existing.keySet().stream().filter(id -> !publicIds.contains(id)).toList();
+        if (!removed.isEmpty()) {
+            cardRepository.deleteAllByIdInBatch(removed);
+        }
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
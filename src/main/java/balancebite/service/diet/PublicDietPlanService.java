@@ -1,21 +1,24 @@
 package balancebite.service.diet;
 
+import balancebite.dto.diet.DietPlanCardDTO;
 import balancebite.dto.diet.DietPlanDTO;
 import balancebite.dto.diet.DietPlanNameDTO;
 import balancebite.errorHandling.DietPlanNotFoundException;
 import balancebite.mapper.DietPlanMapper;
 import balancebite.model.diet.DietPlan;
+import balancebite.model.diet.PublicDietPlanCard;
 import balancebite.model.meal.references.Diet;
 import balancebite.model.user.User;
 import balancebite.model.user.userenums.Goal;
 import balancebite.model.user.UserRole;
 import balancebite.repository.DietPlanRepository;
+import balancebite.repository.PublicDietPlanCardRepository;
 import balancebite.repository.SharedDietPlanAccessRepository;
 import balancebite.repository.UserRepository;
 import balancebite.security.SecurityUtils;
 import balancebite.service.interfaces.diet.IPublicDietPlanService;
 import balancebite.service.meal.MealService;
-import balancebite.specification.DietPlanSpecification;
+import balancebite.specification.PublicDietPlanCardSpecification;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
@@ -25,8 +28,10 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -39,12 +44,16 @@ public class PublicDietPlanService implements IPublicDietPlanService {
     private final DietPlanMapper dietPlanMapper;
 
     private final SharedDietPlanAccessRepository sharedDietPlanAccessRepository;
+    private final PublicDietPlanCardRepository publicDietPlanCardRepository;
 
-    public PublicDietPlanService(DietPlanRepository dietPlanRepository, DietPlanMapper dietPlanMapper, UserRepository userRepository, SharedDietPlanAccessRepository sharedDietPlanAccessRepository) {
+    public PublicDietPlanService(DietPlanRepository dietPlanRepository, DietPlanMapper dietPlanMapper, UserRepository userRepository,
+                                 SharedDietPlanAccessRepository sharedDietPlanAccessRepository,
+                                 PublicDietPlanCardRepository publicDietPlanCardRepository) {
         this.dietPlanRepository = dietPlanRepository;
         this.dietPlanMapper = dietPlanMapper;
         this.userRepository = userRepository;
         this.sharedDietPlanAccessRepository = sharedDietPlanAccessRepository;
+        this.publicDietPlanCardRepository = publicDietPlanCardRepository;
     }
 
     @Override
@@ -72,80 +81,215 @@ public class PublicDietPlanService implements IPublicDietPlanService {
             Boolean flagLowSugar,
             Boolean flagLowUnhealthyFats
     ) {
-        Specification<DietPlan> spec = createdByUserId != null
-                ? Specification.where(DietPlanSpecification.isTemplateCreatedBy(createdByUserId))
-                : Specification.where(DietPlanSpecification.isTemplate());
+        Specification<PublicDietPlanCard> spec = buildPublicSpec(requiredDiets, excludedDiets, diets, minProtein, maxProtein, minCarbs, maxCarbs,
+                minFat, maxFat, minCalories, maxCalories, createdByUserId, name, goal,
+                flagHighFiber, flagLowSugar, flagLowUnhealthyFats);
+        Pageable sortedPageable = sortedPageable(sortBy, sortOrder, pageable);
 
-        spec = spec.and((root, query, cb) -> cb.isFalse(root.get("isPrivate")));
-        spec = spec.and(DietPlanSpecification.isNotRestricted());
+        log.info("Hallo!!! DIET FILTERS:minCarbs={}, maxCarbs={}, minProtein={}, maxProtein={}, minFat={}, maxFat={}, minCalories={}, maxCalories={}",
+                minCarbs, maxCarbs, minProtein, maxProtein, minFat, maxFat, minCalories, maxCalories
+        );
+
+        // Filteren, sorteren en tellen op de leestabel; alleen de plannen van deze pagina worden geladen
+        Page<PublicDietPlanCard> cardPage = publicDietPlanCardRepository.findAll(spec, sortedPageable);
+        List<Long> pageIds = cardPage.getContent().stream().map(PublicDietPlanCard::getDietPlanId).toList();
+        Map<Long, DietPlan> plansById = dietPlanRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(DietPlan::getId, plan -> plan));
+        Page<DietPlan> templatePlans = new PageImpl<>(
+                pageIds.stream().map(plansById::get).filter(Objects::nonNull).toList(),
+                sortedPageable,
+                cardPage.getTotalElements());
+
+        Long userId = SecurityUtils.getCurrentAuthenticatedUserId();
+
+        if (!includeUserCopies || userId == null) {
+            return templatePlans.map(dietPlanMapper::toDTO);
+        }
+
+        List<Long> templateIds = templatePlans.getContent().stream()
+                .map(DietPlan::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, DietPlan> copyByOriginalId = dietPlanRepository
+                .findUserCopiesForTemplates(userId, templateIds)
+                .stream()
+                .filter(c -> c.getOriginalDietId() != null)
+                .collect(Collectors.toMap(DietPlan::getOriginalDietId, c -> c, (a, b) -> a));
+
+        return templatePlans.map(template -> {
+            boolean isCreator = template.getCreatedBy() != null &&
+                    template.getCreatedBy().getId().equals(userId);
+            DietPlan copy = isCreator ? null : copyByOriginalId.get(template.getId());
+            DietPlan result = (copy != null) ? copy : template;
+            log.info("SWAP_DECISION templateId={} -> resultId={}", template.getId(), result.getId());
+            return dietPlanMapper.toDTO(result);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<DietPlanCardDTO> getAllPublicDietPlanCards(
+            List<String> requiredDiets,
+            List<String> excludedDiets,
+            List<String> diets,
+            String sortBy,
+            String sortOrder,
+            Pageable pageable,
+            Double minProtein,
+            Double maxProtein,
+            Double minCarbs,
+            Double maxCarbs,
+            Double minFat,
+            Double maxFat,
+            Double minCalories,
+            Double maxCalories,
+            Long createdByUserId,
+            String name,
+            boolean includeUserCopies,
+            Goal goal,
+            Boolean flagHighFiber,
+            Boolean flagLowSugar,
+            Boolean flagLowUnhealthyFats
+    ) {
+        Specification<PublicDietPlanCard> spec = buildPublicSpec(requiredDiets, excludedDiets, diets, minProtein, maxProtein, minCarbs, maxCarbs,
+                minFat, maxFat, minCalories, maxCalories, createdByUserId, name, goal,
+                flagHighFiber, flagLowSugar, flagLowUnhealthyFats);
+        Page<DietPlanCardDTO> templateCards = publicDietPlanCardRepository.findAll(spec, sortedPageable(sortBy, sortOrder, pageable))
+                .map(PublicDietPlanService::toCardDTO);
+
+        Long userId = SecurityUtils.getCurrentAuthenticatedUserId();
+        if (!includeUserCopies || userId == null || templateCards.isEmpty()) {
+            return templateCards;
+        }
+
+        // Zelfde wissel als bij de volledige lijst: eigen kopie in plaats van de template
+        List<Long> templateIds = templateCards.getContent().stream()
+                .filter(card -> !userId.equals(card.createdByUserId()))
+                .map(DietPlanCardDTO::id)
+                .toList();
+        if (templateIds.isEmpty()) {
+            return templateCards;
+        }
+        Map<Long, Long> copyIdByOriginalId = new HashMap<>();
+        for (Object[] pair : dietPlanRepository.findUserCopyIdsForTemplates(userId, templateIds)) {
+            copyIdByOriginalId.putIfAbsent((Long) pair[0], (Long) pair[1]);
+        }
+        if (copyIdByOriginalId.isEmpty()) {
+            return templateCards;
+        }
+
+        Map<Long, DietPlanCardDTO> copiesById = dietPlanRepository.findCardsByIds(copyIdByOriginalId.values()).stream()
+                .collect(Collectors.toMap(DietPlanCardDTO::id, card -> card));
+        return templateCards.map(template -> {
+            Long copyId = copyIdByOriginalId.get(template.id());
+            DietPlanCardDTO copy = copyId != null ? copiesById.get(copyId) : null;
+            return copy != null ? copy : template;
+        });
+    }
+
+    private Specification<PublicDietPlanCard> buildPublicSpec(
+            List<String> requiredDiets,
+            List<String> excludedDiets,
+            List<String> diets,
+            Double minProtein,
+            Double maxProtein,
+            Double minCarbs,
+            Double maxCarbs,
+            Double minFat,
+            Double maxFat,
+            Double minCalories,
+            Double maxCalories,
+            Long createdByUserId,
+            String name,
+            Goal goal,
+            Boolean flagHighFiber,
+            Boolean flagLowSugar,
+            Boolean flagLowUnhealthyFats
+    ) {
+        // De leestabel bevat alleen publieke templates (niet privé, niet restricted)
+        Specification<PublicDietPlanCard> spec = Specification.where(null);
+
+        if (createdByUserId != null) {
+            spec = spec.and(PublicDietPlanCardSpecification.createdBy(createdByUserId));
+        }
 
         if (name != null && !name.isBlank()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
+            spec = spec.and(PublicDietPlanCardSpecification.nameContains(name));
         }
 
         if (goal != null) {
-            spec = spec.and(DietPlanSpecification.hasGoal(goal));
+            spec = spec.and(PublicDietPlanCardSpecification.hasGoal(goal));
         }
 
-        if (Boolean.TRUE.equals(flagHighFiber)) spec = spec.and(DietPlanSpecification.flagHighFiber());
-        if (Boolean.TRUE.equals(flagLowSugar)) spec = spec.and(DietPlanSpecification.flagLowSugar());
-        if (Boolean.TRUE.equals(flagLowUnhealthyFats)) spec = spec.and(DietPlanSpecification.flagLowUnhealthyFats());
+        if (Boolean.TRUE.equals(flagHighFiber)) spec = spec.and(PublicDietPlanCardSpecification.flag("flagHighFiber"));
+        if (Boolean.TRUE.equals(flagLowSugar)) spec = spec.and(PublicDietPlanCardSpecification.flag("flagLowSugar"));
+        if (Boolean.TRUE.equals(flagLowUnhealthyFats)) spec = spec.and(PublicDietPlanCardSpecification.flag("flagLowUnhealthyFats"));
 
         if (diets != null && !diets.isEmpty()) {
-            spec = spec.and((root, query, cb) -> root.join("diets").in(diets));
+            spec = spec.and(PublicDietPlanCardSpecification.hasAnyDiet(toDiets(diets)));
         }
 
         // Vereist: ALLE diets moeten aanwezig zijn
         if (requiredDiets != null && !requiredDiets.isEmpty()) {
-            Set<Diet> requiredEnums = requiredDiets.stream()
-                    .map(Diet::valueOf)
-                    .collect(Collectors.toSet());
-            spec = spec.and(DietPlanSpecification.mustIncludeAllDiets(requiredEnums));
+            spec = spec.and(PublicDietPlanCardSpecification.hasAllDiets(toDiets(requiredDiets)));
         }
 
         // Uitsluiten: GEEN van deze diets mag voorkomen
         if (excludedDiets != null && !excludedDiets.isEmpty()) {
-            Set<Diet> excludedEnums = excludedDiets.stream()
-                    .map(Diet::valueOf)
-                    .collect(Collectors.toSet());
-            spec = spec.and(DietPlanSpecification.mustExcludeAllDiets(excludedEnums));
+            spec = spec.and(PublicDietPlanCardSpecification.hasNoneOfDiets(toDiets(excludedDiets)));
         }
 
         // Gemiddelde (avg) filters – ondersteunt ook alleen min of alleen max
-        if (minProtein != null && maxProtein != null) {
-            spec = spec.and(DietPlanSpecification.avgProteinBetween(minProtein, maxProtein));
-        } else if (minProtein != null) {
-            spec = spec.and((root, query, cb) -> cb.ge(root.get("avgProtein"), minProtein));
-        } else if (maxProtein != null) {
-            spec = spec.and((root, query, cb) -> cb.le(root.get("avgProtein"), maxProtein));
+        if (minProtein != null || maxProtein != null) {
+            spec = spec.and(PublicDietPlanCardSpecification.between("avgProtein", minProtein, maxProtein));
         }
-
-        if (minCarbs != null && maxCarbs != null) {
-            spec = spec.and(DietPlanSpecification.avgCarbsBetween(minCarbs, maxCarbs));
-        } else if (minCarbs != null) {
-            spec = spec.and((root, query, cb) -> cb.ge(root.get("avgCarbs"), minCarbs));
-        } else if (maxCarbs != null) {
-            spec = spec.and((root, query, cb) -> cb.le(root.get("avgCarbs"), maxCarbs));
+        if (minCarbs != null || maxCarbs != null) {
+            spec = spec.and(PublicDietPlanCardSpecification.between("avgCarbs", minCarbs, maxCarbs));
         }
-
-        if (minFat != null && maxFat != null) {
-            spec = spec.and(DietPlanSpecification.avgFatBetween(minFat, maxFat));
-        } else if (minFat != null) {
-            spec = spec.and((root, query, cb) -> cb.ge(root.get("avgFat"), minFat));
-        } else if (maxFat != null) {
-            spec = spec.and((root, query, cb) -> cb.le(root.get("avgFat"), maxFat));
+        if (minFat != null || maxFat != null) {
+            spec = spec.and(PublicDietPlanCardSpecification.between("avgFat", minFat, maxFat));
         }
-
-        if (minCalories != null && maxCalories != null) {
-            spec = spec.and(DietPlanSpecification.avgCaloriesBetween(minCalories, maxCalories));
-        } else if (minCalories != null) {
-            spec = spec.and((root, query, cb) -> cb.ge(root.get("avgCalories"), minCalories));
-        } else if (maxCalories != null) {
-            spec = spec.and((root, query, cb) -> cb.le(root.get("avgCalories"), maxCalories));
+        if (minCalories != null || maxCalories != null) {
+            spec = spec.and(PublicDietPlanCardSpecification.between("avgCalories", minCalories, maxCalories));
         }
 
+        return spec;
+    }
+
+    private static Set<Diet> toDiets(List<String> names) {
+        return names.stream()
+                .map(Diet::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    private static DietPlanCardDTO toCardDTO(PublicDietPlanCard card) {
+        return new DietPlanCardDTO(
+                card.getDietPlanId(),
+                card.getName(),
+                card.getOriginalDietId(),
+                true,
+                false,
+                false,
+                card.getCreatedAt(),
+                card.getCreatedByUserId(),
+                card.getCreatedByUserName(),
+                card.getDayCount(),
+                card.getDiets(),
+                card.getGoal(),
+                card.getAvgCalories(),
+                card.getAvgProtein(),
+                card.getAvgCarbs(),
+                card.getAvgFat(),
+                card.getSaveCount(),
+                card.getWeeklySaveCount(),
+                card.getMonthlySaveCount(),
+                card.getFlagHighFiber(),
+                card.getFlagLowSugar(),
+                card.getFlagLowUnhealthyFats()
+        );
+    }
 
+    private Pageable sortedPageable(String sortBy, String sortOrder, Pageable pageable) {
         // Pas sortering toe op de bestaande pageable
         Map<String, String> sortFieldMap = Map.ofEntries(
                 Map.entry("avgProtein", "avgProtein"),
@@ -163,7 +307,6 @@ public class PublicDietPlanService implements IPublicDietPlanService {
                 Map.entry("name", "name")
         );
 
-
         String mappedSortBy = sortFieldMap.getOrDefault(
                 (sortBy == null || sortBy.isBlank()) ? "createdAt" : sortBy,
                 "createdAt"
@@ -176,44 +319,13 @@ public class PublicDietPlanService implements IPublicDietPlanService {
             direction = Sort.Direction.DESC; // fallback
         }
 
-        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(direction, mappedSortBy));
-
-        log.info("Hallo!!! DIET FILTERS:minCarbs={}, maxCarbs={}, minProtein={}, maxProtein={}, minFat={}, maxFat={}, minCalories={}, maxCalories={}",
-                minCarbs, maxCarbs, minProtein, maxProtein, minFat, maxFat, minCalories, maxCalories
-        );
-
-        Page<DietPlan> templatePlans = dietPlanRepository.findAll(spec, sortedPageable);
-
-        Long userId = SecurityUtils.getCurrentAuthenticatedUserId();
-
-        if (!includeUserCopies || userId == null) {
-            return templatePlans.map(dietPlanMapper::toDTO);
-        }
-
-        List<Long> templateIds = templatePlans.getContent().stream()
-                .map(DietPlan::getId)
-                .collect(Collectors.toList());
-
-        Map<Long, DietPlan> copyByOriginalId = dietPlanRepository
-                .findUserCopiesForTemplates(userId, templateIds)
-                .stream()
-                .filter(c -> c.getOriginalDietId() != null)
-                .collect(Collectors.toMap(DietPlan::getOriginalDietId, c -> c, (a, b) -> a));
-
-        return templatePlans.map(template -> {
-            boolean isCreator = template.getCreatedBy() != null &&
-                    template.getCreatedBy().getId().equals(userId);
-            DietPlan copy = isCreator ? null : copyByOriginalId.get(template.getId());
-            DietPlan result = (copy != null) ? copy : template;
-            log.info("SWAP_DECISION templateId={} -> resultId={}", template.getId(), result.getId());
-            return dietPlanMapper.toDTO(result);
-        });
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(direction, mappedSortBy));
     }
 
     @Override
     @Transactional(readOnly = true)
     public DietPlanDTO getPublicDietPlanById(Long id) {
-        DietPlan dietPlan = dietPlanRepository.findById(id)
+        DietPlan dietPlan = dietPlanRepository.findDetailById(id)
                 .orElseThrow(() -> new DietPlanNotFoundException("Diet plan not found with ID: " + id));
 
         if (!dietPlan.isTemplate()) {
@@ -234,7 +346,7 @@ public class PublicDietPlanService implements IPublicDietPlanService {
             }
         }
 
-        return dietPlanMapper.toDTO(dietPlan);
+        return dietPlanMapper.toDetailDTO(dietPlan);
     }
 
     @Override
@@ -0,0 +1,181 @@
+package balancebite.service.fooditem;
+
+import balancebite.dto.UsdaFoodResponseDTO;
+import balancebite.dto.fooditem.FdcBulkImportResultDTO;
+import balancebite.model.foodItem.FoodItem;
+import balancebite.model.meal.Meal;
+import balancebite.repository.MealRepository;
+import balancebite.service.interfaces.fooditem.IFdcBulkImportService;
+import balancebite.utils.FoodItemBulkFetchUtil;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Imports the downloadable FoodData Central JSON bulk files (Foundation, SR Legacy, Survey or Branded foods).
+ *
+ * The file is read with a streaming {@link JsonParser}: only one food record is materialized at a time,
+ * so memory use does not depend on the file size. Records go through the same conversion as API responses
+ * ({@link FoodItemBulkFetchUtil#toFoodItem}) and are upserted per batch by {@link FoodItemBulkWriter},
+ * one transaction per batch. Afterwards, meals that use an updated food item get their totals recalculated.
+ */
+@Service
+public class FdcBulkImportService implements IFdcBulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(FdcBulkImportService.class);
+
+    static final int BATCH_SIZE = 1000;
+    private static final int MEAL_BATCH_SIZE = 500;
+
+    private final FoodItemBulkWriter bulkWriter;
+    private final MealRepository mealRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public FdcBulkImportService(FoodItemBulkWriter bulkWriter,
+                                MealRepository mealRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.bulkWriter = bulkWriter;
+        this.mealRepository = mealRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public FdcBulkImportResultDTO importFile(Path file) throws IOException {
+        long start = System.nanoTime();
+        log.info("Starting FoodData Central bulk import from {}", file);
+
+        long read = 0;
+        long inserted = 0;
+        long invalid = 0;
+        List<Long> updatedIds = new ArrayList<>();
+        List<FoodItem> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (InputStream in = open(file); JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            moveToFoodArray(parser);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                read++;
+                FoodItem item = toFoodItem(parser);
+                if (item == null) {
+                    invalid++;
+                    continue;
+                }
+                batch.add(item);
+                if (batch.size() == BATCH_SIZE) {
+                    FoodItemBulkWriter.Result result = write(batch);
+                    inserted += result.inserted();
+                    updatedIds.addAll(result.updatedIds());
+                    batch.clear();
+                    log.info("FoodData Central import: {} records read", read);
+                }
+            }
+            if (!batch.isEmpty()) {
+                FoodItemBulkWriter.Result result = write(batch);
+                inserted += result.inserted();
+                updatedIds.addAll(result.updatedIds());
+            }
+        }
+
+        long meals = recalculateMeals(updatedIds);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("FoodData Central import finished in {} ms: {} read, {} inserted, {} updated, {} invalid, {} meals recalculated",
+                elapsedMs, read, inserted, updatedIds.size(), invalid, meals);
+        return new FdcBulkImportResultDTO(read, inserted, updatedIds.size(), invalid, meals, elapsedMs);
+    }
+
+    /**
+     * Reads the food object the parser is positioned at; returns null for records that cannot be imported.
+     */
+    private FoodItem toFoodItem(JsonParser parser) throws IOException {
+        UsdaFoodResponseDTO food = objectMapper.readValue(parser, UsdaFoodResponseDTO.class);
+        if (food.getFdcId() <= 0 || FoodItemBulkFetchUtil.isResponseInvalid(food)) {
+            return null;
+        }
+        try {
+            return FoodItemBulkFetchUtil.toFoodItem(food);
+        } catch (RuntimeException e) {
+            log.debug("Skipping FDC ID {}: {}", food.getFdcId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private FoodItemBulkWriter.Result write(List<FoodItem> batch) {
+        return transactionTemplate.execute(tx -> bulkWriter.upsert(batch));
+    }
+
+    private long recalculateMeals(List<Long> updatedFoodItemIds) {
+        long count = 0;
+        for (int from = 0; from < updatedFoodItemIds.size(); from += MEAL_BATCH_SIZE) {
+            List<Long> ids = updatedFoodItemIds.subList(from, Math.min(from + MEAL_BATCH_SIZE, updatedFoodItemIds.size()));
+            Integer recalculated = transactionTemplate.execute(tx -> {
+                List<Meal> meals = mealRepository.findByFoodItemIdIn(ids);
+                meals.forEach(meal -> {
+                    meal.updateNutrients();
+                    mealRepository.save(meal);
+                });
+                return meals.size();
+            });
+            count += recalculated != null ? recalculated : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Positions the parser just inside the array of foods: either the root array, or the first
+     * array-valued field of the root object (e.g. "FoundationFoods", "SRLegacyFoods", "BrandedFoods").
+     */
+    static void moveToFoodArray(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            return;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Not a FoodData Central JSON file: expected an object or array");
+        }
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            if (parser.nextToken() == JsonToken.START_ARRAY) {
+                return;
+            }
+            parser.skipChildren();
+        }
+        throw new IOException("Not a FoodData Central JSON file: no array of foods found");
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".gz")) {
+            return new GZIPInputStream(in, 1 << 16);
+        }
+        if (name.endsWith(".zip")) {
+            ZipInputStream zip = new ZipInputStream(in);
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".json")) {
+                    return zip;
+                }
+            }
+            zip.close();
+            throw new IOException("No JSON file found in " + file);
+        }
+        return in;
+    }
+}
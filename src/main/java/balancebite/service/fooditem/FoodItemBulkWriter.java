@@ -0,0 +1,224 @@
+package balancebite.service.fooditem;
+
+import balancebite.model.foodItem.FoodItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Writes USDA food items and price lists with plain JDBC batches instead of one entity save per item.
+ *
+ * Items are written conflict-safely on {@code fdc_id} (see the partial unique index created in
+ * {@link balancebite.config.DbFixConfig}): {@link #upsert} overwrites only the USDA-sourced columns, so prices,
+ * images and store data of existing items are kept, and replaces their nutrients; {@link #insertNew} skips
+ * FDC IDs that already exist. Nutrients are written in the compact format of {@link NutrientDictionary},
+ * as part of the food item row.
+ * Must be called inside a transaction; entity listeners do not fire for these writes. Cached food items and
+ * food item queries are evicted after commit through {@link FoodItemCacheEvictor}, and the written items are
+ * re-read into the {@link FoodSubstitutionIndex}.
+ */
+@Component
+public class FoodItemBulkWriter {
+
+    private static final String UPSERT_FOOD_ITEM = """
+        INSERT INTO food_items (name, fdc_id, portion_description, gram_weight, nutrient_values,
+                                has_sugar_data, has_fiber_data, has_saturated_fat_data,
+                                has_unsaturated_fat_data, has_sodium_data)
+        VALUES (?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?, ?)
+        ON CONFLICT (fdc_id) WHERE fdc_id > 0 DO UPDATE SET
+            name = EXCLUDED.name,
+            nutrient_values = EXCLUDED.nutrient_values,
+            portion_description = EXCLUDED.portion_description,
+            gram_weight = EXCLUDED.gram_weight,
+            has_sugar_data = EXCLUDED.has_sugar_data,
+            has_fiber_data = EXCLUDED.has_fiber_data,
+            has_saturated_fat_data = EXCLUDED.has_saturated_fat_data,
+            has_unsaturated_fat_data = EXCLUDED.has_unsaturated_fat_data,
+            has_sodium_data = EXCLUDED.has_sodium_data
+        """;
+
+    /** Inserts a whole batch in one statement from parallel arrays; existing FDC IDs are left untouched. */
+    private static final String INSERT_NEW_FOOD_ITEMS = """
+        INSERT INTO food_items (name, fdc_id, portion_description, gram_weight, nutrient_values,
+                                has_sugar_data, has_fiber_data, has_saturated_fat_data,
+                                has_unsaturated_fat_data, has_sodium_data)
+        SELECT name, fdc_id, portion, gram_weight, nutrient_values::jsonb, sugar, fiber, saturated, unsaturated, sodium
+        FROM unnest(?::text[], ?::integer[], ?::text[], ?::double precision[], ?::text[],
+                    ?::boolean[], ?::boolean[], ?::boolean[], ?::boolean[], ?::boolean[])
+             AS t(name, fdc_id, portion, gram_weight, nutrient_values, sugar, fiber, saturated, unsaturated, sodium)
+        ON CONFLICT (fdc_id) WHERE fdc_id > 0 DO NOTHING
+        RETURNING id, fdc_id
+        """;
+
+    /** Sets price (and grams, when given) of a whole batch in one statement; unchanged rows are not touched. */
+    private static final String UPDATE_PRICES = """
+        UPDATE food_items f
+        SET price = u.price,
+            grams = COALESCE(u.grams, f.grams)
+        FROM unnest(?::bigint[], ?::numeric[], ?::numeric[]) AS u(id, price, grams)
+        WHERE f.id = u.id
+          AND (f.price IS DISTINCT FROM u.price OR (u.grams IS NOT NULL AND f.grams IS DISTINCT FROM u.grams))
+        RETURNING f.id
+        """;
+
+    private final JdbcTemplate jdbc;
+    private final NutrientDictionary nutrientDictionary;
+    private final FoodItemCacheEvictor cacheEvictor;
+    private final FoodSubstitutionIndex substitutionIndex;
+    private final KnownFdcIdIndex knownFdcIdIndex;
+
+    /**
+     * @param inserted   Number of items that did not exist yet.
+     * @param updatedIds IDs of existing items that were overwritten.
+     */
+    public record Result(int inserted, List<Long> updatedIds) {}
+
+    /**
+     * @param grams Package weight the price is for; null keeps the current weight.
+     */
+    public record PriceUpdate(long foodItemId, BigDecimal price, BigDecimal grams) {}
+
+    public FoodItemBulkWriter(JdbcTemplate jdbc, NutrientDictionary nutrientDictionary,
+                              FoodItemCacheEvictor cacheEvictor, FoodSubstitutionIndex substitutionIndex,
+                              KnownFdcIdIndex knownFdcIdIndex) {
+        this.jdbc = jdbc;
+        this.nutrientDictionary = nutrientDictionary;
+        this.cacheEvictor = cacheEvictor;
+        this.substitutionIndex = substitutionIndex;
+        this.knownFdcIdIndex = knownFdcIdIndex;
+    }
+
+    /**
+     * Upserts the given items and their nutrients. Items must have a positive FDC ID;
+     * when an FDC ID occurs more than once, the last item wins.
+     */
+    public Result upsert(Collection<FoodItem> items) {
+        Map<Integer, FoodItem> byFdcId = new LinkedHashMap<>();
+        for (FoodItem item : items) {
+            byFdcId.put(item.getFdcId(), item);
+        }
+        if (byFdcId.isEmpty()) {
+            return new Result(0, List.of());
+        }
+        Integer[] fdcIds = byFdcId.keySet().toArray(Integer[]::new);
+        Set<Long> existing = new HashSet<>(findIdsByFdcIds(fdcIds).values());
+
+        List<FoodItem> rows = new ArrayList<>(byFdcId.values());
+        jdbc.batchUpdate(UPSERT_FOOD_ITEM, rows, rows.size(), (ps, item) -> {
+            ps.setString(1, item.getName());
+            ps.setInt(2, item.getFdcId());
+            ps.setString(3, item.getPortionDescription());
+            ps.setDouble(4, item.getGramWeight());
+            ps.setString(5, nutrientDictionary.encode(item.getNutrients()));
+            ps.setBoolean(6, item.isHasSugarData());
+            ps.setBoolean(7, item.isHasFiberData());
+            ps.setBoolean(8, item.isHasSaturatedFatData());
+            ps.setBoolean(9, item.isHasUnsaturatedFatData());
+            ps.setBoolean(10, item.isHasSodiumData());
+        });
+        cacheEvictor.evictAfterCommit(existing);
+        substitutionIndex.refreshAfterCommit(findIdsByFdcIds(fdcIds).values());
+        knownFdcIdIndex.addAll(byFdcId.keySet());
+
+        return new Result(rows.size() - existing.size(), List.copyOf(existing));
+    }
+
+    /**
+     * Inserts the items whose FDC ID does not exist yet, together with their nutrients, in one statement.
+     * Safe against concurrent imports of the same FDC IDs.
+     *
+     * @return The database ID of every inserted item, keyed by FDC ID; conflicting items are absent.
+     */
+    public Map<Integer, Long> insertNew(Collection<FoodItem> items) {
+        Map<Integer, FoodItem> byFdcId = new LinkedHashMap<>();
+        for (FoodItem item : items) {
+            byFdcId.putIfAbsent(item.getFdcId(), item);
+        }
+        if (byFdcId.isEmpty()) {
+            return Map.of();
+        }
+        List<FoodItem> rows = new ArrayList<>(byFdcId.values());
+        int n = rows.size();
+        String[] names = new String[n];
+        Integer[] fdcIds = new Integer[n];
+        String[] portions = new String[n];
+        Double[] gramWeights = new Double[n];
+        String[] nutrientValues = new String[n];
+        Boolean[][] flags = new Boolean[5][n];
+        for (int i = 0; i < n; i++) {
+            FoodItem item = rows.get(i);
+            names[i] = item.getName();
+            fdcIds[i] = item.getFdcId();
+            portions[i] = item.getPortionDescription();
+            gramWeights[i] = item.getGramWeight();
+            nutrientValues[i] = nutrientDictionary.encode(item.getNutrients());
+            flags[0][i] = item.isHasSugarData();
+            flags[1][i] = item.isHasFiberData();
+            flags[2][i] = item.isHasSaturatedFatData();
+            flags[3][i] = item.isHasUnsaturatedFatData();
+            flags[4][i] = item.isHasSodiumData();
+        }
+
+        Map<Integer, Long> inserted = new LinkedHashMap<>();
+        jdbc.query(INSERT_NEW_FOOD_ITEMS, ps -> {
+            var connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("text", names));
+            ps.setArray(2, connection.createArrayOf("integer", fdcIds));
+            ps.setArray(3, connection.createArrayOf("text", portions));
+            ps.setArray(4, connection.createArrayOf("float8", gramWeights));
+            ps.setArray(5, connection.createArrayOf("text", nutrientValues));
+            for (int f = 0; f < flags.length; f++) {
+                ps.setArray(6 + f, connection.createArrayOf("boolean", flags[f]));
+            }
+        }, rs -> {
+            inserted.put(rs.getInt(2), rs.getLong(1));
+        });
+        if (!inserted.isEmpty()) {
+            cacheEvictor.evictAfterCommit(List.of());
+            substitutionIndex.refreshAfterCommit(inserted.values());
+            knownFdcIdIndex.addAll(inserted.keySet());
+        }
+        return inserted;
+    }
+
+    /**
+     * Sets the price and grams of existing food items in a single UPDATE over the unnested batch arrays.
+     *
+     * @return IDs of the items whose price or grams actually changed.
+     */
+    public List<Long> updatePrices(Collection<PriceUpdate> updates) {
+        if (updates.isEmpty()) {
+            return List.of();
+        }
+        Long[] ids = updates.stream().map(PriceUpdate::foodItemId).toArray(Long[]::new);
+        BigDecimal[] prices = updates.stream().map(PriceUpdate::price).toArray(BigDecimal[]::new);
+        BigDecimal[] grams = updates.stream().map(PriceUpdate::grams).toArray(BigDecimal[]::new);
+
+        List<Long> changed = new ArrayList<>();
+        jdbc.query(UPDATE_PRICES, ps -> {
+            var connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("bigint", ids));
+            ps.setArray(2, connection.createArrayOf("numeric", prices));
+            ps.setArray(3, connection.createArrayOf("numeric", grams));
+        }, rs -> {
+            changed.add(rs.getLong(1));
+        });
+        if (!changed.isEmpty()) {
+            cacheEvictor.evictAfterCommit(changed);
+            substitutionIndex.refreshAfterCommit(changed);
+        }
+        return changed;
+    }
+
+    private Map<Integer, Long> findIdsByFdcIds(Integer[] fdcIds) {
+        Map<Integer, Long> ids = new HashMap<>(fdcIds.length * 2);
+        jdbc.query("SELECT fdc_id, id FROM food_items WHERE fdc_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", fdcIds)),
+                rs -> {
+                    ids.put(rs.getInt(1), rs.getLong(2));
+                });
+        return ids;
+    }
+}
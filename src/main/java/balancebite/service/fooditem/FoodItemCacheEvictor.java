@@ -0,0 +1,65 @@
+package balancebite.service.fooditem;
+
+import balancebite.config.CacheConfig;
+import balancebite.model.foodItem.FoodItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evicts cached food item data after writes that bypass Hibernate (plain JDBC bulk writes).
+ *
+ * Hibernate keeps its second-level and query caches up to date for its own writes only; JDBC writes
+ * must evict the changed items and all cached food item queries themselves.
+ */
+@Component
+public class FoodItemCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+
+    public FoodItemCacheEvictor(EntityManagerFactory entityManagerFactory, CacheManager cacheManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Evicts the given food items and all cached food item queries. Inside a transaction this happens
+     * after commit, so no other transaction can cache the old rows again in between.
+     *
+     * @param changedIds IDs of food items whose row or nutrients were changed; empty after inserts only.
+     */
+    public void evictAfterCommit(Collection<Long> changedIds) {
+        List<Long> ids = List.copyOf(changedIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(ids);
+                }
+            });
+        } else {
+            evict(ids);
+        }
+    }
+
+    private void evict(List<Long> ids) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        for (Long id : ids) {
+            cache.evictEntityData(FoodItem.class, id);
+        }
+        cache.evictQueryRegions();
+
+        org.springframework.cache.Cache names = cacheManager.getCache(CacheConfig.FOOD_ITEM_NAMES);
+        if (names != null) {
+            names.clear();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package balancebite.service.fooditem;
 
+import balancebite.config.CacheConfig;
 import balancebite.dto.CloudinaryUploadResult;
 import balancebite.dto.fooditem.FoodItemDTO;
 import balancebite.dto.UsdaFoodResponseDTO;
 import balancebite.dto.fooditem.FoodItemInputDTO;
 import balancebite.dto.fooditem.FoodItemNameDTO;
+import balancebite.dto.fooditem.FoodItemPageDTO;
+import balancebite.dto.fooditem.FoodSubstituteDTO;
+import balancebite.dto.fooditem.UsdaImportJobDTO;
 import balancebite.errorHandling.EntityAlreadyExistsException;
 import balancebite.errorHandling.UsdaApiException;
 import balancebite.mapper.FoodItemMapper;
@@ -21,17 +25,23 @@ import balancebite.service.UsdaApiService;
 import balancebite.service.interfaces.fooditem.IFoodItemService;
 import balancebite.errorHandling.EntityNotFoundException;
 import balancebite.utils.FoodItemBulkFetchUtil;
+import balancebite.utils.KdTree;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +53,10 @@ public class FoodItemService implements IFoodItemService {
 
     private static final Logger log = LoggerFactory.getLogger(FoodItemService.class);
 
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_PAGE_SIZE = 500;
+    public static final int MAX_SUBSTITUTES = 50;
+
     private final FoodItemRepository foodItemRepository;
     private final UsdaApiService usdaApiService;
     private final FoodItemMapper foodItemMapper;
@@ -50,6 +64,12 @@ public class FoodItemService implements IFoodItemService {
     private final PromotedFoodItemRepository promotedFoodItemRepository;
     private final UserRepository userRepository;
     private final MealRepository mealRepository;
+    private final UsdaImportService usdaImportService;
+    private final FoodSubstitutionIndex substitutionIndex;
+    private final KnownFdcIdIndex knownFdcIdIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Constructor for dependency injection.
@@ -58,7 +78,7 @@ public class FoodItemService implements IFoodItemService {
      * @param usdaApiService Service for interacting with the USDA API.
      * @param foodItemMapper Mapper for converting between FoodItem entities and DTOs.
      */
-    public FoodItemService(FoodItemRepository foodItemRepository, UsdaApiService usdaApiService, FoodItemMapper foodItemMapper, CloudinaryService cloudinaryService, PromotedFoodItemRepository promotedFoodItemRepository, UserRepository userRepository, MealRepository mealRepository) {
+    public FoodItemService(FoodItemRepository foodItemRepository, UsdaApiService usdaApiService, FoodItemMapper foodItemMapper, CloudinaryService cloudinaryService, PromotedFoodItemRepository promotedFoodItemRepository, UserRepository userRepository, MealRepository mealRepository, UsdaImportService usdaImportService, FoodSubstitutionIndex substitutionIndex, KnownFdcIdIndex knownFdcIdIndex) {
         this.foodItemRepository = foodItemRepository;
         this.usdaApiService = usdaApiService;
         this.foodItemMapper = foodItemMapper;
@@ -66,6 +86,9 @@ public class FoodItemService implements IFoodItemService {
         this.promotedFoodItemRepository = promotedFoodItemRepository;
         this.userRepository = userRepository;
         this.mealRepository = mealRepository;
+        this.usdaImportService = usdaImportService;
+        this.substitutionIndex = substitutionIndex;
+        this.knownFdcIdIndex = knownFdcIdIndex;
     }
 
     /**
@@ -75,6 +98,7 @@ public class FoodItemService implements IFoodItemService {
      * @return The created FoodItem as a DTO.
      */
     @Override
+    @CacheEvict(value = CacheConfig.FOOD_ITEM_NAMES, allEntries = true)
     public FoodItemDTO createFoodItem(FoodItemInputDTO inputDTO) {
         log.info("Creating new FoodItem from user input: {}", inputDTO.getName());
 
@@ -117,6 +141,7 @@ public class FoodItemService implements IFoodItemService {
 
         // 5) Persist and return
         foodItemRepository.save(foodItem);
+        knownFdcIdIndex.add(foodItem.getFdcId());
         log.info("Successfully created FoodItem: {}", foodItem.getName());
         return foodItemMapper.toDTO(foodItem);
     }
@@ -128,6 +153,7 @@ public class FoodItemService implements IFoodItemService {
      * @return the updated item as {@link FoodItemDTO}
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.FOOD_ITEM_NAMES, allEntries = true)
     public FoodItemDTO updateFoodItem(Long id, FoodItemInputDTO input) {
         FoodItem existing = foodItemRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Food item with ID " + id + " not found."));
@@ -178,6 +204,7 @@ public class FoodItemService implements IFoodItemService {
         existing.setGrams(input.getGrams());
 
         foodItemRepository.save(existing);
+        knownFdcIdIndex.add(existing.getFdcId());
 
         mealRepository.findByFoodItemId(id).forEach(meal -> {
             meal.updateNutrients();
@@ -223,7 +250,7 @@ public class FoodItemService implements IFoodItemService {
      * @throws IllegalArgumentException if the USDA API response is invalid.
      */
     @Override
-    @Cacheable(value = "foodItemCache", key = "#fdcId")
+    @CacheEvict(value = CacheConfig.FOOD_ITEM_NAMES, allEntries = true)
     public UsdaFoodResponseDTO fetchAndSaveFoodItem(String fdcId) {
         log.info("Fetching food item with FDC ID: {}", fdcId);
 
@@ -252,6 +279,7 @@ public class FoodItemService implements IFoodItemService {
         foodItem.applyFatDerivation();
         foodItem.refreshNutrientFlags();
         foodItemRepository.save(foodItem);
+        knownFdcIdIndex.add(fdcIdInt);
 
         log.info("Successfully saved food item with name: {} and FDC ID: {}", response.getDescription(), fdcIdInt);
 
@@ -261,9 +289,8 @@ public class FoodItemService implements IFoodItemService {
 
     /**
      * Fetches multiple food items from the USDA API by a list of FDC IDs and saves them.
-     * This method processes the provided FDC IDs, checks which items already exist in the database,
-     * and attempts to fetch the remaining items from the USDA API. It then saves valid items to the database
-     * and categorizes them as saved, skipped, or invalid.
+     * The work runs as a background job of {@link UsdaImportService}; the returned future completes
+     * when the job has processed all IDs, without blocking the calling thread.
      *
      * @param fdcIds List of FDC IDs for the food items to fetch.
      * @return A CompletableFuture containing a Map with the following keys:
@@ -271,71 +298,16 @@ public class FoodItemService implements IFoodItemService {
      *         - "savedItems": A list of maps containing "fdcId" and "name" of the food items that were successfully saved.
      *         - "skippedItems": A list of FDC IDs that were already present in the database.
      *         - "invalidItems": A list of FDC IDs that were either not found in the USDA API or could not be processed.
-     * @throws UsdaApiException if an error occurs while communicating with the USDA API.
      */
     @Override
-    @Async
     public CompletableFuture<Map<String, Object>> fetchAndSaveAllFoodItems(List<String> fdcIds) {
-        log.info("Fetching multiple food items with FDC IDs: {}", fdcIds);
-
-        // Lists to track saved, skipped, and invalid items
-        List<Map<String, String>> savedItems = new ArrayList<>();
-        List<String> skippedItems = new ArrayList<>();
-        List<String> invalidItems = new ArrayList<>();
-
-        // Filter out FDC IDs that already exist in the database using the utility method
-        List<String> newFdcIds = FoodItemBulkFetchUtil.filterExistingFdcIds(fdcIds, foodItemRepository, skippedItems);
-
-        // If all FDC IDs already exist, return a response directly without making any API calls
-        if (newFdcIds.isEmpty()) {
-            log.info("All provided FDC IDs already exist in the database. No API calls needed.");
-            return CompletableFuture.completedFuture(FoodItemBulkFetchUtil.createResponse(
-                    "All provided FDC IDs already exist in the database.",
-                    savedItems, skippedItems, invalidItems
-            ));
-        }
-
-        // Attempt to fetch data from the USDA API for new FDC IDs
-        List<UsdaFoodResponseDTO> responses;
-        try {
-            responses = usdaApiService.getMultipleFoodData(newFdcIds);
-        } catch (UsdaApiException e) {
-            // Handle any errors from the USDA API and return a response with the affected FDC IDs marked as invalid
-            return CompletableFuture.completedFuture(
-                    FoodItemBulkFetchUtil.handleUsdaApiError(newFdcIds, savedItems, skippedItems, invalidItems, e)
-            );
-        }
-
-        // Track which FDC IDs received a valid response
-        Set<String> receivedFdcIds = responses.stream()
-                .map(response -> String.valueOf(response.getFdcId()))
-                .collect(Collectors.toSet());
-
-        // Add FDC IDs to 'invalidItems' if no valid response was received for them
-        newFdcIds.stream()
-                .filter(fdcId -> !receivedFdcIds.contains(fdcId))
-                .forEach(invalidItems::add);
-
-        // Process each response, saving valid items and marking invalid ones
-        responses.forEach(response -> {
-            if (FoodItemBulkFetchUtil.isResponseInvalid(response)) {
-                // Add the FDC ID to invalidItems if the response is considered invalid
-                invalidItems.add(String.valueOf(response.getFdcId()));
-            } else {
-                // Save the valid response and add its details to the savedItems list
-                FoodItemBulkFetchUtil.processAndSaveResponse(response, foodItemRepository, savedItems);
-            }
-        });
-
-        // Log the summary of the operation
-        log.info("Total food items successfully saved: {}", savedItems.size());
-        log.info("Total skipped items: {}", skippedItems.size());
-        log.info("Total invalid items: {}", invalidItems.size());
-
-        // Return the final response containing all saved, skipped, and invalid items
-        return CompletableFuture.completedFuture(FoodItemBulkFetchUtil.createResponse(
-                "Bulk food items fetched and processed.",
-                savedItems, skippedItems, invalidItems
+        log.info("Fetching {} food items by FDC ID", fdcIds.size());
+        UsdaImportJobDTO job = usdaImportService.startImport(fdcIds);
+        return usdaImportService.awaitJob(job.jobId()).thenApply(result -> FoodItemBulkFetchUtil.createResponse(
+                result.status() == UsdaImportJobDTO.Status.COMPLETED
+                        ? "Bulk food items fetched and processed."
+                        : "An error occurred while processing some FDC IDs.",
+                result.savedItems(), result.skippedItems(), result.invalidItems()
         ));
     }
 
@@ -354,16 +326,92 @@ public class FoodItemService implements IFoodItemService {
     }
 
     /**
-     * Retrieves all FoodItems from the database.
+     * Retrieves one page of FoodItems, ordered by ID. One extra ID is fetched to know whether a next page exists.
      *
-     * @return A list of all FoodItemDTOs.
+     * @param after Cursor returned with the previous page; null for the first page.
+     * @param size  Number of items per page (1 to {@value #MAX_PAGE_SIZE}).
+     * @return The page and the cursor of the next page, or a null cursor on the last page.
      */
     @Override
-    public List<FoodItemDTO> getAllFoodItems() {
-        log.info("Retrieving all food items from the database.");
-        return foodItemRepository.findAll().stream()
-                .map(foodItemMapper::toDTO)
-                .collect(Collectors.toList());
+    public FoodItemPageDTO getFoodItemPage(Long after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        List<Long> ids = foodItemRepository.findIdsAfter(after == null ? 0 : after, Limit.of(size + 1));
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        List<FoodItemDTO> items = loadPage(pageIds);
+        return new FoodItemPageDTO(items, hasNext ? pageIds.get(pageIds.size() - 1) : null);
+    }
+
+    /**
+     * Passes all FoodItems to the consumer in keyset pages of {@value #STREAM_PAGE_SIZE}.
+     * Deliberately not transactional, so no connection is held while the consumer writes to a slow client.
+     * With open-in-view the request keeps one persistence context, which is therefore cleared after every page.
+     *
+     * @param pageConsumer Receives each page.
+     */
+    @Override
+    public void forEachFoodItemPage(Consumer<List<FoodItemDTO>> pageConsumer) {
+        long after = 0;
+        while (true) {
+            List<Long> ids = foodItemRepository.findIdsAfter(after, Limit.of(STREAM_PAGE_SIZE));
+            if (ids.isEmpty()) {
+                return;
+            }
+            pageConsumer.accept(loadPage(ids));
+            entityManager.clear();
+            if (ids.size() < STREAM_PAGE_SIZE) {
+                return;
+            }
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    @Override
+    public boolean hasFoodItems() {
+        return foodItemRepository.count() > 0;
+    }
+
+    /**
+     * Finds substitutes in the in-memory {@link FoodSubstitutionIndex} and loads them in one query.
+     *
+     * @param id                The food item to replace.
+     * @param limit             Number of substitutes (1 to {@value #MAX_SUBSTITUTES}).
+     * @param sameCategory      Only substitutes of the same food category.
+     * @param lowerSaturatedFat Only substitutes with less saturated fat.
+     * @param maxPricePer100g   Price ceiling per 100 g; null for none.
+     * @return The substitutes, nearest first.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<FoodSubstituteDTO> getSubstitutes(Long id, int limit, boolean sameCategory, boolean lowerSaturatedFat,
+                                                  BigDecimal maxPricePer100g) {
+        if (limit < 1 || limit > MAX_SUBSTITUTES) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUBSTITUTES + ".");
+        }
+        if (!substitutionIndex.contains(id) && !foodItemRepository.existsById(id)) {
+            throw new EntityNotFoundException("Food item with ID " + id + " not found.");
+        }
+        List<KdTree.Neighbor> neighbors = substitutionIndex.findSubstitutes(id, limit,
+                new FoodSubstitutionIndex.Constraints(sameCategory, lowerSaturatedFat, maxPricePer100g));
+
+        Map<Long, FoodItemDTO> byId = new HashMap<>();
+        loadPage(neighbors.stream().map(KdTree.Neighbor::key).toList())
+                .forEach(item -> byId.put(item.getId(), item));
+        // Een kandidaat die net is verwijderd ontbreekt in de database en valt weg
+        return neighbors.stream()
+                .filter(neighbor -> byId.containsKey(neighbor.key()))
+                .map(neighbor -> new FoodSubstituteDTO(byId.get(neighbor.key()), neighbor.distance()))
+                .toList();
+    }
+
+    private List<FoodItemDTO> loadPage(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Promoties in één query per pagina, niet per item
+        return foodItemMapper.toDTOs(foodItemRepository.findByIdInOrderById(ids));
     }
 
     /**
@@ -373,6 +421,7 @@ public class FoodItemService implements IFoodItemService {
      */
     @Transactional
     @Override
+    @CacheEvict(value = CacheConfig.FOOD_ITEM_NAMES, allEntries = true)
     public void deleteFoodItemById(Long id) {
         log.info("Deleting food item with ID: {}", id);
         if (!foodItemRepository.existsById(id)) {
@@ -409,6 +458,7 @@ public class FoodItemService implements IFoodItemService {
      * @return A list of FoodItemNameDTOs containing only ID and name.
      */
     @Override
+    @Cacheable(CacheConfig.FOOD_ITEM_NAMES)
     public List<FoodItemNameDTO> getAllFoodItemNames() {
         log.info("Fetching all food item names and IDs.");
         return foodItemRepository.findAllFoodItemNames();
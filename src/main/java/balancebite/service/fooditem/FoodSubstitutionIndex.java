@@ -0,0 +1,366 @@
+package balancebite.service.fooditem;
+
+import balancebite.model.NutrientInfo;
+import balancebite.model.foodItem.FoodCategory;
+import balancebite.utils.KdTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory nutrient-similarity index of all food items, for "a food like this one" substitution queries.
+ *
+ * Every food item is a point of its per-100 g nutrient values ({@link #DIMENSIONS}), each divided by the
+ * standard deviation of that nutrient over all items so that grams of protein and milligrams of sodium weigh
+ * alike; absent nutrients count as 0. Points are partitioned by {@link FoodCategory}, one {@link KdTree} per
+ * category, so a same-category query only searches its own tree.
+ *
+ * The index is built at startup and kept current per food item: changed items go into a small overlay of
+ * their category, which queries scan next to the tree, and their old tree point is skipped. Once an overlay
+ * holds {@value #OVERLAY_LIMIT} changes, only that category's tree is rebuilt. The scaling stays as computed
+ * at startup. Changes arrive through {@link #refreshAfterCommit(Collection)}, from the entity listener on
+ * food items and from {@link FoodItemBulkWriter}.
+ */
+@Component
+public class FoodSubstitutionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FoodSubstitutionIndex.class);
+
+    static final int OVERLAY_LIMIT = 256;
+
+    /** Nutrient names per dimension, in the spellings used by USDA data and manual entry. */
+    private static final List<List<String>> DIMENSIONS = List.of(
+            List.of("Energy"),
+            List.of("Protein"),
+            List.of("Carbohydrates", "Carbohydrate, by difference"),
+            List.of("Total lipid (fat)"),
+            List.of("Total Sugars", "Sugars, total"),
+            List.of("Fiber, total dietary"),
+            List.of("Fatty acids, total saturated", "Saturated Fat"),
+            List.of("Sodium, Na", "Sodium"));
+
+    private static final int SATURATED_FAT = 6;
+
+    private static final String SELECT_ITEMS =
+            "SELECT id, food_category, price, grams, nutrient_values FROM food_items";
+
+    /**
+     * @param sameCategory      Only items of the same food category.
+     * @param lowerSaturatedFat Only items with known saturated fat below that of the original.
+     * @param maxPricePer100g   Only items with a known base price per 100 g of at most this; null for no ceiling.
+     */
+    public record Constraints(boolean sameCategory, boolean lowerSaturatedFat, BigDecimal maxPricePer100g) {}
+
+    /**
+     * @param nutrients    Raw per-100 g values per dimension; NaN when absent.
+     * @param pricePer100g Base price per 100 g; null when unknown.
+     */
+    record Entry(long id, FoodCategory category, double[] nutrients, BigDecimal pricePer100g) {
+
+        double saturatedFat() {
+            return nutrients[SATURATED_FAT];
+        }
+    }
+
+    /**
+     * One category: a tree, the entries changed since it was built, and the tree points those replaced.
+     */
+    private record Partition(KdTree tree, Map<Long, Entry> overlay, Set<Long> stale) {
+
+        static final Partition EMPTY = new Partition(new KdTree(new long[0], new double[0][]), Map.of(), Set.of());
+    }
+
+    private final JdbcTemplate jdbc;
+    private final NutrientDictionary nutrientDictionary;
+    private final TransactionTemplate readTransaction;
+
+    /** Current version of every indexed item; written under the lock, read freely by queries. */
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    /** Replaced as a whole on every change, so queries never see a partition half updated. Null key: no category. */
+    private volatile Map<FoodCategory, Partition> partitions;
+    private volatile double[] scales;
+
+    public FoodSubstitutionIndex(JdbcTemplate jdbc, NutrientDictionary nutrientDictionary,
+                                 PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.nutrientDictionary = nutrientDictionary;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        try {
+            long start = System.nanoTime();
+            List<Entry> loaded = new ArrayList<>();
+            jdbc.query(SELECT_ITEMS, (RowCallbackHandler) rs -> loaded.add(toEntry(rs)));
+            build(loaded);
+            log.info("Food substitution index built with {} items in {} ms",
+                    loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Could not build food substitution index: {}", e.getMessage());
+        }
+    }
+
+    synchronized void build(Collection<Entry> loaded) {
+        entries.clear();
+        loaded.forEach(entry -> entries.put(entry.id(), entry));
+        scales = standardDeviations(loaded);
+
+        Map<FoodCategory, List<Entry>> byCategory = new HashMap<>();
+        loaded.forEach(entry -> byCategory.computeIfAbsent(entry.category(), c -> new ArrayList<>()).add(entry));
+        Map<FoodCategory, Partition> fresh = new HashMap<>();
+        byCategory.forEach((category, members) -> fresh.put(category, new Partition(tree(members), Map.of(), Set.of())));
+        partitions = fresh;
+    }
+
+    /**
+     * Re-reads the given food items after the current transaction commits (or immediately without one);
+     * items that no longer exist leave the index. All calls within one transaction are read in one query.
+     */
+    public void refreshAfterCommit(Collection<Long> foodItemIds) {
+        if (foodItemIds.isEmpty()) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(foodItemIds);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> ids = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Een gemiste wijziging maakt alleen de suggesties minder actueel, tot de volgende start
+                    try {
+                        refresh(ids);
+                    } catch (RuntimeException e) {
+                        log.warn("Refreshing food substitution index for {} failed: {}", ids, e.getMessage());
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(FoodSubstitutionIndex.this);
+                }
+            });
+            pending = ids;
+        }
+        pending.addAll(foodItemIds);
+    }
+
+    private void refresh(Collection<Long> foodItemIds) {
+        if (partitions == null) return;
+        Long[] ids = foodItemIds.toArray(Long[]::new);
+        Map<Long, Entry> loaded = new HashMap<>();
+        readTransaction.executeWithoutResult(status -> jdbc.query(SELECT_ITEMS + " WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                (RowCallbackHandler) rs -> {
+                    Entry entry = toEntry(rs);
+                    loaded.put(entry.id(), entry);
+                }));
+        apply(foodItemIds, loaded);
+    }
+
+    /**
+     * Replaces the given items by their loaded version; items missing from {@code loaded} are removed.
+     */
+    synchronized void apply(Collection<Long> foodItemIds, Map<Long, Entry> loaded) {
+        Map<FoodCategory, Partition> next = new HashMap<>(partitions);
+        Map<FoodCategory, Map<Long, Entry>> overlays = new HashMap<>();
+        Map<FoodCategory, Set<Long>> stale = new HashMap<>();
+
+        for (Long id : new HashSet<>(foodItemIds)) {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                Partition partition = next.getOrDefault(previous.category(), Partition.EMPTY);
+                overlays.computeIfAbsent(previous.category(), c -> new HashMap<>(partition.overlay())).remove(id);
+                stale.computeIfAbsent(previous.category(), c -> new HashSet<>(partition.stale())).add(id);
+            }
+            Entry current = loaded.get(id);
+            if (current != null) {
+                entries.put(id, current);
+                Partition partition = next.getOrDefault(current.category(), Partition.EMPTY);
+                overlays.computeIfAbsent(current.category(), c -> new HashMap<>(partition.overlay())).put(id, current);
+                stale.computeIfAbsent(current.category(), c -> new HashSet<>(partition.stale()));
+            }
+        }
+
+        for (FoodCategory category : overlays.keySet()) {
+            Map<Long, Entry> overlay = overlays.get(category);
+            Set<Long> replaced = stale.get(category);
+            if (overlay.size() + replaced.size() >= OVERLAY_LIMIT) {
+                List<Entry> members = entries.values().stream()
+                        .filter(entry -> entry.category() == category)
+                        .toList();
+                next.put(category, new Partition(tree(members), Map.of(), Set.of()));
+            } else {
+                KdTree tree = next.getOrDefault(category, Partition.EMPTY).tree();
+                next.put(category, new Partition(tree, Map.copyOf(overlay), Set.copyOf(replaced)));
+            }
+        }
+        partitions = next;
+    }
+
+    /**
+     * @return True once the index is built and contains the food item.
+     */
+    public boolean contains(long foodItemId) {
+        return partitions != null && entries.containsKey(foodItemId);
+    }
+
+    /**
+     * Finds the food items nearest in nutrient profile to the given one, nearest first.
+     *
+     * @throws IllegalStateException    if the index is not built or does not contain the item yet.
+     * @throws IllegalArgumentException if a constraint needs data the item does not have.
+     */
+    public List<KdTree.Neighbor> findSubstitutes(long foodItemId, int k, Constraints constraints) {
+        Map<FoodCategory, Partition> current = partitions;
+        double[] scale = scales;
+        Entry source = entries.get(foodItemId);
+        if (current == null || source == null) {
+            throw new IllegalStateException("Food item " + foodItemId + " is not in the substitution index yet.");
+        }
+        if (constraints.sameCategory() && source.category() == null) {
+            throw new IllegalArgumentException("Food item " + foodItemId + " has no food category.");
+        }
+        if (constraints.lowerSaturatedFat() && Double.isNaN(source.saturatedFat())) {
+            throw new IllegalArgumentException("Food item " + foodItemId + " has no saturated fat data.");
+        }
+
+        double[] target = normalize(source.nutrients(), scale);
+        KdTree.Neighbors neighbors = new KdTree.Neighbors(k);
+        LongPredicate accept = id -> id != foodItemId && accepts(entries.get(id), source, constraints);
+        Collection<FoodCategory> categories = constraints.sameCategory()
+                ? List.of(source.category())
+                : new ArrayList<>(current.keySet());
+        for (FoodCategory category : categories) {
+            Partition partition = current.get(category);
+            if (partition == null) continue;
+            partition.tree().search(target, neighbors, id -> !partition.stale().contains(id) && accept.test(id));
+            for (Entry entry : partition.overlay().values()) {
+                double distance = squaredDistance(target, normalize(entry.nutrients(), scale));
+                if (distance < neighbors.worstDistance() && accept.test(entry.id())) {
+                    neighbors.offer(entry.id(), distance);
+                }
+            }
+        }
+        return neighbors.sorted();
+    }
+
+    /** @return Number of indexed food items. */
+    int size() {
+        return entries.size();
+    }
+
+    private static boolean accepts(Entry candidate, Entry source, Constraints constraints) {
+        if (candidate == null) return false;
+        if (constraints.lowerSaturatedFat()
+                && !(candidate.saturatedFat() < source.saturatedFat())) {
+            return false;
+        }
+        BigDecimal ceiling = constraints.maxPricePer100g();
+        return ceiling == null
+                || (candidate.pricePer100g() != null && candidate.pricePer100g().compareTo(ceiling) <= 0);
+    }
+
+    private KdTree tree(List<Entry> members) {
+        long[] ids = new long[members.size()];
+        double[][] points = new double[members.size()][];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = members.get(i).id();
+            points[i] = normalize(members.get(i).nutrients(), scales);
+        }
+        return new KdTree(ids, points);
+    }
+
+    private Entry toEntry(ResultSet rs) throws SQLException {
+        String category = rs.getString(2);
+        BigDecimal price = rs.getBigDecimal(3);
+        BigDecimal grams = rs.getBigDecimal(4);
+        BigDecimal pricePer100g = price != null && grams != null && grams.signum() > 0
+                ? price.multiply(BigDecimal.valueOf(100)).divide(grams, 2, RoundingMode.HALF_UP)
+                : null;
+        return new Entry(rs.getLong(1), category == null ? null : FoodCategory.valueOf(category),
+                nutrientVector(nutrientDictionary.decode(rs.getString(5))), pricePer100g);
+    }
+
+    static double[] nutrientVector(List<NutrientInfo> nutrients) {
+        double[] vector = new double[DIMENSIONS.size()];
+        Arrays.fill(vector, Double.NaN);
+        for (NutrientInfo nutrient : nutrients) {
+            if (nutrient.getValue() == null || nutrient.getValue() < 0) continue;
+            for (int d = 0; d < vector.length; d++) {
+                if (!Double.isNaN(vector[d])) continue;
+                if (DIMENSIONS.get(d).stream().anyMatch(name -> name.equalsIgnoreCase(nutrient.getNutrientName()))
+                        && (d != 0 || "kcal".equalsIgnoreCase(nutrient.getUnitName()))) {
+                    vector[d] = nutrient.getValue();
+                }
+            }
+        }
+        return vector;
+    }
+
+    private static double[] standardDeviations(Collection<Entry> loaded) {
+        int dimensions = DIMENSIONS.size();
+        double[] sum = new double[dimensions];
+        double[] sumOfSquares = new double[dimensions];
+        for (Entry entry : loaded) {
+            for (int d = 0; d < dimensions; d++) {
+                double value = valueOrZero(entry.nutrients()[d]);
+                sum[d] += value;
+                sumOfSquares[d] += value * value;
+            }
+        }
+        double[] deviations = new double[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            double mean = loaded.isEmpty() ? 0 : sum[d] / loaded.size();
+            double variance = loaded.isEmpty() ? 0 : sumOfSquares[d] / loaded.size() - mean * mean;
+            deviations[d] = variance > 1e-12 ? Math.sqrt(variance) : 1;
+        }
+        return deviations;
+    }
+
+    private static double[] normalize(double[] nutrients, double[] scale) {
+        double[] point = new double[nutrients.length];
+        for (int d = 0; d < point.length; d++) {
+            point[d] = valueOrZero(nutrients[d]) / scale[d];
+        }
+        return point;
+    }
+
+    private static double valueOrZero(double value) {
+        return Double.isNaN(value) ? 0 : value;
+    }
+
+    private static double squaredDistance(double[] a, double[] b) {
+        double sum = 0;
+        for (int d = 0; d < a.length; d++) {
+            double delta = a[d] - b[d];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+}
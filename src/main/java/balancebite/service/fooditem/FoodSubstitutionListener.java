@@ -0,0 +1,32 @@
+package balancebite.service.fooditem;
+
+import balancebite.model.foodItem.FoodItem;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * JPA entity listener that updates the {@link FoodSubstitutionIndex} after a food item change commits.
+ */
+@Component
+public class FoodSubstitutionListener {
+
+    private final ObjectProvider<FoodSubstitutionIndex> index;
+
+    public FoodSubstitutionListener(ObjectProvider<FoodSubstitutionIndex> index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(FoodItem foodItem) {
+        if (foodItem.getId() != null) {
+            index.getObject().refreshAfterCommit(List.of(foodItem.getId()));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package balancebite.service.fooditem;
+
+import balancebite.repository.FoodItemRepository;
+import balancebite.utils.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Answers "which of these FDC IDs are already imported" for bulk imports.
+ *
+ * A Bloom filter of all known FDC IDs is built once at startup. IDs the filter has never seen are new
+ * without any query; only the remaining candidates are checked with a single {@code fdc_id = ANY(?)} query.
+ * Every insert path records its FDC IDs here ({@link FoodItemBulkWriter} and the single-item saves of
+ * {@link FoodItemService}), so a filter miss reliably means the ID is new.
+ */
+@Component
+public class KnownFdcIdIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(KnownFdcIdIndex.class);
+
+    private static final long MIN_CAPACITY = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final FoodItemRepository foodItemRepository;
+    private final JdbcTemplate jdbc;
+    private volatile BloomFilter filter;
+
+    public KnownFdcIdIndex(FoodItemRepository foodItemRepository, JdbcTemplate jdbc) {
+        this.foodItemRepository = foodItemRepository;
+        this.jdbc = jdbc;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        try {
+            long start = System.nanoTime();
+            Long count = jdbc.queryForObject("SELECT COUNT(*) FROM food_items WHERE fdc_id > 0", Long.class);
+            // Ruimte voor groei: boven de capaciteit stijgt alleen het aantal vals-positieven
+            BloomFilter fresh = new BloomFilter(Math.max(MIN_CAPACITY, (count != null ? count : 0) * 2), FALSE_POSITIVE_RATE);
+            jdbc.query("SELECT fdc_id FROM food_items WHERE fdc_id > 0", rs -> {
+                fresh.add(rs.getInt(1));
+            });
+            filter = fresh;
+            log.info("Known FDC ID filter built with {} IDs in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Could not build known FDC ID filter, every ID will be checked in the database: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Splits FDC IDs into new and existing ones.
+     *
+     * @param fdcIds       Numeric FDC IDs to check.
+     * @param skippedItems Receives the IDs that already exist.
+     * @return The IDs that do not exist yet, in their original order.
+     */
+    public List<String> filterExisting(List<String> fdcIds, List<String> skippedItems) {
+        BloomFilter current = filter;
+        List<Integer> candidates = new ArrayList<>();
+        for (String fdcId : fdcIds) {
+            int id = Integer.parseInt(fdcId);
+            if (current == null || current.mightContain(id)) {
+                candidates.add(id);
+            }
+        }
+
+        Set<Integer> existing = candidates.isEmpty() ? Set.of()
+                : new HashSet<>(foodItemRepository.findExistingFdcIds(candidates.toArray(Integer[]::new)));
+
+        List<String> newFdcIds = new ArrayList<>(fdcIds.size());
+        for (String fdcId : fdcIds) {
+            if (existing.contains(Integer.parseInt(fdcId))) {
+                skippedItems.add(fdcId);
+            } else {
+                newFdcIds.add(fdcId);
+            }
+        }
+        return newFdcIds;
+    }
+
+    /**
+     * Records newly imported FDC IDs.
+     */
+    public void addAll(Collection<Integer> fdcIds) {
+        fdcIds.forEach(this::add);
+    }
+
+    /**
+     * Records the FDC ID of a saved food item; manually created items (FDC ID 0) are ignored.
+     */
+    public void add(int fdcId) {
+        BloomFilter current = filter;
+        if (current != null && fdcId > 0) {
+            current.add(fdcId);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package balancebite.service.fooditem;
+
+import balancebite.model.NutrientInfo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of nutrient definitions (name, unit and USDA nutrient ID) for the compact nutrient format.
+ *
+ * Food items store their nutrients in {@code food_items.nutrient_values} as a jsonb array of
+ * {@code [slot, value]} pairs; the slot refers to a row in {@code nutrient_definitions}, so names and units
+ * are stored once instead of once per food item. The dictionary is loaded on first use and kept in memory;
+ * decoded {@link NutrientInfo}s share the dictionary's name and unit strings.
+ */
+@Component
+public class NutrientDictionary {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String SELECT_ALL =
+            "SELECT slot, nutrient_name, unit_name, nutrient_id FROM nutrient_definitions";
+
+    private static final String INSERT_DEFINITION = """
+        INSERT INTO nutrient_definitions (nutrient_name, unit_name, nutrient_id)
+        VALUES (?, ?, ?)
+        ON CONFLICT ((COALESCE(nutrient_name, '')), (COALESCE(unit_name, '')), (COALESCE(nutrient_id, -1))) DO NOTHING
+        """;
+
+    private static final String SELECT_SLOT = """
+        SELECT slot FROM nutrient_definitions
+        WHERE COALESCE(nutrient_name, '') = COALESCE(?, '')
+          AND COALESCE(unit_name, '') = COALESCE(?, '')
+          AND COALESCE(nutrient_id, -1) = COALESCE(?, -1)
+        """;
+
+    /**
+     * @param slot         Key used in the stored pairs.
+     * @param nutrientName Name of the nutrient, e.g. "Protein".
+     * @param unitName     Unit of the values, e.g. "g".
+     * @param nutrientId   USDA nutrient ID; null for derived or user-defined nutrients.
+     */
+    public record Definition(int slot, String nutrientName, String unitName, Long nutrientId) {}
+
+    private record Key(String nutrientName, String unitName, Long nutrientId) {}
+
+    private final JdbcTemplate jdbc;
+    private final Map<Integer, Definition> bySlot = new ConcurrentHashMap<>();
+    private final Map<Key, Definition> byKey = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public NutrientDictionary(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Encodes nutrients as a jsonb array of {@code [slot, value]} pairs, registering unknown definitions.
+     *
+     * @return The JSON text, or null for a null list.
+     */
+    public String encode(List<NutrientInfo> nutrients) {
+        if (nutrients == null) {
+            return null;
+        }
+        ArrayNode pairs = JSON.createArrayNode();
+        for (NutrientInfo nutrient : nutrients) {
+            if (nutrient == null) continue;
+            pairs.addArray()
+                    .add(slotOf(nutrient.getNutrientName(), nutrient.getUnitName(), nutrient.getNutrientId()))
+                    .add(nutrient.getValue());
+        }
+        return pairs.toString();
+    }
+
+    /**
+     * Decodes a jsonb array of {@code [slot, value]} pairs.
+     *
+     * @return A mutable list of nutrients; empty for null input.
+     */
+    public List<NutrientInfo> decode(String json) {
+        List<NutrientInfo> nutrients = new ArrayList<>();
+        if (json == null || json.isBlank()) {
+            return nutrients;
+        }
+        JsonNode pairs;
+        try {
+            pairs = JSON.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid nutrient values: " + e.getOriginalMessage(), e);
+        }
+        for (JsonNode pair : pairs) {
+            Definition definition = definition(pair.get(0).asInt());
+            JsonNode value = pair.get(1);
+            nutrients.add(new NutrientInfo(definition.nutrientName(),
+                    value == null || value.isNull() ? null : value.asDouble(),
+                    definition.unitName(), definition.nutrientId()));
+        }
+        return nutrients;
+    }
+
+    /**
+     * Returns the definition of a slot, reloading the dictionary once for slots registered by another instance.
+     *
+     * @throws IllegalStateException if the slot does not exist.
+     */
+    public Definition definition(int slot) {
+        ensureLoaded();
+        Definition definition = bySlot.get(slot);
+        if (definition == null) {
+            reload();
+            definition = bySlot.get(slot);
+            if (definition == null) {
+                throw new IllegalStateException("Unknown nutrient slot: " + slot);
+            }
+        }
+        return definition;
+    }
+
+    /**
+     * Returns the slot of a nutrient definition, registering it when it is new.
+     */
+    public int slotOf(String nutrientName, String unitName, Long nutrientId) {
+        ensureLoaded();
+        Key key = new Key(nutrientName, unitName, nutrientId);
+        Definition definition = byKey.get(key);
+        return definition != null ? definition.slot() : register(key).slot();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    private synchronized void reload() {
+        jdbc.query(SELECT_ALL, rs -> {
+            long nutrientId = rs.getLong(4);
+            put(new Definition(rs.getInt(1), rs.getString(2), rs.getString(3), rs.wasNull() ? null : nutrientId));
+        });
+        loaded = true;
+    }
+
+    private synchronized Definition register(Key key) {
+        Definition existing = byKey.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        DataSource dataSource = jdbc.getDataSource();
+        if (dataSource == null) {
+            throw new IllegalStateException("No DataSource to register nutrient definitions");
+        }
+        // Eigen autocommit-verbinding: de definitie moet blijven bestaan, ook als de aanroepende transactie terugrolt
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            JdbcTemplate own = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            own.update(INSERT_DEFINITION, key.nutrientName(), key.unitName(), key.nutrientId());
+            Integer slot = own.queryForObject(SELECT_SLOT, Integer.class, key.nutrientName(), key.unitName(), key.nutrientId());
+            Definition definition = new Definition(slot, key.nutrientName(), key.unitName(), key.nutrientId());
+            put(definition);
+            return definition;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not register nutrient definition " + key, e);
+        }
+    }
+
+    private void put(Definition definition) {
+        bySlot.put(definition.slot(), definition);
+        byKey.putIfAbsent(new Key(definition.nutrientName(), definition.unitName(), definition.nutrientId()), definition);
+    }
+}
@@ -0,0 +1,440 @@
+package balancebite.service.fooditem;
+
+import balancebite.dto.fooditem.PriceListImportResultDTO;
+import balancebite.errorHandling.ForbiddenActionException;
+import balancebite.model.foodItem.FoodSource;
+import balancebite.model.user.User;
+import balancebite.repository.FoodItemRepository;
+import balancebite.repository.UserRepository;
+import balancebite.service.interfaces.fooditem.IPriceListImportService;
+import balancebite.service.meal.MealPriceService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Imports supermarket price lists (CSV or JSON) for the existing food items of one {@link FoodSource}.
+ *
+ * The file is streamed row by row. Rows are matched in memory against the food items of that source, first on
+ * FDC ID and otherwise on normalized name (accents, case and punctuation ignored; names shared by several items
+ * do not match). Matched prices are written per batch by {@link FoodItemBulkWriter#updatePrices}, one transaction
+ * per batch, and meal prices are recomputed once at the end for all food items whose price actually changed.
+ */
+@Service
+public class PriceListImportService implements IPriceListImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceListImportService.class);
+
+    static final int BATCH_SIZE = 500;
+    static final int MAX_PROBLEMS = 100;
+
+    private static final long AMBIGUOUS = -1L;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final FoodItemRepository foodItemRepository;
+    private final UserRepository userRepository;
+    private final FoodItemBulkWriter bulkWriter;
+    private final MealPriceService mealPriceService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public PriceListImportService(FoodItemRepository foodItemRepository,
+                                  UserRepository userRepository,
+                                  FoodItemBulkWriter bulkWriter,
+                                  MealPriceService mealPriceService,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.foodItemRepository = foodItemRepository;
+        this.userRepository = userRepository;
+        this.bulkWriter = bulkWriter;
+        this.mealPriceService = mealPriceService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public PriceListImportResultDTO importPriceList(FoodSource foodSource, Format format, InputStream in) throws IOException {
+        if (foodSource == null) {
+            throw new IllegalArgumentException("A food source is required for a price list.");
+        }
+        checkFoodSourceAllowed(foodSource);
+        long start = System.nanoTime();
+        log.info("Starting {} price-list import for {}", format, foodSource);
+
+        Run run = new Run(loadMatchIndex(foodSource));
+        if (format == Format.JSON) {
+            readJson(in, run);
+        } else {
+            readCsv(in, run);
+        }
+        run.flush();
+
+        List<Long> changed = new ArrayList<>(run.changed);
+        int meals = changed.isEmpty() ? 0 : mealPriceService.recomputeForFoodItems(changed);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Price-list import for {} finished in {} ms: {} read, {} matched, {} updated, {} unmatched, {} invalid, {} meals recomputed",
+                foodSource, elapsedMs, run.read, run.matched, changed.size(), run.unmatched, run.invalid, meals);
+        return new PriceListImportResultDTO(foodSource, run.read, run.matched, changed.size(), run.unmatched,
+                run.invalid, meals, List.copyOf(run.problems), elapsedMs);
+    }
+
+    /**
+     * Supermarket users may only import prices for their own food source; other users for any source.
+     */
+    private void checkFoodSourceAllowed(FoodSource foodSource) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            return;
+        }
+        userRepository.findByUserName(auth.getName())
+                .map(User::getFoodSource)
+                .filter(own -> own != foodSource)
+                .ifPresent(own -> {
+                    throw new ForbiddenActionException("You can only import prices for " + own + ".");
+                });
+    }
+
+    private MatchIndex loadMatchIndex(FoodSource foodSource) {
+        MatchIndex index = new MatchIndex();
+        for (Object[] row : foodItemRepository.findMatchKeysByFoodSource(foodSource)) {
+            long id = ((Number) row[0]).longValue();
+            int fdcId = row[2] == null ? 0 : ((Number) row[2]).intValue();
+            if (fdcId > 0) {
+                index.byFdcId.merge(fdcId, id, (a, b) -> AMBIGUOUS);
+            }
+            String name = normalizeName((String) row[1]);
+            if (!name.isEmpty()) {
+                index.byName.merge(name, id, (a, b) -> AMBIGUOUS);
+            }
+        }
+        return index;
+    }
+
+    private void readJson(InputStream in, Run run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("A JSON price list must be an array of objects.");
+            }
+            long row = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode node = objectMapper.readTree(parser);
+                Map<Column, String> values = new HashMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = it.next();
+                    Column column = Column.of(field.getKey());
+                    if (column != null && !field.getValue().isNull()) {
+                        values.put(column, field.getValue().asText());
+                    }
+                }
+                run.accept(++row, values);
+            }
+        }
+    }
+
+    private void readCsv(InputStream in, Run run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.header();
+        if (header == null) {
+            throw new IllegalArgumentException("The price list is empty.");
+        }
+        Column[] columns = header.stream().map(Column::of).toArray(Column[]::new);
+        List<Column> present = List.of(columns);
+        if (!present.contains(Column.PRICE) || !(present.contains(Column.FDC_ID) || present.contains(Column.NAME))) {
+            throw new IllegalArgumentException("A price list needs a price column and an fdcId or name column.");
+        }
+
+        long row = 0;
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            Map<Column, String> values = new HashMap<>();
+            for (int i = 0; i < Math.min(columns.length, record.size()); i++) {
+                if (columns[i] != null) {
+                    values.put(columns[i], record.get(i));
+                }
+            }
+            run.accept(++row, values);
+        }
+    }
+
+    /**
+     * Lowercases, strips accents and collapses everything but letters and digits to single spaces,
+     * so "Crème Fraîche (30%)" and "creme fraiche 30" match.
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Parses a price or weight as written in Dutch or English price lists: "2.49", "2,49", "€ 1.299,00" or "1,299.00".
+     *
+     * @return The value, or null when empty.
+     * @throws NumberFormatException if the text is not a number.
+     */
+    static BigDecimal parseDecimal(String text) {
+        if (text == null) {
+            return null;
+        }
+        String value = text.replace("€", "").replaceAll("\\s+", "");
+        if (value.isEmpty()) {
+            return null;
+        }
+        int comma = value.lastIndexOf(',');
+        int dot = value.lastIndexOf('.');
+        if (comma > dot) {
+            value = value.replace(".", "").replace(',', '.');
+        } else if (comma >= 0) {
+            value = value.replace(",", "");
+        }
+        return new BigDecimal(value);
+    }
+
+    /**
+     * Recognized columns or JSON fields, with the header names they accept after normalization.
+     */
+    enum Column {
+        FDC_ID("fdcid", "fdc"),
+        NAME("name", "naam", "description", "product"),
+        PRICE("price", "prijs"),
+        GRAMS("grams", "gram", "weight", "gewicht");
+
+        private final Set<String> aliases;
+
+        Column(String... aliases) {
+            this.aliases = Set.of(aliases);
+        }
+
+        static Column of(String header) {
+            String key = normalizeName(header).replace(" ", "");
+            for (Column column : values()) {
+                if (column.aliases.contains(key)) {
+                    return column;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class MatchIndex {
+        private final Map<Integer, Long> byFdcId = new HashMap<>();
+        private final Map<String, Long> byName = new HashMap<>();
+
+        /** @return The food item ID, or null without a unique match. */
+        Long find(Integer fdcId, String name) {
+            Long id = fdcId != null ? byFdcId.get(fdcId) : null;
+            if (id == null && name != null) {
+                id = byName.get(normalizeName(name));
+            }
+            return id == null || id == AMBIGUOUS ? null : id;
+        }
+    }
+
+    /**
+     * State of one import: counters, the pending batch and the IDs of food items whose price changed.
+     */
+    private final class Run {
+        private final MatchIndex index;
+        private final Map<Long, FoodItemBulkWriter.PriceUpdate> batch = new LinkedHashMap<>();
+        private final Set<Long> changed = new LinkedHashSet<>();
+        private final List<String> problems = new ArrayList<>();
+        private long read;
+        private long matched;
+        private long unmatched;
+        private long invalid;
+
+        Run(MatchIndex index) {
+            this.index = index;
+        }
+
+        void accept(long row, Map<Column, String> values) {
+            read++;
+            Integer fdcId;
+            BigDecimal price;
+            BigDecimal grams;
+            try {
+                String fdcText = values.get(Column.FDC_ID);
+                fdcId = fdcText == null || fdcText.isBlank() ? null : Integer.valueOf(fdcText.trim());
+                price = parseDecimal(values.get(Column.PRICE));
+                grams = parseDecimal(values.get(Column.GRAMS));
+            } catch (NumberFormatException e) {
+                reject(row, "not a number");
+                return;
+            }
+            if (price == null || price.signum() < 0) {
+                reject(row, "missing or negative price");
+                return;
+            }
+            if (grams != null && grams.signum() <= 0) {
+                reject(row, "grams must be positive");
+                return;
+            }
+
+            String name = values.get(Column.NAME);
+            if (fdcId == null && (name == null || name.isBlank())) {
+                reject(row, "missing FDC ID and name");
+                return;
+            }
+            Long id = index.find(fdcId, name);
+            if (id == null) {
+                unmatched++;
+                problem(row, "no unique food item for " + (name != null && !name.isBlank() ? "'" + name + "'" : "FDC ID " + fdcId));
+                return;
+            }
+            matched++;
+            batch.put(id, new FoodItemBulkWriter.PriceUpdate(id, price.setScale(2, RoundingMode.HALF_UP),
+                    grams == null ? null : grams.setScale(2, RoundingMode.HALF_UP)));
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+                log.info("Price-list import: {} rows read", read);
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<FoodItemBulkWriter.PriceUpdate> updates = new ArrayList<>(batch.values());
+            List<Long> ids = transactionTemplate.execute(tx -> bulkWriter.updatePrices(updates));
+            if (ids != null) {
+                changed.addAll(ids);
+            }
+            batch.clear();
+        }
+
+        private void reject(long row, String reason) {
+            invalid++;
+            problem(row, reason);
+        }
+
+        private void problem(long row, String reason) {
+            if (problems.size() < MAX_PROBLEMS) {
+                problems.add("row " + row + ": " + reason);
+            }
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain the delimiter, doubled quotes and line breaks.
+     * The delimiter (comma, semicolon or tab) is taken from the header line.
+     */
+    static final class CsvReader {
+        private final Reader reader;
+        private char delimiter = ',';
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /** Reads the header record and picks the delimiter it uses most; null for an empty file. */
+        List<String> header() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                line.append((char) c);
+            }
+            if (line.length() == 0 && c == -1) {
+                return null;
+            }
+            long best = line.chars().filter(ch -> ch == ',').count();
+            for (char candidate : new char[]{';', '\t'}) {
+                long count = line.chars().filter(ch -> ch == candidate).count();
+                if (count > best) {
+                    best = count;
+                    delimiter = candidate;
+                }
+            }
+            CsvReader headerReader = new CsvReader(new StringReader(line.toString()));
+            headerReader.delimiter = delimiter;
+            return headerReader.next();
+        }
+
+        /** @return The next record, or null at the end of the input. */
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field in price list.");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == -1 || c == '\n') {
+                    fields.add(field.toString().trim());
+                    return fields;
+                } else if (c == '\r') {
+                    // CRLF: het recordeinde is de '\n'
+                } else if (c == delimiter) {
+                    fields.add(field.toString().trim());
+                    field.setLength(0);
+                } else if (c == '"' && field.toString().isBlank()) {
+                    field.setLength(0);
+                    quoted = true;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            return reader.read();
+        }
+    }
+}
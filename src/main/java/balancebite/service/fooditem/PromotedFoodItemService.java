@@ -12,7 +12,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class PromotedFoodItemService implements IPromotedFoodItemService {
@@ -20,13 +23,16 @@ public class PromotedFoodItemService implements IPromotedFoodItemService {
     private final PromotedFoodItemRepository promotedFoodItemRepository;
     private final FoodItemRepository foodItemRepository;
     private final PromotedFoodItemMapper promotedFoodItemMapper;
+    private final PromotionEngine promotionEngine;
 
     public PromotedFoodItemService(PromotedFoodItemRepository promotedFoodItemRepository,
                                    FoodItemRepository foodItemRepository,
-                                   PromotedFoodItemMapper promotedFoodItemMapper) {
+                                   PromotedFoodItemMapper promotedFoodItemMapper,
+                                   PromotionEngine promotionEngine) {
         this.promotedFoodItemRepository = promotedFoodItemRepository;
         this.foodItemRepository = foodItemRepository;
         this.promotedFoodItemMapper = promotedFoodItemMapper;
+        this.promotionEngine = promotionEngine;
     }
 
     /**
@@ -60,7 +66,9 @@ public class PromotedFoodItemService implements IPromotedFoodItemService {
             throw new IllegalArgumentException("Invalid promotion window");
         }
 
-        return promotedFoodItemRepository.save(promotion);
+        PromotedFoodItem saved = promotedFoodItemRepository.save(promotion);
+        promotionEngine.promotionChangedAfterCommit(foodItem.getId());
+        return saved;
     }
 
     /**
@@ -92,16 +100,18 @@ public class PromotedFoodItemService implements IPromotedFoodItemService {
             throw new IllegalArgumentException("Invalid promotion window");
         }
 
-        return promotedFoodItemRepository.save(existing);
+        PromotedFoodItem saved = promotedFoodItemRepository.save(existing);
+        promotionEngine.promotionChangedAfterCommit(existing.getFoodItem().getId());
+        return saved;
     }
 
     @Override
     @Transactional
     public void deletePromotion(Long promotionId) {
-        if (!promotedFoodItemRepository.existsById(promotionId)) {
-            throw new EntityNotFoundException("Promotion not found");
-        }
-        promotedFoodItemRepository.deleteById(promotionId);
+        PromotedFoodItem existing = promotedFoodItemRepository.findById(promotionId)
+                .orElseThrow(() -> new EntityNotFoundException("Promotion not found"));
+        promotedFoodItemRepository.delete(existing);
+        promotionEngine.promotionChangedAfterCommit(existing.getFoodItem().getId());
     }
 
     /**
@@ -112,4 +122,14 @@ public class PromotedFoodItemService implements IPromotedFoodItemService {
         return promotedFoodItemRepository.findByFoodItemId(foodItemId)
                 .filter(p -> ( !p.getStartDate().isAfter(now) ) && ( !p.getEndDate().isBefore(now) ));
     }
+
+    /**
+     * Returns the active promotions of the given FoodItem IDs in one query, keyed by FoodItem ID.
+     */
+    public Map<Long, PromotedFoodItem> getActivePromotions(Collection<Long> foodItemIds) {
+        if (foodItemIds.isEmpty()) return Map.of();
+        LocalDateTime now = LocalDateTime.now();
+        return promotedFoodItemRepository.findOverlapping(foodItemIds, now, now).stream()
+                .collect(Collectors.toMap(p -> p.getFoodItem().getId(), p -> p, (a, b) -> a));
+    }
 }
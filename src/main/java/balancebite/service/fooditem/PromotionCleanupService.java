@@ -1,17 +1,23 @@
 package balancebite.service.fooditem;
 
 import balancebite.repository.PromotedFoodItemRepository;
-import balancebite.model.foodItem.PromotedFoodItem;
-import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
+/**
+ * Deletes ended promotions. Only housekeeping: prices already changed when the promotion ended,
+ * through {@link PromotionEngine}.
+ */
 @Service
 public class PromotionCleanupService {
 
+    private static final Logger log = LoggerFactory.getLogger(PromotionCleanupService.class);
+
     private final PromotedFoodItemRepository promotedFoodItemRepository;
 
     public PromotionCleanupService(PromotedFoodItemRepository promotedFoodItemRepository) {
@@ -21,8 +27,7 @@ public class PromotionCleanupService {
     @Scheduled(cron = "0 0 0 * * ?") // elke dag om 00:00
     @Transactional
     public void removeExpiredPromotions() {
-        LocalDateTime now = LocalDateTime.now();
-        List<PromotedFoodItem> expired = promotedFoodItemRepository.findByEndDateBefore(now);
-        promotedFoodItemRepository.deleteAll(expired);
+        int deleted = promotedFoodItemRepository.deleteAllEndedBefore(LocalDateTime.now());
+        log.info("Removed {} expired promotions", deleted);
     }
 }
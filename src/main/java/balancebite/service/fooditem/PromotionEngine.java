@@ -0,0 +1,207 @@
+package balancebite.service.fooditem;
+
+import balancebite.repository.PromotedFoodItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Time index of promotion starts and ends that publishes a {@link PromotionEvent} exactly at each boundary.
+ *
+ * The index holds the window of every promotion that has not ended yet, ordered by boundary time; only the
+ * earliest boundary is scheduled. Promotion changes are applied after commit through
+ * {@link #promotionChangedAfterCommit(Long)}, which also publishes an event when the change affects the
+ * current price. A promotion is active from its start through its end date inclusive.
+ */
+@Component
+public class PromotionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionEngine.class);
+
+    /** Expiry takes effect just after the (inclusive) end date; timestamps are stored with microsecond precision. */
+    private static final long EXPIRY_OFFSET_NANOS = 1_000;
+
+    private record Window(LocalDateTime start, LocalDateTime end) {
+
+        boolean isActiveAt(LocalDateTime moment) {
+            return !start.isAfter(moment) && !end.isBefore(moment);
+        }
+
+        LocalDateTime expiresAt() {
+            return end.plusNanos(EXPIRY_OFFSET_NANOS);
+        }
+    }
+
+    private static final class Boundary {
+        final Set<Long> activated = new HashSet<>();
+        final Set<Long> expired = new HashSet<>();
+
+        boolean isEmpty() {
+            return activated.isEmpty() && expired.isEmpty();
+        }
+    }
+
+    private final PromotedFoodItemRepository promotedFoodItemRepository;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final NavigableMap<LocalDateTime, Boundary> boundaries = new TreeMap<>();
+    private final Map<Long, Window> windows = new HashMap<>();
+    private ScheduledFuture<?> pending;
+    private LocalDateTime pendingAt;
+
+    public PromotionEngine(PromotedFoodItemRepository promotedFoodItemRepository,
+                           TaskScheduler taskScheduler,
+                           ApplicationEventPublisher eventPublisher) {
+        this.promotedFoodItemRepository = promotedFoodItemRepository;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            boundaries.clear();
+            windows.clear();
+            for (Object[] row : promotedFoodItemRepository.findWindowsNotEndedAt(now)) {
+                index((Long) row[0], new Window((LocalDateTime) row[1], (LocalDateTime) row[2]), now);
+            }
+            reschedule();
+        }
+        log.info("Promotion engine started with {} promotions, {} upcoming boundaries", windows.size(), boundaries.size());
+    }
+
+    /**
+     * Re-reads the promotion of a food item after the current transaction commits (or immediately without one)
+     * and publishes an event if its current price is affected.
+     */
+    public void promotionChangedAfterCommit(Long foodItemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    promotionChanged(foodItemId);
+                }
+            });
+        } else {
+            promotionChanged(foodItemId);
+        }
+    }
+
+    void promotionChanged(Long foodItemId) {
+        LocalDateTime now = LocalDateTime.now();
+        Window current = promotedFoodItemRepository.findByFoodItemId(foodItemId)
+                .map(p -> new Window(p.getStartDate(), p.getEndDate()))
+                .orElse(null);
+
+        boolean wasActive;
+        synchronized (this) {
+            Window previous = windows.remove(foodItemId);
+            wasActive = previous != null && previous.isActiveAt(now);
+            if (previous != null) {
+                unindex(foodItemId, previous);
+            }
+            if (current != null) {
+                index(foodItemId, current, now);
+            }
+            reschedule();
+        }
+
+        boolean isActive = current != null && current.isActiveAt(now);
+        if (isActive) {
+            publish(new PromotionEvent(now, Set.of(foodItemId), Set.of()));
+        } else if (wasActive) {
+            publish(new PromotionEvent(now, Set.of(), Set.of(foodItemId)));
+        }
+    }
+
+    /**
+     * Publishes the events of all boundaries up to {@code now} and schedules the next one.
+     */
+    void fire(LocalDateTime now) {
+        List<PromotionEvent> due = new ArrayList<>();
+        synchronized (this) {
+            pending = null;
+            pendingAt = null;
+            NavigableMap<LocalDateTime, Boundary> reached = boundaries.headMap(now, true);
+            reached.forEach((at, boundary) -> {
+                due.add(new PromotionEvent(at, Set.copyOf(boundary.activated), Set.copyOf(boundary.expired)));
+                boundary.expired.forEach(windows::remove);
+            });
+            reached.clear();
+            reschedule();
+        }
+        due.forEach(this::publish);
+    }
+
+    /** @return Number of promotions that have not ended yet. */
+    synchronized int size() {
+        return windows.size();
+    }
+
+    /** @return The moment the next boundary is scheduled at, or null. */
+    synchronized LocalDateTime nextBoundary() {
+        return pendingAt;
+    }
+
+    private void publish(PromotionEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            // Een mislukte herberekening mag de volgende grenzen niet blokkeren
+            log.error("Handling promotion event at {} failed: {}", event.at(), e.getMessage(), e);
+        }
+    }
+
+    private void index(Long foodItemId, Window window, LocalDateTime now) {
+        if (window.end().isBefore(now)) {
+            return;
+        }
+        windows.put(foodItemId, window);
+        if (window.start().isAfter(now)) {
+            boundaries.computeIfAbsent(window.start(), at -> new Boundary()).activated.add(foodItemId);
+        }
+        boundaries.computeIfAbsent(window.expiresAt(), at -> new Boundary()).expired.add(foodItemId);
+    }
+
+    private void unindex(Long foodItemId, Window window) {
+        removeFrom(window.start(), foodItemId);
+        removeFrom(window.expiresAt(), foodItemId);
+    }
+
+    private void removeFrom(LocalDateTime at, Long foodItemId) {
+        Boundary boundary = boundaries.get(at);
+        if (boundary != null) {
+            boundary.activated.remove(foodItemId);
+            boundary.expired.remove(foodItemId);
+            if (boundary.isEmpty()) {
+                boundaries.remove(at);
+            }
+        }
+    }
+
+    private void reschedule() {
+        LocalDateTime next = boundaries.isEmpty() ? null : boundaries.firstKey();
+        if (Objects.equals(next, pendingAt)) {
+            return;
+        }
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pendingAt = next;
+        pending = next == null ? null
+                : taskScheduler.schedule(() -> fire(LocalDateTime.now()), next.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,24 @@
+package balancebite.service.fooditem;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Published by {@link PromotionEngine} when promotions start or end, or when an active promotion changes.
+ *
+ * @param at                   Moment of the boundary.
+ * @param activatedFoodItemIds Food items whose promotion became active (or changed while active).
+ * @param expiredFoodItemIds   Food items whose promotion ended or was removed.
+ */
+public record PromotionEvent(LocalDateTime at, Set<Long> activatedFoodItemIds, Set<Long> expiredFoodItemIds) {
+
+    /**
+     * @return The food items whose effective price changed.
+     */
+    public Set<Long> affectedFoodItemIds() {
+        Set<Long> affected = new HashSet<>(activatedFoodItemIds);
+        affected.addAll(expiredFoodItemIds);
+        return affected;
+    }
+}
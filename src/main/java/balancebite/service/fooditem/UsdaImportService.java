@@ -0,0 +1,284 @@
+package balancebite.service.fooditem;
+
+import balancebite.config.UsdaImportProperties;
+import balancebite.dto.UsdaFoodResponseDTO;
+import balancebite.dto.fooditem.UsdaImportJobDTO;
+import balancebite.errorHandling.EntityNotFoundException;
+import balancebite.errorHandling.UsdaApiException;
+import balancebite.model.foodItem.FoodItem;
+import balancebite.service.interfaces.IUsdaApiService;
+import balancebite.service.interfaces.fooditem.IUsdaImportService;
+import balancebite.utils.FoodItemBulkFetchUtil;
+import balancebite.utils.TokenBucketRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background import of food items from the USDA FoodData Central API.
+ *
+ * The requested FDC IDs are split into chunks that run concurrently on the {@code usdaImportExecutor}.
+ * Every request, including retries, takes a permit from a shared token bucket, so the configured
+ * request rate holds across all running jobs. Failed requests are retried with exponential backoff when
+ * the failure is transient (connection problems, 429 or 5xx); foods already in the USDA response cache
+ * skip the rate limiter. Existing FDC IDs are filtered with {@link KnownFdcIdIndex} (at most one query per
+ * chunk) and the items of a chunk are inserted with one conflict-safe statement, so concurrent jobs importing
+ * the same IDs do not create duplicates. Progress is kept in memory and can be polled by job ID.
+ */
+@Service
+public class UsdaImportService implements IUsdaImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UsdaImportService.class);
+
+    private final IUsdaApiService usdaApiService;
+    private final KnownFdcIdIndex knownFdcIdIndex;
+    private final FoodItemBulkWriter bulkWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final UsdaImportProperties properties;
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public UsdaImportService(IUsdaApiService usdaApiService,
+                             KnownFdcIdIndex knownFdcIdIndex,
+                             FoodItemBulkWriter bulkWriter,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("usdaImportExecutor") Executor executor,
+                             UsdaImportProperties properties) {
+        this.usdaApiService = usdaApiService;
+        this.knownFdcIdIndex = knownFdcIdIndex;
+        this.bulkWriter = bulkWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.properties = properties;
+        this.rateLimiter = new TokenBucketRateLimiter(properties.getRequestsPerSecond(), properties.getBurst());
+    }
+
+    @Override
+    public UsdaImportJobDTO startImport(List<String> fdcIds) {
+        Set<String> unique = new LinkedHashSet<>();
+        List<String> malformed = new ArrayList<>();
+        for (String fdcId : fdcIds) {
+            String trimmed = fdcId == null ? "" : fdcId.trim();
+            if (trimmed.matches("[0-9]{1,9}")) {
+                unique.add(String.valueOf(Integer.parseInt(trimmed)));
+            } else {
+                malformed.add(String.valueOf(fdcId));
+            }
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> ids = new ArrayList<>(unique);
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), fdcIds.size(), chunks.size());
+        job.invalidItems.addAll(malformed);
+        register(job);
+        log.info("Started USDA import job {} with {} FDC IDs in {} chunks", job.id, unique.size(), chunks.size());
+
+        try {
+            CompletableFuture<?>[] tasks = chunks.stream()
+                    .map(chunk -> CompletableFuture.runAsync(() -> importChunk(job, chunk), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(tasks).whenComplete((ignored, error) -> job.finish(error));
+        } catch (RuntimeException e) {
+            log.error("Could not schedule USDA import job {}", job.id, e);
+            job.finish(e);
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public Optional<UsdaImportJobDTO> getJob(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId)).map(Job::toDTO);
+        }
+    }
+
+    @Override
+    public CompletableFuture<UsdaImportJobDTO> awaitJob(String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            throw new EntityNotFoundException("Import job not found with ID: " + jobId);
+        }
+        return job.completion;
+    }
+
+    private void register(Job job) {
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            // Oudste afgeronde jobs opruimen; lopende jobs blijven altijd opvraagbaar
+            Iterator<Job> it = jobs.values().iterator();
+            int excess = jobs.size() - Math.max(1, properties.getRetainedJobs());
+            while (excess > 0 && it.hasNext()) {
+                if (it.next().completion.isDone()) {
+                    it.remove();
+                    excess--;
+                }
+            }
+        }
+    }
+
+    private void importChunk(Job job, List<String> chunk) {
+        try {
+            List<String> skipped = new ArrayList<>();
+            List<String> fresh = knownFdcIdIndex.filterExisting(chunk, skipped);
+            job.skippedItems.addAll(skipped);
+            if (fresh.isEmpty()) {
+                return;
+            }
+
+            // Cache-treffers gaan niet via de rate limiter; alleen de rest wordt opgevraagd
+            List<UsdaFoodResponseDTO> responses = new ArrayList<>(usdaApiService.getCachedFoodData(fresh));
+            Set<String> cached = new HashSet<>();
+            responses.forEach(response -> cached.add(String.valueOf(response.getFdcId())));
+            List<String> toFetch = fresh.stream().filter(fdcId -> !cached.contains(fdcId)).toList();
+            if (!toFetch.isEmpty()) {
+                try {
+                    responses.addAll(fetchWithRetry(toFetch));
+                } catch (UsdaApiException e) {
+                    log.warn("USDA import job {}: giving up on {} FDC IDs: {}", job.id, toFetch.size(), e.getMessage());
+                    job.invalidItems.addAll(toFetch);
+                    fresh = fresh.stream().filter(cached::contains).toList();
+                }
+            }
+
+            Map<String, UsdaFoodResponseDTO> valid = new LinkedHashMap<>();
+            for (UsdaFoodResponseDTO response : responses) {
+                if (response != null && !FoodItemBulkFetchUtil.isResponseInvalid(response)) {
+                    valid.putIfAbsent(String.valueOf(response.getFdcId()), response);
+                }
+            }
+            for (String fdcId : fresh) {
+                if (!valid.containsKey(fdcId)) {
+                    job.invalidItems.add(fdcId);
+                }
+            }
+            valid.keySet().retainAll(fresh);
+            if (valid.isEmpty()) {
+                return;
+            }
+
+            List<FoodItem> items = valid.values().stream().map(FoodItemBulkFetchUtil::toFoodItem).toList();
+            Map<Integer, Long> inserted;
+            try {
+                inserted = transactionTemplate.execute(tx -> bulkWriter.insertNew(items));
+            } catch (RuntimeException e) {
+                log.warn("USDA import job {}: saving {} food items failed: {}", job.id, items.size(), e.getMessage());
+                job.invalidItems.addAll(valid.keySet());
+                return;
+            }
+            if (inserted == null) inserted = Map.of();
+            // Tussentijds door een andere job toegevoegd: telt als overgeslagen
+            for (UsdaFoodResponseDTO response : valid.values()) {
+                if (inserted.containsKey(response.getFdcId())) {
+                    job.savedItems.add(FoodItemBulkFetchUtil.convertToSavedItemMap(response));
+                } else {
+                    job.skippedItems.add(String.valueOf(response.getFdcId()));
+                }
+            }
+        } finally {
+            job.chunksDone.incrementAndGet();
+        }
+    }
+
+    private List<UsdaFoodResponseDTO> fetchWithRetry(List<String> fdcIds) {
+        long backoff = properties.getInitialBackoffMs();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                rateLimiter.acquire();
+                return usdaApiService.getMultipleFoodData(fdcIds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UsdaApiException("Interrupted while waiting for the USDA rate limit", e);
+            } catch (UsdaApiException e) {
+                if (attempt >= properties.getMaxAttempts() || !isTransient(e)) {
+                    throw e;
+                }
+                // Jitter voorkomt dat parallelle chunks na een storing tegelijk opnieuw beginnen
+                long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                log.info("USDA request failed (attempt {} of {}), retrying in {} ms: {}",
+                        attempt, properties.getMaxAttempts(), delay, e.getMessage());
+                sleep(delay);
+                backoff = Math.min(backoff * 2, properties.getMaxBackoffMs());
+            }
+        }
+    }
+
+    private static boolean isTransient(UsdaApiException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof HttpStatusCodeException status) {
+            return status.getStatusCode().value() == 429 || status.getStatusCode().is5xxServerError();
+        }
+        return cause instanceof ResourceAccessException;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UsdaApiException("Interrupted while backing off from the USDA API", e);
+        }
+    }
+
+    private static final class Job {
+
+        final String id;
+        final int requested;
+        final int chunksTotal;
+        final AtomicInteger chunksDone = new AtomicInteger();
+        final List<Map<String, String>> savedItems = Collections.synchronizedList(new ArrayList<>());
+        final List<String> skippedItems = Collections.synchronizedList(new ArrayList<>());
+        final List<String> invalidItems = Collections.synchronizedList(new ArrayList<>());
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final CompletableFuture<UsdaImportJobDTO> completion = new CompletableFuture<>();
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Job(String id, int requested, int chunksTotal) {
+            this.id = id;
+            this.requested = requested;
+            this.chunksTotal = chunksTotal;
+        }
+
+        void finish(Throwable failure) {
+            if (failure != null) {
+                error = failure.getMessage();
+            }
+            finishedAt = LocalDateTime.now();
+            log.info("USDA import job {} finished: {} saved, {} skipped, {} invalid",
+                    id, savedItems.size(), skippedItems.size(), invalidItems.size());
+            completion.complete(toDTO());
+        }
+
+        UsdaImportJobDTO toDTO() {
+            UsdaImportJobDTO.Status status = finishedAt == null ? UsdaImportJobDTO.Status.RUNNING
+                    : error == null ? UsdaImportJobDTO.Status.COMPLETED
+                    : UsdaImportJobDTO.Status.FAILED;
+            return new UsdaImportJobDTO(id, status, requested, chunksTotal, chunksDone.get(),
+                    List.copyOf(savedItems), List.copyOf(skippedItems), List.copyOf(invalidItems),
+                    startedAt, finishedAt, error);
+        }
+    }
+}
@@ -27,4 +27,12 @@ public interface IUsdaApiService {
      * @throws UsdaApiException if the HTTP request fails or the response is invalid.
      */
     List<UsdaFoodResponseDTO> getMultipleFoodData(List<String> fdcIds);
+
+    /**
+     * Returns the food data that can be served from the response cache right now, without calling the USDA API.
+     *
+     * @param fdcIds The list of FoodData Central IDs to look up.
+     * @return The cached food data; FDC IDs that are not cached are absent.
+     */
+    List<UsdaFoodResponseDTO> getCachedFoodData(List<String> fdcIds);
 }
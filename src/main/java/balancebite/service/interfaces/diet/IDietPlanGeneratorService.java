@@ -0,0 +1,15 @@
+package balancebite.service.interfaces.diet;
+
+import balancebite.dto.diet.DietPlanGenerationInputDTO;
+import balancebite.dto.diet.DietPlanGenerationResultDTO;
+
+public interface IDietPlanGeneratorService {
+
+    /**
+     * Generates a diet plan whose days match the user's recommended daily macros as closely as possible,
+     * using only public template meals that satisfy the requested diets and cuisines, and saves it for the user.
+     * With a weekly budget, ingredient cost is optimized as well. The solver runtime is bounded by the
+     * requested time limit and reported in the result.
+     */
+    DietPlanGenerationResultDTO generateDietPlan(Long userId, DietPlanGenerationInputDTO input);
+}
@@ -1,5 +1,6 @@
 package balancebite.service.interfaces.diet;
 
+import balancebite.dto.diet.DietPlanCardDTO;
 import balancebite.dto.diet.DietPlanDTO;
 import balancebite.dto.diet.DietPlanNameDTO;
 import balancebite.model.user.userenums.Goal;
@@ -56,6 +57,35 @@ public interface IPublicDietPlanService {
             Boolean flagLowSugar,
             Boolean flagLowUnhealthyFats
     );
+
+    /**
+     * Same filtering, sorting and user-copy swap as {@link #getAllPublicDietPlans}, but returns
+     * compact cards read from the plan columns only, without hydrating days or meals.
+     */
+    Page<DietPlanCardDTO> getAllPublicDietPlanCards(
+            List<String> requiredDiets,
+            List<String> excludedDiets,
+            List<String> diets,
+            String sortBy,
+            String sortOrder,
+            Pageable pageable,
+            Double minProtein,
+            Double maxProtein,
+            Double minCarbs,
+            Double maxCarbs,
+            Double minFat,
+            Double maxFat,
+            Double minCalories,
+            Double maxCalories,
+            Long createdByUserId,
+            String name,
+            boolean includeUserCopies,
+            Goal goal,
+            Boolean flagHighFiber,
+            Boolean flagLowSugar,
+            Boolean flagLowUnhealthyFats
+    );
+
     List<DietPlanNameDTO> getAllPublicDietPlanNames();
 
 }
@@ -0,0 +1,21 @@
+package balancebite.service.interfaces.fooditem;
+
+import balancebite.dto.fooditem.FdcBulkImportResultDTO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Imports food items from the downloadable FoodData Central JSON bulk files, without calling the USDA API.
+ */
+public interface IFdcBulkImportService {
+
+    /**
+     * Imports all foods from a FoodData Central JSON file (plain, .gz or .zip).
+     *
+     * @param file Path to the bulk file.
+     * @return A summary of the import.
+     * @throws IOException if the file cannot be read or is not a FoodData Central JSON file.
+     */
+    FdcBulkImportResultDTO importFile(Path file) throws IOException;
+}
@@ -4,14 +4,18 @@ import balancebite.dto.UsdaFoodResponseDTO;
 import balancebite.dto.fooditem.FoodItemDTO;
 import balancebite.dto.fooditem.FoodItemInputDTO;
 import balancebite.dto.fooditem.FoodItemNameDTO;
+import balancebite.dto.fooditem.FoodItemPageDTO;
+import balancebite.dto.fooditem.FoodSubstituteDTO;
 import balancebite.model.foodItem.FoodCategory;
 import balancebite.model.foodItem.FoodSource;
 import balancebite.errorHandling.EntityAlreadyExistsException;
 import jakarta.persistence.EntityNotFoundException;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Interface for FoodItem service operations.
@@ -58,11 +62,42 @@ public interface IFoodItemService {
     FoodItemDTO getFoodItemById(Long id);
 
     /**
-     * Retrieves all FoodItems from the database.
+     * Retrieves one page of FoodItems, ordered by ID (keyset pagination).
      *
-     * @return A list of all FoodItemDTOs.
+     * @param after Cursor returned with the previous page; null for the first page.
+     * @param size  Number of items per page, at most {@code MAX_PAGE_SIZE}.
+     * @return The page and the cursor of the next page.
+     * @throws IllegalArgumentException if the size is out of range.
      */
-    List<FoodItemDTO> getAllFoodItems();
+    FoodItemPageDTO getFoodItemPage(Long after, int size);
+
+    /**
+     * Passes all FoodItems to the consumer in pages ordered by ID, so only one page is in memory at a time.
+     *
+     * @param pageConsumer Receives each page.
+     */
+    void forEachFoodItemPage(Consumer<List<FoodItemDTO>> pageConsumer);
+
+    /**
+     * @return True if at least one FoodItem exists.
+     */
+    boolean hasFoodItems();
+
+    /**
+     * Finds the food items with the most similar per-100 g nutrient profile, nearest first.
+     *
+     * @param id                The food item to replace.
+     * @param limit             Number of substitutes, at most {@code MAX_SUBSTITUTES}.
+     * @param sameCategory      Only substitutes of the same food category.
+     * @param lowerSaturatedFat Only substitutes with less saturated fat.
+     * @param maxPricePer100g   Only substitutes with a base price per 100 g of at most this; null for no ceiling.
+     * @return The substitutes with their distance.
+     * @throws EntityNotFoundException  if the food item does not exist.
+     * @throws IllegalArgumentException if the limit is out of range or a constraint needs data the item lacks.
+     * @throws IllegalStateException    if the substitution index does not contain the item yet.
+     */
+    List<FoodSubstituteDTO> getSubstitutes(Long id, int limit, boolean sameCategory, boolean lowerSaturatedFat,
+                                           BigDecimal maxPricePer100g);
 
     /**
      * Deletes a FoodItem by its ID from the database.
@@ -0,0 +1,47 @@
+package balancebite.service.interfaces.fooditem;
+
+import balancebite.dto.fooditem.PriceListImportResultDTO;
+import balancebite.model.foodItem.FoodSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Imports supermarket price lists: prices (and package weights) for the existing food items of one food source.
+ */
+public interface IPriceListImportService {
+
+    /**
+     * Supported price-list file formats.
+     */
+    enum Format {
+        /** Header row with {@code fdcId} and/or {@code name}, {@code price} and optionally {@code grams}; comma or semicolon separated. */
+        CSV,
+        /** An array of objects with the same fields. */
+        JSON;
+
+        /**
+         * Picks the format from the file name, falling back to the content type; CSV unless either says JSON.
+         */
+        public static Format detect(String fileName, String contentType) {
+            if (fileName != null && fileName.toLowerCase().endsWith(".json")) {
+                return JSON;
+            }
+            return contentType != null && contentType.toLowerCase().contains("json") ? JSON : CSV;
+        }
+    }
+
+    /**
+     * Sets the prices of the food items of {@code foodSource} listed in the file and recomputes the affected meal prices once.
+     * Rows are matched on FDC ID, otherwise on normalized name; no food items are created.
+     *
+     * @param foodSource The food source the price list belongs to.
+     * @param format     The file format.
+     * @param in         The file contents, read once.
+     * @return A summary of the import.
+     * @throws IOException if the file cannot be read or parsed.
+     * @throws IllegalArgumentException if the file misses required columns.
+     * @throws balancebite.errorHandling.ForbiddenActionException if the current user is bound to another food source.
+     */
+    PriceListImportResultDTO importPriceList(FoodSource foodSource, Format format, InputStream in) throws IOException;
+}
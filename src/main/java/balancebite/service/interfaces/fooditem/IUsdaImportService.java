@@ -0,0 +1,33 @@
+package balancebite.service.interfaces.fooditem;
+
+import balancebite.dto.fooditem.UsdaImportJobDTO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Imports food items from the USDA FoodData Central API in the background.
+ */
+public interface IUsdaImportService {
+
+    /**
+     * Starts an import job and returns immediately with its initial status.
+     *
+     * @param fdcIds FDC IDs to import; duplicates are ignored.
+     * @return The status of the new job.
+     */
+    UsdaImportJobDTO startImport(List<String> fdcIds);
+
+    /**
+     * Returns the current status of a job, if it is still retained.
+     */
+    Optional<UsdaImportJobDTO> getJob(String jobId);
+
+    /**
+     * Returns a future that completes with the final status of a job.
+     *
+     * @throws balancebite.errorHandling.EntityNotFoundException if the job is unknown.
+     */
+    CompletableFuture<UsdaImportJobDTO> awaitJob(String jobId);
+}
@@ -4,6 +4,7 @@ import balancebite.dto.meal.MealDTO;
 import balancebite.dto.meal.MealInputDTO;
 import balancebite.dto.NutrientInfoDTO;
 import balancebite.dto.meal.MealNameDTO;
+import balancebite.dto.meal.MealNameSuggestionDTO;
 import balancebite.errorHandling.InvalidFoodItemException;
 import balancebite.model.user.userenums.Goal;
 import jakarta.persistence.EntityNotFoundException;
@@ -32,7 +33,7 @@ public interface IMealService {
      * @param diets       Optional filter for meal diets.
      * @param mealTypes   Optional filter for meal types (e.g., BREAKFAST, LUNCH).
      * @param foodItems   Optional list of food items to match against meals.
-     * @param sortBy      Field to sort by (e.g., "calories", "protein", "fat", "carbs", "name").
+     * @param sortBy      Field to sort by (e.g., "calories", "protein", "fat", "carbs", "price", "pricePerServing", "name").
      * @param sortOrder   Sort direction ("asc" or "desc").
      * @param pageable    Pagination settings.
      * @param creatorId   Optional filter for meals created by a specific user.
@@ -44,6 +45,8 @@ public interface IMealService {
      * @param maxCarbs    Optional maximum total carbohydrates.
      * @param minFat      Optional minimum total fat.
      * @param maxFat      Optional maximum total fat.
+     * @param minPrice    Optional minimum price per serving.
+     * @param maxPrice    Optional maximum price per serving.
      * @return A paginated and sorted list of MealDTOs that match the filters.
      */
     Page<MealDTO> getAllMeals(
@@ -63,6 +66,8 @@ public interface IMealService {
             Double maxCarbs,
             Double minFat,
             Double maxFat,
+            Double minPrice,
+            Double maxPrice,
             String foodSource,
             String currentUsername,
             boolean includeUserCopies,
@@ -107,4 +112,14 @@ public interface IMealService {
      * @return A list of MealNameDTOs containing only ID and name.
      */
     List<MealNameDTO> getAllMealNames();
+
+    /**
+     * Retrieves ranked meal name suggestions for autocomplete.
+     * Matches on full-name prefix first, then word-boundary prefix, then popularity.
+     *
+     * @param query The (partial) meal name typed by the user.
+     * @param limit The maximum number of suggestions to return.
+     * @return A ranked list of MealNameSuggestionDTOs, best match first.
+     */
+    List<MealNameSuggestionDTO> getMealNameSuggestions(String query, int limit);
 }
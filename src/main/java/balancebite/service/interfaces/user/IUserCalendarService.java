@@ -0,0 +1,25 @@
+package balancebite.service.interfaces.user;
+
+import balancebite.dto.diet.CalendarDayDTO;
+import balancebite.dto.diet.DietPlanScheduleDTO;
+import balancebite.dto.diet.DietPlanScheduleInputDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IUserCalendarService {
+
+    /**
+     * Schedules one of the user's diet plans, or a single day of it, from the given start date.
+     */
+    DietPlanScheduleDTO schedule(Long userId, DietPlanScheduleInputDTO input);
+
+    List<DietPlanScheduleDTO> getSchedules(Long userId);
+
+    void removeSchedule(Long userId, Long scheduleId);
+
+    /**
+     * Returns one entry per date in {@code [from, to]} with the diet days and meals scheduled on it.
+     */
+    List<CalendarDayDTO> getCalendar(Long userId, LocalDate from, LocalDate to);
+}
@@ -1,13 +1,16 @@
 package balancebite.service.interfaces.user;
 
+import balancebite.dto.diet.DietPlanCardDTO;
 import balancebite.dto.diet.DietPlanDTO;
 import balancebite.dto.diet.DietPlanInputDTO;
+import balancebite.dto.diet.DietPlanPatchInputDTO;
 import balancebite.dto.user.UserDTO;
 import balancebite.model.meal.references.Diet;
 import balancebite.model.user.userenums.Goal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +42,29 @@ public interface IUserDietPlanService {
             Pageable pageable
     );
 
+    /**
+     * Same filters and sorting as {@link #getFilteredDietPlans}, returning compact plan cards
+     * without loading days or meals.
+     */
+    Page<DietPlanCardDTO> getFilteredDietPlanCards(
+            List<String> requiredDiets,
+            List<String> excludedDiets,
+            Long userId,
+            String mode,
+            Diet dietFilter,
+            Goal goal,
+            Double minCalories,
+            Double maxCalories,
+            Double minProtein,
+            Double maxProtein,
+            Double minCarbs,
+            Double maxCarbs,
+            Double minFat,
+            Double maxFat,
+            String sortBy,
+            String sortOrder,
+            Pageable pageable
+    );
 
     DietPlanDTO removeDietDay(Long userId, Long dietPlanId, int dayIndex);
 
@@ -50,9 +76,17 @@ public interface IUserDietPlanService {
 
     DietPlanDTO removeMealFromDietDay(Long userId, Long dietPlanId, int dayIndex, Long mealId);
 
+    /**
+     * Applies an ordered list of day edits to a diet plan in a single transaction.
+     * Fails with a version conflict when the plan changed since the version the patch is based on.
+     */
+    DietPlanDTO patchDietDays(Long userId, Long dietPlanId, DietPlanPatchInputDTO patch);
+
     UserDTO removeDietPlanFromUser(Long userId, Long dietPlanId);
 
     DietPlanDTO addDietPlanToUser(Long userId, Long dietPlanId);
 
     List<Map<String, Object>> getShoppingListForDietPlan(Long dietPlanId, Long userId);
+
+    List<Map<String, Object>> getShoppingListForDietPlans(List<Long> dietPlanIds, LocalDate from, LocalDate to, Long userId);
 }
@@ -7,8 +7,12 @@ import balancebite.errorHandling.DuplicateMealException;
 import balancebite.errorHandling.InvalidFoodItemException;
 import balancebite.errorHandling.MealNotFoundException;
 import balancebite.errorHandling.UserNotFoundException;
+import balancebite.model.meal.Meal;
 import jakarta.persistence.EntityNotFoundException;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * Interface defining methods for managing the relationship between users and meals.
  * This includes adding and removing meals from a user's list.
@@ -63,6 +67,18 @@ public interface IUserMealService {
      */
     UserDTO addMealToUser(Long userId, Long mealId);
 
+    /**
+     * Adds several meals the user does not have yet to the user's list in one batch.
+     * Meals created by the user are linked directly; all others are copied.
+     *
+     * @param userId  The ID of the user.
+     * @param mealIds The IDs of the meals to add. None of them may already be in the user's list.
+     * @return A map from each requested meal ID to the meal now in the user's list (the original or its copy).
+     * @throws UserNotFoundException If the user with the specified ID is not found.
+     * @throws MealNotFoundException If one of the meals is not found.
+     */
+    Map<Long, Meal> addMealsToUser(Long userId, Collection<Long> mealIds);
+
     /**
      * Retrieves a Meal by its ID, only if it belongs to the authenticated user.
      *
@@ -0,0 +1,204 @@
+package balancebite.service.meal;
+
+import balancebite.dto.meal.MealNameSuggestionDTO;
+import balancebite.model.meal.Meal;
+import balancebite.repository.MealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory autocomplete index over the names of public template meals.
+ *
+ * Every word of a meal name is stored in a sorted dictionary, so a prefix lookup is a
+ * range scan instead of a table scan. Suggestions are ranked by full-name prefix match,
+ * then word-boundary match, then popularity (saveCount), and are bounded to top-K.
+ * The index is loaded on first use and kept up to date by {@link MealNameIndexListener}.
+ */
+@Component
+public class MealNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MealNameIndex.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final MealRepository mealRepository;
+
+    /** Word token + separator + meal ID, mapped to the meal ID. Sorted for prefix range scans. */
+    private final ConcurrentSkipListMap<String, Long> tokenIndex = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Object writeLock = new Object();
+    private volatile boolean loaded = false;
+
+    private record Entry(Long id, String name, String normalizedName, List<String> tokens, long saveCount) {}
+
+    public MealNameIndex(MealRepository mealRepository) {
+        this.mealRepository = mealRepository;
+    }
+
+    /**
+     * Returns the best matching meal names for the given query.
+     *
+     * @param query The (partial) text typed by the user.
+     * @param limit The maximum number of suggestions, clamped to [1, {@value #MAX_LIMIT}].
+     * @return Ranked suggestions, best match first. Empty if the query has no searchable characters.
+     */
+    public List<MealNameSuggestionDTO> suggest(String query, int limit) {
+        ensureLoaded();
+
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return List.of();
+        }
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String[] queryTokens = normalizedQuery.split(" ");
+
+        Comparator<Scored> ranking = Comparator
+                .comparingInt(Scored::tier)
+                .thenComparing(Comparator.comparingLong((Scored s) -> s.entry().saveCount()).reversed())
+                .thenComparingInt(s -> s.entry().name().length())
+                .thenComparing(s -> s.entry().normalizedName());
+
+        // Bounded max-heap on the ranking: the worst of the current top-K sits on top.
+        PriorityQueue<Scored> top = new PriorityQueue<>(k + 1, ranking.reversed());
+        Set<Long> seen = new HashSet<>();
+
+        String first = queryTokens[0];
+        for (Long mealId : tokenIndex.subMap(first, true, first + Character.MAX_VALUE, false).values()) {
+            if (!seen.add(mealId)) continue;
+            Entry entry = entries.get(mealId);
+            if (entry == null || !matchesAllTokens(entry, queryTokens)) continue;
+
+            top.offer(new Scored(entry, tier(entry, normalizedQuery)));
+            if (top.size() > k) {
+                top.poll();
+            }
+        }
+
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        return ranked.stream()
+                .map(s -> new MealNameSuggestionDTO(s.entry().id(), s.entry().name(), s.entry().saveCount()))
+                .toList();
+    }
+
+    /**
+     * Adds, updates or removes a meal in the index depending on whether it is a public template.
+     *
+     * @param meal The meal whose state changed.
+     */
+    public void upsert(Meal meal) {
+        if (meal.getId() == null) return;
+        if (!meal.isTemplate() || meal.isPrivate() || meal.isRestricted() || meal.getName() == null) {
+            remove(meal.getId());
+            return;
+        }
+        synchronized (writeLock) {
+            put(meal.getId(), meal.getName(), meal.getSaveCount());
+        }
+    }
+
+    /**
+     * Removes a meal from the index.
+     *
+     * @param mealId The ID of the removed meal.
+     */
+    public void remove(Long mealId) {
+        if (mealId == null) return;
+        synchronized (writeLock) {
+            Entry old = entries.remove(mealId);
+            if (old != null) {
+                old.tokens().forEach(token -> tokenIndex.remove(key(token, mealId)));
+            }
+        }
+    }
+
+    /**
+     * Drops the current contents and reloads all public template meal names from the database.
+     */
+    public void rebuild() {
+        synchronized (writeLock) {
+            tokenIndex.clear();
+            entries.clear();
+            List<MealNameSuggestionDTO> rows = mealRepository.findAllPublicTemplateMealNameSuggestions();
+            rows.forEach(row -> put(row.id(), row.name(), row.saveCount()));
+            loaded = true;
+            log.info("Meal name index loaded with {} template meals.", rows.size());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (writeLock) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /** Must be called while holding {@link #writeLock}. */
+    private void put(Long id, String name, Long saveCount) {
+        Entry old = entries.get(id);
+        if (old != null) {
+            old.tokens().forEach(token -> tokenIndex.remove(key(token, id)));
+        }
+        String normalizedName = normalize(name);
+        List<String> tokens = normalizedName.isEmpty()
+                ? List.of()
+                : Arrays.stream(normalizedName.split(" ")).distinct().toList();
+        entries.put(id, new Entry(id, name, normalizedName, tokens, saveCount != null ? saveCount : 0L));
+        tokens.forEach(token -> tokenIndex.put(key(token, id), id));
+    }
+
+    private static boolean matchesAllTokens(Entry entry, String[] queryTokens) {
+        for (String queryToken : queryTokens) {
+            boolean found = false;
+            for (String token : entry.tokens()) {
+                if (token.startsWith(queryToken)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 0 = the full name starts with the query, 1 = the query starts at a word boundary,
+     * 2 = all query words are prefixes of words in the name, in any order.
+     */
+    private static int tier(Entry entry, String normalizedQuery) {
+        if (entry.normalizedName().startsWith(normalizedQuery)) return 0;
+        if (entry.normalizedName().contains(" " + normalizedQuery)) return 1;
+        return 2;
+    }
+
+    private static String key(String token, Long mealId) {
+        return token + KEY_SEPARATOR + mealId;
+    }
+
+    /**
+     * Lowercases, strips accents and collapses everything that is not a letter or digit into single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return decomposed.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    private record Scored(Entry entry, int tier) {}
+}
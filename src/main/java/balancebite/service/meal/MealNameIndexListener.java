@@ -0,0 +1,50 @@
+package balancebite.service.meal;
+
+import balancebite.model.meal.Meal;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps the {@link MealNameIndex} in sync with meal changes.
+ * Changes are applied after the surrounding transaction commits, so rolled back
+ * changes never show up in autocomplete suggestions.
+ */
+@Component
+public class MealNameIndexListener {
+
+    private final ObjectProvider<MealNameIndex> mealNameIndex;
+
+    public MealNameIndexListener(ObjectProvider<MealNameIndex> mealNameIndex) {
+        this.mealNameIndex = mealNameIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Meal meal) {
+        afterCommit(() -> mealNameIndex.getObject().upsert(meal));
+    }
+
+    @PostRemove
+    public void onRemove(Meal meal) {
+        Long mealId = meal.getId();
+        afterCommit(() -> mealNameIndex.getObject().remove(mealId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
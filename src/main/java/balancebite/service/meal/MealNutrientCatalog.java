@@ -0,0 +1,194 @@
+package balancebite.service.meal;
+
+import balancebite.dto.meal.MealMacroRowDTO;
+import balancebite.model.meal.references.Cuisine;
+import balancebite.model.meal.references.Diet;
+import balancebite.repository.MealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory, column-oriented catalog of the per-serving macros of all public template meals.
+ *
+ * Meals are stored as flat arrays (one macro vector and one diet/cuisine bitmask per meal),
+ * so solvers can scan thousands of meals without touching entities or the database.
+ * The catalog is built on first use and rebuilt lazily after {@link #invalidate()},
+ * which {@link MealNutrientCatalogListener} calls whenever a meal changes.
+ *
+ * It also holds the price per serving of every meal, read from the persisted {@code meals.price_per_serving}
+ * that {@link MealPriceService} maintains (including promotions). Costs are refreshed on their own, after
+ * {@link #invalidateCostsAfterCommit()}, which {@link MealPriceService} calls whenever it recomputes prices.
+ */
+@Component
+public class MealNutrientCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(MealNutrientCatalog.class);
+
+    public static final int KCAL = 0;
+    public static final int PROTEIN = 1;
+    public static final int CARBS = 2;
+    public static final int FAT = 3;
+    public static final int DIMENSIONS = 4;
+
+    private final MealRepository mealRepository;
+
+    private final Object buildLock = new Object();
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+    private volatile boolean costsStale = true;
+
+    /**
+     * Immutable view of the catalog.
+     *
+     * @param mealIds      Meal ID per catalog index.
+     * @param macros       Per-serving macros, {@value #DIMENSIONS} values per meal (kcal, protein, carbs, fat).
+     * @param servings     Number of servings per meal (at least 1).
+     * @param dietMasks    Bitmask of {@link Diet} ordinals per meal.
+     * @param cuisineMasks Bitmask of {@link Cuisine} ordinals per meal.
+     * @param costs        Price per serving per meal; NaN when an ingredient has no price.
+     */
+    public record Snapshot(long[] mealIds, double[] macros, double[] servings, int[] dietMasks, int[] cuisineMasks, double[] costs) {
+
+        public int size() {
+            return mealIds.length;
+        }
+
+        public double macro(int index, int dimension) {
+            return macros[index * DIMENSIONS + dimension];
+        }
+
+        /**
+         * A meal matches when it has all requested diets and, if cuisines are requested, at least one of them.
+         */
+        public boolean matches(int index, int requiredDiets, int anyCuisine) {
+            return (dietMasks[index] & requiredDiets) == requiredDiets
+                    && (anyCuisine == 0 || (cuisineMasks[index] & anyCuisine) != 0);
+        }
+    }
+
+    public MealNutrientCatalog(MealRepository mealRepository) {
+        this.mealRepository = mealRepository;
+    }
+
+    /**
+     * Returns the current catalog, (re)building it or only its costs first if they are outdated.
+     */
+    public Snapshot snapshot() {
+        if (stale || snapshot == null || costsStale) {
+            synchronized (buildLock) {
+                // Eerst resetten: wijzigingen tijdens het laden maken de catalogus opnieuw stale
+                if (stale || snapshot == null) {
+                    stale = false;
+                    costsStale = false;
+                    Snapshot fresh = build();
+                    snapshot = withCosts(fresh);
+                } else if (costsStale) {
+                    costsStale = false;
+                    snapshot = withCosts(snapshot);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Marks the catalog as outdated; it is rebuilt on the next {@link #snapshot()} call.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Marks only the meal costs as outdated after the current transaction commits (or immediately without one),
+     * so a rebuild never reads prices that are not committed yet.
+     */
+    public void invalidateCostsAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    costsStale = true;
+                }
+            });
+        } else {
+            costsStale = true;
+        }
+    }
+
+    public static int mask(Collection<? extends Enum<?>> values) {
+        int mask = 0;
+        if (values != null) {
+            for (Enum<?> value : values) {
+                mask |= 1 << value.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    private Snapshot build() {
+        long start = System.nanoTime();
+        List<MealMacroRowDTO> rows = mealRepository.findAllPublicTemplateMealMacros();
+
+        int n = rows.size();
+        long[] ids = new long[n];
+        double[] macros = new double[n * DIMENSIONS];
+        double[] servingsPerMeal = new double[n];
+        Map<Long, Integer> indexById = new HashMap<>(n * 2);
+
+        for (int i = 0; i < n; i++) {
+            MealMacroRowDTO row = rows.get(i);
+            double servings = (row.servings() != null && row.servings() > 1) ? row.servings() : 1.0;
+            ids[i] = row.id();
+            servingsPerMeal[i] = servings;
+            macros[i * DIMENSIONS + KCAL] = row.totalCalories() / servings;
+            macros[i * DIMENSIONS + PROTEIN] = row.totalProtein() / servings;
+            macros[i * DIMENSIONS + CARBS] = row.totalCarbs() / servings;
+            macros[i * DIMENSIONS + FAT] = row.totalFat() / servings;
+            indexById.put(row.id(), i);
+        }
+
+        int[] dietMasks = new int[n];
+        for (Object[] pair : mealRepository.findAllPublicTemplateMealDiets()) {
+            Integer index = indexById.get((Long) pair[0]);
+            if (index != null) dietMasks[index] |= 1 << ((Diet) pair[1]).ordinal();
+        }
+        int[] cuisineMasks = new int[n];
+        for (Object[] pair : mealRepository.findAllPublicTemplateMealCuisines()) {
+            Integer index = indexById.get((Long) pair[0]);
+            if (index != null) cuisineMasks[index] |= 1 << ((Cuisine) pair[1]).ordinal();
+        }
+
+        log.info("Meal nutrient catalog built with {} meals in {} ms", n, (System.nanoTime() - start) / 1_000_000);
+        return new Snapshot(ids, macros, servingsPerMeal, dietMasks, cuisineMasks, null);
+    }
+
+    private Snapshot withCosts(Snapshot base) {
+        long start = System.nanoTime();
+
+        Map<Long, Integer> indexById = new HashMap<>(base.size() * 2);
+        for (int i = 0; i < base.size(); i++) {
+            indexById.put(base.mealIds()[i], i);
+        }
+
+        double[] costs = new double[base.size()];
+        Arrays.fill(costs, Double.NaN);
+        for (Object[] row : mealRepository.findAllPublicTemplateMealPrices()) {
+            Integer index = indexById.get((Long) row[0]);
+            if (index == null || row[1] == null || Boolean.TRUE.equals(row[2])) continue;
+            costs[index] = ((BigDecimal) row[1]).doubleValue();
+        }
+
+        log.info("Meal costs computed for {} meals in {} ms", base.size(), (System.nanoTime() - start) / 1_000_000);
+        return new Snapshot(base.mealIds(), base.macros(), base.servings(), base.dietMasks(), base.cuisineMasks(), costs);
+    }
+}
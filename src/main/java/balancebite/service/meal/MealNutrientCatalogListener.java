@@ -0,0 +1,39 @@
+package balancebite.service.meal;
+
+import balancebite.model.meal.Meal;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that marks the {@link MealNutrientCatalog} as stale after a meal change commits.
+ */
+@Component
+public class MealNutrientCatalogListener {
+
+    private final ObjectProvider<MealNutrientCatalog> catalog;
+
+    public MealNutrientCatalogListener(ObjectProvider<MealNutrientCatalog> catalog) {
+        this.catalog = catalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Meal meal) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    catalog.getObject().invalidate();
+                }
+            });
+        } else {
+            catalog.getObject().invalidate();
+        }
+    }
+}
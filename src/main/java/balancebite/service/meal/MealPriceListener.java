@@ -0,0 +1,101 @@
+package balancebite.service.meal;
+
+import balancebite.model.MealIngredient;
+import balancebite.model.foodItem.FoodItem;
+import balancebite.model.meal.Meal;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JPA entity listener on meals, meal ingredients and food items: recomputes the persisted price of every
+ * affected meal once per transaction, after it commits.
+ *
+ * Changed meals and ingredients mark their own meal; a changed food item marks every meal that uses it.
+ * Promotion starts and ends are handled by {@link MealPriceService#onPromotionEvent}.
+ */
+@Component
+public class MealPriceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MealPriceListener.class);
+
+    private final ObjectProvider<MealPriceService> mealPriceService;
+
+    public MealPriceListener(ObjectProvider<MealPriceService> mealPriceService) {
+        this.mealPriceService = mealPriceService;
+    }
+
+    /** Meals and food items collected in the current transaction. */
+    private record Pending(Set<Long> mealIds, Set<Long> foodItemIds) {}
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        // Een nieuw voedingsmiddel wordt nog door geen enkele maaltijd gebruikt
+        if (!(entity instanceof FoodItem)) {
+            onChange(entity);
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Long mealId = null;
+        Long foodItemId = null;
+        if (entity instanceof Meal meal) {
+            mealId = meal.getId();
+        } else if (entity instanceof MealIngredient ingredient && ingredient.getMeal() != null) {
+            mealId = ingredient.getMeal().getId();
+        } else if (entity instanceof FoodItem foodItem) {
+            foodItemId = foodItem.getId();
+        }
+        if (mealId == null && foodItemId == null) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recompute(new Pending(idSet(mealId), idSet(foodItemId)));
+            return;
+        }
+
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending(new HashSet<>(), new HashSet<>());
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recompute(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MealPriceListener.this);
+                }
+            });
+            pending = created;
+        }
+        if (mealId != null) pending.mealIds().add(mealId);
+        if (foodItemId != null) pending.foodItemIds().add(foodItemId);
+    }
+
+    private void recompute(Pending pending) {
+        // De wijziging zelf is al opgeslagen; een mislukte herberekening herstelt bij de volgende start
+        try {
+            mealPriceService.getObject().recomputeChanged(pending.mealIds(), pending.foodItemIds());
+        } catch (RuntimeException e) {
+            log.warn("Recomputing meal prices for meals {} and food items {} failed: {}",
+                    pending.mealIds(), pending.foodItemIds(), e.getMessage());
+        }
+    }
+
+    private static Set<Long> idSet(Long id) {
+        return id == null ? Set.of() : Set.of(id);
+    }
+}
@@ -0,0 +1,116 @@
+package balancebite.service.meal;
+
+import balancebite.repository.MealRepository;
+import balancebite.service.fooditem.PromotionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains the persisted price of meals ({@code meals.price}, {@code meals.price_per_serving} and
+ * {@code meals.has_unknown_prices}), which makes meals filterable and sortable by price.
+ *
+ * Prices are recomputed in SQL, only for the meals that use a changed food item (found through the
+ * {@code meal_ingredients.food_item_id} index), in chunks of {@value #CHUNK_SIZE} meals per statement.
+ * Changes to meals, ingredients and food prices arrive through {@link MealPriceListener}, promotion starts
+ * and ends as {@link PromotionEvent}s; at startup every meal is recomputed once,
+ * which also covers promotion boundaries passed while the application was down.
+ */
+@Service
+public class MealPriceService {
+
+    private static final Logger log = LoggerFactory.getLogger(MealPriceService.class);
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final MealRepository mealRepository;
+    private final MealNutrientCatalog mealNutrientCatalog;
+
+    public MealPriceService(MealRepository mealRepository, MealNutrientCatalog mealNutrientCatalog) {
+        this.mealRepository = mealRepository;
+        this.mealNutrientCatalog = mealNutrientCatalog;
+    }
+
+    /**
+     * Recomputes the price of every meal that uses one of the given food items.
+     *
+     * @return The number of updated meals.
+     */
+    @Transactional
+    public int recomputeForFoodItems(Collection<Long> foodItemIds) {
+        if (foodItemIds.isEmpty()) {
+            return 0;
+        }
+        return recomputeForMeals(mealRepository.findMealIdsByFoodItemIds(foodItemIds.toArray(Long[]::new)));
+    }
+
+    /**
+     * Recomputes the price of the given meals at the current moment.
+     *
+     * @return The number of updated meals.
+     */
+    @Transactional
+    public int recomputeForMeals(Collection<Long> mealIds) {
+        if (mealIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = List.copyOf(mealIds);
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            updated += mealRepository.recomputePrices(chunk.toArray(Long[]::new), now);
+        }
+        mealNutrientCatalog.invalidateCostsAfterCommit();
+        return updated;
+    }
+
+    /**
+     * Recomputes, once, the price of the given meals and of every meal that uses one of the given food items.
+     * Called by {@link MealPriceListener} after the changing transaction committed, so it runs in a transaction
+     * of its own.
+     *
+     * @return The number of updated meals.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int recomputeChanged(Collection<Long> mealIds, Collection<Long> foodItemIds) {
+        Set<Long> ids = new HashSet<>(mealIds);
+        if (!foodItemIds.isEmpty()) {
+            ids.addAll(mealRepository.findMealIdsByFoodItemIds(foodItemIds.toArray(Long[]::new)));
+        }
+        return recomputeForMeals(ids);
+    }
+
+    /**
+     * Runs in a transaction of its own: change events are published after the triggering transaction committed.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPromotionEvent(PromotionEvent event) {
+        long start = System.nanoTime();
+        int updated = recomputeForFoodItems(event.affectedFoodItemIds());
+        log.info("Promotion boundary at {}: {} started, {} ended, {} meal prices recomputed in {} ms",
+                event.at(), event.activatedFoodItemIds().size(), event.expiredFoodItemIds().size(), updated,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recomputeAll() {
+        try {
+            int updated = recomputeForMeals(mealRepository.findAllIds());
+            log.info("Recomputed prices of {} meals", updated);
+        } catch (Exception e) {
+            log.warn("Recomputing meal prices failed: {}", e.getMessage());
+        }
+    }
+}
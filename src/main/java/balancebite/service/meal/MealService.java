@@ -3,6 +3,7 @@ package balancebite.service.meal;
 import balancebite.dto.meal.MealDTO;
 import balancebite.dto.NutrientInfoDTO;
 import balancebite.dto.meal.MealNameDTO;
+import balancebite.dto.meal.MealNameSuggestionDTO;
 import balancebite.mapper.MealIngredientMapper;
 import balancebite.mapper.MealMapper;
 import balancebite.model.foodItem.FoodSource;
@@ -57,6 +58,7 @@ public class MealService implements IMealService {
     private final MealIngredientMapper mealIngredientMapper;
     private final CheckForDuplicateTemplateMealUtil checkForDuplicateTemplateMeal;
     private final SharedMealAccessRepository sharedMealAccessRepository;
+    private final MealNameIndex mealNameIndex;
 
     /**
      * Constructor for MealService, using constructor injection.
@@ -66,7 +68,7 @@ public class MealService implements IMealService {
      * @param userRepository     the repository for managing User entities.
      * @param mealMapper         the mapper for converting Meal entities to DTOs.
      */
-    public MealService(MealRepository mealRepository, FoodItemRepository foodItemRepository, UserRepository userRepository, MealMapper mealMapper, MealIngredientMapper mealIngredientMapper, CheckForDuplicateTemplateMealUtil checkForDuplicateTemplateMeal, SharedMealAccessRepository sharedMealAccessRepository) {
+    public MealService(MealRepository mealRepository, FoodItemRepository foodItemRepository, UserRepository userRepository, MealMapper mealMapper, MealIngredientMapper mealIngredientMapper, CheckForDuplicateTemplateMealUtil checkForDuplicateTemplateMeal, SharedMealAccessRepository sharedMealAccessRepository, MealNameIndex mealNameIndex) {
         this.mealRepository = mealRepository;
         this.foodItemRepository = foodItemRepository;
         this.userRepository = userRepository;
@@ -74,6 +76,7 @@ public class MealService implements IMealService {
         this.mealIngredientMapper = mealIngredientMapper;
         this.checkForDuplicateTemplateMeal = checkForDuplicateTemplateMeal;
         this.sharedMealAccessRepository = sharedMealAccessRepository;
+        this.mealNameIndex = mealNameIndex;
     }
 
     /**
@@ -102,6 +105,7 @@ public class MealService implements IMealService {
             Pageable pageable, Long creatorId, Double minCalories,
             Double maxCalories, Double minProtein, Double maxProtein,
             Double minCarbs, Double maxCarbs, Double minFat, Double maxFat,
+            Double minPrice, Double maxPrice,
             String foodSource, String currentUsername,
             boolean includeUserCopies, String name,
             Goal goal,
@@ -179,6 +183,8 @@ public class MealService implements IMealService {
         if (maxCarbs    != null) { spec = spec.and(MealSpecifications.totalCarbsMax(maxCarbs));    log.info("Filter: maxCarbs={}", maxCarbs); }
         if (minFat      != null) { spec = spec.and(MealSpecifications.totalFatMin(minFat));        log.info("Filter: minFat={}", minFat); }
         if (maxFat      != null) { spec = spec.and(MealSpecifications.totalFatMax(maxFat));        log.info("Filter: maxFat={}", maxFat); }
+        if (minPrice    != null) { spec = spec.and(MealSpecifications.pricePerServingMin(minPrice)); log.info("Filter: minPrice={}", minPrice); }
+        if (maxPrice    != null) { spec = spec.and(MealSpecifications.pricePerServingMax(maxPrice)); log.info("Filter: maxPrice={}", maxPrice); }
 
         if (name != null && !name.isBlank()) {
             spec = spec.and(MealSpecifications.hasName(name));
@@ -362,6 +368,19 @@ public class MealService implements IMealService {
         return mealRepository.findAllMealNames();
     }
 
+    /**
+     * Retrieves ranked meal name suggestions from the in-memory meal name index.
+     *
+     * @param query The (partial) meal name typed by the user.
+     * @param limit The maximum number of suggestions to return.
+     * @return A ranked list of MealNameSuggestionDTOs, best match first.
+     */
+    @Override
+    public List<MealNameSuggestionDTO> getMealNameSuggestions(String query, int limit) {
+        log.debug("Fetching meal name suggestions for query '{}' (limit {}).", query, limit);
+        return mealNameIndex.suggest(query, limit);
+    }
+
     private User getCurrentUserOrThrow() {
         Long userId = SecurityUtils.getCurrentAuthenticatedUserId();
         if (userId == null) {
@@ -377,7 +396,7 @@ public class MealService implements IMealService {
         if (sortBy == null) return false;
 
         return switch (sortBy.toLowerCase()) {
-            case "calories", "protein", "carbs", "fat" -> true;
+            case "calories", "protein", "carbs", "fat", "price", "priceperserving" -> true;
             default -> false;
         };
     }
@@ -0,0 +1,211 @@
+package balancebite.service.user;
+
+import balancebite.dto.diet.*;
+import balancebite.errorHandling.DietPlanNotFoundException;
+import balancebite.errorHandling.EntityNotFoundException;
+import balancebite.errorHandling.UserNotFoundException;
+import balancebite.model.diet.DietPlan;
+import balancebite.model.diet.DietPlanSchedule;
+import balancebite.model.user.User;
+import balancebite.repository.DietDayRepository;
+import balancebite.repository.DietPlanRepository;
+import balancebite.repository.DietPlanScheduleRepository;
+import balancebite.repository.UserRepository;
+import balancebite.service.interfaces.user.IUserCalendarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Per-user calendar of scheduled diet plans and diet days.
+ *
+ * Schedules only store where a plan or day is placed; a date range is resolved with a single
+ * indexed query that returns compact rows, so no plan graphs are loaded for calendar views.
+ */
+@Service
+public class UserCalendarService implements IUserCalendarService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCalendarService.class);
+
+    static final int MAX_RANGE_DAYS = 62;
+    static final int MAX_REPEAT_YEARS = 2;
+
+    private final DietPlanScheduleRepository scheduleRepository;
+    private final DietPlanRepository dietPlanRepository;
+    private final DietDayRepository dietDayRepository;
+    private final UserRepository userRepository;
+
+    public UserCalendarService(DietPlanScheduleRepository scheduleRepository,
+                               DietPlanRepository dietPlanRepository,
+                               DietDayRepository dietDayRepository,
+                               UserRepository userRepository) {
+        this.scheduleRepository = scheduleRepository;
+        this.dietPlanRepository = dietPlanRepository;
+        this.dietDayRepository = dietDayRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    @Transactional
+    public DietPlanScheduleDTO schedule(Long userId, DietPlanScheduleInputDTO input) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
+        DietPlan dietPlan = dietPlanRepository.findById(input.getDietPlanId())
+                .orElseThrow(() -> new DietPlanNotFoundException("DietPlan not found with ID: " + input.getDietPlanId()));
+
+        boolean isOwner = (dietPlan.getCreatedBy() != null && dietPlan.getCreatedBy().getId().equals(userId)) ||
+                (dietPlan.getAdjustedBy() != null && dietPlan.getAdjustedBy().getId().equals(userId));
+        if (!isOwner) {
+            throw new AccessDeniedException("You can only schedule your own diet plans.");
+        }
+
+        long dayCount = dietDayRepository.countByDietId(dietPlan.getId());
+        if (dayCount == 0) {
+            throw new IllegalArgumentException("Diet plan has no days to schedule.");
+        }
+        if (input.getDayIndex() != null && input.getDayIndex() >= dayCount) {
+            throw new IllegalArgumentException("Diet plan has no day with index " + input.getDayIndex() + ".");
+        }
+        int span = input.getDayIndex() != null ? 1 : (int) dayCount;
+
+        LocalDate start = input.getStartDate();
+        LocalDate end;
+        if (input.getRepeatEveryDays() == null) {
+            if (input.getRepeatUntil() != null) {
+                throw new IllegalArgumentException("Repeat until requires a repeat interval.");
+            }
+            end = start.plusDays(span - 1L);
+        } else {
+            if (input.getRepeatEveryDays() < span) {
+                throw new IllegalArgumentException("Repeat interval must be at least " + span + " days for this schedule.");
+            }
+            if (input.getRepeatUntil() == null || input.getRepeatUntil().isBefore(start)) {
+                throw new IllegalArgumentException("Repeat until must be on or after the start date.");
+            }
+            if (input.getRepeatUntil().isAfter(start.plusYears(MAX_REPEAT_YEARS))) {
+                throw new IllegalArgumentException("Repeats can run at most " + MAX_REPEAT_YEARS + " years.");
+            }
+            end = input.getRepeatUntil();
+        }
+
+        DietPlanSchedule saved = scheduleRepository.save(new DietPlanSchedule(
+                user, dietPlan, input.getDayIndex(), start, end, input.getRepeatEveryDays()));
+        log.info("Scheduled diet plan ID {} (day {}) for user ID {} from {} to {}",
+                dietPlan.getId(), input.getDayIndex(), userId, start, end);
+        return toDTO(saved, dayCount);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DietPlanScheduleDTO> getSchedules(Long userId) {
+        List<DietPlanSchedule> schedules = scheduleRepository.findByUserIdWithPlan(userId);
+        Set<Long> planIds = new HashSet<>();
+        for (DietPlanSchedule schedule : schedules) {
+            if (schedule.followsPlanLength()) planIds.add(schedule.getDietPlan().getId());
+        }
+        Map<Long, Long> dayCounts = new HashMap<>();
+        if (!planIds.isEmpty()) {
+            for (Object[] row : dietDayRepository.countByDietIds(planIds)) {
+                dayCounts.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return schedules.stream()
+                .map(schedule -> toDTO(schedule, dayCounts.getOrDefault(schedule.getDietPlan().getId(), 0L)))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void removeSchedule(Long userId, Long scheduleId) {
+        DietPlanSchedule schedule = scheduleRepository.findByIdAndUser_Id(scheduleId, userId)
+                .orElseThrow(() -> new EntityNotFoundException("Schedule not found with ID: " + scheduleId));
+        scheduleRepository.delete(schedule);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CalendarDayDTO> getCalendar(Long userId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must be on or after start date.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("A calendar range can span at most " + MAX_RANGE_DAYS + " days.");
+        }
+
+        // Rijen komen gesorteerd op datum, schema en dag: aaneengesloten rijen vormen één entry
+        Map<LocalDate, List<CalendarEntryDTO>> entriesByDate = new HashMap<>();
+        List<CalendarMealDTO> meals = null;
+        Long currentSchedule = null;
+        Long currentDay = null;
+        LocalDate currentDate = null;
+        for (Object[] row : scheduleRepository.findCalendarRows(userId, from, to)) {
+            LocalDate date = toLocalDate(row[0]);
+            Long scheduleId = ((Number) row[1]).longValue();
+            Long dayId = ((Number) row[4]).longValue();
+            if (!date.equals(currentDate) || !scheduleId.equals(currentSchedule) || !dayId.equals(currentDay)) {
+                meals = new ArrayList<>();
+                entriesByDate.computeIfAbsent(date, d -> new ArrayList<>()).add(new CalendarEntryDTO(
+                        scheduleId,
+                        ((Number) row[2]).longValue(),
+                        (String) row[3],
+                        dayId,
+                        (String) row[5],
+                        toDouble(row[6]),
+                        toDouble(row[7]),
+                        toDouble(row[8]),
+                        toDouble(row[9]),
+                        meals));
+                currentDate = date;
+                currentSchedule = scheduleId;
+                currentDay = dayId;
+            }
+            if (row[10] != null) {
+                meals.add(new CalendarMealDTO(
+                        ((Number) row[10]).longValue(),
+                        (String) row[11],
+                        toDouble(row[12]),
+                        toDouble(row[13]),
+                        toDouble(row[14]),
+                        toDouble(row[15])));
+            }
+        }
+
+        List<CalendarDayDTO> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            days.add(new CalendarDayDTO(date, entriesByDate.getOrDefault(date, List.of())));
+        }
+        return days;
+    }
+
+    /**
+     * @param dayCount Current number of days of the plan; only used for whole plans without repetition.
+     */
+    private DietPlanScheduleDTO toDTO(DietPlanSchedule schedule, long dayCount) {
+        LocalDate end = schedule.followsPlanLength()
+                ? schedule.getStartDate().plusDays(Math.max(dayCount, 1) - 1)
+                : schedule.getEndDate();
+        return new DietPlanScheduleDTO(
+                schedule.getId(),
+                schedule.getDietPlan().getId(),
+                schedule.getDietPlan().getName(),
+                schedule.getDayIndex(),
+                schedule.getStartDate(),
+                end,
+                schedule.getRepeatEveryDays()
+        );
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+    }
+
+    private static Double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+}
@@ -1,22 +1,28 @@
 package balancebite.service.user;
 
 import balancebite.dto.diet.DietDayInputDTO;
+import balancebite.dto.diet.DietDayPatchOperationDTO;
+import balancebite.dto.diet.DietPlanCardDTO;
 import balancebite.dto.diet.DietPlanDTO;
 import balancebite.dto.diet.DietPlanInputDTO;
+import balancebite.dto.diet.DietPlanPatchInputDTO;
+import balancebite.dto.diet.ShoppingDemandRowDTO;
 import balancebite.errorHandling.DietPlanNotFoundException;
+import balancebite.errorHandling.DietPlanVersionConflictException;
 import balancebite.errorHandling.UserNotFoundException;
 import balancebite.mapper.DietDayMapper;
 import balancebite.mapper.DietPlanMapper;
 import balancebite.model.diet.DietDay;
 import balancebite.model.diet.DietPlan;
+import balancebite.model.diet.MealFlagCounts;
 import balancebite.model.diet.SavedDietPlan;
-import balancebite.model.foodItem.FoodItem;
 import balancebite.model.foodItem.PromotedFoodItem;
 import balancebite.model.meal.Meal;
 import balancebite.model.meal.references.Diet;
 import balancebite.model.user.User;
 import balancebite.model.user.UserRole;
 import balancebite.repository.*;
+import balancebite.service.diet.PublicDietPlanCardListener;
 import balancebite.service.interfaces.user.IUserDietPlanService;
 import balancebite.dto.user.UserDTO;
 import balancebite.mapper.UserMapper;
@@ -34,8 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -57,7 +62,9 @@ public class UserDietPlanService implements IUserDietPlanService {
     private final MealAssignmentUtil mealAssignmentUtil;
     private final SavedDietPlanRepository savedDietPlanRepository;
     private final SharedDietPlanAccessRepository sharedDietPlanAccessRepository;
+    private final DietDayRepository dietDayRepository;
     private final PromotedFoodItemRepository promotedFoodItemRepository;
+    private final PublicDietPlanCardListener publicDietPlanCardListener;
 
 
     public UserDietPlanService(DietPlanRepository dietPlanRepository,
@@ -70,7 +77,9 @@ public class UserDietPlanService implements IUserDietPlanService {
                                MealAssignmentUtil mealAssignmentUtil,
                                SavedDietPlanRepository savedDietPlanRepository,
                                SharedDietPlanAccessRepository sharedDietPlanAccessRepository,
-                               PromotedFoodItemRepository promotedFoodItemRepository) {
+                               DietDayRepository dietDayRepository,
+                               PromotedFoodItemRepository promotedFoodItemRepository,
+                               PublicDietPlanCardListener publicDietPlanCardListener) {
         this.dietPlanRepository = dietPlanRepository;
         this.userRepository = userRepository;
         this.mealRepository = mealRepository;
@@ -81,7 +90,9 @@ public class UserDietPlanService implements IUserDietPlanService {
         this.mealAssignmentUtil = mealAssignmentUtil;
         this.savedDietPlanRepository = savedDietPlanRepository;
         this.sharedDietPlanAccessRepository = sharedDietPlanAccessRepository;
+        this.dietDayRepository = dietDayRepository;
         this.promotedFoodItemRepository = promotedFoodItemRepository;
+        this.publicDietPlanCardListener = publicDietPlanCardListener;
     }
 
     @Override
@@ -100,13 +111,14 @@ public class UserDietPlanService implements IUserDietPlanService {
         dietPlan.setDietDescription(input.getDietDescription());
 
         List<DietDay> dietDays = new ArrayList<>();
+        Map<Long, Meal> userMeals = mealAssignmentUtil.getOrAddMealsToUser(userId, allMealIds(input));
 
         for (int i = 0; i < input.getDietDays().size(); i++) {
             DietDayInputDTO dayInput = input.getDietDays().get(i);
 
             List<Long> mealIds = dayInput.getMealIds() != null ? dayInput.getMealIds() : List.of();
             List<Meal> meals = mealIds.stream()
-                    .map(id -> mealAssignmentUtil.getOrAddMealToUser(userId, id))
+                    .map(userMeals::get)
                     .collect(Collectors.toList());
 
             long validCount = meals.stream().filter(Objects::nonNull).count();
@@ -195,6 +207,35 @@ public class UserDietPlanService implements IUserDietPlanService {
         }
 
         // ── Nieuwe kopie maken
+        Long copyId = copyDietPlanForUser(user, original);
+
+        // Volledig laden en mappen in een vast aantal queries, ook voor grote plannen
+        DietPlan result = dietPlanRepository.findDetailById(copyId)
+                .orElseThrow(() -> new DietPlanNotFoundException("DietPlan not found after copy: " + copyId));
+        log.info("Copied diet plan {} to user {} as plan {}", dietPlanId, userId, copyId);
+
+        return dietPlanMapper.toDetailDTO(result);
+    }
+
+    /**
+     * Copies a diet plan for a user in a set-based way: the user's meal copies are resolved in one
+     * batched pass, and days, day diets, plan diets and meal links are copied with INSERT ... SELECT.
+     * The number of statements does not depend on the number of days or meals in the plan.
+     * Clears the persistence context; reload the copy by its returned ID.
+     *
+     * @return The ID of the new copy.
+     */
+    Long copyDietPlanForUser(User user, DietPlan original) {
+        Long userId = user.getId();
+        Long dietPlanId = original.getId();
+
+        if (dietDayRepository.countDaysWithFewerMealsThan(dietPlanId, 2) > 0) {
+            throw new IllegalArgumentException("Each day must have at least 2 meals.");
+        }
+
+        // Alle maaltijden van het plan in één keer aan de gebruiker koppelen of kopiëren
+        mealAssignmentUtil.getOrAddMealsToUser(userId, dietDayRepository.findDistinctMealIdsByDietPlanId(dietPlanId));
+
         DietPlan copy = new DietPlan();
         copy.setName(original.getName());
         copy.setTemplate(false);
@@ -203,49 +244,6 @@ public class UserDietPlanService implements IUserDietPlanService {
         copy.setAdjustedBy(user);
         copy.setDietDescription(original.getDietDescription());
 
-        List<DietDay> days = original.getDietDays().stream().map(origDay -> {
-            DietDay d = new DietDay();
-            d.setDayLabel(origDay.getDayLabel());
-            d.setDate(origDay.getDate());
-            d.setDietDayDescription(origDay.getDietDayDescription());
-            d.setDiets(new HashSet<>(origDay.getDiets()));
-            d.setDiet(copy);
-
-            // ⏱️ Kopieer macro-totalen van de dag
-            d.setTotalCalories(origDay.getTotalCalories());
-            d.setTotalProtein(origDay.getTotalProtein());
-            d.setTotalCarbs(origDay.getTotalCarbs());
-            d.setTotalFat(origDay.getTotalFat());
-            d.setTotalSaturatedFat(origDay.getTotalSaturatedFat());
-            d.setTotalUnsaturatedFat(origDay.getTotalUnsaturatedFat());
-            d.setTotalSugars(origDay.getTotalSugars());
-
-            List<Meal> assignedMeals = origDay.getMeals().stream()
-                    .map(m -> mealAssignmentUtil.getOrAddMealToUser(userId, m.getId()))
-                    .distinct()
-                    .collect(Collectors.toList());
-
-            if (assignedMeals.stream().filter(Objects::nonNull).count() < 2) {
-                throw new IllegalArgumentException("Each day must have at least 2 meals.");
-            }
-
-            d.setMeals(assignedMeals);
-            return d;
-        }).collect(Collectors.toList());
-
-
-        Set<balancebite.model.meal.references.Diet> allDiets = new HashSet<>();
-        for (DietDay day : days) {
-            for (Meal meal : day.getMeals()) {
-                if (meal != null && meal.getDiets() != null) {
-                    allDiets.addAll(meal.getDiets());
-                }
-            }
-        }
-
-        copy.setDiets(allDiets);
-        copy.setDietDays(days);
-
         copy.setTotalCalories(original.getTotalCalories());
         copy.setTotalProtein(original.getTotalProtein());
         copy.setTotalCarbs(original.getTotalCarbs());
@@ -280,12 +278,17 @@ public class UserDietPlanService implements IUserDietPlanService {
         savedDietPlanRepository.save(savedRecord);
 
         long totalSaves = savedDietPlanRepository.countByDietPlan(original);
-        original.setSaveCount(totalSaves);
-        dietPlanRepository.saveAndFlush(original);
-        log.warn("⏱️ saveCount op {} is nu {}", original.getId(), original.getSaveCount());
+        dietPlanRepository.updateSaveCount(original.getId(), totalSaves);
+        publicDietPlanCardListener.refreshAfterCommit(original.getId());
 
+        // Dagen, dag-diëten, maaltijdkoppelingen en plan-diëten: vier statements, ongeacht de grootte van het plan
+        Long copyId = saved.getId();
+        dietDayRepository.copyDays(dietPlanId, copyId);
+        dietDayRepository.copyDayDiets(dietPlanId, copyId);
+        dietDayRepository.copyDayMealsForUser(dietPlanId, copyId, userId);
+        dietPlanRepository.insertDietsFromMeals(copyId); // clears the persistence context
 
-        return dietPlanMapper.toDTO(saved);
+        return copyId;
     }
 
     @Override
@@ -307,12 +310,15 @@ public class UserDietPlanService implements IUserDietPlanService {
         dietPlanMapper.updateFromInputDTO(dietPlan, input, Optional.of(dietPlan.getCreatedBy()), adjustedBy);
 
         if (input.getDietDays() != null) {
-            List<DietDay> newDietDays = new ArrayList<>();
+            Map<Long, Meal> userMeals = mealAssignmentUtil.getOrAddMealsToUser(adjustedByUserId, allMealIds(input));
+            List<DietDay> days = dietPlan.getDietDays();
+            boolean incremental = canUpdateIncrementally(dietPlan);
+
             for (int i = 0; i < input.getDietDays().size(); i++) {
                 DietDayInputDTO dayInput = input.getDietDays().get(i);
 
                 List<Meal> meals = dayInput.getMealIds().stream()
-                        .map(id -> mealAssignmentUtil.getOrAddMealToUser(adjustedByUserId, id))
+                        .map(userMeals::get)
                         .toList();
 
                 long validCount = meals.stream().filter(Objects::nonNull).count();
@@ -320,31 +326,56 @@ public class UserDietPlanService implements IUserDietPlanService {
                     throw new IllegalArgumentException("Each day must have at least 2 meals.");
                 }
 
-                DietDay day = dietDayMapper.toEntity(dayInput, meals, i);
-                day.setDiet(dietPlan);
-
                 Set<balancebite.model.meal.references.Diet> dietsForDay = new HashSet<>();
                 for (Meal meal : meals) {
                     if (meal.getDiets() != null) {
                         dietsForDay.addAll(meal.getDiets());
                     }
                 }
-                day.setDiets(dietsForDay);
 
-                newDietDays.add(day);
+                if (i < days.size()) {
+                    // Bestaande dag in place bijwerken; ongewijzigde dagen blijven volledig onaangeroerd
+                    DietDay day = days.get(i);
+                    if (isUnchanged(day, dayInput, meals, dietsForDay, i)) continue;
+
+                    if (incremental) addDayContribution(dietPlan, day, -1);
+                    dietDayMapper.updateFromInputDTO(day, dayInput, new ArrayList<>(meals), i);
+                    day.setDiets(dietsForDay);
+                    if (incremental) addDayContribution(dietPlan, day, 1);
+                } else {
+                    DietDay day = dietDayMapper.toEntity(dayInput, new ArrayList<>(meals), i);
+                    day.setDiet(dietPlan);
+                    day.setDiets(dietsForDay);
+                    days.add(day);
+                    if (incremental) addDayContribution(dietPlan, day, 1);
+                }
             }
 
-            dietPlan.getDietDays().clear();
-            dietPlan.getDietDays().addAll(newDietDays);
+            // Overtollige dagen achteraan verwijderen
+            while (days.size() > input.getDietDays().size()) {
+                DietDay removed = days.remove(days.size() - 1);
+                if (incremental) addDayContribution(dietPlan, removed, -1);
+            }
 
             Set<balancebite.model.meal.references.Diet> allDiets = new HashSet<>();
-            for (DietDay day : newDietDays) {
+            for (DietDay day : days) {
                 allDiets.addAll(day.getDiets());
             }
             dietPlan.setDiets(allDiets);
-        }
 
-        recalculatePlanNutrients(dietPlan);
+            if (incremental) {
+                applyDerivedPlanValues(dietPlan);
+            } else {
+                recalculatePlanNutrients(dietPlan);
+            }
+        } else {
+            // Geen dagwijzigingen: alleen afgeleide waarden (goal) herstellen die de mapper overschreef
+            if (canUpdateIncrementally(dietPlan)) {
+                applyDerivedPlanValues(dietPlan);
+            } else {
+                recalculatePlanNutrients(dietPlan);
+            }
+        }
 
         DietPlan updated = dietPlanRepository.save(dietPlan);
         return dietPlanMapper.toDTO(updated);
@@ -396,11 +427,11 @@ public class UserDietPlanService implements IUserDietPlanService {
         DietDay targetDay = getDietDayOrThrow(dietPlan, dayIndex);
 
         Meal meal = mealAssignmentUtil.getOrAddMealToUser(userId, mealId);
-        if (!targetDay.getMeals().contains(meal)) {
-            targetDay.getMeals().add(meal);
-        }
-        targetDay.updateNutrients();
-        recalculatePlanNutrients(dietPlan);
+        updateDayAndPlan(dietPlan, targetDay, () -> {
+            if (!targetDay.getMeals().contains(meal)) {
+                targetDay.getMeals().add(meal);
+            }
+        });
 
         DietPlan saved = dietPlanRepository.save(dietPlan);
         return dietPlanMapper.toDTO(saved);
@@ -412,17 +443,115 @@ public class UserDietPlanService implements IUserDietPlanService {
         DietPlan dietPlan = getOwnedDietPlanOrThrow(userId, dietPlanId);
         DietDay targetDay = getDietDayOrThrow(dietPlan, dayIndex);
 
-        targetDay.getMeals().removeIf(meal -> meal.getId().equals(mealId));
-        targetDay.updateNutrients();
-        recalculatePlanNutrients(dietPlan);
+        updateDayAndPlan(dietPlan, targetDay,
+                () -> targetDay.getMeals().removeIf(meal -> meal.getId().equals(mealId)));
 
         DietPlan saved = dietPlanRepository.save(dietPlan);
         return dietPlanMapper.toDTO(saved);
     }
 
+    @Override
+    @Transactional
+    public DietPlanDTO patchDietDays(Long userId, Long dietPlanId, DietPlanPatchInputDTO patch) {
+        DietPlan dietPlan = getOwnedDietPlanOrThrow(userId, dietPlanId);
+        if (!Objects.equals(dietPlan.getVersion(), patch.getVersion())) {
+            throw new DietPlanVersionConflictException("Diet plan " + dietPlanId + " has been modified (current version "
+                    + dietPlan.getVersion() + ", patch based on version " + patch.getVersion() + ").");
+        }
+
+        // Alle toe te voegen maaltijden in één keer aan de gebruiker koppelen
+        Set<Long> addedMealIds = new LinkedHashSet<>();
+        for (DietDayPatchOperationDTO op : patch.getOperations()) {
+            if (op.getOp() == DietDayPatchOperationDTO.Op.ADD_MEAL) {
+                addedMealIds.add(requireMealId(op));
+            }
+        }
+        Map<Long, Meal> userMeals = addedMealIds.isEmpty()
+                ? Map.of()
+                : mealAssignmentUtil.getOrAddMealsToUser(userId, addedMealIds);
+
+        List<DietDay> days = dietPlan.getDietDays();
+        Set<DietDay> changedDays = new LinkedHashSet<>();
+        boolean reordered = false;
+
+        for (DietDayPatchOperationDTO op : patch.getOperations()) {
+            DietDay day = getDietDayOrThrow(dietPlan, op.getDayIndex());
+            switch (op.getOp()) {
+                case ADD_MEAL -> {
+                    Meal meal = userMeals.get(op.getMealId());
+                    // Net als addMealToDietDay: een maaltijd staat hoogstens één keer op een dag
+                    if (!day.getMeals().contains(meal)) {
+                        updateDayAndPlan(dietPlan, day, () -> day.getMeals().add(meal));
+                        changedDays.add(day);
+                    }
+                }
+                case REMOVE_MEAL -> {
+                    Meal meal = findMealInDay(day, requireMealId(op), op.getDayIndex());
+                    updateDayAndPlan(dietPlan, day, () -> day.getMeals().remove(meal));
+                    changedDays.add(day);
+                }
+                case MOVE_MEAL -> {
+                    DietDay target = getDietDayOrThrow(dietPlan, requireToDayIndex(op));
+                    Meal meal = findMealInDay(day, requireMealId(op), op.getDayIndex());
+                    if (target != day && target.getMeals().contains(meal)) {
+                        throw new IllegalArgumentException("Meal " + meal.getId() + " is already on day " + op.getToDayIndex() + ".");
+                    }
+                    updateDayAndPlan(dietPlan, day, () -> day.getMeals().remove(meal));
+                    updateDayAndPlan(dietPlan, target, () -> target.getMeals().add(meal));
+                    changedDays.add(day);
+                    changedDays.add(target);
+                }
+                case MOVE_DAY -> {
+                    int to = requireToDayIndex(op);
+                    getDietDayOrThrow(dietPlan, to);
+                    days.add(to, days.remove((int) op.getDayIndex()));
+                    reordered = true;
+                }
+                case SET_LABEL -> {
+                    if (op.getDayLabel() == null || op.getDayLabel().isBlank()) {
+                        throw new IllegalArgumentException("Day label must not be empty.");
+                    }
+                    day.setDayLabel(op.getDayLabel().trim());
+                }
+            }
+        }
+
+        for (DietDay day : changedDays) {
+            int mealCount = day.getMeals().size();
+            if (mealCount < 2 || mealCount > 15) {
+                throw new IllegalArgumentException("Each day must have between 2 and 15 meals.");
+            }
+            // Alleen de gewijzigde diet-tags van deze dag aanpassen
+            Set<Diet> dietsForDay = new HashSet<>();
+            for (Meal meal : day.getMeals()) {
+                if (meal.getDiets() != null) {
+                    dietsForDay.addAll(meal.getDiets());
+                }
+            }
+            day.getDiets().retainAll(dietsForDay);
+            day.getDiets().addAll(dietsForDay);
+        }
+        if (!changedDays.isEmpty()) {
+            Set<Diet> allDiets = new HashSet<>();
+            for (DietDay day : days) {
+                allDiets.addAll(day.getDiets());
+            }
+            dietPlan.getDiets().retainAll(allDiets);
+            dietPlan.getDiets().addAll(allDiets);
+        }
+        if (reordered) {
+            dietPlan.renumberDays();
+        }
+
+        // Het dieet zelf altijd wijzigen, zodat de versie ook bij alleen label- of volgordewijzigingen ophoogt
+        dietPlan.setUpdatedAt(LocalDateTime.now());
+        DietPlan saved = dietPlanRepository.saveAndFlush(dietPlan);
+        return dietPlanMapper.toDTO(saved);
+    }
+
     @Override
     public DietPlanDTO getDietPlanById(Long dietPlanId, Long userId) {
-        DietPlan dietPlan = dietPlanRepository.findById(dietPlanId)
+        DietPlan dietPlan = dietPlanRepository.findDetailById(dietPlanId)
                 .orElseThrow(() -> new DietPlanNotFoundException("DietPlan not found with ID: " + dietPlanId));
 
         boolean isOwner = (dietPlan.getCreatedBy() != null && dietPlan.getCreatedBy().getId().equals(userId)) ||
@@ -432,10 +561,11 @@ public class UserDietPlanService implements IUserDietPlanService {
             throw new AccessDeniedException("You are not authorized to view this diet.");
         }
 
-        return dietPlanMapper.toDTO(dietPlan);
+        return dietPlanMapper.toDetailDTO(dietPlan);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getShoppingListForDietPlan(Long dietPlanId, Long userId) {
         DietPlan dietPlan = dietPlanRepository.findById(dietPlanId)
                 .orElseThrow(() -> new DietPlanNotFoundException("DietPlan not found with ID: " + dietPlanId));
@@ -444,81 +574,63 @@ public class UserDietPlanService implements IUserDietPlanService {
                 (dietPlan.getAdjustedBy() != null && dietPlan.getAdjustedBy().getId().equals(userId));
         if (!isOwner) throw new AccessDeniedException("You are not authorized to view this diet.");
 
-        Map<FoodItem, Double> shoppingMap = ShoppingCartCalculator.calculateShoppingList(dietPlan);
-
-        return shoppingMap.entrySet().stream().map(entry -> {
-            FoodItem fi = entry.getKey();
-            double requiredGramsD = entry.getValue();
-            BigDecimal requiredGrams = BigDecimal.valueOf(requiredGramsD);
-
-            // Find active promotion (now between start and end)
-            Optional<PromotedFoodItem> promoOpt = promotedFoodItemRepository.findByFoodItemId(fi.getId())
-                    .filter(p -> {
-                        LocalDateTime now = LocalDateTime.now();
-                        return (p.getStartDate() == null || !now.isBefore(p.getStartDate()))
-                                && (p.getEndDate()   == null || !now.isAfter(p.getEndDate()));
-                    });
-
-            // Effective unit price (per package)
-            BigDecimal unitPrice = computeEffectivePrice(fi.getPrice(), promoOpt.orElse(null));
-
-            // Package size in grams (how much you buy per unit)
-            BigDecimal packGrams = fi.getGrams();
+        // Quantities are summed per food item and joined with active promotions in one grouped query;
+        // only the pack math happens here.
+        return dietDayRepository.aggregateShoppingList(dietPlanId, LocalDateTime.now()).stream()
+                .map(ShoppingCartCalculator::toShoppingListItem)
+                .toList();
+    }
 
-            Integer packsNeeded = null;
-            BigDecimal totalBoughtGrams = null;
-            BigDecimal leftoverGrams = null;
-            BigDecimal totalCost = null;
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getShoppingListForDietPlans(List<Long> dietPlanIds, LocalDate from, LocalDate to, Long userId) {
+        if (dietPlanIds == null || dietPlanIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one diet plan ID is required.");
+        }
+        if ((from == null) != (to == null)) {
+            throw new IllegalArgumentException("Both 'from' and 'to' are required for a date range.");
+        }
+        if (from != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
 
-            if (packGrams != null && packGrams.compareTo(BigDecimal.ZERO) > 0) {
-                // ceil(required / pack)
-                BigDecimal packs = requiredGrams.divide(packGrams, 0, RoundingMode.UP);
-                packsNeeded = packs.intValue();
+        Set<Long> ids = new LinkedHashSet<>(dietPlanIds);
+        List<DietPlan> plans = dietPlanRepository.findAllById(ids);
+        if (plans.size() != ids.size()) {
+            throw new DietPlanNotFoundException("One or more diet plans not found: " + ids);
+        }
+        for (DietPlan plan : plans) {
+            boolean isOwner = (plan.getCreatedBy() != null && plan.getCreatedBy().getId().equals(userId)) ||
+                    (plan.getAdjustedBy() != null && plan.getAdjustedBy().getId().equals(userId));
+            if (!isOwner) throw new AccessDeniedException("You are not authorized to view diet plan " + plan.getId() + ".");
+        }
 
-                totalBoughtGrams = packGrams.multiply(BigDecimal.valueOf(packsNeeded));
-                leftoverGrams = totalBoughtGrams.subtract(requiredGrams);
+        List<ShoppingDemandRowDTO> demand = from != null
+                ? dietDayRepository.aggregateShoppingDemand(ids, from, to)
+                : dietDayRepository.aggregateShoppingDemand(ids);
+        if (demand.isEmpty()) return List.of();
 
-                if (unitPrice != null) {
-                    totalCost = unitPrice.multiply(BigDecimal.valueOf(packsNeeded))
-                            .setScale(2, RoundingMode.HALF_UP);
-                }
-            }
-            // If packGrams or unitPrice is missing we leave packsNeeded/totalCost as null
-
-            boolean promoted = promoOpt.isPresent();
-            String saleDescription = promoOpt.map(PromotedFoodItem::getSaleDescription).orElse(null);
-
-            Map<String, Object> item = new HashMap<>();
-            item.put("foodItemId", fi.getId());
-            item.put("name", fi.getName());
-            item.put("source", fi.getSource());
-            item.put("requiredGrams", requiredGramsD);
-            item.put("packGrams", packGrams);               // may be null
-            item.put("packsNeeded", packsNeeded);           // may be null
-            item.put("totalBoughtGrams", totalBoughtGrams); // may be null
-            item.put("leftoverGrams", leftoverGrams);       // may be null
-            item.put("unitPrice", unitPrice);               // effective per-package price (may be null)
-            item.put("totalCost", totalCost);               // may be null
-            item.put("hasPrice", totalCost != null);
-            item.put("promoted", promoted);
-            item.put("saleDescription", saleDescription);
-            return item;
-        }).toList();
-    }
-
-    /** Same logic as your mappers: promoPrice > salePercentage > base price. */
-    private BigDecimal computeEffectivePrice(BigDecimal basePrice, PromotedFoodItem promo) {
-        if (promo == null) return basePrice; // no promotion
-        if (promo.getPromoPrice() != null) {
-            return promo.getPromoPrice().setScale(2, RoundingMode.HALF_UP);
-        }
-        Integer pct = promo.getSalePercentage();
-        if (basePrice != null && pct != null) {
-            BigDecimal pctLeft = BigDecimal.valueOf(100 - pct);
-            return basePrice.multiply(pctLeft)
-                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-        }
-        return basePrice; // percentage without basePrice → fall back to base
+        LocalDate today = LocalDate.now();
+        LocalDate shoppingStart = (from != null && from.isAfter(today)) ? from : today;
+        LocalDate lastDay = demand.stream()
+                .map(ShoppingDemandRowDTO::date)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .filter(d -> d.isAfter(shoppingStart))
+                .orElse(shoppingStart);
+
+        Map<Long, List<ShoppingDemandRowDTO>> demandPerItem = demand.stream()
+                .collect(Collectors.groupingBy(ShoppingDemandRowDTO::foodItemId, LinkedHashMap::new, Collectors.toList()));
+
+        Map<Long, PromotedFoodItem> promotions = promotedFoodItemRepository
+                .findOverlapping(demandPerItem.keySet(), shoppingStart.atStartOfDay(), lastDay.plusDays(1).atStartOfDay())
+                .stream()
+                .collect(Collectors.toMap(p -> p.getFoodItem().getId(), p -> p, (a, b) -> a));
+
+        log.info("Planning shopping list for {} diet plans, {} food items, user ID: {}", ids.size(), demandPerItem.size(), userId);
+        return demandPerItem.entrySet().stream()
+                .map(e -> ShoppingCartCalculator.planPurchases(e.getValue(), promotions.get(e.getKey()), shoppingStart))
+                .toList();
     }
 
     @Override
@@ -538,6 +650,46 @@ public class UserDietPlanService implements IUserDietPlanService {
             String sortBy,
             String sortOrder,
             Pageable pageable
+    ) {
+        Specification<DietPlan> spec = buildFilteredSpec(requiredDiets, excludedDiets, userId, mode, dietFilter, goal,
+                minCalories, maxCalories, minProtein, maxProtein, minCarbs, maxCarbs, minFat, maxFat);
+        return dietPlanRepository.findAll(spec, filteredSortedPageable(sortBy, sortOrder, pageable))
+                .map(dietPlanMapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<DietPlanCardDTO> getFilteredDietPlanCards(
+            List<String> requiredDiets,
+            List<String> excludedDiets,
+            Long userId,
+            String mode,
+            Diet dietFilter,
+            Goal goal,
+            Double minCalories,      Double maxCalories,
+            Double minProtein,       Double maxProtein,
+            Double minCarbs,         Double maxCarbs,
+            Double minFat,           Double maxFat,
+            String sortBy,
+            String sortOrder,
+            Pageable pageable
+    ) {
+        Specification<DietPlan> spec = buildFilteredSpec(requiredDiets, excludedDiets, userId, mode, dietFilter, goal,
+                minCalories, maxCalories, minProtein, maxProtein, minCarbs, maxCarbs, minFat, maxFat);
+        return dietPlanRepository.findCards(spec, filteredSortedPageable(sortBy, sortOrder, pageable));
+    }
+
+    private Specification<DietPlan> buildFilteredSpec(
+            List<String> requiredDiets,
+            List<String> excludedDiets,
+            Long userId,
+            String mode,
+            Diet dietFilter,
+            Goal goal,
+            Double minCalories,      Double maxCalories,
+            Double minProtein,       Double maxProtein,
+            Double minCarbs,         Double maxCarbs,
+            Double minFat,           Double maxFat
     ) {
         Specification<DietPlan> spec = switch (mode.toLowerCase()) {
             case "created" -> DietPlanSpecification.createdBy(userId);
@@ -595,7 +747,10 @@ public class UserDietPlanService implements IUserDietPlanService {
             spec = spec.and((root, query, cb) -> cb.le(root.get("avgFat"), maxFat));
         }
 
+        return spec;
+    }
 
+    private Pageable filteredSortedPageable(String sortBy, String sortOrder, Pageable pageable) {
         // Zelfde mapping als in public method
         Map<String, String> sortFieldMap = Map.ofEntries(
                 Map.entry("avgProtein", "avgProtein"),
@@ -609,7 +764,6 @@ public class UserDietPlanService implements IUserDietPlanService {
                 Map.entry("name", "name")
         );
 
-
         String mappedSortBy = sortFieldMap.getOrDefault(
                 (sortBy == null || sortBy.isBlank()) ? "createdAt" : sortBy,
                 "createdAt"
@@ -622,15 +776,11 @@ public class UserDietPlanService implements IUserDietPlanService {
             direction = Sort.Direction.DESC;
         }
 
-        Pageable sortedPageable = PageRequest.of(
+        return PageRequest.of(
                 pageable.getPageNumber(),
                 pageable.getPageSize(),
                 Sort.by(direction, mappedSortBy)
         );
-
-
-        return dietPlanRepository.findAll(spec, sortedPageable)
-                .map(dietPlanMapper::toDTO);
     }
 
     @Override
@@ -639,8 +789,15 @@ public class UserDietPlanService implements IUserDietPlanService {
         DietPlan dietPlan = getOwnedDietPlanOrThrow(userId, dietPlanId);
         DietDay targetDay = getDietDayOrThrow(dietPlan, dayIndex);
 
-        dietPlan.getDietDays().remove(targetDay);
-        recalculatePlanNutrients(dietPlan);
+        if (canUpdateIncrementally(dietPlan, targetDay)) {
+            addDayContribution(dietPlan, targetDay, -1);
+            dietPlan.getDietDays().remove(targetDay);
+            applyDerivedPlanValues(dietPlan);
+        } else {
+            dietPlan.getDietDays().remove(targetDay);
+            recalculatePlanNutrients(dietPlan);
+        }
+        dietPlan.renumberDays();
 
         DietPlan saved = dietPlanRepository.save(dietPlan);
         return dietPlanMapper.toDTO(saved);
@@ -690,8 +847,8 @@ public class UserDietPlanService implements IUserDietPlanService {
                 savedDietPlanRepository.findTopByDietPlanOrderByTimestampDesc(original)
                         .ifPresent(savedDietPlanRepository::delete);
                 long totalSaves = savedDietPlanRepository.countByDietPlan(original);
-                original.setSaveCount(totalSaves);
-                dietPlanRepository.save(original);
+                dietPlanRepository.updateSaveCount(original.getId(), totalSaves);
+                publicDietPlanCardListener.refreshAfterCommit(original.getId());
 
             }
 
@@ -723,13 +880,73 @@ public class UserDietPlanService implements IUserDietPlanService {
         log.info("Recalculated nutritional flags for all diet plans");
     }
 
+    /**
+     * Full recomputation of the plan aggregates from its days. Also (re)initializes the flag
+     * counters, after which single-day changes can be applied incrementally.
+     */
     private void recalculatePlanNutrients(DietPlan dietPlan) {
-        List<DietDay> days = dietPlan.getDietDays();
-        if (days == null || days.isEmpty()) {
-            dietPlan.setTotalCalories(0.0); dietPlan.setTotalProtein(0.0);
-            dietPlan.setTotalCarbs(0.0);    dietPlan.setTotalFat(0.0);
-            dietPlan.setTotalSaturatedFat(0.0); dietPlan.setTotalUnsaturatedFat(0.0);
-            dietPlan.setTotalSugars(0.0);   dietPlan.setTotalFiber(0.0);   dietPlan.setTotalSodium(0.0);
+        resetPlanTotals(dietPlan);
+        dietPlan.setMealFlagCounts(new MealFlagCounts());
+        if (dietPlan.getDietDays() != null) {
+            for (DietDay day : dietPlan.getDietDays()) {
+                day.updateFlagCounts();
+                addDayContribution(dietPlan, day, 1);
+            }
+        }
+        applyDerivedPlanValues(dietPlan);
+    }
+
+    /**
+     * Applies a change to a single day: subtracts the old day contribution from the plan,
+     * runs the change, recomputes the day and adds its new contribution. Other days are not visited.
+     */
+    private void updateDayAndPlan(DietPlan dietPlan, DietDay day, Runnable change) {
+        if (!canUpdateIncrementally(dietPlan, day)) {
+            change.run();
+            day.updateNutrients();
+            recalculatePlanNutrients(dietPlan);
+            return;
+        }
+        addDayContribution(dietPlan, day, -1);
+        change.run();
+        day.updateNutrients();
+        addDayContribution(dietPlan, day, 1);
+        applyDerivedPlanValues(dietPlan);
+    }
+
+    private boolean canUpdateIncrementally(DietPlan dietPlan) {
+        return dietPlan.getMealFlagCounts() != null && dietPlan.getMealFlagCounts().isInitialized();
+    }
+
+    private boolean canUpdateIncrementally(DietPlan dietPlan, DietDay day) {
+        return canUpdateIncrementally(dietPlan)
+                && day.getMealFlagCounts() != null && day.getMealFlagCounts().isInitialized();
+    }
+
+    /** Adds ({@code sign = 1}) or subtracts ({@code sign = -1}) the stored totals and flag counters of one day. */
+    private void addDayContribution(DietPlan p, DietDay d, int sign) {
+        p.setTotalCalories(nz(p.getTotalCalories()) + sign * nz(d.getTotalCalories()));
+        p.setTotalProtein(nz(p.getTotalProtein()) + sign * nz(d.getTotalProtein()));
+        p.setTotalCarbs(nz(p.getTotalCarbs()) + sign * nz(d.getTotalCarbs()));
+        p.setTotalFat(nz(p.getTotalFat()) + sign * nz(d.getTotalFat()));
+        p.setTotalSaturatedFat(nz(p.getTotalSaturatedFat()) + sign * nz(d.getTotalSaturatedFat()));
+        p.setTotalUnsaturatedFat(nz(p.getTotalUnsaturatedFat()) + sign * nz(d.getTotalUnsaturatedFat()));
+        p.setTotalSugars(nz(p.getTotalSugars()) + sign * nz(d.getTotalSugars()));
+        p.setTotalFiber(nz(p.getTotalFiber()) + sign * nz(d.getTotalFiber()));
+        p.setTotalSodium(nz(p.getTotalSodium()) + sign * nz(d.getTotalSodium()));
+
+        if (p.getMealFlagCounts() == null) {
+            p.setMealFlagCounts(new MealFlagCounts());
+        }
+        p.getMealFlagCounts().add(d.getMealFlagCounts(), sign);
+    }
+
+    /** Averages, goal and flags follow from the totals, the day count and the flag counters in O(1). */
+    private void applyDerivedPlanValues(DietPlan dietPlan) {
+        int n = dietPlan.getDietDays() != null ? dietPlan.getDietDays().size() : 0;
+        if (n == 0) {
+            resetPlanTotals(dietPlan);
+            dietPlan.setMealFlagCounts(new MealFlagCounts());
             dietPlan.setAvgCalories(0.0);   dietPlan.setAvgProtein(0.0);
             dietPlan.setAvgCarbs(0.0);      dietPlan.setAvgFat(0.0);
             dietPlan.setAvgSaturatedFat(0.0); dietPlan.setAvgUnsaturatedFat(0.0);
@@ -740,45 +957,42 @@ public class UserDietPlanService implements IUserDietPlanService {
             dietPlan.setFlagLowUnhealthyFats(null);
             return;
         }
-        double totCal = 0, totPro = 0, totCarb = 0, totFat = 0, totSat = 0, totUnsat = 0, totSug = 0, totFiber = 0, totSodium = 0;
-        for (DietDay d : days) {
-            totCal    += d.getTotalCalories();
-            totPro    += d.getTotalProtein();
-            totCarb   += d.getTotalCarbs();
-            totFat    += d.getTotalFat();
-            totSat    += d.getTotalSaturatedFat();
-            totUnsat  += d.getTotalUnsaturatedFat();
-            totSug    += d.getTotalSugars();
-            totFiber  += d.getTotalFiber()  != null ? d.getTotalFiber()  : 0.0;
-            totSodium += d.getTotalSodium() != null ? d.getTotalSodium() : 0.0;
-        }
-        int n = days.size();
-        dietPlan.setTotalCalories(totCal);  dietPlan.setTotalProtein(totPro);
-        dietPlan.setTotalCarbs(totCarb);    dietPlan.setTotalFat(totFat);
-        dietPlan.setTotalSaturatedFat(totSat); dietPlan.setTotalUnsaturatedFat(totUnsat);
-        dietPlan.setTotalSugars(totSug);    dietPlan.setTotalFiber(totFiber);    dietPlan.setTotalSodium(totSodium);
-        dietPlan.setAvgCalories(round1(totCal / n));  dietPlan.setAvgProtein(round1(totPro / n));
+        double totPro = dietPlan.getTotalProtein(), totCarb = dietPlan.getTotalCarbs(), totFat = dietPlan.getTotalFat();
+        dietPlan.setAvgCalories(round1(dietPlan.getTotalCalories() / n));  dietPlan.setAvgProtein(round1(totPro / n));
         dietPlan.setAvgCarbs(round1(totCarb / n));    dietPlan.setAvgFat(round1(totFat / n));
-        dietPlan.setAvgSaturatedFat(round1(totSat / n)); dietPlan.setAvgUnsaturatedFat(round1(totUnsat / n));
-        dietPlan.setAvgSugars(round1(totSug / n));    dietPlan.setAvgFiber(round1(totFiber / n));    dietPlan.setAvgSodium(round1(totSodium / n));
+        dietPlan.setAvgSaturatedFat(round1(dietPlan.getTotalSaturatedFat() / n)); dietPlan.setAvgUnsaturatedFat(round1(dietPlan.getTotalUnsaturatedFat() / n));
+        dietPlan.setAvgSugars(round1(dietPlan.getTotalSugars() / n));    dietPlan.setAvgFiber(round1(dietPlan.getTotalFiber() / n));    dietPlan.setAvgSodium(round1(dietPlan.getTotalSodium() / n));
         dietPlan.setGoal(detectGoal(totPro / n, totCarb / n, totFat / n));
 
-        List<balancebite.model.meal.Meal> allMeals = days.stream()
-                .flatMap(d -> d.getMeals().stream())
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        MealFlagCounts counts = dietPlan.getMealFlagCounts();
+        dietPlan.setFlagHighFiber(counts.aggregateHighFiber());
+        dietPlan.setFlagLowSugar(counts.aggregateLowSugar());
+        dietPlan.setFlagLowUnhealthyFats(counts.aggregateLowUnhealthyFats());
+    }
+
+    private void resetPlanTotals(DietPlan dietPlan) {
+        dietPlan.setTotalCalories(0.0); dietPlan.setTotalProtein(0.0);
+        dietPlan.setTotalCarbs(0.0);    dietPlan.setTotalFat(0.0);
+        dietPlan.setTotalSaturatedFat(0.0); dietPlan.setTotalUnsaturatedFat(0.0);
+        dietPlan.setTotalSugars(0.0);   dietPlan.setTotalFiber(0.0);   dietPlan.setTotalSodium(0.0);
+    }
 
-        dietPlan.setFlagHighFiber(aggregateFlag(allMeals, balancebite.model.meal.Meal::getFlagHighFiber));
-        dietPlan.setFlagLowSugar(aggregateFlag(allMeals, balancebite.model.meal.Meal::getFlagLowSugar));
-        dietPlan.setFlagLowUnhealthyFats(aggregateFlag(allMeals, balancebite.model.meal.Meal::getFlagLowUnhealthyFats));
+    /**
+     * Compares on meal IDs: {@code day.getMeals()} is a PersistentBag, whose equals is identity.
+     */
+    private boolean isUnchanged(DietDay day, DietDayInputDTO input, List<Meal> meals, Set<Diet> diets, int index) {
+        String label = (input.getDayLabel() != null && !input.getDayLabel().isBlank())
+                ? input.getDayLabel()
+                : "Day " + (index + 1);
+        return Objects.equals(day.getDayLabel(), label)
+                && Objects.equals(day.getDate(), input.getDate())
+                && Objects.equals(day.getDietDayDescription(), input.getDietDayDescription())
+                && Objects.equals(day.getDiets(), diets)
+                && DietDayMapper.sameMeals(day.getMeals(), meals);
     }
 
-    private Boolean aggregateFlag(List<balancebite.model.meal.Meal> meals,
-                                  java.util.function.Function<balancebite.model.meal.Meal, Boolean> flagGetter) {
-        if (meals.isEmpty()) return null;
-        if (meals.stream().anyMatch(m -> flagGetter.apply(m) == null)) return null;
-        if (meals.stream().allMatch(m -> Boolean.TRUE.equals(flagGetter.apply(m)))) return true;
-        return false;
+    private static double nz(Double value) {
+        return value != null ? value : 0.0;
     }
 
     private DietPlan getOwnedDietPlanOrThrow(Long userId, Long dietPlanId) {
@@ -794,6 +1008,27 @@ public class UserDietPlanService implements IUserDietPlanService {
         return dietPlan;
     }
 
+    private Meal findMealInDay(DietDay day, Long mealId, int dayIndex) {
+        return day.getMeals().stream()
+                .filter(meal -> meal.getId().equals(mealId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Meal " + mealId + " is not part of day " + dayIndex + "."));
+    }
+
+    private static Long requireMealId(DietDayPatchOperationDTO op) {
+        if (op.getMealId() == null) {
+            throw new IllegalArgumentException(op.getOp() + " requires a mealId.");
+        }
+        return op.getMealId();
+    }
+
+    private static int requireToDayIndex(DietDayPatchOperationDTO op) {
+        if (op.getToDayIndex() == null) {
+            throw new IllegalArgumentException(op.getOp() + " requires a toDayIndex.");
+        }
+        return op.getToDayIndex();
+    }
+
     private DietDay getDietDayOrThrow(DietPlan dietPlan, int index) {
         List<DietDay> days = dietPlan.getDietDays();
         if (index < 0 || index >= days.size()) {
@@ -859,4 +1094,11 @@ public class UserDietPlanService implements IUserDietPlanService {
         return best;
     }
 
+    private List<Long> allMealIds(DietPlanInputDTO input) {
+        return input.getDietDays().stream()
+                .filter(day -> day.getMealIds() != null)
+                .flatMap(day -> day.getMealIds().stream())
+                .distinct()
+                .toList();
+    }
 }
@@ -337,11 +337,13 @@ public class UserDietitianService implements IDietitianService {
         }
 
         List<DietDay> dietDays = new ArrayList<>();
+        Map<Long, Meal> dietitianMeals = mealAssignmentUtil.getOrAddMealsToUser(dietitianId,
+                input.getDietDays().stream().flatMap(day -> day.getMealIds().stream()).distinct().toList());
 
         for (int i = 0; i < input.getDietDays().size(); i++) {
             DietDayInputDTO dayInput = input.getDietDays().get(i);
             List<Meal> meals = dayInput.getMealIds().stream()
-                    .map(id -> mealAssignmentUtil.getOrAddMealToUser(dietitianId, id))
+                    .map(dietitianMeals::get)
                     .collect(Collectors.toList());
 
             long validCount = meals.stream().filter(Objects::nonNull).count();
@@ -253,42 +253,7 @@ public class UserMealService implements IUserMealService {
         }
 
         // Step 4: Create a new copy of the meal
-        Meal copy = new Meal();
-        copy.setName(originalMeal.getName());
-        copy.setMealDescription(originalMeal.getMealDescription());
-        for (MealImage img : originalMeal.getImages()) {
-            MealImage newImg = new MealImage(copy, img.getImageUrl(), img.getPublicId());
-            newImg.setOrderIndex(img.getOrderIndex());
-            newImg.setPrimary(img.isPrimary());
-            copy.addImage(newImg);
-        }
-
-        copy.setPreparationTime(originalMeal.getPreparationTime());
-        copy.setCuisines(new HashSet<>(originalMeal.getCuisines()));
-        copy.setDiets(new HashSet<>(originalMeal.getDiets()));
-        copy.setMealTypes(new HashSet<>(originalMeal.getMealTypes()));
-        copy.setOriginalMealId(mealId);
-        copy.setIsTemplate(false);
-        copy.setCreatedBy(originalMeal.getCreatedBy());
-        copy.setAdjustedBy(user);
-        copy.setVersion(LocalDateTime.now());
-        copy.setServings(originalMeal.getServings());
-        copy.setMealPreparation(originalMeal.getMealPreparation());
-        copy.setVideoUrl(originalMeal.getVideoUrl());
-        copy.setSourceUrl(originalMeal.getSourceUrl());
-        copy.setPreparationVideoUrl(originalMeal.getPreparationVideoUrl());
-        copy.setFoodSource(originalMeal.getFoodSource());
-
-        // Copy ingredients
-        for (MealIngredient ing : originalMeal.getMealIngredients()) {
-            MealIngredient newIng = new MealIngredient();
-            newIng.setFoodItem(ing.getFoodItem());
-            newIng.setQuantity(ing.getQuantity());
-            copy.addMealIngredient(newIng);
-        }
-
-        // Update nutrient totals for the new meal
-        copy.updateNutrients();
+        Meal copy = buildUserCopy(originalMeal, user);
 
         // Save new meal and link to user
         mealRepository.save(copy);
@@ -310,6 +275,62 @@ public class UserMealService implements IUserMealService {
         return userMapper.toDTO(user);
     }
 
+    @Override
+    @Transactional
+    public Map<Long, Meal> addMealsToUser(Long userId, Collection<Long> mealIds) {
+        Map<Long, Meal> result = new HashMap<>();
+        Set<Long> ids = new LinkedHashSet<>(mealIds);
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
+        Map<Long, Meal> originals = mealRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Meal::getId, m -> m));
+
+        List<Meal> copies = new ArrayList<>();
+        List<SavedMeal> saveRecords = new ArrayList<>();
+        for (Long mealId : ids) {
+            Meal original = originals.get(mealId);
+            if (original == null) {
+                throw new MealNotFoundException("Meal not found with ID: " + mealId);
+            }
+
+            // The creator gets the meal itself back in the list, no copy and no save registered
+            if (original.getCreatedBy() != null && original.getCreatedBy().getId().equals(userId)) {
+                result.put(mealId, original);
+                continue;
+            }
+            if (original.isRestricted()) {
+                throw new AccessDeniedException("You cannot add a restricted meal.");
+            }
+
+            Meal copy = buildUserCopy(original, user);
+            copies.add(copy);
+            result.put(mealId, copy);
+
+            SavedMeal record = new SavedMeal();
+            record.setMeal(original);
+            saveRecords.add(record);
+        }
+
+        mealRepository.saveAll(copies);
+        user.getMeals().addAll(result.values());
+        userRepository.save(user);
+
+        if (!saveRecords.isEmpty()) {
+            savedMealRepository.saveAll(saveRecords);
+            Set<Long> copiedIds = saveRecords.stream().map(r -> r.getMeal().getId()).collect(Collectors.toSet());
+            for (Object[] row : savedMealRepository.countByMealIds(copiedIds)) {
+                originals.get((Long) row[0]).setSaveCount((Long) row[1]);
+            }
+        }
+
+        log.info("Added {} meals to user {} ({} copied).", result.size(), userId, copies.size());
+        return result;
+    }
+
     @Override
     @Transactional
     public MealDTO updateUserMeal(Long userId, Long mealId, MealInputDTO mealInputDTO) {
@@ -536,6 +557,8 @@ public class UserMealService implements IUserMealService {
             Double maxCarbs,
             Double minFat,
             Double maxFat,
+            Double minPrice,
+            Double maxPrice,
             String foodSource,
             String name,
             Goal goal,
@@ -624,6 +647,14 @@ public class UserMealService implements IUserMealService {
             spec = spec.and(MealSpecifications.totalFatMax(maxFat));
         }
 
+        if (minPrice != null) {
+            spec = spec.and(MealSpecifications.pricePerServingMin(minPrice));
+        }
+
+        if (maxPrice != null) {
+            spec = spec.and(MealSpecifications.pricePerServingMax(maxPrice));
+        }
+
         if (foodSource != null) {
             try {
                 FoodSource fs = FoodSource.valueOf(foodSource.toUpperCase());
@@ -668,7 +699,9 @@ public class UserMealService implements IUserMealService {
             Double minCarbs,
             Double maxCarbs,
             Double minFat,
-            Double maxFat
+            Double maxFat,
+            Double minPrice,
+            Double maxPrice
     ) {
         Sort sort = isMacroSort(sortBy)
                 ? Sort.unsorted()
@@ -718,6 +751,8 @@ public class UserMealService implements IUserMealService {
         if (maxCarbs    != null) { spec = spec.and(MealSpecifications.totalCarbsMax(maxCarbs)); }
         if (minFat      != null) { spec = spec.and(MealSpecifications.totalFatMin(minFat)); }
         if (maxFat      != null) { spec = spec.and(MealSpecifications.totalFatMax(maxFat)); }
+        if (minPrice    != null) { spec = spec.and(MealSpecifications.pricePerServingMin(minPrice)); }
+        if (maxPrice    != null) { spec = spec.and(MealSpecifications.pricePerServingMax(maxPrice)); }
 
         spec = spec.and(MealSpecifications.withMacroSorting(sortBy, sortOrder));
 
@@ -945,9 +980,52 @@ public class UserMealService implements IUserMealService {
         if (sortBy == null) return false;
 
         return switch (sortBy.toLowerCase()) {
-            case "calories", "protein", "carbs", "fat" -> true;
+            case "calories", "protein", "carbs", "fat", "price", "priceperserving" -> true;
             default -> false;
         };
     }
 
+    /**
+     * Builds an unsaved user copy of a meal: same content, ingredients and images,
+     * not a template, created by the original creator and adjusted by the given user.
+     */
+    private Meal buildUserCopy(Meal originalMeal, User user) {
+        Meal copy = new Meal();
+        copy.setName(originalMeal.getName());
+        copy.setMealDescription(originalMeal.getMealDescription());
+        for (MealImage img : originalMeal.getImages()) {
+            MealImage newImg = new MealImage(copy, img.getImageUrl(), img.getPublicId());
+            newImg.setOrderIndex(img.getOrderIndex());
+            newImg.setPrimary(img.isPrimary());
+            copy.addImage(newImg);
+        }
+
+        copy.setPreparationTime(originalMeal.getPreparationTime());
+        copy.setCuisines(new HashSet<>(originalMeal.getCuisines()));
+        copy.setDiets(new HashSet<>(originalMeal.getDiets()));
+        copy.setMealTypes(new HashSet<>(originalMeal.getMealTypes()));
+        copy.setOriginalMealId(originalMeal.getId());
+        copy.setIsTemplate(false);
+        copy.setCreatedBy(originalMeal.getCreatedBy());
+        copy.setAdjustedBy(user);
+        copy.setVersion(LocalDateTime.now());
+        copy.setServings(originalMeal.getServings());
+        copy.setMealPreparation(originalMeal.getMealPreparation());
+        copy.setVideoUrl(originalMeal.getVideoUrl());
+        copy.setSourceUrl(originalMeal.getSourceUrl());
+        copy.setPreparationVideoUrl(originalMeal.getPreparationVideoUrl());
+        copy.setFoodSource(originalMeal.getFoodSource());
+
+        // Copy ingredients
+        for (MealIngredient ing : originalMeal.getMealIngredients()) {
+            MealIngredient newIng = new MealIngredient();
+            newIng.setFoodItem(ing.getFoodItem());
+            newIng.setQuantity(ing.getQuantity());
+            copy.addMealIngredient(newIng);
+        }
+
+        // Update nutrient totals for the new meal
+        copy.updateNutrients();
+        return copy;
+    }
 }
@@ -8,9 +8,14 @@ import balancebite.model.meal.references.Diet;
 import balancebite.model.meal.references.MealType;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
 import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
 import java.util.List;
 
 public class MealSpecifications {
@@ -147,6 +152,24 @@ public class MealSpecifications {
                 cb.lessThanOrEqualTo(perServing(root.get("totalFat"), root, cb), max);
     }
 
+    /**
+     * Meals whose persisted price per serving is at least {@code min}; meals without a known price never match.
+     */
+    public static Specification<Meal> pricePerServingMin(Double min) {
+        return (root, query, cb) ->
+                cb.greaterThanOrEqualTo(root.<BigDecimal>get("pricePerServing"), BigDecimal.valueOf(min));
+    }
+
+    /**
+     * Meals whose persisted price per serving is at most {@code max}. Meals with unknown ingredient prices are
+     * excluded: their persisted price only covers the known ingredients, so it understates the real cost.
+     */
+    public static Specification<Meal> pricePerServingMax(Double max) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.<BigDecimal>get("pricePerServing"), BigDecimal.valueOf(max)),
+                cb.isFalse(root.get("hasUnknownPrices")));
+    }
+
     private static Expression<Double> perServing(Expression<Double> total, Root<Meal> root, CriteriaBuilder cb) {
         Expression<Number> servings = cb.<Number>selectCase()
                 .when(cb.or(
@@ -191,12 +214,19 @@ public class MealSpecifications {
                 case "protein" -> value = cb.quot(root.get("totalProtein"), servings);
                 case "carbs" -> value = cb.quot(root.get("totalCarbs"), servings);
                 case "fat" -> value = cb.quot(root.get("totalFat"), servings);
+                case "price" -> value = root.get("price");
+                case "priceperserving" -> value = root.get("pricePerServing");
                 default -> {
                     return cb.conjunction();
                 }
             }
 
-            query.orderBy(desc ? cb.desc(value) : cb.asc(value));
+            Order order = desc ? cb.desc(value) : cb.asc(value);
+            if (order instanceof JpaOrder jpaOrder) {
+                // Maaltijden zonder bekende prijs altijd achteraan, ook bij aflopend sorteren
+                order = jpaOrder.nullPrecedence(NullPrecedence.LAST);
+            }
+            query.orderBy(order);
 
             return cb.conjunction();
         };
@@ -0,0 +1,73 @@
+package balancebite.specification;
+
+import balancebite.model.diet.PublicDietPlanCard;
+import balancebite.model.meal.references.Diet;
+import balancebite.model.user.userenums.Goal;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Filters on the {@link PublicDietPlanCard} read model. Diet filters are bitwise tests on the diet mask.
+ */
+public class PublicDietPlanCardSpecification {
+
+    public static Specification<PublicDietPlanCard> createdBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("createdByUserId"), userId);
+    }
+
+    public static Specification<PublicDietPlanCard> nameContains(String name) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
+    }
+
+    public static Specification<PublicDietPlanCard> hasGoal(Goal goal) {
+        return (root, query, cb) -> cb.equal(root.get("goal"), goal);
+    }
+
+    /** The given boolean flag attribute is set, e.g. {@code "flagHighFiber"}. */
+    public static Specification<PublicDietPlanCard> flag(String flag) {
+        return (root, query, cb) -> cb.isTrue(root.get(flag));
+    }
+
+    /** The plan has all of the given diets. */
+    public static Specification<PublicDietPlanCard> hasAllDiets(Collection<Diet> diets) {
+        int mask = mask(diets);
+        return (root, query, cb) -> cb.equal(dietBits(root, cb, mask), mask);
+    }
+
+    /** The plan has none of the given diets. */
+    public static Specification<PublicDietPlanCard> hasNoneOfDiets(Collection<Diet> diets) {
+        int mask = mask(diets);
+        return (root, query, cb) -> cb.equal(dietBits(root, cb, mask), 0);
+    }
+
+    /** The plan has at least one of the given diets. */
+    public static Specification<PublicDietPlanCard> hasAnyDiet(Collection<Diet> diets) {
+        int mask = mask(diets);
+        return (root, query, cb) -> cb.notEqual(dietBits(root, cb, mask), 0);
+    }
+
+    /** Range on a nullable average attribute, e.g. {@code "avgCalories"}; either bound may be null. */
+    public static Specification<PublicDietPlanCard> between(String average, Double min, Double max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) return cb.between(root.<Double>get(average), min, max);
+            if (min != null) return cb.ge(root.<Double>get(average), min);
+            return cb.le(root.<Double>get(average), max);
+        };
+    }
+
+    public static int mask(Collection<Diet> diets) {
+        int mask = 0;
+        for (Diet diet : diets) {
+            mask |= 1 << diet.ordinal();
+        }
+        return mask;
+    }
+
+    private static Expression<Integer> dietBits(Root<PublicDietPlanCard> root, CriteriaBuilder cb, int mask) {
+        return cb.function("bitand", Integer.class, root.<Integer>get("dietMask"), cb.literal(mask));
+    }
+}
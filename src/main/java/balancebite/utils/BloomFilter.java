@@ -0,0 +1,69 @@
+package balancebite.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter for {@code long} keys.
+ *
+ * {@link #mightContain(long)} never returns false for an added key; for other keys it returns true with
+ * roughly the configured false-positive rate, as long as no more than the expected number of keys is added.
+ * Uses double hashing over a 64-bit mix of the key, so adding and checking cost {@code hashes} bit operations.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    /**
+     * @param expectedKeys      Number of keys the filter is sized for.
+     * @param falsePositiveRate Target false-positive rate, between 0 and 1.
+     */
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected keys must be positive and the rate between 0 and 1.");
+        }
+        double ln2 = Math.log(2);
+        long size = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.words = new AtomicLongArray((int) Math.max(1, (size + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedKeys * ln2));
+    }
+
+    public void add(long key) {
+        long hash = mix(key);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) break;
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** SplitMix64 finalizer: spreads sequential keys such as FDC IDs over all bits. */
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
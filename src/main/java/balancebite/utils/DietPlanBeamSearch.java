@@ -0,0 +1,208 @@
+package balancebite.utils;
+
+import java.util.*;
+
+/**
+ * Beam search that fills diet days with meals so that each day's macros come as close as possible
+ * to a daily target.
+ *
+ * Meals are given as a flat array of per-serving macro vectors. Days are filled one after another;
+ * within a day every slot keeps only the best {@code beamWidth} partial days, scored against the
+ * matching fraction of the target. The search is bounded by
+ * {@code days * mealsPerDay * beamWidth * candidates} score evaluations, independent of the data.
+ *
+ * Variety constraints: a meal appears at most once per day, never on two consecutive days,
+ * and at most {@code maxUsesPerMeal} times in the whole plan.
+ *
+ * With a budget, meal costs are part of the score: spending above the day's share of the remaining
+ * budget is penalized, and money left over carries to the next days. With a time limit, the search
+ * falls back to a beam width of 1 (greedy) once the limit is reached, so the runtime stays bounded
+ * by roughly the limit plus {@code mealsPerDay * candidates} evaluations per remaining day.
+ */
+public final class DietPlanBeamSearch {
+
+    /** Relative weight of each macro dimension in the score (kcal, protein, carbs, fat). */
+    private static final double[] WEIGHTS = {2.0, 1.0, 1.0, 1.0};
+
+    /** Weight of the relative budget overrun; high, so that going over budget is a last resort. */
+    private static final double BUDGET_WEIGHT = 10.0;
+
+    private DietPlanBeamSearch() {}
+
+    /**
+     * @param budget         Total budget for the plan; 0 or less means no budget.
+     * @param timeLimitNanos Soft runtime limit; 0 or less means no limit.
+     */
+    public record Params(int days, int mealsPerDay, int maxUsesPerMeal, int beamWidth,
+                         double budget, long timeLimitNanos) {
+
+        public Params(int days, int mealsPerDay, int maxUsesPerMeal, int beamWidth) {
+            this(days, mealsPerDay, maxUsesPerMeal, beamWidth, 0, 0);
+        }
+    }
+
+    /**
+     * @param mealIndices  Chosen catalog indices per day.
+     * @param dayScores    Score per day: weighted squared relative macro deviation plus budget penalty (0 = on target).
+     * @param totalCost    Summed cost of the chosen meals; NaN when no costs were given.
+     * @param elapsedNanos Solver runtime.
+     * @param timeLimited  Whether the time limit was reached and the search continued greedily.
+     */
+    public record Result(int[][] mealIndices, double[] dayScores, double totalCost,
+                         long elapsedNanos, boolean timeLimited) {}
+
+    private record State(int[] picks, double[] sum, double cost, double score) {}
+
+    public static Result search(double[] macros, int[] candidates, double[] target, Params params) {
+        return search(macros, null, candidates, target, params);
+    }
+
+    /**
+     * @param macros     Per-serving macros, {@code target.length} values per catalog index.
+     * @param costs      Cost per serving per catalog index; required when {@code params.budget() > 0}.
+     * @param candidates Catalog indices the solver may choose from.
+     * @param target     Daily target per macro dimension; dimensions with a target of 0 are ignored.
+     * @throws IllegalArgumentException when the constraints leave too few meals to fill a day.
+     */
+    public static Result search(double[] macros, double[] costs, int[] candidates, double[] target, Params params) {
+        long start = System.nanoTime();
+        long deadline = params.timeLimitNanos() > 0 ? start + params.timeLimitNanos() : Long.MAX_VALUE;
+        int dims = target.length;
+        int c = candidates.length;
+        boolean budgeted = params.budget() > 0;
+        if (budgeted && costs == null) {
+            throw new IllegalArgumentException("Costs are required when a budget is given.");
+        }
+
+        double[] candidateCosts = new double[c];
+        for (int i = 0; i < c; i++) {
+            candidateCosts[i] = costs != null ? costs[candidates[i]] : 0.0;
+        }
+
+        // Macro vectors relative to the target, contiguous per candidate
+        double[] scaled = new double[c * dims];
+        double[] weights = new double[dims];
+        for (int k = 0; k < dims; k++) {
+            weights[k] = target[k] > 0 ? (k < WEIGHTS.length ? WEIGHTS[k] : 1.0) : 0.0;
+        }
+        for (int i = 0; i < c; i++) {
+            for (int k = 0; k < dims; k++) {
+                scaled[i * dims + k] = target[k] > 0 ? macros[candidates[i] * dims + k] / target[k] : 0.0;
+            }
+        }
+
+        int[] uses = new int[c];
+        boolean[] blocked = new boolean[c];
+        int[][] plan = new int[params.days()][];
+        double[] dayScores = new double[params.days()];
+        double spent = 0.0;
+
+        for (int day = 0; day < params.days(); day++) {
+            // Wat eerder is overgehouden schuift door naar de resterende dagen
+            double dayBudget = budgeted
+                    ? Math.max((params.budget() - spent) / (params.days() - day), 1e-6)
+                    : 0.0;
+            int width = System.nanoTime() > deadline ? 1 : params.beamWidth();
+            State best = bestDay(scaled, weights, dims, candidateCosts, dayBudget, c, uses, blocked,
+                    params, width, deadline);
+            spent += best.cost();
+
+            Arrays.fill(blocked, false);
+            plan[day] = new int[best.picks().length];
+            for (int s = 0; s < best.picks().length; s++) {
+                int pos = best.picks()[s];
+                uses[pos]++;
+                blocked[pos] = true;
+                plan[day][s] = candidates[pos];
+            }
+            dayScores[day] = best.score();
+        }
+
+        long end = System.nanoTime();
+        return new Result(plan, dayScores, costs != null ? spent : Double.NaN, end - start, end > deadline);
+    }
+
+    private static State bestDay(double[] scaled, double[] weights, int dims, double[] costs, double dayBudget,
+                                 int c, int[] uses, boolean[] blocked, Params params, int beamWidth, long deadline) {
+        int slots = params.mealsPerDay();
+        int width = Math.max(1, beamWidth);
+
+        Comparator<State> byScore = Comparator.comparingDouble(State::score);
+        List<State> beam = List.of(new State(new int[0], new double[dims], 0.0, 0.0));
+
+        for (int slot = 0; slot < slots; slot++) {
+            if (width > 1 && System.nanoTime() > deadline) {
+                width = 1;
+                beam = beam.subList(0, 1);
+            }
+            // Ruimer houden dan de bundel: permutaties van dezelfde maaltijden vallen hierna weg
+            int keep = width * 2;
+            double fraction = (slot + 1) / (double) slots;
+            PriorityQueue<State> heap = new PriorityQueue<>(keep + 1, byScore.reversed());
+
+            for (State state : beam) {
+                double[] sum = state.sum();
+                for (int i = 0; i < c; i++) {
+                    if (blocked[i] || uses[i] >= params.maxUsesPerMeal() || contains(state.picks(), i)) continue;
+
+                    double score = 0.0;
+                    int base = i * dims;
+                    for (int k = 0; k < dims; k++) {
+                        double diff = sum[k] + scaled[base + k] - fraction;
+                        score += weights[k] * diff * diff;
+                    }
+                    if (dayBudget > 0) {
+                        double over = (state.cost() + costs[i]) / dayBudget - fraction;
+                        if (over > 0) score += BUDGET_WEIGHT * over * over;
+                    }
+                    if (heap.size() >= keep && score >= heap.peek().score()) continue;
+
+                    heap.offer(extend(state, i, scaled, dims, costs[i], score));
+                    if (heap.size() > keep) {
+                        heap.poll();
+                    }
+                }
+            }
+
+            List<State> next = new ArrayList<>(heap);
+            next.sort(byScore);
+            beam = distinct(next, width);
+            if (beam.isEmpty()) {
+                throw new IllegalArgumentException("Not enough different meals match the criteria to fill "
+                        + slots + " meals per day.");
+            }
+        }
+        return beam.get(0);
+    }
+
+    private static State extend(State state, int pick, double[] scaled, int dims, double cost, double score) {
+        int[] picks = Arrays.copyOf(state.picks(), state.picks().length + 1);
+        picks[picks.length - 1] = pick;
+        double[] sum = state.sum().clone();
+        for (int k = 0; k < dims; k++) {
+            sum[k] += scaled[pick * dims + k];
+        }
+        return new State(picks, sum, state.cost() + cost, score);
+    }
+
+    private static List<State> distinct(List<State> sorted, int limit) {
+        List<State> result = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        for (State state : sorted) {
+            int[] key = state.picks().clone();
+            Arrays.sort(key);
+            if (seen.add(Arrays.toString(key))) {
+                result.add(state);
+                if (result.size() == limit) break;
+            }
+        }
+        return result;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) return true;
+        }
+        return false;
+    }
+}
@@ -18,7 +18,7 @@ public class FoodItemBulkFetchUtil {
     private static final Logger log = LoggerFactory.getLogger(FoodItemBulkFetchUtil.class);
 
     /**
-     * Filters out FDC IDs that already exist in the database.
+     * Filters out FDC IDs that already exist in the database, with one query for the whole list.
      *
      * @param fdcIds List of FDC IDs to filter.
      * @param foodItemRepository The repository to check existing items.
@@ -26,17 +26,23 @@ public class FoodItemBulkFetchUtil {
      * @return A list of new FDC IDs that are not in the database.
      */
     public static List<String> filterExistingFdcIds(List<String> fdcIds, FoodItemRepository foodItemRepository, List<String> skippedItems) {
-        return fdcIds.stream()
-                .map(String::trim)
-                .filter(fdcId -> {
-                    // If the FDC ID already exists, add it to skippedItems and filter it out
-                    if (foodItemRepository.existsByFdcId(Integer.parseInt(fdcId))) {
-                        skippedItems.add(fdcId);
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
+        List<String> trimmed = fdcIds.stream().map(String::trim).collect(Collectors.toList());
+        if (trimmed.isEmpty()) {
+            return trimmed;
+        }
+        Set<Integer> existing = new HashSet<>(foodItemRepository.findExistingFdcIds(
+                trimmed.stream().map(Integer::valueOf).toArray(Integer[]::new)));
+
+        List<String> newFdcIds = new ArrayList<>();
+        for (String fdcId : trimmed) {
+            // If the FDC ID already exists, add it to skippedItems and filter it out
+            if (existing.contains(Integer.parseInt(fdcId))) {
+                skippedItems.add(fdcId);
+            } else {
+                newFdcIds.add(fdcId);
+            }
+        }
+        return newFdcIds;
     }
 
     /**
@@ -63,6 +69,20 @@ public class FoodItemBulkFetchUtil {
                 response.getDescription() == null || response.getDescription().isEmpty();
     }
 
+    /**
+     * Converts a valid USDA API response into a FoodItem that is ready to be saved,
+     * with derived fat values and nutrient flags applied.
+     *
+     * @param response The USDA API response.
+     * @return The unsaved FoodItem.
+     */
+    public static FoodItem toFoodItem(UsdaFoodResponseDTO response) {
+        FoodItem foodItem = balancebite.utils.FoodItemUtil.convertToFoodItem(response);
+        foodItem.applyFatDerivation();
+        foodItem.refreshNutrientFlags();
+        return foodItem;
+    }
+
     /**
      * Processes a valid USDA API response, converts it into a FoodItem, and saves it to the database.
      * Also adds the saved item information to the savedItems list.
@@ -75,10 +95,7 @@ public class FoodItemBulkFetchUtil {
                                               FoodItemRepository foodItemRepository,
                                               List<Map<String, String>> savedItems) {
         // Convert the response to a FoodItem entity and save it
-        FoodItem foodItem = balancebite.utils.FoodItemUtil.convertToFoodItem(response);
-        foodItem.applyFatDerivation();
-        foodItem.refreshNutrientFlags();
-        foodItemRepository.save(foodItem);
+        foodItemRepository.save(toFoodItem(response));
 
         // Convert the response into a saved item map and add it to the list
         Map<String, String> savedItem = convertToSavedItemMap(response);
@@ -0,0 +1,260 @@
+package balancebite.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable k-d tree over points with a {@code long} key, for k-nearest-neighbor queries in Euclidean distance.
+ *
+ * Points are kept in one flat array and ordered in place as an implicit balanced tree: the node of a range is
+ * its middle element, split on the dimension with the widest spread of that range. Ranges of at most
+ * {@value #LEAF_SIZE} points are scanned linearly. Building takes {@code O(n log n)}; a query visits only the
+ * subtrees whose split plane is closer than the current k-th neighbor.
+ *
+ * Several trees can be searched into one {@link Neighbors}, which keeps the best k over all of them.
+ */
+public final class KdTree {
+
+    private static final int LEAF_SIZE = 8;
+
+    private final int dimensions;
+    private final long[] keys;
+    private final double[] coords;
+    private final byte[] splitDims;
+
+    /**
+     * @param keys   Key of every point.
+     * @param points Coordinates of every point, all of the same length; copied.
+     */
+    public KdTree(long[] keys, double[][] points) {
+        if (keys.length != points.length) {
+            throw new IllegalArgumentException("Every point needs exactly one key.");
+        }
+        this.dimensions = points.length == 0 ? 0 : points[0].length;
+        if (dimensions > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("At most " + Byte.MAX_VALUE + " dimensions are supported.");
+        }
+        this.keys = keys.clone();
+        this.coords = new double[points.length * dimensions];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i].length != dimensions) {
+                throw new IllegalArgumentException("All points must have " + dimensions + " dimensions.");
+            }
+            System.arraycopy(points[i], 0, coords, i * dimensions, dimensions);
+        }
+        this.splitDims = new byte[points.length];
+        build(0, points.length);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Offers the nearest accepted points of this tree to {@code neighbors}.
+     *
+     * @param target Query point, with the dimensions of the tree.
+     * @param accept Points whose key it rejects are skipped; they still take part in the traversal.
+     */
+    public void search(double[] target, Neighbors neighbors, LongPredicate accept) {
+        if (keys.length > 0) {
+            search(0, keys.length, target, neighbors, accept);
+        }
+    }
+
+    private void search(int lo, int hi, double[] target, Neighbors neighbors, LongPredicate accept) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) {
+                offer(i, target, neighbors, accept);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int dim = splitDims[mid];
+        double diff = target[dim] - coords[mid * dimensions + dim];
+
+        offer(mid, target, neighbors, accept);
+        if (diff < 0) {
+            search(lo, mid, target, neighbors, accept);
+            if (diff * diff < neighbors.worstDistance()) search(mid + 1, hi, target, neighbors, accept);
+        } else {
+            search(mid + 1, hi, target, neighbors, accept);
+            if (diff * diff < neighbors.worstDistance()) search(lo, mid, target, neighbors, accept);
+        }
+    }
+
+    private void offer(int i, double[] target, Neighbors neighbors, LongPredicate accept) {
+        double distance = 0;
+        int base = i * dimensions;
+        for (int d = 0; d < dimensions; d++) {
+            double delta = target[d] - coords[base + d];
+            distance += delta * delta;
+        }
+        if (distance < neighbors.worstDistance() && accept.test(keys[i])) {
+            neighbors.offer(keys[i], distance);
+        }
+    }
+
+    private void build(int lo, int hi) {
+        if (hi - lo <= LEAF_SIZE) {
+            return;
+        }
+        int dim = widestDimension(lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, dim);
+        splitDims[mid] = (byte) dim;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private int widestDimension(int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int d = 0; d < dimensions; d++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double value = coords[i * dimensions + d];
+                if (value < min) min = value;
+                if (value > max) max = value;
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = d;
+            }
+        }
+        return widest;
+    }
+
+    /** Quickselect: afterwards point {@code k} has rank k on {@code dim} within {@code [lo, hi]}. */
+    private void select(int lo, int hi, int k, int dim) {
+        while (hi > lo) {
+            double pivot = coords[((lo + hi) >>> 1) * dimensions + dim];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coords[i * dimensions + dim] < pivot) i++;
+                while (coords[j * dimensions + dim] > pivot) j--;
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int baseA = a * dimensions;
+        int baseB = b * dimensions;
+        for (int d = 0; d < dimensions; d++) {
+            double value = coords[baseA + d];
+            coords[baseA + d] = coords[baseB + d];
+            coords[baseB + d] = value;
+        }
+    }
+
+    /**
+     * @param key      Key of the point.
+     * @param distance Euclidean distance to the query point.
+     */
+    public record Neighbor(long key, double distance) {}
+
+    /**
+     * The k nearest points offered so far, as a bounded max-heap on squared distance.
+     * A key offered more than once should be offered with the same distance; only its first offer counts.
+     */
+    public static final class Neighbors {
+
+        private final int k;
+        private final long[] keys;
+        private final double[] distances;
+        private int size;
+
+        public Neighbors(int k) {
+            if (k < 1) {
+                throw new IllegalArgumentException("k must be at least 1.");
+            }
+            this.k = k;
+            this.keys = new long[k];
+            this.distances = new double[k];
+        }
+
+        /** @return Squared distance a point must beat to be kept; infinite until k points are kept. */
+        public double worstDistance() {
+            return size < k ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        /** @param squaredDistance Squared Euclidean distance to the query point. */
+        public void offer(long key, double squaredDistance) {
+            if (squaredDistance >= worstDistance()) {
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) return;
+            }
+            if (size < k) {
+                keys[size] = key;
+                distances[size] = squaredDistance;
+                siftUp(size++);
+            } else {
+                keys[0] = key;
+                distances[0] = squaredDistance;
+                siftDown(0);
+            }
+        }
+
+        /** @return The kept points, nearest first. */
+        public List<Neighbor> sorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+            List<Neighbor> result = new ArrayList<>(size);
+            for (int i : order) {
+                result.add(new Neighbor(keys[i], Math.sqrt(distances[i])));
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (distances[parent] >= distances[i]) return;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && distances[left] > distances[largest]) largest = left;
+                if (right < size && distances[right] > distances[largest]) largest = right;
+                if (largest == i) return;
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long key = keys[a];
+            keys[a] = keys[b];
+            keys[b] = key;
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+        }
+    }
+}
@@ -1,78 +1,75 @@
 package balancebite.utils;
 
-import balancebite.errorHandling.DuplicateMealException;
-import balancebite.errorHandling.UserNotFoundException;
 import balancebite.model.meal.Meal;
-import balancebite.model.user.User;
 import balancebite.repository.MealRepository;
-import balancebite.repository.UserRepository;
 import balancebite.service.interfaces.user.IUserMealService;
-import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
+import java.util.*;
 
 @Component
 public class MealAssignmentUtil {
 
     private static final Logger log = LoggerFactory.getLogger(MealAssignmentUtil.class);
 
-    private final UserRepository userRepository;
     private final MealRepository mealRepository;
     private final IUserMealService userMealService;
 
-    public MealAssignmentUtil(UserRepository userRepository,
-                              MealRepository mealRepository,
+    public MealAssignmentUtil(MealRepository mealRepository,
                               IUserMealService userMealService) {
-        this.userRepository = userRepository;
         this.mealRepository = mealRepository;
         this.userMealService = userMealService;
     }
 
+    /**
+     * Returns the user's version of a meal: the meal itself if it is in the user's list,
+     * otherwise the user's copy of it. Creates the copy (or re-links the creator's own meal) when missing.
+     */
     public Meal getOrAddMealToUser(Long userId, Long mealId) {
         if (mealId == null) {
             throw new IllegalArgumentException("Meal ID must not be null.");
         }
+        return getOrAddMealsToUser(userId, List.of(mealId)).get(mealId);
+    }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
-
-        // 1. Check if user already has this meal or a copy
-        Optional<Meal> existingMeal = user.getMeals().stream()
-                .filter(m -> m.getId().equals(mealId) ||
-                        (m.getOriginalMealId() != null && m.getOriginalMealId().equals(mealId)))
-                .findFirst();
-
-        if (existingMeal.isPresent()) {
-            return existingMeal.get();
+    /**
+     * Bulk variant of {@link #getOrAddMealToUser(Long, Long)}.
+     * Resolves every meal the user already has (the meal itself or a copy of it) with a single query,
+     * then creates all missing copies in one batch.
+     *
+     * @param userId  The ID of the user.
+     * @param mealIds The IDs of the meals to resolve.
+     * @return A map from each requested meal ID to the meal in the user's list.
+     */
+    public Map<Long, Meal> getOrAddMealsToUser(Long userId, Collection<Long> mealIds) {
+        Set<Long> ids = new LinkedHashSet<>(mealIds);
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Meal ID must not be null.");
         }
-
-        // 2. Check if user is the creator of the meal
-        Meal meal = mealRepository.findById(mealId)
-                .orElseThrow(() -> new EntityNotFoundException("Meal not found with ID: " + mealId));
-
-        if (meal.getCreatedBy() != null && meal.getCreatedBy().getId().equals(userId)) {
-            log.info("User {} is the creator of meal {}. Re-linking instead of copying.", userId, mealId);
-            user.getMeals().add(meal);
-            userRepository.save(user);
-            return meal;
+        Map<Long, Meal> result = new HashMap<>();
+        if (ids.isEmpty()) {
+            return result;
         }
 
-        // 3. Otherwise, make a copy
-        log.info("Meal with ID {} not found for user {}. Creating a copy...", mealId, userId);
-        try {
-            userMealService.addMealToUser(userId, mealId);
-        } catch (DuplicateMealException e) {
-            log.warn("Meal already exists for user {}. Using existing meal instead.", userId);
+        // 1. Existing meals or copies, one query on (user, meal id / original meal id)
+        for (Meal m : mealRepository.findUserMealsMatching(userId, ids)) {
+            // The meal itself wins over a copy of it
+            if (ids.contains(m.getId())) {
+                result.put(m.getId(), m);
+            }
+            if (m.getOriginalMealId() != null && ids.contains(m.getOriginalMealId())) {
+                result.putIfAbsent(m.getOriginalMealId(), m);
+            }
         }
 
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found after adding meal"))
-                .getMeals().stream()
-                .filter(m -> m.getOriginalMealId() != null && m.getOriginalMealId().equals(mealId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("Meal copy not found after adding for user ID: " + userId));
+        // 2. Missing meals: re-link own meals and copy the others in one batch
+        List<Long> missing = ids.stream().filter(id -> !result.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            log.info("{} of {} meals not found for user {}. Adding them...", missing.size(), ids.size(), userId);
+            result.putAll(userMealService.addMealsToUser(userId, missing));
+        }
+        return result;
     }
 }
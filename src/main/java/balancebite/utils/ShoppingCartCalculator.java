@@ -1,31 +1,199 @@
 package balancebite.utils;
 
-import balancebite.model.MealIngredient;
-import balancebite.model.diet.DietDay;
-import balancebite.model.diet.DietPlan;
-import balancebite.model.foodItem.FoodItem;
-import balancebite.model.meal.Meal;
+import balancebite.dto.diet.ShoppingDemandRowDTO;
+import balancebite.dto.diet.ShoppingListRowDTO;
+import balancebite.model.foodItem.PromotedFoodItem;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
 
+/**
+ * Pack math for shopping lists. Quantity aggregation and promotion lookup are done in SQL
+ * (see {@code DietDayRepository#aggregateShoppingList}); this class only turns an aggregated
+ * row into packs, leftovers and cost.
+ */
 public class ShoppingCartCalculator {
 
-    public static Map<FoodItem, Double> calculateShoppingList(DietPlan dietPlan) {
-        Map<FoodItem, Double> shoppingMap = new HashMap<>();
+    public static Map<String, Object> toShoppingListItem(ShoppingListRowDTO row) {
+        double requiredGramsD = row.requiredGrams() != null ? row.requiredGrams() : 0.0;
+        BigDecimal requiredGrams = BigDecimal.valueOf(requiredGramsD);
 
-        for (DietDay day : dietPlan.getDietDays()) {
-            for (Meal meal : day.getMeals()) {
-                for (MealIngredient ingredient : meal.getMealIngredients()) {
-                    FoodItem item = ingredient.getFoodItem();
-                    double qty = ingredient.getQuantity();
+        // Effective unit price (per package)
+        BigDecimal unitPrice = computeEffectivePrice(row.basePrice(), row.promoPrice(), row.salePercentage());
 
-                    shoppingMap.merge(item, qty, Double::sum);
-                }
+        // Package size in grams (how much you buy per unit)
+        BigDecimal packGrams = row.packGrams();
+
+        Integer packsNeeded = null;
+        BigDecimal totalBoughtGrams = null;
+        BigDecimal leftoverGrams = null;
+        BigDecimal totalCost = null;
+
+        if (packGrams != null && packGrams.compareTo(BigDecimal.ZERO) > 0) {
+            // ceil(required / pack)
+            BigDecimal packs = requiredGrams.divide(packGrams, 0, RoundingMode.UP);
+            packsNeeded = packs.intValue();
+
+            totalBoughtGrams = packGrams.multiply(BigDecimal.valueOf(packsNeeded));
+            leftoverGrams = totalBoughtGrams.subtract(requiredGrams);
+
+            if (unitPrice != null) {
+                totalCost = unitPrice.multiply(BigDecimal.valueOf(packsNeeded))
+                        .setScale(2, RoundingMode.HALF_UP);
             }
         }
+        // If packGrams or unitPrice is missing we leave packsNeeded/totalCost as null
 
-        return shoppingMap;
+        Map<String, Object> item = new HashMap<>();
+        item.put("foodItemId", row.foodItemId());
+        item.put("name", row.name());
+        item.put("source", row.source());
+        item.put("requiredGrams", requiredGramsD);
+        item.put("packGrams", packGrams);               // may be null
+        item.put("packsNeeded", packsNeeded);           // may be null
+        item.put("totalBoughtGrams", totalBoughtGrams); // may be null
+        item.put("leftoverGrams", leftoverGrams);       // may be null
+        item.put("unitPrice", unitPrice);               // effective per-package price (may be null)
+        item.put("totalCost", totalCost);               // may be null
+        item.put("hasPrice", totalCost != null);
+        item.put("promoted", row.promoted());
+        item.put("saleDescription", row.saleDescription());
+        return item;
     }
-}
 
+    /** Same logic as the mappers: promoPrice > salePercentage > base price. */
+    public static BigDecimal computeEffectivePrice(BigDecimal basePrice, BigDecimal promoPrice, Integer salePercentage) {
+        if (promoPrice != null) {
+            return promoPrice.setScale(2, RoundingMode.HALF_UP);
+        }
+        if (basePrice != null && salePercentage != null) {
+            BigDecimal pctLeft = BigDecimal.valueOf(100 - salePercentage);
+            return basePrice.multiply(pctLeft)
+                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        }
+        return basePrice; // no promotion, or percentage without basePrice → fall back to base
+    }
+
+    /**
+     * Plans the purchases of one food item over a date range.
+     *
+     * Demand is walked in date order and leftovers of earlier packs are used first, so the
+     * total number of packs is ceil(total / pack). Each additional pack has to be bought on or
+     * before the date it is first needed; it is bought at the cheapest price available in that
+     * window, which means buying ahead during a promotion when the promotion is cheaper.
+     * Because every pack of an item has the same size and packs are priced independently,
+     * this greedy choice is optimal. The cost is O(number of demand dates).
+     *
+     * @param demands       Demand rows of a single food item (any order). Null dates count as due on {@code shoppingStart}.
+     * @param promo         The promotion of this food item overlapping the range, or null.
+     * @param shoppingStart The first date purchases can be made.
+     * @return A shopping list item with the same keys as {@link #toShoppingListItem}, plus a "purchases" list.
+     */
+    public static Map<String, Object> planPurchases(List<ShoppingDemandRowDTO> demands,
+                                                    PromotedFoodItem promo,
+                                                    LocalDate shoppingStart) {
+        ShoppingDemandRowDTO first = demands.get(0);
+        BigDecimal packGrams = first.packGrams();
+        BigDecimal basePrice = first.basePrice();
+        BigDecimal promoUnitPrice = promo != null
+                ? computeEffectivePrice(basePrice, promo.getPromoPrice(), promo.getSalePercentage())
+                : null;
+
+        List<ShoppingDemandRowDTO> sorted = new ArrayList<>(demands);
+        sorted.sort(Comparator.comparing(d -> dueDate(d, shoppingStart)));
+
+        BigDecimal requiredGrams = BigDecimal.ZERO;
+        int packsBought = 0;
+        BigDecimal totalCost = BigDecimal.ZERO;
+        boolean priceKnown = true;
+        boolean promoted = false;
+
+        // Purchase lines keyed by (date, price), in purchase order
+        Map<String, Map<String, Object>> purchases = new LinkedHashMap<>();
+
+        for (ShoppingDemandRowDTO demand : sorted) {
+            requiredGrams = requiredGrams.add(BigDecimal.valueOf(demand.requiredGrams() != null ? demand.requiredGrams() : 0.0));
+            if (packGrams == null || packGrams.compareTo(BigDecimal.ZERO) <= 0) continue;
+
+            int packsRequired = requiredGrams.divide(packGrams, 0, RoundingMode.UP).intValue();
+            int newPacks = packsRequired - packsBought;
+            if (newPacks <= 0) continue; // covered by leftovers of earlier packs
+
+            LocalDate due = dueDate(demand, shoppingStart);
+            LocalDate buyDate = due;
+            BigDecimal unitPrice = basePrice;
+            boolean onPromo = false;
+
+            if (promoUnitPrice != null && isPromoAvailableBy(promo, shoppingStart, due)
+                    && (basePrice == null || promoUnitPrice.compareTo(basePrice) < 0)) {
+                LocalDate promoStart = promo.getStartDate().toLocalDate();
+                buyDate = promoStart.isAfter(shoppingStart) ? promoStart : shoppingStart;
+                unitPrice = promoUnitPrice;
+                onPromo = true;
+            }
+
+            packsBought = packsRequired;
+            promoted |= onPromo;
+            if (unitPrice == null) {
+                priceKnown = false;
+            } else {
+                totalCost = totalCost.add(unitPrice.multiply(BigDecimal.valueOf(newPacks)));
+            }
+
+            final BigDecimal linePrice = unitPrice;
+            final boolean linePromo = onPromo;
+            final LocalDate lineDate = buyDate;
+            Map<String, Object> line = purchases.computeIfAbsent(lineDate + "|" + linePrice, k -> {
+                Map<String, Object> l = new HashMap<>();
+                l.put("date", lineDate);
+                l.put("packs", 0);
+                l.put("unitPrice", linePrice);
+                l.put("promoted", linePromo);
+                return l;
+            });
+            line.put("packs", (Integer) line.get("packs") + newPacks);
+        }
+
+        Integer packsNeeded = null;
+        BigDecimal totalBoughtGrams = null;
+        BigDecimal leftoverGrams = null;
+        if (packGrams != null && packGrams.compareTo(BigDecimal.ZERO) > 0) {
+            packsNeeded = packsBought;
+            totalBoughtGrams = packGrams.multiply(BigDecimal.valueOf(packsBought));
+            leftoverGrams = totalBoughtGrams.subtract(requiredGrams);
+        }
+        BigDecimal cost = (packsNeeded != null && priceKnown)
+                ? totalCost.setScale(2, RoundingMode.HALF_UP)
+                : null;
+
+        Map<String, Object> item = new HashMap<>();
+        item.put("foodItemId", first.foodItemId());
+        item.put("name", first.name());
+        item.put("source", first.source());
+        item.put("requiredGrams", requiredGrams.doubleValue());
+        item.put("packGrams", packGrams);               // may be null
+        item.put("packsNeeded", packsNeeded);           // may be null
+        item.put("totalBoughtGrams", totalBoughtGrams); // may be null
+        item.put("leftoverGrams", leftoverGrams);       // may be null
+        item.put("unitPrice", basePrice);               // regular per-package price (may be null)
+        item.put("totalCost", cost);                    // may be null
+        item.put("hasPrice", cost != null);
+        item.put("promoted", promoted);
+        item.put("saleDescription", promoted ? promo.getSaleDescription() : null);
+        item.put("purchases", new ArrayList<>(purchases.values()));
+        return item;
+    }
+
+    private static LocalDate dueDate(ShoppingDemandRowDTO demand, LocalDate shoppingStart) {
+        LocalDate date = demand.date();
+        return (date == null || date.isBefore(shoppingStart)) ? shoppingStart : date;
+    }
+
+    /** True if the promotion runs on at least one day between {@code shoppingStart} and {@code due}. */
+    private static boolean isPromoAvailableBy(PromotedFoodItem promo, LocalDate shoppingStart, LocalDate due) {
+        return !promo.getStartDate().toLocalDate().isAfter(due)
+                && !promo.getEndDate().toLocalDate().isBefore(shoppingStart);
+    }
+}
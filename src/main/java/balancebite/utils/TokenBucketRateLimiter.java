@@ -0,0 +1,67 @@
+package balancebite.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe token bucket: permits are refilled at a fixed rate up to {@code burst},
+ * and {@link #acquire()} blocks until a permit is available.
+ */
+public final class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double permitsPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param permitsPerSecond Sustained rate; must be positive.
+     * @param burst            Maximum number of permits that can be taken at once after an idle period.
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1.");
+        }
+        this.capacity = burst;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes one permit, waiting as long as needed.
+     *
+     * @throws InterruptedException when the waiting thread is interrupted.
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / permitsPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Takes one permit if one is available right now.
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,52 @@
+package balancebite.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.Entity;
+import org.hibernate.annotations.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hibernate runs with {@code missing_cache_strategy = fail}: every second-level cache region must be
+ * configured in application.conf, or the application does not start.
+ */
+class CacheRegionConfigTest {
+
+    @Test
+    void everyCacheRegionIsConfigured() throws Exception {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+
+        Set<String> regions = new HashSet<>(Set.of("default-query-results-region", "default-update-timestamps-region"));
+        for (BeanDefinition definition : scanner.findCandidateComponents("balancebite")) {
+            Class<?> entity = Class.forName(definition.getBeanClassName());
+            Cache entityCache = entity.getAnnotation(Cache.class);
+            if (entityCache != null) {
+                regions.add(entityCache.region());
+            }
+            for (Field field : entity.getDeclaredFields()) {
+                Cache collectionCache = field.getAnnotation(Cache.class);
+                if (collectionCache != null) {
+                    regions.add(collectionCache.region());
+                }
+            }
+        }
+        assertTrue(regions.contains("food-items"));
+
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        for (String region : regions) {
+            assertNotNull(cacheManager.getCache(region), "Region not configured in application.conf: " + region);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package balancebite.config;
+
+import jakarta.persistence.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards JDBC insert batching: an IDENTITY id makes Hibernate insert every row on its own.
+ */
+class SequenceIdGenerationTest {
+
+    @Test
+    void everyGeneratedIdUsesPooledTableSequenceThatIsMigrated() throws Exception {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+
+        Set<String> tables = new HashSet<>();
+        List<String> entities = new ArrayList<>();
+        for (BeanDefinition definition : scanner.findCandidateComponents("balancebite")) {
+            Class<?> entity = Class.forName(definition.getBeanClassName());
+            for (Field field : entity.getDeclaredFields()) {
+                GeneratedValue generated = field.getAnnotation(GeneratedValue.class);
+                if (generated == null) continue;
+                entities.add(entity.getSimpleName());
+
+                assertEquals(GenerationType.SEQUENCE, generated.strategy(), entity.getSimpleName());
+                SequenceGenerator sequence = field.getAnnotation(SequenceGenerator.class);
+                assertTrue(sequence != null && sequence.allocationSize() > 1, entity.getSimpleName() + " has no pooled sequence");
+                assertEquals(generated.generator(), sequence.name(), entity.getSimpleName());
+
+                String table = sequence.sequenceName().replaceFirst("_seq$", "");
+                assertTrue(DbFixConfig.SEQUENCE_TABLES.contains(table), table + " is not migrated in DbFixConfig");
+                tables.add(table);
+            }
+        }
+
+        assertFalse(entities.isEmpty());
+        assertEquals(Set.copyOf(DbFixConfig.SEQUENCE_TABLES), tables);
+    }
+}
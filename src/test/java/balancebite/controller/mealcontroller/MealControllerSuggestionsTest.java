@@ -0,0 +1,48 @@
+package balancebite.controller.mealcontroller;
+
+import balancebite.dto.meal.MealNameSuggestionDTO;
+import balancebite.service.meal.MealNameIndex;
+import balancebite.service.meal.MealService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MealControllerSuggestionsTest {
+
+    private final MealService mealService = mock(MealService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new MealController(mealService)).build();
+
+    @Test
+    void returnsRankedSuggestionsWithTheDefaultLimit() throws Exception {
+        when(mealService.getMealNameSuggestions("kip", MealNameIndex.DEFAULT_LIMIT)).thenReturn(List.of(
+                new MealNameSuggestionDTO(3L, "Kipsalade", 12L),
+                new MealNameSuggestionDTO(2L, "Pasta Kip Pesto", 40L)));
+
+        mockMvc.perform(get("/meals/suggestions").param("query", "kip"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].name").value("Kipsalade"))
+                .andExpect(jsonPath("$[1].saveCount").value(40));
+    }
+
+    @Test
+    void passesTheLimitAndReturnsNoContentWithoutMatches() throws Exception {
+        when(mealService.getMealNameSuggestions(anyString(), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/meals/suggestions").param("query", "soep").param("limit", "3"))
+                .andExpect(status().isNoContent());
+
+        verify(mealService).getMealNameSuggestions("soep", 3);
+    }
+}
@@ -0,0 +1,71 @@
+package balancebite.mapper;
+
+import balancebite.dto.diet.DietDayInputDTO;
+import balancebite.model.diet.DietDay;
+import balancebite.model.meal.Meal;
+import org.hibernate.collection.spi.PersistentBag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class DietDayMapperTest {
+
+    private final DietDayMapper mapper = new DietDayMapper(mock(MealMapper.class));
+
+    @Test
+    void leavesThePersistentBagUntouchedForTheSameMeals() {
+        DietDay day = dayWithBag(meal(1L), meal(2L));
+        PersistentBag<Meal> bag = (PersistentBag<Meal>) day.getMeals();
+
+        // Andere instanties van dezelfde maaltijden, zoals na een nieuwe lookup
+        mapper.updateFromInputDTO(day, input(1L, 2L), List.of(meal(1L), meal(2L)), 0);
+
+        assertSame(bag, day.getMeals());
+        assertFalse(bag.isDirty());
+    }
+
+    @Test
+    void updatesTheBagInPlaceForOtherMeals() {
+        DietDay day = dayWithBag(meal(1L), meal(2L));
+        PersistentBag<Meal> bag = (PersistentBag<Meal>) day.getMeals();
+
+        mapper.updateFromInputDTO(day, input(2L, 3L), List.of(meal(2L), meal(3L)), 0);
+
+        assertSame(bag, day.getMeals());
+        assertTrue(bag.isDirty());
+        assertEquals(List.of(2L, 3L), day.getMeals().stream().map(Meal::getId).toList());
+    }
+
+    @Test
+    void comparesMealsByIdAndOrder() {
+        assertTrue(DietDayMapper.sameMeals(List.of(meal(1L), meal(2L)), List.of(meal(1L), meal(2L))));
+        assertFalse(DietDayMapper.sameMeals(List.of(meal(1L), meal(2L)), List.of(meal(2L), meal(1L))));
+        assertFalse(DietDayMapper.sameMeals(List.of(meal(1L)), List.of(meal(1L), meal(1L))));
+        assertFalse(DietDayMapper.sameMeals(List.of(new Meal()), List.of(new Meal())));
+    }
+
+    private static DietDay dayWithBag(Meal... meals) {
+        DietDay day = new DietDay();
+        day.setMeals(new PersistentBag<>(null, new ArrayList<>(List.of(meals))));
+        return day;
+    }
+
+    private static DietDayInputDTO input(Long... mealIds) {
+        return new DietDayInputDTO("Day 1", null, List.of(mealIds), null, null);
+    }
+
+    private static Meal meal(Long id) {
+        Meal meal = new Meal("Meal " + id, "Mapper test meal");
+        ReflectionTestUtils.setField(meal, "id", id);
+        meal.updateNutrients();
+        return meal;
+    }
+}
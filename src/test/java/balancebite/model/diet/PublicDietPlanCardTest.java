@@ -0,0 +1,43 @@
+package balancebite.model.diet;
+
+import balancebite.model.meal.references.Diet;
+import balancebite.specification.PublicDietPlanCardSpecification;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PublicDietPlanCardTest {
+
+    @Test
+    void dietMaskRoundTripsToTheSameDiets() {
+        // Een int-masker heeft plaats voor 31 diëten zonder het tekenbit
+        assertTrue(Diet.values().length < Integer.SIZE);
+
+        for (Set<Diet> diets : Set.of(
+                EnumSet.noneOf(Diet.class),
+                EnumSet.of(Diet.VEGAN),
+                EnumSet.of(Diet.VEGETARIAN, Diet.GLUTEN_FREE, Diet.KOSHER),
+                EnumSet.allOf(Diet.class))) {
+            PublicDietPlanCard card = new PublicDietPlanCard(1L);
+            card.setDietMask(PublicDietPlanCardSpecification.mask(diets));
+
+            assertEquals(diets, card.getDiets());
+        }
+    }
+
+    @Test
+    void everyDietHasItsOwnBit() {
+        int all = 0;
+        for (Diet diet : Diet.values()) {
+            int bit = PublicDietPlanCardSpecification.mask(Set.of(diet));
+            assertEquals(1, Integer.bitCount(bit));
+            assertEquals(0, all & bit);
+            all |= bit;
+        }
+        assertEquals(all, PublicDietPlanCardSpecification.mask(EnumSet.allOf(Diet.class)));
+    }
+}
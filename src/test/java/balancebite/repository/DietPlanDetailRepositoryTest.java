@@ -0,0 +1,68 @@
+package balancebite.repository;
+
+import balancebite.dto.diet.DietPlanDTO;
+import balancebite.mapper.DietPlanMapper;
+import balancebite.model.user.User;
+import balancebite.support.DietPlanFixtures;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class DietPlanDetailRepositoryTest {
+
+    @Autowired private DietPlanRepository dietPlanRepository;
+    @Autowired private MealRepository mealRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private PromotedFoodItemRepository promotedFoodItemRepository;
+    @Autowired private DietPlanMapper dietPlanMapper;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private DietPlanFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new DietPlanFixtures(userRepository, mealRepository, dietPlanRepository,
+                foodItemRepository, promotedFoodItemRepository);
+    }
+
+    @Test
+    void detailStatementCountDoesNotDependOnDaysMealsOrIngredients() {
+        User creator = fixtures.newUser();
+
+        long small = countDetailStatements(fixtures.newPlan(creator, 2, fixtures.newMeals(creator, 2, 2), 3).getId(), 2);
+        long large = countDetailStatements(fixtures.newPlan(creator, 30, fixtures.newMeals(creator, 12, 6), 3).getId(), 30);
+
+        assertEquals(small, large);
+    }
+
+    private long countDetailStatements(Long dietPlanId, int expectedDays) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        DietPlanDTO dto = dietPlanMapper.toDetailDTO(dietPlanRepository.findDetailById(dietPlanId).orElseThrow());
+
+        assertEquals(expectedDays, dto.getDietDays().size());
+        // De ingrediënten, food items en promoties moeten ook echt geladen zijn
+        assertTrue(dto.getDietDays().stream()
+                .flatMap(day -> day.getMeals().stream())
+                .flatMap(meal -> meal.getMealIngredients().stream())
+                .map(ingredient -> ingredient.getFoodItem())
+                .anyMatch(foodItem -> foodItem != null && foodItem.isPromoted()));
+        return stats.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,111 @@
+package balancebite.repository;
+
+import balancebite.model.diet.DietDay;
+import balancebite.model.diet.DietPlan;
+import balancebite.model.diet.DietPlanSchedule;
+import balancebite.model.meal.Meal;
+import balancebite.model.user.User;
+import balancebite.support.DietPlanFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@Transactional
+class DietPlanScheduleRepositoryTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 2);
+
+    @Autowired private DietPlanScheduleRepository scheduleRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private MealRepository mealRepository;
+    @Autowired private DietPlanRepository dietPlanRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private PromotedFoodItemRepository promotedFoodItemRepository;
+    @Autowired private EntityManager entityManager;
+
+    private DietPlanFixtures fixtures;
+    private User owner;
+    private DietPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new DietPlanFixtures(userRepository, mealRepository, dietPlanRepository,
+                foodItemRepository, promotedFoodItemRepository);
+        owner = fixtures.newUser();
+        List<Meal> meals = fixtures.newMeals(owner, 3);
+        plan = fixtures.newPlan(owner, 3, meals, 1);
+    }
+
+    @Test
+    void wholePlanFollowsDaysAddedAfterScheduling() {
+        scheduleRepository.save(new DietPlanSchedule(owner, plan, null, START, START.plusDays(2), null));
+        DietDay added = new DietDay("Day 4", null, plan);
+        added.setDayIndex(3);
+        plan.getDietDays().add(added);
+        dietPlanRepository.save(plan);
+
+        TreeMap<LocalDate, List<String>> calendar = calendar(START.minusDays(1), START.plusDays(6));
+
+        assertEquals(List.of("Day 1", "Day 2", "Day 3", "Day 4"), calendar.values().stream()
+                .map(labels -> labels.get(0)).toList());
+        assertEquals(START.plusDays(3), calendar.lastKey());
+    }
+
+    @Test
+    void repeatsSingleDaysAndWholePlansAndKeepsOverlaps() {
+        // Dag 2 elke 2 dagen, en het hele plan (3 dagen) elke 4 dagen; beide tot en met START + 8
+        scheduleRepository.save(new DietPlanSchedule(owner, plan, 1, START, START.plusDays(8), 2));
+        scheduleRepository.save(new DietPlanSchedule(owner, plan, null, START, START.plusDays(8), 4));
+
+        TreeMap<LocalDate, List<String>> calendar = calendar(START, START.plusDays(9));
+
+        assertEquals(List.of("Day 2", "Day 1"), calendar.get(START));
+        assertEquals(List.of("Day 2"), calendar.get(START.plusDays(1)));
+        assertEquals(List.of("Day 2", "Day 3"), calendar.get(START.plusDays(2)));
+        assertNull(calendar.get(START.plusDays(3)));
+        assertEquals(List.of("Day 2", "Day 1"), calendar.get(START.plusDays(4)));
+        assertEquals(List.of("Day 2", "Day 1"), calendar.get(START.plusDays(8)));
+        assertNull(calendar.get(START.plusDays(9)));
+    }
+
+    @Test
+    void wholePlanRepetitionNeverOverlapsItselfWhenDaysAreAdded() {
+        scheduleRepository.save(new DietPlanSchedule(owner, plan, null, START, START.plusDays(11), 3));
+        DietDay added = new DietDay("Day 4", null, plan);
+        added.setDayIndex(3);
+        plan.getDietDays().add(added);
+        dietPlanRepository.save(plan);
+
+        TreeMap<LocalDate, List<String>> calendar = calendar(START, START.plusDays(11));
+
+        // De herhaling schuift op naar elke 4 dagen in plaats van de volgende ronde over dag 4 te leggen
+        assertEquals(List.of("Day 4"), calendar.get(START.plusDays(3)));
+        assertEquals(List.of("Day 1"), calendar.get(START.plusDays(4)));
+        assertEquals(List.of("Day 1"), calendar.get(START.plusDays(8)));
+    }
+
+    /** Day labels per date in schedule order, one per scheduled day (every fixture day has one meal). */
+    private TreeMap<LocalDate, List<String>> calendar(LocalDate from, LocalDate to) {
+        entityManager.flush();
+        entityManager.clear();
+        TreeMap<LocalDate, List<String>> calendar = new TreeMap<>();
+        for (Object[] row : scheduleRepository.findCalendarRows(owner.getId(), from, to)) {
+            LocalDate date = row[0] instanceof Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) row[0];
+            calendar.computeIfAbsent(date, d -> new ArrayList<>()).add((String) row[5]);
+        }
+        return calendar;
+    }
+}
@@ -0,0 +1,111 @@
+package balancebite.repository;
+
+import balancebite.dto.meal.MealDTO;
+import balancebite.mapper.MealMapper;
+import balancebite.model.MealIngredient;
+import balancebite.model.foodItem.FoodItem;
+import balancebite.model.foodItem.PromotedFoodItem;
+import balancebite.model.meal.Meal;
+import balancebite.specification.MealSpecifications;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class MealRepositoryPriceTest {
+
+    @Autowired private MealRepository mealRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private PromotedFoodItemRepository promotedFoodItemRepository;
+    @Autowired private MealMapper mealMapper;
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void sqlPriceMatchesTheMealDtoPrice() {
+        // 175 g x 1.11 (promoprijs) + 83.5 g x 0.12 (35% korting) + 120 g x 0.26 = 1.94 + 0.10 + 0.31
+        FoodItem promoPrice = foodItem("Kipfilet", "4.99", "300");
+        promote(promoPrice, new BigDecimal("3.33"), null);
+        FoodItem salePercentage = foodItem("Rijst", "1.79", "1000");
+        promote(salePercentage, null, 35);
+        FoodItem plain = foodItem("Broccoli", "1.29", "500");
+
+        Meal meal = meal("Kip met rijst", 3);
+        meal.addMealIngredient(new MealIngredient(meal, promoPrice, 175));
+        meal.addMealIngredient(new MealIngredient(meal, salePercentage, 83.5));
+        meal.addMealIngredient(new MealIngredient(meal, plain, 120));
+        meal = mealRepository.save(meal);
+
+        Meal reloaded = recompute(meal.getId());
+        MealDTO dto = mealMapper.toDTO(reloaded);
+
+        assertEquals(dto.getMealPrice(), reloaded.getPrice());
+        assertEquals(new BigDecimal("2.35"), reloaded.getPrice());
+        assertEquals(new BigDecimal("0.78"), reloaded.getPricePerServing());
+        assertFalse(reloaded.getHasUnknownPrices());
+        assertFalse(dto.isHasUnknownPrices());
+    }
+
+    @Test
+    void ingredientWithoutGramsIsUnknownAndExcludedFromTheMaxPriceFilter() {
+        FoodItem known = foodItem("Pasta", "1.00", "500");
+        FoodItem noGrams = foodItem("Basilicum", "0.99", null);
+
+        Meal meal = meal("Pasta pesto", 1);
+        meal.addMealIngredient(new MealIngredient(meal, known, 250));
+        meal.addMealIngredient(new MealIngredient(meal, noGrams, 10));
+        meal = mealRepository.save(meal);
+
+        Meal reloaded = recompute(meal.getId());
+        MealDTO dto = mealMapper.toDTO(reloaded);
+
+        assertEquals(dto.getMealPrice(), reloaded.getPrice());
+        assertEquals(new BigDecimal("0.50"), reloaded.getPrice());
+        assertTrue(reloaded.getHasUnknownPrices());
+        assertTrue(dto.isHasUnknownPrices());
+
+        Specification<Meal> spec = Specification.<Meal>where((root, query, cb) -> cb.equal(root.get("id"), reloaded.getId()))
+                .and(MealSpecifications.pricePerServingMax(5.0));
+        assertTrue(mealRepository.findAll(spec).isEmpty());
+    }
+
+    private Meal recompute(Long mealId) {
+        entityManager.flush();
+        mealRepository.recomputePrices(new Long[]{mealId}, LocalDateTime.now());
+        entityManager.clear();
+        return mealRepository.findById(mealId).orElseThrow();
+    }
+
+    private Meal meal(String name, int servings) {
+        Meal meal = new Meal(name, "Price fixture");
+        meal.setServings(servings);
+        return meal;
+    }
+
+    private FoodItem foodItem(String name, String price, String grams) {
+        FoodItem item = new FoodItem(name + " " + System.nanoTime(), 0, "100 g", 100);
+        item.setPrice(new BigDecimal(price));
+        item.setGrams(grams != null ? new BigDecimal(grams) : null);
+        return foodItemRepository.save(item);
+    }
+
+    private void promote(FoodItem item, BigDecimal promoPrice, Integer salePercentage) {
+        PromotedFoodItem promotion = new PromotedFoodItem();
+        promotion.setFoodItem(item);
+        promotion.setStartDate(LocalDateTime.now().minusDays(1));
+        promotion.setEndDate(LocalDateTime.now().plusDays(6));
+        promotion.setPromoPrice(promoPrice);
+        promotion.setSalePercentage(salePercentage);
+        promotedFoodItemRepository.save(promotion);
+    }
+}
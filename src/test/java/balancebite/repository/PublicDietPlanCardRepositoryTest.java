@@ -0,0 +1,64 @@
+package balancebite.repository;
+
+import balancebite.model.diet.PublicDietPlanCard;
+import balancebite.model.meal.references.Diet;
+import balancebite.specification.PublicDietPlanCardSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class PublicDietPlanCardRepositoryTest {
+
+    // Negatieve IDs botsen niet met echte plannen; alles wordt teruggedraaid
+    private static final List<Long> IDS = List.of(-1L, -2L, -3L, -4L);
+
+    @Autowired private PublicDietPlanCardRepository cardRepository;
+
+    @BeforeEach
+    void setUp() {
+        cardRepository.saveAllAndFlush(List.of(
+                card(-1L, EnumSet.of(Diet.VEGAN, Diet.GLUTEN_FREE), true, 1800.0),
+                card(-2L, EnumSet.of(Diet.VEGAN), false, 2200.0),
+                card(-3L, EnumSet.of(Diet.KETO, Diet.GLUTEN_FREE), null, 2600.0),
+                card(-4L, EnumSet.noneOf(Diet.class), true, null)));
+    }
+
+    @Test
+    void filtersOnAllNoneOrAnyOfTheDiets() {
+        assertEquals(Set.of(-1L), find(PublicDietPlanCardSpecification.hasAllDiets(Set.of(Diet.VEGAN, Diet.GLUTEN_FREE))));
+        assertEquals(Set.of(-2L, -4L), find(PublicDietPlanCardSpecification.hasNoneOfDiets(Set.of(Diet.GLUTEN_FREE))));
+        assertEquals(Set.of(-1L, -2L, -3L), find(PublicDietPlanCardSpecification.hasAnyDiet(Set.of(Diet.VEGAN, Diet.KETO))));
+    }
+
+    @Test
+    void filtersOnFlagsAndAverages() {
+        assertEquals(Set.of(-1L, -4L), find(PublicDietPlanCardSpecification.flag("flagHighFiber")));
+        assertEquals(Set.of(-1L, -2L), find(PublicDietPlanCardSpecification.between("avgCalories", null, 2200.0)));
+        assertEquals(Set.of(-2L, -3L), find(PublicDietPlanCardSpecification.between("avgCalories", 2000.0, null)));
+    }
+
+    private Set<Long> find(Specification<PublicDietPlanCard> spec) {
+        Specification<PublicDietPlanCard> ours = (root, query, cb) -> root.get("dietPlanId").in(IDS);
+        return Set.copyOf(cardRepository.findAll(ours.and(spec)).stream().map(PublicDietPlanCard::getDietPlanId).toList());
+    }
+
+    private static PublicDietPlanCard card(Long id, Set<Diet> diets, Boolean highFiber, Double avgCalories) {
+        PublicDietPlanCard card = new PublicDietPlanCard(id);
+        card.setName("Card " + id);
+        card.setDietMask(PublicDietPlanCardSpecification.mask(diets));
+        card.setFlagHighFiber(highFiber);
+        card.setAvgCalories(avgCalories);
+        return card;
+    }
+}
@@ -0,0 +1,127 @@
+package balancebite.service;
+
+import balancebite.config.UsdaCacheProperties;
+import balancebite.errorHandling.UsdaApiException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UsdaResponseCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private UsdaResponseCache newCache(Duration ttl, boolean offline) {
+        UsdaCacheProperties properties = new UsdaCacheProperties();
+        properties.setDirectory(cacheDir.toString());
+        properties.setTtl(ttl);
+        properties.setOffline(offline);
+        return new UsdaResponseCache(properties, new ObjectMapper());
+    }
+
+    private static String food(String fdcId) {
+        return "{\"fdcId\":" + fdcId + ",\"description\":\"Food " + fdcId + "\"}";
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamCall() throws Exception {
+        UsdaResponseCache cache = newCache(Duration.ofDays(1), false);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        UsdaResponseCache.BulkFetcher slowFetcher = ids -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Map<String, String> foods = new LinkedHashMap<>();
+            ids.forEach(id -> foods.put(id, food(id)));
+            return foods;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Map<String, String>> bulk = executor.submit(() -> cache.getAll(List.of("1", "2"), slowFetcher));
+            while (calls.get() == 0) Thread.sleep(5);
+            Future<String> single = executor.submit(() -> cache.get("2", (id, etag) -> {
+                calls.incrementAndGet();
+                return new UsdaResponseCache.Upstream(food(id), null);
+            }));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(2, bulk.get(5, TimeUnit.SECONDS).size());
+            assertEquals(food("2"), single.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void staleEntryIsRevalidatedAndServedWhenUpstreamFails() {
+        newCache(Duration.ofDays(1), false).get("7", (id, etag) -> new UsdaResponseCache.Upstream(food(id), "\"v1\""));
+        UsdaResponseCache expired = newCache(Duration.ZERO, false);
+
+        List<String> etags = new ArrayList<>();
+        String revalidated = expired.get("7", (id, etag) -> {
+            etags.add(etag);
+            return new UsdaResponseCache.Upstream(null, etag);
+        });
+        String stale = expired.get("7", (id, etag) -> {
+            throw new UsdaApiException("down");
+        });
+
+        assertEquals(List.of("\"v1\""), etags);
+        assertEquals(food("7"), revalidated);
+        assertEquals(food("7"), stale);
+    }
+
+    @Test
+    void bulkRefreshKeepsTheEtagOfAnUnchangedBody() {
+        newCache(Duration.ofDays(1), false).get("21", (id, etag) -> new UsdaResponseCache.Upstream(food(id), "\"v1\""));
+        newCache(Duration.ofDays(1), false).get("22", (id, etag) -> new UsdaResponseCache.Upstream(food(id), "\"v1\""));
+        UsdaResponseCache expired = newCache(Duration.ZERO, false);
+
+        // 21 is ongewijzigd, 22 heeft een nieuwe body
+        expired.getAll(List.of("21", "22"), ids -> Map.of("21", food("21"), "22", "{\"fdcId\":22}"));
+        List<String> etags = new ArrayList<>();
+        List.of("21", "22").forEach(fdcId -> expired.get(fdcId, (id, etag) -> {
+            etags.add(etag);
+            return new UsdaResponseCache.Upstream(food(id), null);
+        }));
+
+        assertEquals(Arrays.asList("\"v1\"", null), etags);
+    }
+
+    @Test
+    void offlineModeOnlyServesCachedEntries() {
+        newCache(Duration.ofDays(1), false).getAll(List.of("11"), ids -> Map.of("11", food("11")));
+        UsdaResponseCache offline = newCache(Duration.ZERO, true);
+
+        assertEquals(Map.of("11", food("11")), offline.getAll(List.of("11", "12"), ids -> {
+            throw new AssertionError("No upstream call expected");
+        }));
+        assertThrows(UsdaApiException.class, () -> offline.get("12", (id, etag) -> {
+            throw new AssertionError("No upstream call expected");
+        }));
+    }
+}
@@ -0,0 +1,95 @@
+package balancebite.service.diet;
+
+import balancebite.model.diet.DietPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PublicDietPlanCardListenerTest {
+
+    private final PublicDietPlanCardProjector projector = mock(PublicDietPlanCardProjector.class);
+    private final PublicDietPlanCardListener listener;
+
+    @SuppressWarnings("unchecked")
+    PublicDietPlanCardListenerTest() {
+        ObjectProvider<PublicDietPlanCardProjector> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(projector);
+        listener = new PublicDietPlanCardListener(provider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(listener);
+    }
+
+    @Test
+    void refreshesEveryChangedPlanOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onChange(plan(1L));
+        listener.onChange(plan(2L));
+        listener.onChange(plan(1L));
+        verify(projector, never()).refresh(any());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        verify(projector).refresh(Set.of(1L, 2L));
+        assertFalse(TransactionSynchronizationManager.hasResource(listener));
+    }
+
+    @Test
+    void doesNotRefreshAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onChange(plan(1L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(projector, never()).refresh(any());
+        assertFalse(TransactionSynchronizationManager.hasResource(listener));
+    }
+
+    @Test
+    void swallowsAFailedRefreshAfterCommit() {
+        doThrow(new IllegalStateException("database gone")).when(projector).refresh(any());
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onChange(plan(1L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(projector).refresh(Set.of(1L));
+    }
+
+    @Test
+    void refreshesImmediatelyWithoutTransaction() {
+        listener.onChange(plan(4L));
+        listener.onChange(new DietPlan());
+
+        verify(projector).refresh(List.of(4L));
+    }
+
+    private static DietPlan plan(Long id) {
+        DietPlan plan = new DietPlan();
+        ReflectionTestUtils.setField(plan, "id", id);
+        return plan;
+    }
+}
@@ -0,0 +1,87 @@
+package balancebite.service.diet;
+
+import balancebite.model.diet.PublicDietPlanCard;
+import balancebite.model.meal.references.Diet;
+import balancebite.model.user.userenums.Goal;
+import balancebite.repository.DietPlanRepository;
+import balancebite.repository.PublicDietPlanCardRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PublicDietPlanCardProjectorTest {
+
+    private final DietPlanRepository dietPlanRepository = mock(DietPlanRepository.class);
+    private final PublicDietPlanCardRepository cardRepository = mock(PublicDietPlanCardRepository.class);
+    private final PublicDietPlanCardProjector projector = new PublicDietPlanCardProjector(dietPlanRepository, cardRepository);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertsUpdatesAndDeletesCards() {
+        // Plan 1 is nieuw publiek, plan 2 had al een kaart, plan 3 is niet meer publiek
+        PublicDietPlanCard existing = new PublicDietPlanCard(2L);
+        existing.setName("Old name");
+        PublicDietPlanCard stale = new PublicDietPlanCard(3L);
+        when(cardRepository.findAllById(any())).thenReturn(List.of(existing, stale));
+        when(dietPlanRepository.findDietsByPlanIds(any())).thenReturn(List.of(
+                new Object[]{1L, Diet.VEGAN}, new Object[]{1L, Diet.GLUTEN_FREE}, new Object[]{2L, Diet.KETO}));
+        when(dietPlanRepository.findPublicCardSourceRows(any())).thenReturn(List.of(
+                sourceRow(1L, "Green week", 7, 12L),
+                sourceRow(2L, "New name", 3, null)));
+
+        projector.refresh(List.of(1L, 2L, 3L, 1L));
+
+        ArgumentCaptor<Collection<PublicDietPlanCard>> created = ArgumentCaptor.forClass(Collection.class);
+        verify(cardRepository).saveAll(created.capture());
+        PublicDietPlanCard card = created.getValue().iterator().next();
+        assertEquals(1, created.getValue().size());
+        assertEquals(1L, card.getDietPlanId());
+        assertEquals("Green week", card.getName());
+        assertEquals(7, card.getDayCount());
+        assertEquals(Set.of(Diet.VEGAN, Diet.GLUTEN_FREE), card.getDiets());
+        assertEquals(12L, card.getSaveCount());
+        assertNotNull(card.getRefreshedAt());
+
+        assertEquals("New name", existing.getName());
+        assertEquals(Set.of(Diet.KETO), existing.getDiets());
+        assertEquals(0L, existing.getSaveCount());
+        verify(cardRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    @Test
+    void deletesNothingWhenAllPlansStayPublic() {
+        when(cardRepository.findAllById(any())).thenReturn(List.of(new PublicDietPlanCard(1L)));
+        when(dietPlanRepository.findPublicCardSourceRows(any())).thenReturn(List.<Object[]>of(sourceRow(1L, "Plan", 2, 1L)));
+
+        projector.refresh(List.of(1L));
+
+        verify(cardRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void ignoresAnEmptyRefresh() {
+        projector.refresh(List.of());
+
+        verifyNoInteractions(dietPlanRepository, cardRepository);
+    }
+
+    /** Same column order as {@link DietPlanRepository#findPublicCardSourceRows}. */
+    private static Object[] sourceRow(Long id, String name, int days, Long saveCount) {
+        return new Object[]{id, name, null, 5L, "creator", Goal.values()[0], days,
+                2000.0, 120.0, 200.0, 70.0, 2000.0 * days, 120.0 * days, 200.0 * days, 70.0 * days,
+                saveCount, null, null, true, false, null, LocalDateTime.of(2026, 1, 1, 12, 0)};
+    }
+}
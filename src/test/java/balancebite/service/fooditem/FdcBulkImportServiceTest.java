@@ -0,0 +1,69 @@
+package balancebite.service.fooditem;
+
+import balancebite.dto.fooditem.FdcBulkImportResultDTO;
+import balancebite.model.foodItem.FoodItem;
+import balancebite.repository.MealRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FdcBulkImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void streamsFoodsFromBulkFileInBatches() throws Exception {
+        int foods = FdcBulkImportService.BATCH_SIZE + 5;
+        StringBuilder json = new StringBuilder("{\"meta\": {\"version\": [1, 2]}, \"SRLegacyFoods\": [");
+        for (int i = 1; i <= foods; i++) {
+            json.append(i > 1 ? "," : "").append("""
+                {"fdcId": %d, "description": "Food %d", "dataType": "SR Legacy",
+                 "foodNutrients": [{"nutrient": {"id": 1003, "name": "Protein", "unitName": "g"}, "amount": 1.5}],
+                 "foodPortions": [{"amount": 1, "gramWeight": 100, "modifier": "cup"}]}
+                """.formatted(i, i));
+        }
+        json.append(", {\"fdcId\": 0, \"description\": \"\"}]}");
+
+        Path file = tempDir.resolve("foods.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<List<FoodItem>> batches = new ArrayList<>();
+        FoodItemBulkWriter writer = mock(FoodItemBulkWriter.class);
+        when(writer.upsert(anyCollection())).thenAnswer(call -> {
+            List<FoodItem> batch = new ArrayList<>(call.getArgument(0));
+            batches.add(batch);
+            return new FoodItemBulkWriter.Result(batch.size(), List.of());
+        });
+
+        FdcBulkImportService service = new FdcBulkImportService(writer, mock(MealRepository.class),
+                new ObjectMapper(), mock(PlatformTransactionManager.class));
+        FdcBulkImportResultDTO result = service.importFile(file);
+
+        assertEquals(foods + 1, result.read());
+        assertEquals(foods, result.inserted());
+        assertEquals(1, result.invalid());
+        assertEquals(2, batches.size());
+        assertEquals(FdcBulkImportService.BATCH_SIZE, batches.get(0).size());
+        FoodItem first = batches.get(0).get(0);
+        assertEquals(1, first.getFdcId());
+        assertEquals("1.0 cup", first.getPortionDescription());
+        assertEquals(1, first.getNutrients().size());
+    }
+}
@@ -0,0 +1,107 @@
+package balancebite.service.fooditem;
+
+import balancebite.model.NutrientInfo;
+import balancebite.model.foodItem.FoodCategory;
+import balancebite.utils.KdTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class FoodSubstitutionIndexTest {
+
+    private static final FoodSubstitutionIndex.Constraints NONE = new FoodSubstitutionIndex.Constraints(false, false, null);
+
+    private final FoodSubstitutionIndex index = new FoodSubstitutionIndex(
+            mock(JdbcTemplate.class), mock(NutrientDictionary.class), mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void setUp() {
+        index.build(List.of(
+                // kcal, eiwit, koolhydraten, vet, suiker, vezels, verzadigd vet, natrium
+                entry(1, FoodCategory.DAIRY, "4.00", 64, 3.4, 4.7, 3.6, 4.7, 0, 2.3, 44),     // volle melk
+                entry(2, FoodCategory.DAIRY, "2.00", 46, 3.5, 4.8, 1.5, 4.8, 0, 1.0, 44),     // halfvolle melk
+                entry(3, FoodCategory.DAIRY, "1.00", 35, 3.4, 4.9, 0.1, 4.9, 0, 0.1, 44),     // magere melk
+                entry(4, FoodCategory.DAIRY, "0.90", 402, 25, 1.3, 33, 0.5, 0, 21, 621),      // kaas
+                entry(5, FoodCategory.DRINK, "0.30", 45, 0.7, 10.4, 0.2, 8.4, 0.2, 0.1, 1),   // sinaasappelsap
+                entry(6, FoodCategory.DRINK, null, 64, 3.3, 4.7, 3.6, 4.7, 0, 2.3, 45)));     // melk zonder prijs
+    }
+
+    @Test
+    void findsNearestProfilesAcrossCategories() {
+        assertEquals(List.of(6L, 2L, 3L), keys(index.findSubstitutes(1, 3, NONE)));
+    }
+
+    @Test
+    void appliesCategorySaturatedFatAndPriceConstraints() {
+        assertEquals(List.of(2L, 3L), keys(index.findSubstitutes(1, 2,
+                new FoodSubstitutionIndex.Constraints(true, false, null))));
+        assertEquals(List.of(2L, 3L, 5L), keys(index.findSubstitutes(1, 3,
+                new FoodSubstitutionIndex.Constraints(false, true, null))));
+        assertEquals(List.of(3L, 5L, 4L), keys(index.findSubstitutes(1, 3,
+                new FoodSubstitutionIndex.Constraints(false, false, new BigDecimal("1.00")))));
+    }
+
+    @Test
+    void changesAreVisibleBeforeAndAfterThePartitionIsRebuilt() {
+        // Magere melk wordt vette kaas in een andere categorie; halfvolle melk verdwijnt
+        index.apply(List.of(2L, 3L), Map.of(3L, entry(3, FoodCategory.SNACK, "1.00", 402, 25, 1.3, 33, 0.5, 0, 21, 621)));
+
+        assertEquals(List.of(6L, 5L), keys(index.findSubstitutes(1, 2, NONE)));
+        assertEquals(List.of(3L), keys(index.findSubstitutes(4, 1, NONE)));
+        assertEquals(List.of(), keys(index.findSubstitutes(1, 3, new FoodSubstitutionIndex.Constraints(true, true, null))));
+
+        List<FoodSubstitutionIndex.Entry> added = new ArrayList<>();
+        LongStream.range(100, 100 + FoodSubstitutionIndex.OVERLAY_LIMIT)
+                .forEach(id -> added.add(entry(id, FoodCategory.DAIRY, "3.00", 200 + id, 10, 10, 10, 1, 0, 5, 100)));
+        index.apply(added.stream().map(FoodSubstitutionIndex.Entry::id).toList(),
+                added.stream().collect(Collectors.toMap(FoodSubstitutionIndex.Entry::id, e -> e)));
+
+        assertEquals(5 + FoodSubstitutionIndex.OVERLAY_LIMIT, index.size());
+        assertEquals(List.of(100L, 101L), keys(index.findSubstitutes(1, 2, new FoodSubstitutionIndex.Constraints(true, false, null))));
+    }
+
+    @Test
+    void rejectsConstraintsTheItemHasNoDataFor() {
+        index.apply(List.of(7L), Map.of(7L, new FoodSubstitutionIndex.Entry(7, null,
+                FoodSubstitutionIndex.nutrientVector(List.of(new NutrientInfo("Protein", 1.0, "g", 1003L))), null)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> index.findSubstitutes(7, 3, new FoodSubstitutionIndex.Constraints(true, false, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.findSubstitutes(7, 3, new FoodSubstitutionIndex.Constraints(false, true, null)));
+        assertThrows(IllegalStateException.class, () -> index.findSubstitutes(99, 3, NONE));
+    }
+
+    @Test
+    void readsEnergyInKcalOnly() {
+        double[] vector = FoodSubstitutionIndex.nutrientVector(List.of(
+                new NutrientInfo("Energy", 1000.0, "kJ", 1062L),
+                new NutrientInfo("Energy", 239.0, "kcal", 1008L),
+                new NutrientInfo("Carbohydrate, by difference", 12.0, "g", 1005L),
+                new NutrientInfo("Saturated Fat", 1.5, "g", null)));
+
+        assertArrayEquals(new double[]{239, Double.NaN, 12, Double.NaN, Double.NaN, Double.NaN, 1.5, Double.NaN}, vector);
+    }
+
+    private static FoodSubstitutionIndex.Entry entry(long id, FoodCategory category, String pricePer100g, double... nutrients) {
+        return new FoodSubstitutionIndex.Entry(id, category, nutrients,
+                pricePer100g == null ? null : new BigDecimal(pricePer100g));
+    }
+
+    private static List<Long> keys(List<KdTree.Neighbor> neighbors) {
+        return neighbors.stream().map(KdTree.Neighbor::key).toList();
+    }
+}
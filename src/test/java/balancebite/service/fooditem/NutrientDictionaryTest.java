@@ -0,0 +1,81 @@
+package balancebite.service.fooditem;
+
+import balancebite.model.NutrientInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NutrientDictionaryTest {
+
+    private static final Object[][] DEFINITIONS = {
+            {1, "Protein", "g", 1003L},
+            {2, "Energy", "kcal", 1008L},
+            {3, "Unsaturated Fat", "g", null},
+    };
+
+    @Test
+    void encodesAsSlotValuePairsAndDecodesRoundTrip() throws Exception {
+        NutrientDictionary dictionary = new NutrientDictionary(jdbcWithDefinitions());
+        List<NutrientInfo> nutrients = List.of(
+                new NutrientInfo("Energy", 52.0, "kcal", 1008L),
+                new NutrientInfo("Protein", 0.3, "g", 1003L),
+                new NutrientInfo("Unsaturated Fat", null, "g", null));
+
+        String json = dictionary.encode(nutrients);
+
+        assertEquals("[[2,52.0],[1,0.3],[3,null]]", json);
+        assertEquals(nutrients, dictionary.decode(json));
+        // Namen komen uit het woordenboek, niet per item uit de database
+        assertSame(dictionary.decode(json).get(0).getNutrientName(), dictionary.decode(json).get(0).getNutrientName());
+    }
+
+    @Test
+    void decodesJsonbTextAndEmptyValues() throws Exception {
+        NutrientDictionary dictionary = new NutrientDictionary(jdbcWithDefinitions());
+
+        assertEquals(List.of(new NutrientInfo("Protein", 1.5, "g", 1003L)), dictionary.decode("[[1, 1.5]]"));
+        assertEquals(List.of(), dictionary.decode(null));
+        assertEquals(List.of(), dictionary.decode("[]"));
+    }
+
+    @Test
+    void reloadsOnceForUnknownSlot() throws Exception {
+        JdbcTemplate jdbc = jdbcWithDefinitions();
+        NutrientDictionary dictionary = new NutrientDictionary(jdbc);
+
+        assertThrows(IllegalStateException.class, () -> dictionary.decode("[[99, 1.0]]"));
+        verify(jdbc, times(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    private static JdbcTemplate jdbcWithDefinitions() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        doAnswer(call -> {
+            RowCallbackHandler handler = call.getArgument(1);
+            for (Object[] definition : DEFINITIONS) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getInt(1)).thenReturn((Integer) definition[0]);
+                when(rs.getString(2)).thenReturn((String) definition[1]);
+                when(rs.getString(3)).thenReturn((String) definition[2]);
+                when(rs.getLong(4)).thenReturn(definition[3] == null ? 0L : (Long) definition[3]);
+                when(rs.wasNull()).thenReturn(definition[3] == null);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class));
+        return jdbc;
+    }
+}
@@ -0,0 +1,141 @@
+package balancebite.service.fooditem;
+
+import balancebite.dto.fooditem.PriceListImportResultDTO;
+import balancebite.model.foodItem.FoodSource;
+import balancebite.repository.FoodItemRepository;
+import balancebite.repository.UserRepository;
+import balancebite.service.interfaces.fooditem.IPriceListImportService.Format;
+import balancebite.service.meal.MealPriceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceListImportServiceTest {
+
+    private final FoodItemRepository foodItemRepository = mock(FoodItemRepository.class);
+    private final FoodItemBulkWriter bulkWriter = mock(FoodItemBulkWriter.class);
+    private final MealPriceService mealPriceService = mock(MealPriceService.class);
+    private final PriceListImportService service = new PriceListImportService(foodItemRepository,
+            mock(UserRepository.class), bulkWriter, mealPriceService, new ObjectMapper(), mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void setUp() {
+        when(foodItemRepository.findMatchKeysByFoodSource(FoodSource.JUMBO)).thenReturn(List.of(
+                new Object[]{1L, "Halfvolle melk", 1001},
+                new Object[]{2L, "Crème Fraîche (30%)", 0},
+                new Object[]{3L, "Pindakaas", 0},
+                new Object[]{4L, "pindakaas", 0}));
+        // Alles wat wordt aangeboden, verandert ook
+        when(bulkWriter.updatePrices(any())).thenAnswer(call -> call.<Collection<FoodItemBulkWriter.PriceUpdate>>getArgument(0)
+                .stream().map(FoodItemBulkWriter.PriceUpdate::foodItemId).toList());
+        when(mealPriceService.recomputeForFoodItems(any())).thenReturn(4);
+    }
+
+    @Test
+    void matchesCsvRowsOnFdcIdOrNormalizedName() throws IOException {
+        String csv = """
+                fdcId;Naam;Prijs;Gewicht
+                1001;Melk;"1,19";1000
+                ;"creme fraiche 30";€ 2,49;
+                ;Pindakaas;3,10;
+                ;Onbekend;1,00;
+                ;Halfvolle melk;geen;
+                """;
+
+        PriceListImportResultDTO result = importCsv(csv);
+
+        assertEquals(5, result.read());
+        assertEquals(2, result.matched());
+        assertEquals(2, result.updated());
+        assertEquals(2, result.unmatched());
+        assertEquals(1, result.invalid());
+        assertEquals(4, result.mealsRecomputed());
+        assertEquals(List.of("row 3: no unique food item for 'Pindakaas'", "row 4: no unique food item for 'Onbekend'",
+                "row 5: not a number"), result.problems());
+        assertEquals(List.of(
+                new FoodItemBulkWriter.PriceUpdate(1L, new BigDecimal("1.19"), new BigDecimal("1000.00")),
+                new FoodItemBulkWriter.PriceUpdate(2L, new BigDecimal("2.49"), null)), writtenUpdates(1).get(0));
+    }
+
+    @Test
+    void readsJsonAndKeepsTheLastPriceOfARepeatedItem() throws IOException {
+        String json = """
+                [{"fdcId": 1001, "price": 1.25, "extra": true},
+                 {"name": "Halfvolle Melk", "price": "1.15", "grams": 1000},
+                 {"price": 2}]
+                """;
+
+        PriceListImportResultDTO result = service.importPriceList(FoodSource.JUMBO, Format.JSON,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, result.read());
+        assertEquals(2, result.matched());
+        assertEquals(1, result.updated());
+        assertEquals(1, result.invalid());
+        assertEquals(List.of(new FoodItemBulkWriter.PriceUpdate(1L, new BigDecimal("1.15"), new BigDecimal("1000.00"))),
+                writtenUpdates(1).get(0));
+        verify(mealPriceService).recomputeForFoodItems(List.of(1L));
+    }
+
+    @Test
+    void writesInBatchesAndRecomputesMealsOnce() throws IOException {
+        List<Object[]> items = IntStream.rangeClosed(1, PriceListImportService.BATCH_SIZE + 1)
+                .mapToObj(i -> new Object[]{(long) i, "Product " + i, 5000 + i})
+                .toList();
+        when(foodItemRepository.findMatchKeysByFoodSource(FoodSource.LIDL)).thenReturn(items);
+        String csv = "fdc_id,price\n" + IntStream.rangeClosed(1, PriceListImportService.BATCH_SIZE + 1)
+                .mapToObj(i -> (5000 + i) + ",0.99")
+                .collect(Collectors.joining("\r\n"));
+
+        PriceListImportResultDTO result = service.importPriceList(FoodSource.LIDL, Format.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(PriceListImportService.BATCH_SIZE + 1, result.updated());
+        assertEquals(1, writtenUpdates(2).get(1).size());
+        verify(mealPriceService, times(1)).recomputeForFoodItems(any());
+    }
+
+    @Test
+    void rejectsAFileWithoutPriceColumn() {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("fdcId,name\n1001,Melk\n"));
+        verify(bulkWriter, never()).updatePrices(any());
+    }
+
+    @Test
+    void normalizesNamesAndDecimals() {
+        assertEquals("creme fraiche 30", PriceListImportService.normalizeName("  Crème Fraîche (30%)"));
+        assertEquals(new BigDecimal("1299.00"), PriceListImportService.parseDecimal("€ 1.299,00"));
+        assertEquals(new BigDecimal("1299.00"), PriceListImportService.parseDecimal("1,299.00"));
+        assertEquals(new BigDecimal("2.49"), PriceListImportService.parseDecimal("2,49"));
+    }
+
+    private PriceListImportResultDTO importCsv(String csv) throws IOException {
+        return service.importPriceList(FoodSource.JUMBO, Format.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<List<FoodItemBulkWriter.PriceUpdate>> writtenUpdates(int batches) {
+        ArgumentCaptor<Collection<FoodItemBulkWriter.PriceUpdate>> captor = ArgumentCaptor.captor();
+        verify(bulkWriter, times(batches)).updatePrices(captor.capture());
+        return captor.getAllValues().stream().map(List::copyOf).toList();
+    }
+}
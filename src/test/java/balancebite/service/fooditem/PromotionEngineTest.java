@@ -0,0 +1,115 @@
+package balancebite.service.fooditem;
+
+import balancebite.model.foodItem.PromotedFoodItem;
+import balancebite.repository.PromotedFoodItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PromotionEngineTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final PromotedFoodItemRepository repository = mock(PromotedFoodItemRepository.class);
+    private final TaskScheduler scheduler = mock(TaskScheduler.class);
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private final List<PromotionEvent> events = new ArrayList<>();
+    private final List<Instant> scheduled = new ArrayList<>();
+    private PromotionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(call -> events.add(call.getArgument(0))).when(publisher).publishEvent(any(Object.class));
+        when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(call -> {
+            scheduled.add(call.getArgument(1));
+            return mock(ScheduledFuture.class);
+        });
+        when(repository.findWindowsNotEndedAt(any())).thenReturn(List.of(
+                new Object[]{1L, now.minusDays(1), now.plusHours(1)},   // actief, eindigt over een uur
+                new Object[]{2L, now.plusHours(2), now.plusDays(3)},    // begint over twee uur
+                new Object[]{3L, now.plusHours(2), now.plusDays(3)}));
+        engine = new PromotionEngine(repository, scheduler, publisher);
+        engine.start();
+    }
+
+    @Test
+    void schedulesOnlyTheEarliestBoundary() {
+        assertEquals(3, engine.size());
+        assertEquals(now.plusHours(1).plusNanos(1_000), engine.nextBoundary());
+        assertEquals(List.of(now.plusHours(1).plusNanos(1_000).atZone(ZoneId.systemDefault()).toInstant()), scheduled);
+    }
+
+    @Test
+    void firesExpiryAndActivationAtTheirBoundaries() {
+        engine.fire(now.plusHours(1).plusSeconds(1));
+
+        assertEquals(1, events.size());
+        assertEquals(Set.of(), events.get(0).activatedFoodItemIds());
+        assertEquals(Set.of(1L), events.get(0).expiredFoodItemIds());
+        assertEquals(now.plusHours(2), engine.nextBoundary());
+        assertEquals(2, engine.size());
+
+        engine.fire(now.plusHours(2));
+
+        assertEquals(2, events.size());
+        assertEquals(Set.of(2L, 3L), events.get(1).activatedFoodItemIds());
+        assertEquals(now.plusDays(3).plusNanos(1_000), engine.nextBoundary());
+    }
+
+    @Test
+    void firesNothingBeforeTheBoundary() {
+        engine.fire(now.plusMinutes(30));
+
+        assertTrue(events.isEmpty());
+        assertEquals(now.plusHours(1).plusNanos(1_000), engine.nextBoundary());
+    }
+
+    @Test
+    void removedActivePromotionExpiresImmediatelyAndLeavesTheIndex() {
+        when(repository.findByFoodItemId(anyLong())).thenReturn(Optional.empty());
+
+        engine.promotionChanged(1L);
+
+        assertEquals(1, events.size());
+        assertEquals(Set.of(1L), events.get(0).expiredFoodItemIds());
+        assertEquals(now.plusHours(2), engine.nextBoundary());
+    }
+
+    @Test
+    void changedFuturePromotionIsReindexedWithoutEvent() {
+        PromotedFoodItem moved = new PromotedFoodItem();
+        moved.setStartDate(now.plusDays(5));
+        moved.setEndDate(now.plusDays(6));
+        when(repository.findByFoodItemId(2L)).thenReturn(Optional.of(moved));
+        when(repository.findByFoodItemId(3L)).thenReturn(Optional.of(moved));
+        when(repository.findByFoodItemId(1L)).thenReturn(Optional.empty());
+
+        engine.promotionChanged(2L);
+        engine.promotionChanged(3L);
+        assertTrue(events.isEmpty());
+
+        engine.promotionChanged(1L);
+        assertEquals(now.plusDays(5), engine.nextBoundary());
+        engine.fire(now.plusDays(7));
+        assertEquals(Set.of(2L, 3L), events.get(events.size() - 1).expiredFoodItemIds());
+        assertNull(engine.nextBoundary());
+    }
+}
@@ -0,0 +1,194 @@
+package balancebite.service.fooditem;
+
+import balancebite.config.ApiConfig;
+import balancebite.config.UsdaCacheProperties;
+import balancebite.config.UsdaImportProperties;
+import balancebite.dto.fooditem.UsdaImportJobDTO;
+import balancebite.model.foodItem.FoodItem;
+import balancebite.repository.FoodItemRepository;
+import balancebite.service.UsdaApiService;
+import balancebite.service.UsdaResponseCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the import pipeline against a local stub of the FoodData Central "foods" endpoint.
+ */
+class UsdaImportServiceTest {
+
+    private static final int EXISTING_FDC_ID = 1000;
+    private static final int UNKNOWN_FDC_ID = 1001;
+    private static final int CONFLICTING_FDC_ID = 4001;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failuresLeft = new AtomicInteger(1);
+    private final AtomicInteger existenceQueries = new AtomicInteger();
+    private final List<FoodItem> saved = Collections.synchronizedList(new ArrayList<>());
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private UsdaImportService importService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/fdc/v1/foods", exchange -> {
+            requests.incrementAndGet();
+            if (failuresLeft.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+            List<Map<String, Object>> foods = new ArrayList<>();
+            for (JsonNode id : body.get("fdcIds")) {
+                if (id.asInt() != UNKNOWN_FDC_ID) {
+                    foods.add(Map.of("fdcId", id.asInt(), "description", "Food " + id.asText(), "foodNutrients", List.of()));
+                }
+            }
+            byte[] json = objectMapper.writeValueAsBytes(foods);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            exchange.getResponseBody().write(json);
+            exchange.close();
+        });
+        server.start();
+
+        ApiConfig apiConfig = new ApiConfig();
+        ReflectionTestUtils.setField(apiConfig, "usdaApiKey", "test");
+        ReflectionTestUtils.setField(apiConfig, "usdaBaseUrl",
+                "http://localhost:" + server.getAddress().getPort() + "/fdc/v1/");
+        UsdaCacheProperties cacheProperties = new UsdaCacheProperties();
+        cacheProperties.setDirectory(cacheDir.toString());
+        UsdaApiService usdaApiService = new UsdaApiService(apiConfig, new RestTemplate(), new ObjectMapper(),
+                new UsdaResponseCache(cacheProperties, new ObjectMapper()));
+
+        FoodItemRepository foodItemRepository = mock(FoodItemRepository.class);
+        when(foodItemRepository.findExistingFdcIds(any())).thenAnswer(call -> {
+            existenceQueries.incrementAndGet();
+            return Arrays.stream(call.<Integer[]>getArgument(0)).filter(id -> id == EXISTING_FDC_ID).toList();
+        });
+        FoodItemBulkWriter bulkWriter = mock(FoodItemBulkWriter.class);
+        when(bulkWriter.insertNew(anyCollection())).thenAnswer(call -> {
+            Map<Integer, Long> inserted = new LinkedHashMap<>();
+            for (FoodItem item : call.<Collection<FoodItem>>getArgument(0)) {
+                if (item.getFdcId() != CONFLICTING_FDC_ID) {
+                    saved.add(item);
+                    inserted.put(item.getFdcId(), (long) item.getFdcId());
+                }
+            }
+            return inserted;
+        });
+
+        UsdaImportProperties properties = new UsdaImportProperties();
+        properties.setChunkSize(20);
+        properties.setRequestsPerSecond(50);
+        properties.setBurst(2);
+        properties.setInitialBackoffMs(10);
+        properties.setMaxBackoffMs(50);
+
+        executor = Executors.newFixedThreadPool(4);
+        importService = new UsdaImportService(usdaApiService,
+                new KnownFdcIdIndex(foodItemRepository, mock(JdbcTemplate.class)), bulkWriter,
+                mock(PlatformTransactionManager.class), executor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void importsChunksConcurrentlyAndRetriesTransientFailures() throws Exception {
+        List<String> fdcIds = new ArrayList<>();
+        for (int id = EXISTING_FDC_ID; id < EXISTING_FDC_ID + 100; id++) {
+            fdcIds.add(String.valueOf(id));
+        }
+        fdcIds.add(String.valueOf(EXISTING_FDC_ID + 5));
+        fdcIds.add("not-a-number");
+
+        UsdaImportJobDTO started = importService.startImport(fdcIds);
+        UsdaImportJobDTO result = importService.awaitJob(started.jobId()).get(10, TimeUnit.SECONDS);
+
+        assertEquals(UsdaImportJobDTO.Status.COMPLETED, result.status());
+        assertEquals(5, result.chunksTotal());
+        assertEquals(5, result.chunksDone());
+        assertEquals(98, result.savedItems().size());
+        assertEquals(98, saved.size());
+        assertEquals(List.of(String.valueOf(EXISTING_FDC_ID)), result.skippedItems());
+        assertEquals(Set.of("not-a-number", String.valueOf(UNKNOWN_FDC_ID)), new HashSet<>(result.invalidItems()));
+        assertEquals(6, requests.get());
+        assertEquals(5, existenceQueries.get());
+        assertEquals(result, importService.getJob(started.jobId()).orElseThrow());
+    }
+
+    @Test
+    void rateLimitSpacesRequests() throws Exception {
+        failuresLeft.set(0);
+        List<String> fdcIds = new ArrayList<>();
+        for (int id = 2000; id < 2100; id++) {
+            fdcIds.add(String.valueOf(id));
+        }
+
+        long start = System.nanoTime();
+        UsdaImportJobDTO started = importService.startImport(fdcIds);
+        importService.awaitJob(started.jobId()).get(10, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 5 requests with a burst of 2 at 50 per second: the last 3 wait at least 20 ms each
+        assertEquals(5, requests.get());
+        assertTrue(elapsedMs >= 55, "Requests were not rate limited: " + elapsedMs + " ms");
+    }
+
+    @Test
+    void reimportIsServedFromResponseCache() throws Exception {
+        failuresLeft.set(0);
+        List<String> fdcIds = List.of("3001", "3002", "3003");
+
+        importService.awaitJob(importService.startImport(fdcIds).jobId()).get(10, TimeUnit.SECONDS);
+        UsdaImportJobDTO again = importService.awaitJob(importService.startImport(fdcIds).jobId()).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, requests.get());
+        assertEquals(3, again.savedItems().size());
+    }
+
+    @Test
+    void itemsInsertedConcurrentlyElsewhereAreSkipped() throws Exception {
+        failuresLeft.set(0);
+        List<String> fdcIds = List.of("4000", String.valueOf(CONFLICTING_FDC_ID));
+
+        UsdaImportJobDTO result = importService.awaitJob(importService.startImport(fdcIds).jobId()).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, result.savedItems().size());
+        assertEquals(List.of(String.valueOf(CONFLICTING_FDC_ID)), result.skippedItems());
+    }
+}
@@ -0,0 +1,83 @@
+package balancebite.service.meal;
+
+import balancebite.model.meal.Meal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MealNameIndexListenerTest {
+
+    private final MealNameIndex index = mock(MealNameIndex.class);
+    private final MealNameIndexListener listener;
+
+    @SuppressWarnings("unchecked")
+    MealNameIndexListenerTest() {
+        ObjectProvider<MealNameIndex> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(index);
+        listener = new MealNameIndexListener(provider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void appliesRenamesAndDeletesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        Meal renamed = meal(1L);
+        Meal deleted = meal(2L);
+
+        listener.onSave(renamed);
+        listener.onRemove(deleted);
+        verify(index, never()).upsert(any());
+        verify(index, never()).remove(anyLong());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(index).upsert(renamed);
+        verify(index).remove(2L);
+    }
+
+    @Test
+    void ignoresChangesThatAreRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onSave(meal(1L));
+        listener.onRemove(meal(2L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(index, never()).upsert(any());
+        verify(index, never()).remove(anyLong());
+    }
+
+    @Test
+    void appliesChangesImmediatelyWithoutTransaction() {
+        Meal meal = meal(3L);
+
+        listener.onSave(meal);
+        listener.onRemove(meal(4L));
+
+        verify(index).upsert(meal);
+        verify(index).remove(4L);
+    }
+
+    private static Meal meal(Long id) {
+        Meal meal = new Meal();
+        ReflectionTestUtils.setField(meal, "id", id);
+        return meal;
+    }
+}
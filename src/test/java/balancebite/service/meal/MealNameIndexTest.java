@@ -0,0 +1,80 @@
+package balancebite.service.meal;
+
+import balancebite.dto.meal.MealNameSuggestionDTO;
+import balancebite.model.meal.Meal;
+import balancebite.repository.MealRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MealNameIndexTest {
+
+    private final MealRepository mealRepository = mock(MealRepository.class);
+    private final MealNameIndex index = new MealNameIndex(mealRepository);
+
+    MealNameIndexTest() {
+        when(mealRepository.findAllPublicTemplateMealNameSuggestions()).thenReturn(List.of(
+                new MealNameSuggestionDTO(1L, "Kip Curry", 5L),
+                new MealNameSuggestionDTO(2L, "Pasta Kip Pesto", 40L),
+                new MealNameSuggestionDTO(3L, "Kipsalade", 12L),
+                new MealNameSuggestionDTO(4L, "Crème Brûlée", 3L),
+                new MealNameSuggestionDTO(5L, "Pasta Carbonara", 8L)));
+    }
+
+    @Test
+    void matchesWordPrefixesAndRanksFullNamePrefixFirst() {
+        // Kipsalade en Kip Curry beginnen met "kip", Pasta Kip Pesto alleen op een woordgrens
+        assertEquals(List.of(3L, 1L, 2L), ids(index.suggest("kip", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("pes kip", 10)));
+        assertEquals(List.of(4L), ids(index.suggest("CREME bru", 10)));
+        assertTrue(index.suggest("soep", 10).isEmpty());
+        assertTrue(index.suggest(" -- ", 10).isEmpty());
+    }
+
+    @Test
+    void ordersEqualMatchesByPopularityAndKeepsTheTopK() {
+        assertEquals(List.of(2L, 5L), ids(index.suggest("pasta", 10)));
+        assertEquals(List.of(3L), ids(index.suggest("kip", 1)));
+        assertEquals(List.of(2L), ids(index.suggest("pa", 0)));
+    }
+
+    @Test
+    void followsRenamesAndDeletes() {
+        index.suggest("kip", 10);
+
+        index.upsert(meal(1L, "Thaise Curry", 5L));
+        assertEquals(List.of(3L, 2L), ids(index.suggest("kip", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("thai", 10)));
+
+        index.remove(3L);
+        assertEquals(List.of(2L), ids(index.suggest("kip", 10)));
+
+        Meal madePrivate = meal(2L, "Pasta Kip Pesto", 40L);
+        madePrivate.setPrivate(true);
+        index.upsert(madePrivate);
+        assertTrue(index.suggest("kip", 10).isEmpty());
+
+        verify(mealRepository, times(1)).findAllPublicTemplateMealNameSuggestions();
+    }
+
+    private static Meal meal(Long id, String name, Long saveCount) {
+        Meal meal = new Meal();
+        ReflectionTestUtils.setField(meal, "id", id);
+        meal.setName(name);
+        meal.setIsTemplate(true);
+        meal.setSaveCount(saveCount);
+        return meal;
+    }
+
+    private static List<Long> ids(List<MealNameSuggestionDTO> suggestions) {
+        return suggestions.stream().map(MealNameSuggestionDTO::id).toList();
+    }
+}
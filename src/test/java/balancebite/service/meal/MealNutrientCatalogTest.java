@@ -0,0 +1,62 @@
+package balancebite.service.meal;
+
+import balancebite.dto.meal.MealMacroRowDTO;
+import balancebite.repository.MealRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MealNutrientCatalogTest {
+
+    private final MealRepository mealRepository = mock(MealRepository.class);
+    private final MealNutrientCatalog catalog = new MealNutrientCatalog(mealRepository);
+
+    @Test
+    void readsCostsFromThePersistedPricePerServing() {
+        when(mealRepository.findAllPublicTemplateMealMacros()).thenReturn(List.of(
+                new MealMacroRowDTO(1L, 800, 40, 90, 30, 2),
+                new MealMacroRowDTO(2L, 500, 20, 60, 15, null),
+                new MealMacroRowDTO(3L, 300, 10, 40, 10, 1)));
+        when(mealRepository.findAllPublicTemplateMealPrices()).thenReturn(List.of(
+                new Object[]{1L, new BigDecimal("2.35"), false},
+                new Object[]{2L, new BigDecimal("1.10"), true},
+                new Object[]{3L, null, null}));
+
+        MealNutrientCatalog.Snapshot snapshot = catalog.snapshot();
+
+        assertEquals(400, snapshot.macro(0, MealNutrientCatalog.KCAL));
+        assertArrayEquals(new double[]{2.35, Double.NaN, Double.NaN}, snapshot.costs());
+    }
+
+    @Test
+    void reloadsOnlyCostsAfterTheRecomputeCommits() {
+        when(mealRepository.findAllPublicTemplateMealMacros()).thenReturn(List.of(new MealMacroRowDTO(1L, 800, 40, 90, 30, 2)));
+        when(mealRepository.findAllPublicTemplateMealPrices())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, new BigDecimal("2.35"), false}))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, new BigDecimal("1.95"), false}));
+        catalog.snapshot();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalog.invalidateCostsAfterCommit();
+            // Nog niet gecommit: de oude prijzen blijven staan
+            assertEquals(2.35, catalog.snapshot().costs()[0]);
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1.95, catalog.snapshot().costs()[0]);
+        verify(mealRepository, times(1)).findAllPublicTemplateMealMacros();
+        verify(mealRepository, times(2)).findAllPublicTemplateMealPrices();
+    }
+}
@@ -0,0 +1,58 @@
+package balancebite.service.meal;
+
+import balancebite.repository.MealRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MealPriceServiceTest {
+
+    private final MealRepository mealRepository = mock(MealRepository.class);
+    private final MealNutrientCatalog catalog = mock(MealNutrientCatalog.class);
+    private final MealPriceService service = new MealPriceService(mealRepository, catalog);
+
+    @Test
+    void recomputesChangedMealsAndMealsOfChangedFoodItemsOnce() {
+        when(mealRepository.findMealIdsByFoodItemIds(new Long[]{7L})).thenReturn(List.of(2L, 3L));
+        when(mealRepository.recomputePrices(any(), any())).thenAnswer(call -> ((Long[]) call.getArgument(0)).length);
+
+        int updated = service.recomputeChanged(Set.of(1L, 2L), Set.of(7L));
+
+        ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+        verify(mealRepository).recomputePrices(ids.capture(), any());
+        assertEquals(Set.of(1L, 2L, 3L), Set.of(ids.getValue()));
+        assertEquals(3, updated);
+        verify(catalog).invalidateCostsAfterCommit();
+    }
+
+    @Test
+    void doesNothingWithoutChanges() {
+        assertEquals(0, service.recomputeChanged(Set.of(), Set.of()));
+
+        verify(mealRepository, never()).recomputePrices(any(), any());
+        verifyNoInteractions(catalog);
+    }
+
+    @Test
+    void recomputesInChunks() {
+        List<Long> mealIds = LongStream.rangeClosed(1, MealPriceService.CHUNK_SIZE + 1).boxed().toList();
+
+        service.recomputeForMeals(mealIds);
+
+        verify(mealRepository, times(2)).recomputePrices(any(), any());
+        verify(mealRepository).recomputePrices(eq(new Long[]{(long) MealPriceService.CHUNK_SIZE + 1}), any());
+    }
+}
@@ -0,0 +1,159 @@
+package balancebite.service.user;
+
+import balancebite.dto.diet.CalendarDayDTO;
+import balancebite.dto.diet.DietPlanScheduleDTO;
+import balancebite.dto.diet.DietPlanScheduleInputDTO;
+import balancebite.model.diet.DietPlan;
+import balancebite.model.diet.DietPlanSchedule;
+import balancebite.model.user.User;
+import balancebite.repository.DietDayRepository;
+import balancebite.repository.DietPlanRepository;
+import balancebite.repository.DietPlanScheduleRepository;
+import balancebite.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCalendarServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 2);
+
+    private final DietPlanScheduleRepository scheduleRepository = mock(DietPlanScheduleRepository.class);
+    private final DietPlanRepository dietPlanRepository = mock(DietPlanRepository.class);
+    private final DietDayRepository dietDayRepository = mock(DietDayRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserCalendarService service = new UserCalendarService(
+            scheduleRepository, dietPlanRepository, dietDayRepository, userRepository);
+
+    private User owner;
+    private DietPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        owner = withId(new User("owner", "owner@example.com", "secret", new HashSet<>()), 1L);
+        plan = withId(new DietPlan("Week plan", owner), 10L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(dietPlanRepository.findById(10L)).thenReturn(Optional.of(plan));
+        when(dietDayRepository.countByDietId(10L)).thenReturn(5L);
+        when(scheduleRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+    }
+
+    @Test
+    void schedulesAWholePlanOverItsDays() {
+        DietPlanScheduleDTO dto = service.schedule(1L, input(null, null, null));
+
+        assertEquals(START.plusDays(4), dto.endDate());
+    }
+
+    @Test
+    void repeatsUntilTheGivenDate() {
+        DietPlanScheduleDTO dto = service.schedule(1L, input(null, 7, START.plusWeeks(8)));
+
+        assertEquals(START.plusWeeks(8), dto.endDate());
+        assertEquals(7, dto.repeatEveryDays());
+    }
+
+    @Test
+    void rejectsRepetitionsThatOverlapThemselves() {
+        // 5 plandagen passen niet in een interval van 4
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(1L, input(null, 4, START.plusWeeks(2))));
+        // Eén dag mag wel elke dag herhaald worden
+        service.schedule(1L, input(2, 1, START.plusWeeks(2)));
+    }
+
+    @Test
+    void rejectsInvalidRepeatSettings() {
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(1L, input(null, null, START.plusDays(10))));
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(1L, input(null, 7, null)));
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(1L, input(null, 7, START.minusDays(1))));
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(1L, input(null, 7,
+                START.plusYears(UserCalendarService.MAX_REPEAT_YEARS).plusDays(1))));
+        verify(scheduleRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectsMissingDaysAndOtherUsersPlans() {
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(1L, input(5, null, null)));
+
+        when(dietDayRepository.countByDietId(10L)).thenReturn(0L);
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(1L, input(null, null, null)));
+
+        User other = withId(new User("other", "other@example.com", "secret", new HashSet<>()), 2L);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(other));
+        assertThrows(AccessDeniedException.class, () -> service.schedule(2L, input(null, null, null)));
+    }
+
+    @Test
+    void reportsTheCurrentEndOfAWholePlanSchedule() {
+        DietPlanSchedule schedule = new DietPlanSchedule(owner, plan, null, START, START.plusDays(4), null);
+        when(scheduleRepository.findByUserIdWithPlan(1L)).thenReturn(List.of(schedule));
+        // Na het inplannen zijn er twee dagen bijgekomen
+        when(dietDayRepository.countByDietIds(any())).thenReturn(List.<Object[]>of(new Object[]{10L, 7L}));
+
+        assertEquals(START.plusDays(6), service.getSchedules(1L).get(0).endDate());
+    }
+
+    @Test
+    void groupsCalendarRowsIntoEntriesPerDateScheduleAndDay() {
+        when(scheduleRepository.findCalendarRows(1L, START, START.plusDays(2))).thenReturn(List.of(
+                row(START, 100L, 1000L, 1L),
+                row(START, 100L, 1000L, 2L),
+                // Overlappend schema op dezelfde datum
+                row(START, 101L, 1003L, 3L),
+                row(START.plusDays(1), 100L, 1001L, null)));
+
+        List<CalendarDayDTO> days = service.getCalendar(1L, START, START.plusDays(2));
+
+        assertEquals(3, days.size());
+        assertEquals(2, days.get(0).entries().size());
+        assertEquals(List.of(1L, 2L), days.get(0).entries().get(0).meals().stream().map(m -> m.mealId()).toList());
+        assertEquals(List.of(3L), days.get(0).entries().get(1).meals().stream().map(m -> m.mealId()).toList());
+        assertTrue(days.get(1).entries().get(0).meals().isEmpty());
+        assertTrue(days.get(2).entries().isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidCalendarRanges() {
+        assertThrows(IllegalArgumentException.class, () -> service.getCalendar(1L, START, START.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getCalendar(1L, START, START.plusDays(UserCalendarService.MAX_RANGE_DAYS)));
+    }
+
+    private static DietPlanScheduleInputDTO input(Integer dayIndex, Integer repeatEveryDays, LocalDate repeatUntil) {
+        DietPlanScheduleInputDTO input = new DietPlanScheduleInputDTO();
+        input.setDietPlanId(10L);
+        input.setStartDate(START);
+        input.setDayIndex(dayIndex);
+        input.setRepeatEveryDays(repeatEveryDays);
+        input.setRepeatUntil(repeatUntil);
+        return input;
+    }
+
+    /** Same column order as {@link DietPlanScheduleRepository#findCalendarRows}. */
+    private static Object[] row(LocalDate date, Long scheduleId, Long dayId, Long mealId) {
+        return new Object[]{Date.valueOf(date), scheduleId, 10L, "Week plan", dayId, "Day",
+                2000.0, 100.0, 250.0, 70.0,
+                mealId, mealId != null ? "Meal " + mealId : null, 500.0, 25.0, 60.0, 15.0};
+    }
+
+    private static <T> T withId(T entity, Long id) {
+        ReflectionTestUtils.setField(entity, "id", id);
+        return entity;
+    }
+}
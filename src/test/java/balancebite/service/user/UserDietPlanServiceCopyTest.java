@@ -0,0 +1,79 @@
+package balancebite.service.user;
+
+import balancebite.model.diet.DietPlan;
+import balancebite.model.meal.Meal;
+import balancebite.model.user.User;
+import balancebite.repository.DietPlanRepository;
+import balancebite.repository.FoodItemRepository;
+import balancebite.repository.MealRepository;
+import balancebite.repository.PromotedFoodItemRepository;
+import balancebite.repository.UserRepository;
+import balancebite.support.DietPlanFixtures;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class UserDietPlanServiceCopyTest {
+
+    @Autowired private UserDietPlanService userDietPlanService;
+    @Autowired private UserMealService userMealService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private MealRepository mealRepository;
+    @Autowired private DietPlanRepository dietPlanRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private PromotedFoodItemRepository promotedFoodItemRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private DietPlanFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new DietPlanFixtures(userRepository, mealRepository, dietPlanRepository,
+                foodItemRepository, promotedFoodItemRepository);
+    }
+
+    @Test
+    void copyStatementCountDoesNotDependOnPlanSize() {
+        // Eén eigen maaltijd per dag: het oplossen van maaltijden schaalt mee met het plan
+        long small = countCopyStatements(2);
+        long large = countCopyStatements(30);
+
+        assertEquals(small, large);
+    }
+
+    /**
+     * Copies a plan of {@code days} days with {@code days} distinct meals (two ingredients each) for a new user
+     * who already has copies of half of those meals, and counts the statements of the copy.
+     */
+    private long countCopyStatements(int days) {
+        User creator = fixtures.newUser();
+        List<Meal> meals = fixtures.newMeals(creator, days, 2);
+        DietPlan plan = fixtures.newPlan(creator, days, meals, 2);
+        Long userId = fixtures.newUser().getId();
+        userMealService.addMealsToUser(userId, meals.subList(0, days / 2).stream().map(Meal::getId).toList());
+
+        // Alles naar de database en uit de persistence context, zodat de kopie echt leest
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        userDietPlanService.addDietPlanToUser(userId, plan.getId());
+        entityManager.flush();
+
+        return stats.getPrepareStatementCount();
+    }
+}
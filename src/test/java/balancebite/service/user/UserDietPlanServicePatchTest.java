@@ -0,0 +1,178 @@
+package balancebite.service.user;
+
+import balancebite.dto.diet.DietDayInputDTO;
+import balancebite.dto.diet.DietDayPatchOperationDTO;
+import balancebite.dto.diet.DietDayPatchOperationDTO.Op;
+import balancebite.dto.diet.DietPlanInputDTO;
+import balancebite.dto.diet.DietPlanPatchInputDTO;
+import balancebite.errorHandling.DietPlanVersionConflictException;
+import balancebite.model.diet.DietDay;
+import balancebite.model.diet.DietPlan;
+import balancebite.model.meal.Meal;
+import balancebite.model.user.User;
+import balancebite.repository.DietPlanRepository;
+import balancebite.repository.FoodItemRepository;
+import balancebite.repository.MealRepository;
+import balancebite.repository.PromotedFoodItemRepository;
+import balancebite.repository.UserRepository;
+import balancebite.support.DietPlanFixtures;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class UserDietPlanServicePatchTest {
+
+    @Autowired private UserDietPlanService userDietPlanService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private MealRepository mealRepository;
+    @Autowired private DietPlanRepository dietPlanRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private PromotedFoodItemRepository promotedFoodItemRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private DietPlanFixtures fixtures;
+    private DietPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new DietPlanFixtures(userRepository, mealRepository, dietPlanRepository,
+                foodItemRepository, promotedFoodItemRepository);
+    }
+
+    @Test
+    void unchangedDaysWriteNoDietDayMeals() {
+        User owner = fixtures.newUser();
+        List<Meal> meals = fixtures.newMeals(owner, 4);
+        DietPlan plan = fixtures.newPlan(owner, 5, meals, 2);
+        owner.getMeals().addAll(meals);
+        owner.getSavedDietPlans().add(plan);
+        userRepository.save(owner);
+
+        DietPlanInputDTO input = new DietPlanInputDTO();
+        input.setName(plan.getName());
+        input.setDietDays(plan.getDietDays().stream()
+                .map(day -> new DietDayInputDTO(day.getDayLabel(), day.getDate(),
+                        day.getMeals().stream().map(Meal::getId).toList(), day.getDietDayDescription(), null))
+                .toList());
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        userDietPlanService.updateDietPlan(plan.getId(), input, owner.getId());
+        entityManager.flush();
+
+        CollectionStatistics dayMeals = stats.getCollectionStatistics(DietDay.class.getName() + ".meals");
+        assertEquals(0, dayMeals.getRecreateCount());
+        assertEquals(0, dayMeals.getUpdateCount());
+        assertEquals(0, dayMeals.getRemoveCount());
+    }
+
+    @Test
+    void addMealSkipsAMealTheDayAlreadyHas() {
+        List<Meal> meals = ownedPlan();
+
+        patch(plan.getVersion(), add(0, meals.get(0)), add(0, meals.get(3)));
+
+        assertEquals(ids(meals.get(0), meals.get(1), meals.get(3)), mealIdsOfDay(0));
+    }
+
+    @Test
+    void removesAndMovesMeals() {
+        List<Meal> meals = ownedPlan();
+
+        patch(plan.getVersion(),
+                add(2, meals.get(0)),
+                new DietDayPatchOperationDTO(Op.MOVE_MEAL, 2, 0, meals.get(2).getId(), null),
+                new DietDayPatchOperationDTO(Op.REMOVE_MEAL, 0, null, meals.get(1).getId(), null));
+
+        assertEquals(ids(meals.get(0), meals.get(2)), mealIdsOfDay(0));
+        assertEquals(ids(meals.get(1), meals.get(2)), mealIdsOfDay(1));
+        assertEquals(ids(meals.get(3), meals.get(0)), mealIdsOfDay(2));
+    }
+
+    @Test
+    void rejectsMovingAMealToADayThatAlreadyHasIt() {
+        List<Meal> meals = ownedPlan();
+
+        assertThrows(IllegalArgumentException.class, () -> patch(plan.getVersion(),
+                new DietDayPatchOperationDTO(Op.MOVE_MEAL, 0, 1, meals.get(1).getId(), null)));
+    }
+
+    @Test
+    void movesDaysAndRenumbersThem() {
+        ownedPlan();
+
+        patch(plan.getVersion(), new DietDayPatchOperationDTO(Op.MOVE_DAY, 2, 0, null, null));
+
+        List<DietDay> days = reloadedPlan().getDietDays();
+        assertEquals(List.of("Day 3", "Day 1", "Day 2"), days.stream().map(DietDay::getDayLabel).toList());
+        assertEquals(List.of(0, 1, 2), days.stream().map(DietDay::getDayIndex).toList());
+    }
+
+    @Test
+    void rejectsAPatchBasedOnAnOutdatedVersion() {
+        ownedPlan();
+        Long seen = plan.getVersion();
+        patch(seen, new DietDayPatchOperationDTO(Op.SET_LABEL, 0, null, null, "Maandag"));
+
+        assertThrows(DietPlanVersionConflictException.class,
+                () -> patch(seen, new DietDayPatchOperationDTO(Op.SET_LABEL, 1, null, null, "Dinsdag")));
+        assertEquals("Maandag", reloadedPlan().getDietDays().get(0).getDayLabel());
+    }
+
+    /** A 3-day plan of the owner with days {m0, m1}, {m1, m2} and {m2, m3}; returns m0..m3. */
+    private List<Meal> ownedPlan() {
+        User owner = fixtures.newUser();
+        List<Meal> meals = fixtures.newMeals(owner, 4);
+        plan = fixtures.newPlan(owner, 3, meals, 2);
+        owner.getMeals().addAll(meals);
+        owner.getSavedDietPlans().add(plan);
+        userRepository.save(owner);
+        entityManager.flush();
+        entityManager.clear();
+        plan = dietPlanRepository.findById(plan.getId()).orElseThrow();
+        return meals;
+    }
+
+    private void patch(Long version, DietDayPatchOperationDTO... operations) {
+        userDietPlanService.patchDietDays(plan.getCreatedBy().getId(), plan.getId(),
+                new DietPlanPatchInputDTO(version, List.of(operations)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private DietPlan reloadedPlan() {
+        return dietPlanRepository.findById(plan.getId()).orElseThrow();
+    }
+
+    private Set<Long> mealIdsOfDay(int dayIndex) {
+        return reloadedPlan().getDietDays().get(dayIndex).getMeals().stream().map(Meal::getId).collect(Collectors.toSet());
+    }
+
+    private static DietDayPatchOperationDTO add(int dayIndex, Meal meal) {
+        return new DietDayPatchOperationDTO(Op.ADD_MEAL, dayIndex, null, meal.getId(), null);
+    }
+
+    private static Set<Long> ids(Meal... meals) {
+        return Set.of(meals).stream().map(Meal::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,105 @@
+package balancebite.support;
+
+import balancebite.model.MealIngredient;
+import balancebite.model.diet.DietDay;
+import balancebite.model.diet.DietPlan;
+import balancebite.model.foodItem.FoodItem;
+import balancebite.model.foodItem.PromotedFoodItem;
+import balancebite.model.meal.Meal;
+import balancebite.model.user.User;
+import balancebite.repository.DietPlanRepository;
+import balancebite.repository.FoodItemRepository;
+import balancebite.repository.MealRepository;
+import balancebite.repository.PromotedFoodItemRepository;
+import balancebite.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds users, meals and diet plans for the database-backed tests.
+ * The tests using it are {@code @Transactional}, so everything it saves is rolled back afterwards.
+ */
+public class DietPlanFixtures {
+
+    private final UserRepository userRepository;
+    private final MealRepository mealRepository;
+    private final DietPlanRepository dietPlanRepository;
+    private final FoodItemRepository foodItemRepository;
+    private final PromotedFoodItemRepository promotedFoodItemRepository;
+
+    public DietPlanFixtures(UserRepository userRepository,
+                            MealRepository mealRepository,
+                            DietPlanRepository dietPlanRepository,
+                            FoodItemRepository foodItemRepository,
+                            PromotedFoodItemRepository promotedFoodItemRepository) {
+        this.userRepository = userRepository;
+        this.mealRepository = mealRepository;
+        this.dietPlanRepository = dietPlanRepository;
+        this.foodItemRepository = foodItemRepository;
+        this.promotedFoodItemRepository = promotedFoodItemRepository;
+    }
+
+    public User newUser() {
+        String name = "fixture-" + UUID.randomUUID();
+        return userRepository.save(new User(name, name + "@example.com", "secret", new HashSet<>()));
+    }
+
+    /** Meals without ingredients. */
+    public List<Meal> newMeals(User creator, int count) {
+        return newMeals(creator, count, 0);
+    }
+
+    /**
+     * Meals with {@code ingredientsPerMeal} ingredients each, every one on its own priced food item;
+     * every other food item is on promotion.
+     */
+    public List<Meal> newMeals(User creator, int count, int ingredientsPerMeal) {
+        List<Meal> meals = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Meal meal = new Meal("Meal " + i, "Fixture meal");
+            meal.setCreatedBy(creator);
+            for (int j = 1; j <= ingredientsPerMeal; j++) {
+                meal.addMealIngredient(new MealIngredient(meal, newFoodItem("Item " + i + "." + j, j % 2 == 0), 100));
+            }
+            meals.add(mealRepository.save(meal));
+        }
+        return meals;
+    }
+
+    /** Every day gets {@code mealsPerDay} meals, rotating through the given meals so most meals appear on several days. */
+    public DietPlan newPlan(User creator, int days, List<Meal> meals, int mealsPerDay) {
+        DietPlan plan = new DietPlan("Plan of " + days + " days", creator);
+        for (int i = 0; i < days; i++) {
+            DietDay day = new DietDay("Day " + (i + 1), null, plan);
+            day.setDayIndex(i);
+            List<Meal> dayMeals = new ArrayList<>();
+            for (int m = 0; m < mealsPerDay; m++) {
+                dayMeals.add(meals.get((i + m) % meals.size()));
+            }
+            day.setMeals(dayMeals);
+            plan.getDietDays().add(day);
+        }
+        return dietPlanRepository.save(plan);
+    }
+
+    private FoodItem newFoodItem(String name, boolean promoted) {
+        FoodItem item = new FoodItem(name, 0, "100 g", 100);
+        item.setPrice(new BigDecimal("2.50"));
+        item.setGrams(new BigDecimal("500"));
+        item = foodItemRepository.save(item);
+        if (promoted) {
+            PromotedFoodItem promotion = new PromotedFoodItem();
+            promotion.setFoodItem(item);
+            promotion.setStartDate(LocalDateTime.now().minusDays(1));
+            promotion.setEndDate(LocalDateTime.now().plusDays(6));
+            promotion.setSalePercentage(25);
+            promotedFoodItemRepository.save(promotion);
+        }
+        return item;
+    }
+}
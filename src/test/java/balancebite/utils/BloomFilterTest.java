@@ -0,0 +1,59 @@
+package balancebite.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int KEYS = 100_000;
+    private static final double RATE = 0.01;
+
+    @Test
+    void neverMissesAnAddedKey() {
+        BloomFilter filter = new BloomFilter(KEYS, RATE);
+        // Opeenvolgende ids, zoals FDC IDs in een bulkimport
+        for (long key = 300_000; key < 300_000 + KEYS; key++) {
+            filter.add(key);
+        }
+
+        for (long key = 300_000; key < 300_000 + KEYS; key++) {
+            assertTrue(filter.mightContain(key), "added key " + key + " reported as absent");
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(KEYS, RATE);
+        for (long key = 0; key < KEYS; key++) {
+            filter.add(key * 2);
+        }
+
+        // Alleen oneven sleutels zijn nooit toegevoegd
+        long falsePositives = IntStream.range(0, KEYS).filter(i -> filter.mightContain(i * 2L + 1)).count();
+
+        assertTrue(falsePositives < KEYS * RATE * 1.5, "false-positive rate too high: " + falsePositives + " of " + KEYS);
+    }
+
+    @Test
+    void reportsKeysOfAnEmptyFilterAsAbsent() {
+        BloomFilter filter = new BloomFilter(10, RATE);
+
+        assertFalse(filter.mightContain(42));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, RATE));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+    }
+
+    @Test
+    void staysCorrectUnderConcurrentAdds() {
+        BloomFilter filter = new BloomFilter(KEYS, RATE);
+
+        IntStream.range(0, KEYS).parallel().forEach(filter::add);
+
+        assertTrue(IntStream.range(0, KEYS).allMatch(filter::mightContain));
+    }
+}
@@ -0,0 +1,117 @@
+package balancebite.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DietPlanBeamSearchTest {
+
+    private static final int MEALS = 10_000;
+
+    @Test
+    void generatesWeekFromLargeCatalogWithinBudgetAndConstraints() {
+        Random random = new Random(42);
+        double[] macros = new double[MEALS * 4];
+        for (int i = 0; i < MEALS; i++) {
+            double protein = 5 + random.nextDouble() * 45;
+            double carbs = 5 + random.nextDouble() * 90;
+            double fat = 2 + random.nextDouble() * 35;
+            macros[i * 4] = protein * 4 + carbs * 4 + fat * 9;
+            macros[i * 4 + 1] = protein;
+            macros[i * 4 + 2] = carbs;
+            macros[i * 4 + 3] = fat;
+        }
+        int[] candidates = new int[MEALS];
+        for (int i = 0; i < MEALS; i++) candidates[i] = i;
+        double[] target = {2200, 130, 250, 75};
+
+        DietPlanBeamSearch.Result result = DietPlanBeamSearch.search(macros, candidates, target,
+                new DietPlanBeamSearch.Params(7, 4, 2, 12));
+
+        assertTrue(result.elapsedNanos() < 1_000_000_000L, "solver took " + result.elapsedNanos() / 1_000_000 + " ms");
+        assertEquals(7, result.mealIndices().length);
+
+        Map<Integer, Integer> uses = new HashMap<>();
+        Set<Integer> previousDay = Set.of();
+        for (int[] day : result.mealIndices()) {
+            assertEquals(4, day.length);
+            Set<Integer> meals = new HashSet<>();
+            double kcal = 0;
+            for (int meal : day) {
+                assertTrue(meals.add(meal), "meal repeated within a day");
+                assertFalse(previousDay.contains(meal), "meal repeated on consecutive days");
+                uses.merge(meal, 1, Integer::sum);
+                kcal += macros[meal * 4];
+            }
+            assertEquals(target[0], kcal, target[0] * 0.05);
+            previousDay = meals;
+        }
+        assertTrue(uses.values().stream().allMatch(count -> count <= 2));
+    }
+
+    @Test
+    void rejectsWhenTooFewMealsToFillADay() {
+        double[] macros = {500, 20, 60, 15, 600, 30, 50, 20};
+        assertThrows(IllegalArgumentException.class, () -> DietPlanBeamSearch.search(macros, new int[]{0, 1},
+                new double[]{2000, 100, 250, 70}, new DietPlanBeamSearch.Params(1, 3, 1, 4)));
+    }
+
+    @Test
+    void staysWithinBudgetWhenCheapMealsAreAvailable() {
+        // Meal i and i + 100 have the same macros; the second one is four times as expensive
+        Random random = new Random(7);
+        double[] macros = new double[200 * 4];
+        double[] costs = new double[200];
+        for (int i = 0; i < 100; i++) {
+            double protein = 10 + random.nextDouble() * 30;
+            double carbs = 20 + random.nextDouble() * 60;
+            double fat = 5 + random.nextDouble() * 20;
+            for (int copy : new int[]{i, i + 100}) {
+                macros[copy * 4] = protein * 4 + carbs * 4 + fat * 9;
+                macros[copy * 4 + 1] = protein;
+                macros[copy * 4 + 2] = carbs;
+                macros[copy * 4 + 3] = fat;
+            }
+            costs[i] = 2.0;
+            costs[i + 100] = 8.0;
+        }
+        int[] candidates = new int[200];
+        for (int i = 0; i < 200; i++) candidates[i] = i;
+
+        DietPlanBeamSearch.Result result = DietPlanBeamSearch.search(macros, costs, candidates,
+                new double[]{2000, 100, 250, 70}, new DietPlanBeamSearch.Params(7, 4, 2, 8, 7 * 4 * 2.5, 0));
+
+        assertTrue(result.totalCost() <= 7 * 4 * 2.5, "cost " + result.totalCost());
+    }
+
+    @Test
+    void fallsBackToGreedyWhenTimeLimitIsReached() {
+        double[] macros = new double[50 * 4];
+        int[] candidates = new int[50];
+        for (int i = 0; i < 50; i++) {
+            macros[i * 4] = 300 + i * 10;
+            macros[i * 4 + 1] = 20;
+            macros[i * 4 + 2] = 40;
+            macros[i * 4 + 3] = 10;
+            candidates[i] = i;
+        }
+
+        DietPlanBeamSearch.Result result = DietPlanBeamSearch.search(macros, null, candidates,
+                new double[]{2000, 100, 250, 70}, new DietPlanBeamSearch.Params(7, 4, 2, 8, 0, 1));
+
+        assertTrue(result.timeLimited());
+        assertEquals(7, result.mealIndices().length);
+        for (int[] day : result.mealIndices()) {
+            assertEquals(4, day.length);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package balancebite.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KdTreeTest {
+
+    private static final int POINTS = 20_000;
+    private static final int DIMENSIONS = 8;
+
+    @Test
+    void findsTheSameNeighborsAsABruteForceScan() {
+        Random random = new Random(7);
+        double[][] points = randomPoints(random);
+        long[] keys = IntStream.range(0, POINTS).mapToLong(i -> i + 1000L).toArray();
+        KdTree tree = new KdTree(keys, points);
+
+        for (int q = 0; q < 50; q++) {
+            double[] target = randomPoint(random);
+            // Alleen even sleutels: het filter mag de uitkomst niet van de brute kracht laten afwijken
+            KdTree.Neighbors neighbors = new KdTree.Neighbors(10);
+            tree.search(target, neighbors, key -> key % 2 == 0);
+
+            List<Long> expected = IntStream.range(0, POINTS)
+                    .filter(i -> keys[i] % 2 == 0)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(i -> squaredDistance(points[i], target)))
+                    .limit(10)
+                    .map(i -> keys[i])
+                    .toList();
+            assertEquals(expected, neighbors.sorted().stream().map(KdTree.Neighbor::key).toList());
+        }
+    }
+
+    @Test
+    void answersQueriesWellUnderAMillisecond() {
+        Random random = new Random(11);
+        KdTree tree = new KdTree(IntStream.range(0, POINTS).asLongStream().toArray(), randomPoints(random));
+        double[][] targets = IntStream.range(0, 2_000).mapToObj(i -> randomPoint(random)).toArray(double[][]::new);
+
+        for (double[] target : targets) {
+            tree.search(target, new KdTree.Neighbors(10), key -> true);
+        }
+        long start = System.nanoTime();
+        for (double[] target : targets) {
+            tree.search(target, new KdTree.Neighbors(10), key -> true);
+        }
+        long perQuery = (System.nanoTime() - start) / targets.length;
+        assertTrue(perQuery < 1_000_000, "query took " + perQuery + " ns");
+    }
+
+    @Test
+    void searchesSeveralTreesIntoOneResult() {
+        KdTree near = new KdTree(new long[]{1, 2}, new double[][]{{0, 0}, {5, 5}});
+        KdTree far = new KdTree(new long[]{3, 4}, new double[][]{{1, 0}, {9, 9}});
+        KdTree.Neighbors neighbors = new KdTree.Neighbors(2);
+
+        near.search(new double[]{0.2, 0}, neighbors, key -> true);
+        far.search(new double[]{0.2, 0}, neighbors, key -> true);
+
+        assertEquals(List.of(1L, 3L), neighbors.sorted().stream().map(KdTree.Neighbor::key).toList());
+        assertEquals(0.2, neighbors.sorted().get(0).distance(), 1e-9);
+    }
+
+    private static double[][] randomPoints(Random random) {
+        return IntStream.range(0, POINTS).mapToObj(i -> randomPoint(random)).toArray(double[][]::new);
+    }
+
+    private static double[] randomPoint(Random random) {
+        double[] point = new double[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            // Veel gelijke waarden, zoals nullen bij ontbrekende nutriënten
+            point[d] = random.nextInt(4) == 0 ? 0 : random.nextGaussian();
+        }
+        return point;
+    }
+
+    private static double squaredDistance(double[] a, double[] b) {
+        double sum = 0;
+        for (int d = 0; d < a.length; d++) sum += (a[d] - b[d]) * (a[d] - b[d]);
+        return sum;
+    }
+}
@@ -0,0 +1,106 @@
+package balancebite.utils;
+
+import balancebite.dto.diet.ShoppingDemandRowDTO;
+import balancebite.model.foodItem.PromotedFoodItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShoppingCartCalculatorTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void usesLeftoversOfEarlierPacksOnLaterDates() {
+        // Bewust niet op datum gesorteerd
+        Map<String, Object> item = ShoppingCartCalculator.planPurchases(List.of(
+                demand("2.00", "500", START.plusDays(4), 100.0),
+                demand("2.00", "500", START, 300.0),
+                demand("2.00", "500", START.plusDays(2), 150.0)), null, START);
+
+        assertEquals(2, item.get("packsNeeded"));
+        assertEquals(550.0, item.get("requiredGrams"));
+        assertEquals(0, new BigDecimal("450").compareTo((BigDecimal) item.get("leftoverGrams")));
+        assertEquals(new BigDecimal("4.00"), item.get("totalCost"));
+        assertEquals(List.of(line(START, 1, "2.00", false), line(START.plusDays(4), 1, "2.00", false)),
+                item.get("purchases"));
+    }
+
+    @Test
+    void roundsUpToWholePacksDueOnTheFirstShoppingDay() {
+        Map<String, Object> item = ShoppingCartCalculator.planPurchases(List.of(
+                demand("1.25", "400", null, 401.0),
+                demand("1.25", "400", START.minusDays(3), 399.0)), null, START);
+
+        assertEquals(2, item.get("packsNeeded"));
+        assertEquals(0, new BigDecimal("800").compareTo((BigDecimal) item.get("totalBoughtGrams")));
+        assertEquals(new BigDecimal("2.50"), item.get("totalCost"));
+        assertEquals(List.of(line(START, 2, "1.25", false)), item.get("purchases"));
+    }
+
+    @Test
+    void buysAheadDuringACheaperPromotion() {
+        PromotedFoodItem promo = new PromotedFoodItem();
+        promo.setStartDate(START.plusDays(1).atStartOfDay());
+        promo.setEndDate(START.plusDays(2).atTime(23, 59));
+        promo.setSalePercentage(25);
+        promo.setSaleDescription("25% korting");
+
+        Map<String, Object> item = ShoppingCartCalculator.planPurchases(List.of(
+                demand("2.00", "500", START, 500.0),
+                demand("2.00", "500", START.plusDays(6), 500.0)), promo, START);
+
+        assertEquals(List.of(line(START, 1, "2.00", false), line(START.plusDays(1), 1, "1.50", true)),
+                item.get("purchases"));
+        assertEquals(new BigDecimal("3.50"), item.get("totalCost"));
+        assertEquals(true, item.get("promoted"));
+        assertEquals("25% korting", item.get("saleDescription"));
+    }
+
+    @Test
+    void leavesPacksAndCostOpenWithoutGramsOrPrice() {
+        Map<String, Object> noGrams = ShoppingCartCalculator.planPurchases(List.of(
+                demand("2.00", null, START, 250.0),
+                demand("2.00", null, START.plusDays(1), 100.0)), null, START);
+
+        assertEquals(350.0, noGrams.get("requiredGrams"));
+        assertNull(noGrams.get("packsNeeded"));
+        assertNull(noGrams.get("leftoverGrams"));
+        assertNull(noGrams.get("totalCost"));
+        assertFalse((Boolean) noGrams.get("hasPrice"));
+        assertTrue(((List<?>) noGrams.get("purchases")).isEmpty());
+
+        Map<String, Object> noPrice = ShoppingCartCalculator.planPurchases(List.of(
+                demand(null, "500", START, 600.0)), null, START);
+
+        assertEquals(2, noPrice.get("packsNeeded"));
+        assertNull(noPrice.get("totalCost"));
+        assertFalse((Boolean) noPrice.get("hasPrice"));
+        assertEquals(List.of(line(START, 2, null, false)), noPrice.get("purchases"));
+    }
+
+    private static ShoppingDemandRowDTO demand(String price, String packGrams, LocalDate date, Double grams) {
+        return new ShoppingDemandRowDTO(1L, "Havermout", "Jumbo",
+                price != null ? new BigDecimal(price) : null,
+                packGrams != null ? new BigDecimal(packGrams) : null,
+                date, grams);
+    }
+
+    private static Map<String, Object> line(LocalDate date, int packs, String unitPrice, boolean promoted) {
+        Map<String, Object> line = new HashMap<>();
+        line.put("date", date);
+        line.put("packs", packs);
+        line.put("unitPrice", unitPrice != null ? new BigDecimal(unitPrice) : null);
+        line.put("promoted", promoted);
+        return line;
+    }
+}